@@ -0,0 +1,44 @@
+package org.mule.extension.parquet.benchmarks;
+
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A generated parquet file, written once per trial to a temp directory.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkFile {
+
+    @Param({"NARROW_FLAT", "WIDE_FLAT", "NESTED"})
+    public ParquetFiles.Shape shape;
+
+    @Param({"SNAPPY", "ZSTD"})
+    public CompressionCodecName codec;
+
+    @Param({"100000"})
+    public int rows;
+
+    Path path;
+    long length;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        path = Files.createTempFile("parquet-bench-" + shape + "-" + codec + "-", ".parquet");
+        ParquetFiles.write(path, shape, codec, rows);
+        length = Files.size(path);
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+}
@@ -0,0 +1,36 @@
+package org.mule.extension.parquet.benchmarks;
+
+import org.mule.extension.parquet.internal.ParquetBufferedReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds a {@link ParquetBufferedReader} over a plain, non repeatable stream, which spills the payload
+ * before the first record can be read.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BufferedReaderBenchmark {
+
+    @Benchmark
+    public long construct(BenchmarkFile file, Throughput throughput) throws IOException {
+        try (InputStream body = Files.newInputStream(file.path);
+             ParquetBufferedReader reader = new ParquetBufferedReader(null, body)) {
+            throughput.add(0, file.length);
+            return reader.getLength();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.mule.extension.parquet.benchmarks;
+
+import org.mule.extension.parquet.internal.int96.ParquetTimestampUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts INT96 byte arrays embedded in JSON records with {@link ParquetTimestampUtils}, one record per
+ * operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ConversionBenchmark {
+    private static final int RECORDS = 1024;
+
+    @Param({"1", "4"})
+    public int int96Columns;
+
+    private String[] records;
+    private byte[][] int96Values;
+    private final StringBuilder out = new StringBuilder(256);
+    private int next;
+
+    @Setup
+    public void prepare() {
+        Random random = new Random(42);
+        records = new String[RECORDS];
+        int96Values = new byte[RECORDS][];
+        for (int i = 0; i < RECORDS; i++) {
+            StringBuilder record = new StringBuilder("{\"id\": ").append(i).append(", \"name\": \"customer-").append(i).append('"');
+            for (int c = 0; c < int96Columns; c++) {
+                byte[] bytes = int96(1_767_225_600_000L + random.nextInt(Integer.MAX_VALUE));
+                record.append(", \"ts").append(c).append("\": [");
+                for (int b = 0; b < bytes.length; b++) {
+                    record.append(b > 0 ? ", " : "").append(bytes[b]);
+                }
+                record.append(']');
+                int96Values[i] = bytes;
+            }
+            records[i] = record.append('}').toString();
+        }
+    }
+
+    @Benchmark
+    public String convertInt96() {
+        return ParquetTimestampUtils.convertInt96(records[next++ & (RECORDS - 1)]);
+    }
+
+    @Benchmark
+    public int appendInt96() {
+        out.setLength(0);
+        ParquetTimestampUtils.appendInt96(int96Values[next++ & (RECORDS - 1)], out);
+        return out.length();
+    }
+
+    private static byte[] int96(long epochMillis) {
+        long nanosOfDay = Math.floorMod(epochMillis, 86_400_000L) * 1_000_000L;
+        int julianDay = (int) (Math.floorDiv(epochMillis, 86_400_000L) + 2_440_588);
+        byte[] bytes = new byte[12];
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (nanosOfDay >>> (8 * i));
+        }
+        for (int i = 0; i < 4; i++) {
+            bytes[8 + i] = (byte) (julianDay >>> (8 * i));
+        }
+        return bytes;
+    }
+}
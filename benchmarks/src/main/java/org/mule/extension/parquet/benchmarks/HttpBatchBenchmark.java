@@ -0,0 +1,87 @@
+package org.mule.extension.parquet.benchmarks;
+
+import org.mule.extension.parquet.api.BatchSendResult;
+import org.mule.extension.parquet.api.PayloadCompression;
+import org.mule.extension.parquet.api.PayloadFormat;
+import org.mule.extension.parquet.internal.ParquetConfiguration;
+import org.mule.extension.parquet.internal.ParquetConnection;
+import org.mule.extension.parquet.internal.ParquetOperations;
+import org.mule.extension.parquet.internal.ReadOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@code Batch by Batch - Stream} over a generated file against a local stub endpoint, covering
+ * batch assembly, encoding and the asynchronous sends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class HttpBatchBenchmark {
+
+    @Param({"1000"})
+    public long fetchSize;
+
+    @Param({"1", "4"})
+    public int maxInFlight;
+
+    @Param({"JSON", "AVRO"})
+    public PayloadFormat payloadFormat;
+
+    @Param({"NONE", "GZIP"})
+    public PayloadCompression payloadCompression;
+
+    private final ParquetOperations operations = MuleStubs.operations();
+    private MuleStubs.StubEndpoint endpoint;
+    private ParquetConnection connection;
+    private ParquetConfiguration config;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        endpoint = new MuleStubs.StubEndpoint();
+        connection = MuleStubs.connection();
+        config = new ParquetConfiguration();
+        config.setTargetUrl(endpoint.url());
+        config.setTimeout(30_000);
+        config.setPayloadFormat(payloadFormat);
+        config.setPayloadCompression(payloadCompression);
+        config.setMaxRetries(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        connection.invalidate();
+        endpoint.close();
+    }
+
+    @Benchmark
+    public BatchSendResult readAndSendToHttp(BenchmarkFile file, Throughput throughput) throws IOException {
+        try (InputStream body = Files.newInputStream(file.path)) {
+            BatchSendResult result = operations.readAndSendToHttp(connection, config, fetchSize, body, new ReadOptions(), maxInFlight, null, null);
+            if (result.getBatchesFailed() > 0) {
+                throw new IllegalStateException("Stub endpoint rejected batches: " + result);
+            }
+            throughput.add(result.getRecordsSent(), file.length);
+            return result;
+        }
+    }
+}
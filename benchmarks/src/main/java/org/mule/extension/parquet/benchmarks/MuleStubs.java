@@ -0,0 +1,230 @@
+package org.mule.extension.parquet.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+import org.mule.extension.parquet.internal.ParquetConnection;
+import org.mule.extension.parquet.internal.ParquetOperations;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.http.api.HttpService;
+import org.mule.runtime.http.api.client.HttpClient;
+import org.mule.runtime.http.api.client.HttpClientConfiguration;
+import org.mule.runtime.http.api.client.HttpClientFactory;
+import org.mule.runtime.http.api.domain.message.request.HttpRequest;
+import org.mule.runtime.http.api.domain.message.response.HttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Just enough of the Mule runtime to call the operations outside of it: schedulers backed by plain
+ * executors, an HTTP service whose client posts with {@link HttpURLConnection}, and a local stub endpoint
+ * that reads and acknowledges every request.
+ */
+final class MuleStubs {
+
+    private MuleStubs() {
+    }
+
+    /**
+     * @return operations with the stub scheduler service injected
+     */
+    static ParquetOperations operations() {
+        ParquetOperations operations = new ParquetOperations();
+        try {
+            Field field = ParquetOperations.class.getDeclaredField("schedulerService");
+            field.setAccessible(true);
+            field.set(operations, schedulerService());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot inject the scheduler service", e);
+        }
+        return operations;
+    }
+
+    static SchedulerService schedulerService() {
+        return proxy(SchedulerService.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "cpuIntensiveScheduler":
+                case "cpuLightScheduler":
+                    return scheduler(method.getName(), Runtime.getRuntime().availableProcessors());
+                case "ioScheduler":
+                    return scheduler(method.getName(), 16);
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    static Scheduler scheduler(String name, int threads) {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(threads, daemonThreads(name));
+        return proxy(Scheduler.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "stop":
+                    executor.shutdown();
+                    return null;
+                case "getName":
+                    return name;
+                default:
+                    try {
+                        return method.invoke(executor, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        });
+    }
+
+    /**
+     * @return a connection whose HTTP client posts with {@link HttpURLConnection} on its own threads
+     */
+    static ParquetConnection connection() {
+        ExecutorService senders = Executors.newCachedThreadPool(daemonThreads("http-client"));
+        HttpClient client = proxy(HttpClient.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "start":
+                case "stop":
+                    return null;
+                case "send":
+                    return post((HttpRequest) args[0]);
+                case "sendAsync":
+                    HttpRequest request = (HttpRequest) args[0];
+                    return CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return post(request);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, senders);
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        HttpClientFactory clientFactory = proxy(HttpClientFactory.class, (proxy, method, args) -> client);
+        HttpService httpService = proxy(HttpService.class, (proxy, method, args) -> {
+            if ("getClientFactory".equals(method.getName())) {
+                return clientFactory;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+        HttpClient httpClient = httpService.getClientFactory().create(new HttpClientConfiguration.Builder()
+                .setName("parquet-http-benchmark")
+                .build());
+        httpClient.start();
+        return new ParquetConnection(httpClient);
+    }
+
+    private static HttpResponse post(HttpRequest request) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) request.getUri().toURL().openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        for (String header : new String[]{"Content-Type", "Content-Encoding"}) {
+            String value = request.getHeaderValue(header);
+            if (value != null) {
+                connection.setRequestProperty(header, value);
+            }
+        }
+        byte[] body = request.getEntity().getBytes();
+        connection.setFixedLengthStreamingMode(body.length);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body);
+        }
+        int status = connection.getResponseCode();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            drain(in);
+        }
+        return HttpResponse.builder().statusCode(status).build();
+    }
+
+    private static long drain(InputStream in) throws IOException {
+        long total = 0;
+        if (in != null) {
+            byte[] buffer = new byte[16 * 1024];
+            for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+                total += n;
+            }
+        }
+        return total;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(MuleStubs.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return type.getSimpleName() + "Stub";
+                }
+            }
+            return handler.invoke(proxy, method, args);
+        });
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        LongAdder count = new LongAdder();
+        return runnable -> {
+            count.increment();
+            Thread thread = new Thread(runnable, name + "-" + count.sum());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Local endpoint answering 200 to every request once its body has been read.
+     */
+    static final class StubEndpoint implements AutoCloseable {
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newFixedThreadPool(16, daemonThreads("stub-endpoint"));
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        StubEndpoint() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/", exchange -> {
+                try (InputStream in = exchange.getRequestBody()) {
+                    bytes.add(drain(in));
+                }
+                requests.increment();
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+            });
+            server.setExecutor(executor);
+            server.start();
+        }
+
+        String url() {
+            return "http://127.0.0.1:" + server.getAddress().getPort() + "/batches";
+        }
+
+        long requests() {
+            return requests.sum();
+        }
+
+        long bytes() {
+            return bytes.sum();
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+}
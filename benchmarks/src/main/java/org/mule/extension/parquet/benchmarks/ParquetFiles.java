@@ -0,0 +1,177 @@
+package org.mule.extension.parquet.benchmarks;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.NanoTime;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.mule.extension.parquet.internal.io.OutputFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Generates the synthetic parquet files the benchmarks read.
+ * <p>
+ * Every shape carries an INT96 and a {@code timestamp-millis} column so the timestamp conversions are
+ * always on the measured path. Values come from a fixed seed, so a given shape, codec and row count
+ * always produce the same file.
+ */
+public final class ParquetFiles {
+    private static final int JULIAN_EPOCH_OFFSET_DAYS = 2_440_588;
+    private static final long START_MILLIS = 1_767_225_600_000L; // 2026-01-01T00:00:00Z
+    private static final long NANOS_PER_DAY = 86_400_000_000_000L;
+    private static final int WIDE_COLUMNS = 60;
+
+    public enum Shape {
+        /** a handful of flat columns */
+        NARROW_FLAT,
+        /** sixty flat columns of mixed types */
+        WIDE_FLAT,
+        /** a nested group and a list of groups */
+        NESTED
+    }
+
+    private ParquetFiles() {
+    }
+
+    static void write(Path file, Shape shape, CompressionCodecName codec, int rows) throws IOException {
+        MessageType schema = schema(shape);
+        SimpleGroupFactory groups = new SimpleGroupFactory(schema);
+        Random random = new Random(42);
+        try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(OutputFile.nioPathToOutputFile(file))
+                .withType(schema)
+                .withConf(new Configuration())
+                .withCompressionCodec(codec)
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .build()) {
+            for (int i = 0; i < rows; i++) {
+                Group group = groups.newGroup();
+                fill(group, shape, i, random);
+                writer.write(group);
+            }
+        }
+    }
+
+    static MessageType schema(Shape shape) {
+        switch (shape) {
+            case NARROW_FLAT:
+                return MessageTypeParser.parseMessageType("message narrow {\n"
+                        + "  required int64 id;\n"
+                        + "  required binary name (STRING);\n"
+                        + "  optional double amount;\n"
+                        + "  required int96 created_at;\n"
+                        + "  required int64 updated_at (TIMESTAMP(MILLIS,true));\n"
+                        + "}");
+            case WIDE_FLAT:
+                StringBuilder wide = new StringBuilder("message wide {\n"
+                        + "  required int64 id;\n"
+                        + "  required int96 created_at;\n"
+                        + "  required int64 updated_at (TIMESTAMP(MILLIS,true));\n");
+                for (int i = 0; i < WIDE_COLUMNS; i++) {
+                    wide.append("  optional ").append(wideType(i)).append(" c").append(i).append(";\n");
+                }
+                return MessageTypeParser.parseMessageType(wide.append("}").toString());
+            default:
+                return MessageTypeParser.parseMessageType("message nested {\n"
+                        + "  required int64 id;\n"
+                        + "  required binary customer (STRING);\n"
+                        + "  required int64 ordered_at (TIMESTAMP(MILLIS,true));\n"
+                        + "  optional int96 shipped_at;\n"
+                        + "  required group address {\n"
+                        + "    required binary city (STRING);\n"
+                        + "    optional binary zip (STRING);\n"
+                        + "  }\n"
+                        + "  optional group lines (LIST) {\n"
+                        + "    repeated group list {\n"
+                        + "      required group element {\n"
+                        + "        required binary sku (STRING);\n"
+                        + "        required int32 quantity;\n"
+                        + "        required double price;\n"
+                        + "      }\n"
+                        + "    }\n"
+                        + "  }\n"
+                        + "}");
+        }
+    }
+
+    private static String wideType(int column) {
+        switch (column % 4) {
+            case 0:
+                return "int32";
+            case 1:
+                return "int64";
+            case 2:
+                return "double";
+            default:
+                return "binary (STRING)";
+        }
+    }
+
+    private static void fill(Group group, Shape shape, int row, Random random) {
+        long millis = START_MILLIS + row * 1_000L + random.nextInt(1_000);
+        switch (shape) {
+            case NARROW_FLAT:
+                group.add("id", (long) row);
+                group.add("name", "customer-" + random.nextInt(10_000));
+                if (random.nextInt(10) > 0) {
+                    group.add("amount", random.nextDouble() * 1_000);
+                }
+                group.add("created_at", int96(millis));
+                group.add("updated_at", millis);
+                break;
+            case WIDE_FLAT:
+                group.add("id", (long) row);
+                group.add("created_at", int96(millis));
+                group.add("updated_at", millis);
+                for (int i = 0; i < WIDE_COLUMNS; i++) {
+                    String column = "c" + i;
+                    switch (i % 4) {
+                        case 0:
+                            group.add(column, random.nextInt(1_000_000));
+                            break;
+                        case 1:
+                            group.add(column, random.nextLong());
+                            break;
+                        case 2:
+                            group.add(column, random.nextDouble());
+                            break;
+                        default:
+                            group.add(column, "value-" + random.nextInt(100_000));
+                    }
+                }
+                break;
+            default:
+                group.add("id", (long) row);
+                group.add("customer", "customer-" + random.nextInt(10_000));
+                group.add("ordered_at", millis);
+                if (random.nextBoolean()) {
+                    group.add("shipped_at", int96(millis + 86_400_000L));
+                }
+                Group address = group.addGroup("address");
+                address.add("city", "city-" + random.nextInt(500));
+                if (random.nextInt(4) > 0) {
+                    address.add("zip", String.valueOf(10_000 + random.nextInt(90_000)));
+                }
+                Group lines = group.addGroup("lines");
+                for (int i = 0, count = 1 + random.nextInt(5); i < count; i++) {
+                    Group line = lines.addGroup("list").addGroup("element");
+                    line.add("sku", "sku-" + random.nextInt(2_000));
+                    line.add("quantity", 1 + random.nextInt(10));
+                    line.add("price", random.nextDouble() * 100);
+                }
+        }
+    }
+
+    private static NanoTime int96(long epochMillis) {
+        long days = Math.floorDiv(epochMillis, 86_400_000L);
+        long nanosOfDay = Math.floorMod(epochMillis, 86_400_000L) * 1_000_000L;
+        return new NanoTime((int) (days + JULIAN_EPOCH_OFFSET_DAYS), Math.min(nanosOfDay, NANOS_PER_DAY - 1));
+    }
+}
@@ -0,0 +1,84 @@
+package org.mule.extension.parquet.benchmarks;
+
+import org.mule.extension.parquet.internal.ParquetConnection;
+import org.mule.extension.parquet.internal.ParquetOperations;
+import org.mule.extension.parquet.internal.ReadOptions;
+import org.mule.runtime.extension.api.runtime.streaming.PagingProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a whole generated file through {@code Read Parquet - File} and {@code Read Parquet - Stream},
+ * with and without low allocation decode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReadBenchmark {
+    private final ParquetOperations operations = MuleStubs.operations();
+
+    @State(Scope.Benchmark)
+    public static class DecodeOptions {
+        @Param({"false", "true"})
+        public boolean lowAllocation;
+    }
+
+    @State(Scope.Benchmark)
+    public static class StreamOptions {
+        @Param({"1000"})
+        public int pageSize;
+
+        @Param({"1", "4"})
+        public int parallelism;
+    }
+
+    @Benchmark
+    public long readParquet(BenchmarkFile file, DecodeOptions decode, Throughput throughput) throws Exception {
+        long length = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream json = operations.readParquet(file.path.toString(), new ReadOptions(), decode.lowAllocation)) {
+            for (int n = json.read(buffer); n != -1; n = json.read(buffer)) {
+                length += n;
+            }
+        }
+        throughput.add(file.rows, file.length);
+        return length;
+    }
+
+    @Benchmark
+    public long readParquetStream(BenchmarkFile file, StreamOptions options, DecodeOptions decode, Throughput throughput,
+                                  Blackhole blackhole) throws Exception {
+        long records = 0;
+        InputStream body = Files.newInputStream(file.path);
+        PagingProvider<ParquetConnection, String> pages = operations.readParquetStream(body, options.pageSize,
+                new ReadOptions(), options.parallelism, true, decode.lowAllocation);
+        try {
+            for (List<String> page = pages.getPage(null); !page.isEmpty(); page = pages.getPage(null)) {
+                records += page.size();
+                blackhole.consume(page);
+            }
+        } finally {
+            pages.close(null);
+            body.close();
+        }
+        throughput.add(records, file.length);
+        return records;
+    }
+}
@@ -0,0 +1,29 @@
+package org.mule.extension.parquet.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Secondary results reported as rates next to the operation throughput: {@code records} in records/s and
+ * {@code bytes} in bytes/s of parquet input.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class Throughput {
+    public long records;
+    public long bytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        records = 0;
+        bytes = 0;
+    }
+
+    void add(long recordCount, long byteCount) {
+        records += recordCount;
+        bytes += byteCount;
+    }
+}
@@ -0,0 +1,119 @@
+package org.mule.extension.parquet.api;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a "Batch by Batch - Stream" run.
+ * <p>
+ * Every batch ends up either sent or failed, so {@code batchesSent + batchesFailed} is the number of
+ * batches dispatched. Failed batches are written to the dead letter directory when one is configured.
+ * Counters only cover this run, a run resumed from a checkpoint doesn't include the records it skipped.
+ */
+public class BatchSendResult {
+    private long recordsRead;
+    private long recordsResumed;
+    private long recordsSent;
+    private long batchesSent;
+    private long batchesFailed;
+    private long recordsFailed;
+    private long retries;
+    private long bytesSent;
+    private long elapsedMillis;
+    private List<String> deadLetterFiles = new ArrayList<>();
+
+    public long getRecordsRead() {
+        return recordsRead;
+    }
+
+    public void setRecordsRead(long recordsRead) {
+        this.recordsRead = recordsRead;
+    }
+
+    /**
+     * @return the records delivered by earlier runs under the same checkpoint key, which this run skipped
+     */
+    public long getRecordsResumed() {
+        return recordsResumed;
+    }
+
+    public void setRecordsResumed(long recordsResumed) {
+        this.recordsResumed = recordsResumed;
+    }
+
+    public long getRecordsSent() {
+        return recordsSent;
+    }
+
+    public void setRecordsSent(long recordsSent) {
+        this.recordsSent = recordsSent;
+    }
+
+    public long getBatchesSent() {
+        return batchesSent;
+    }
+
+    public void setBatchesSent(long batchesSent) {
+        this.batchesSent = batchesSent;
+    }
+
+    public long getBatchesFailed() {
+        return batchesFailed;
+    }
+
+    public void setBatchesFailed(long batchesFailed) {
+        this.batchesFailed = batchesFailed;
+    }
+
+    public long getRecordsFailed() {
+        return recordsFailed;
+    }
+
+    public void setRecordsFailed(long recordsFailed) {
+        this.recordsFailed = recordsFailed;
+    }
+
+    public long getRetries() {
+        return retries;
+    }
+
+    public void setRetries(long retries) {
+        this.retries = retries;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public void setBytesSent(long bytesSent) {
+        this.bytesSent = bytesSent;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * @return the files failed batches were written to, empty when none failed or no dead letter directory is configured
+     */
+    public List<String> getDeadLetterFiles() {
+        return deadLetterFiles;
+    }
+
+    public void setDeadLetterFiles(List<String> deadLetterFiles) {
+        this.deadLetterFiles = deadLetterFiles;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchSendResult[recordsRead=" + recordsRead + ", recordsResumed=" + recordsResumed
+                + ", recordsSent=" + recordsSent
+                + ", batchesSent=" + batchesSent + ", batchesFailed=" + batchesFailed
+                + ", recordsFailed=" + recordsFailed + ", retries=" + retries
+                + ", bytesSent=" + bytesSent + ", elapsedMillis=" + elapsedMillis + "]";
+    }
+}
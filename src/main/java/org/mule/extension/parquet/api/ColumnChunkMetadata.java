@@ -0,0 +1,115 @@
+package org.mule.extension.parquet.api;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One column chunk of a row group, with the statistics the writer recorded for it.
+ */
+public class ColumnChunkMetadata {
+    private String path;
+    private String type;
+    private String codec;
+    private List<String> encodings = new ArrayList<>();
+    private long valueCount;
+    private long compressedSize;
+    private long uncompressedSize;
+    private Long nullCount;
+    private String min;
+    private String max;
+
+    /**
+     * @return the dotted column path, e.g. {@code address.city}
+     */
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    /**
+     * @return the primitive type, with its logical type when there is one
+     */
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getCodec() {
+        return codec;
+    }
+
+    public void setCodec(String codec) {
+        this.codec = codec;
+    }
+
+    public List<String> getEncodings() {
+        return encodings;
+    }
+
+    public void setEncodings(List<String> encodings) {
+        this.encodings = encodings;
+    }
+
+    public long getValueCount() {
+        return valueCount;
+    }
+
+    public void setValueCount(long valueCount) {
+        this.valueCount = valueCount;
+    }
+
+    public long getCompressedSize() {
+        return compressedSize;
+    }
+
+    public void setCompressedSize(long compressedSize) {
+        this.compressedSize = compressedSize;
+    }
+
+    public long getUncompressedSize() {
+        return uncompressedSize;
+    }
+
+    public void setUncompressedSize(long uncompressedSize) {
+        this.uncompressedSize = uncompressedSize;
+    }
+
+    /**
+     * @return the number of nulls, or null when the writer didn't record it
+     */
+    public Long getNullCount() {
+        return nullCount;
+    }
+
+    public void setNullCount(Long nullCount) {
+        this.nullCount = nullCount;
+    }
+
+    /**
+     * @return the minimum value rendered per the column's logical type, or null without statistics
+     */
+    public String getMin() {
+        return min;
+    }
+
+    public void setMin(String min) {
+        this.min = min;
+    }
+
+    /**
+     * @return the maximum value rendered per the column's logical type, or null without statistics
+     */
+    public String getMax() {
+        return max;
+    }
+
+    public void setMax(String max) {
+        this.max = max;
+    }
+}
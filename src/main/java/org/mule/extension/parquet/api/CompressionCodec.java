@@ -0,0 +1,10 @@
+package org.mule.extension.parquet.api;
+
+/**
+ * Compression applied to the pages of written parquet files.
+ * <p>
+ * GZIP and ZSTD produce the smallest files, SNAPPY and LZ4 are the fastest to write and read.
+ */
+public enum CompressionCodec {
+    UNCOMPRESSED, SNAPPY, GZIP, ZSTD, LZ4
+}
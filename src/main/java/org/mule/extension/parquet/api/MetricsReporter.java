@@ -0,0 +1,39 @@
+package org.mule.extension.parquet.api;
+
+import java.util.Map;
+
+/**
+ * Receives the connector's metrics and trace spans as they are recorded, to forward them to a meter
+ * registry or tracer of choice.
+ * <p>
+ * Implementations are discovered with {@link java.util.ServiceLoader} from
+ * {@code META-INF/services/org.mule.extension.parquet.api.MetricsReporter} on the connector's class path.
+ * Methods are called on the threads doing the work and must not block. Counters are reported per page,
+ * batch or row group rather than per record.
+ */
+public interface MetricsReporter {
+
+    /**
+     * @param operation the operation or component the metric belongs to, e.g. {@code readParquetStream}
+     * @param metric the metric name, e.g. {@code records.decoded}
+     * @param delta the amount to add
+     */
+    void count(String operation, String metric, long delta);
+
+    /**
+     * @param operation the operation or component the timing belongs to
+     * @param metric the timer name, e.g. {@code batch.latency}
+     * @param nanos the duration
+     */
+    default void time(String operation, String metric, long nanos) {
+    }
+
+    /**
+     * @param name the span name, e.g. {@code parquet.rowGroup}
+     * @param startMillis wall clock start of the span
+     * @param durationNanos duration of the span
+     * @param attributes span attributes such as the row group index or the batch number
+     */
+    default void span(String name, long startMillis, long durationNanos, Map<String, Object> attributes) {
+    }
+}
@@ -0,0 +1,93 @@
+package org.mule.extension.parquet.api;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Footer of a parquet file, as returned by "Get Parquet Metadata".
+ */
+public class ParquetFileMetadata {
+    private long fileSize;
+    private String createdBy;
+    private long rowCount;
+    private int rowGroupCount;
+    private String avroSchema;
+    private String parquetSchema;
+    private Map<String, String> keyValueMetadata = new LinkedHashMap<>();
+    private List<RowGroupMetadata> rowGroups = new ArrayList<>();
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public void setRowCount(long rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    public int getRowGroupCount() {
+        return rowGroupCount;
+    }
+
+    public void setRowGroupCount(int rowGroupCount) {
+        this.rowGroupCount = rowGroupCount;
+    }
+
+    /**
+     * @return the Avro schema records are read with, as JSON
+     */
+    public String getAvroSchema() {
+        return avroSchema;
+    }
+
+    public void setAvroSchema(String avroSchema) {
+        this.avroSchema = avroSchema;
+    }
+
+    /**
+     * @return the parquet message type
+     */
+    public String getParquetSchema() {
+        return parquetSchema;
+    }
+
+    public void setParquetSchema(String parquetSchema) {
+        this.parquetSchema = parquetSchema;
+    }
+
+    /**
+     * @return the application key-value metadata of the footer, e.g. {@code parquet.avro.schema}
+     */
+    public Map<String, String> getKeyValueMetadata() {
+        return keyValueMetadata;
+    }
+
+    public void setKeyValueMetadata(Map<String, String> keyValueMetadata) {
+        this.keyValueMetadata = keyValueMetadata;
+    }
+
+    public List<RowGroupMetadata> getRowGroups() {
+        return rowGroups;
+    }
+
+    public void setRowGroups(List<RowGroupMetadata> rowGroups) {
+        this.rowGroups = rowGroups;
+    }
+}
@@ -0,0 +1,113 @@
+package org.mule.extension.parquet.api;
+
+import java.io.Serializable;
+
+/**
+ * A range of consecutive row groups of one parquet file, planned by "Plan Splits" and read by
+ * "Read Parquet - Split".
+ * <p>
+ * The split covers the bytes from {@code start} to {@code end}, the first byte of its first row group to
+ * the last byte of its last one. The length of the file is kept so a split is only ever read from the
+ * file it was planned on. Splits are serializable, so they can be handed to other workers through a VM
+ * queue or an object store.
+ */
+public class ParquetSplit implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private int index;
+    private int splitCount;
+    private int firstRowGroup;
+    private int rowGroupCount;
+    private long start;
+    private long end;
+    private long rowCount;
+    private long fileLength;
+
+    /**
+     * @return position of the split in the plan, from 0
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    /**
+     * @return number of splits in the plan
+     */
+    public int getSplitCount() {
+        return splitCount;
+    }
+
+    public void setSplitCount(int splitCount) {
+        this.splitCount = splitCount;
+    }
+
+    /**
+     * @return index in the footer of the first row group of the split
+     */
+    public int getFirstRowGroup() {
+        return firstRowGroup;
+    }
+
+    public void setFirstRowGroup(int firstRowGroup) {
+        this.firstRowGroup = firstRowGroup;
+    }
+
+    public int getRowGroupCount() {
+        return rowGroupCount;
+    }
+
+    public void setRowGroupCount(int rowGroupCount) {
+        this.rowGroupCount = rowGroupCount;
+    }
+
+    /**
+     * @return offset of the first byte of the split in the file
+     */
+    public long getStart() {
+        return start;
+    }
+
+    public void setStart(long start) {
+        this.start = start;
+    }
+
+    /**
+     * @return offset right after the last byte of the split in the file
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    public void setEnd(long end) {
+        this.end = end;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public void setRowCount(long rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * @return length in bytes of the file the split was planned on
+     */
+    public long getFileLength() {
+        return fileLength;
+    }
+
+    public void setFileLength(long fileLength) {
+        this.fileLength = fileLength;
+    }
+
+    @Override
+    public String toString() {
+        return "split " + (index + 1) + " of " + splitCount + ", row groups " + firstRowGroup + " to "
+                + (firstRowGroup + rowGroupCount - 1) + ", bytes " + start + " to " + end;
+    }
+}
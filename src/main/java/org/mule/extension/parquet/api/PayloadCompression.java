@@ -0,0 +1,8 @@
+package org.mule.extension.parquet.api;
+
+/**
+ * {@code Content-Encoding} applied to the batches posted by "Batch by Batch - Stream".
+ */
+public enum PayloadCompression {
+    NONE, GZIP, ZSTD
+}
@@ -0,0 +1,24 @@
+package org.mule.extension.parquet.api;
+
+/**
+ * Body format of the batches posted by "Batch by Batch - Stream".
+ */
+public enum PayloadFormat {
+    /**
+     * One JSON array per batch, {@code application/json}.
+     */
+    JSON,
+    /**
+     * One JSON record per line, {@code application/x-ndjson}.
+     */
+    NDJSON,
+    /**
+     * An Avro object container file holding the batch and its schema, {@code application/avro}.
+     */
+    AVRO,
+    /**
+     * An Arrow IPC stream holding the batch as one record batch, {@code application/vnd.apache.arrow.stream}.
+     * Only flat schemas are supported.
+     */
+    ARROW
+}
@@ -0,0 +1,77 @@
+package org.mule.extension.parquet.api;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a "Rewrite Parquet" run.
+ * <p>
+ * Row groups are either copied as they are, compressed column chunks and all, or decoded and written
+ * again, so {@code rowGroupsCopied} is 0 whenever the records had to be re-encoded.
+ */
+public class RewriteResult {
+    private long inputFiles;
+    private long recordsWritten;
+    private long rowGroupsCopied;
+    private long bytesWritten;
+    private long elapsedMillis;
+    private List<String> outputFiles = new ArrayList<>();
+
+    public long getInputFiles() {
+        return inputFiles;
+    }
+
+    public void setInputFiles(long inputFiles) {
+        this.inputFiles = inputFiles;
+    }
+
+    public long getRecordsWritten() {
+        return recordsWritten;
+    }
+
+    public void setRecordsWritten(long recordsWritten) {
+        this.recordsWritten = recordsWritten;
+    }
+
+    public long getRowGroupsCopied() {
+        return rowGroupsCopied;
+    }
+
+    public void setRowGroupsCopied(long rowGroupsCopied) {
+        this.rowGroupsCopied = rowGroupsCopied;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public void setBytesWritten(long bytesWritten) {
+        this.bytesWritten = bytesWritten;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * @return the parquet files written, in order
+     */
+    public List<String> getOutputFiles() {
+        return outputFiles;
+    }
+
+    public void setOutputFiles(List<String> outputFiles) {
+        this.outputFiles = outputFiles;
+    }
+
+    @Override
+    public String toString() {
+        return "RewriteResult[inputFiles=" + inputFiles + ", recordsWritten=" + recordsWritten
+                + ", rowGroupsCopied=" + rowGroupsCopied + ", bytesWritten=" + bytesWritten
+                + ", elapsedMillis=" + elapsedMillis + ", outputFiles=" + outputFiles + "]";
+    }
+}
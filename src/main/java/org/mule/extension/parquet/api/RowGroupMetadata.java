@@ -0,0 +1,70 @@
+package org.mule.extension.parquet.api;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One row group of a parquet file footer.
+ */
+public class RowGroupMetadata {
+    private int index;
+    private long rowCount;
+    private long startingPosition;
+    private long compressedSize;
+    private long uncompressedSize;
+    private List<ColumnChunkMetadata> columns = new ArrayList<>();
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public void setRowCount(long rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    public long getStartingPosition() {
+        return startingPosition;
+    }
+
+    public void setStartingPosition(long startingPosition) {
+        this.startingPosition = startingPosition;
+    }
+
+    /**
+     * @return bytes the row group takes in the file
+     */
+    public long getCompressedSize() {
+        return compressedSize;
+    }
+
+    public void setCompressedSize(long compressedSize) {
+        this.compressedSize = compressedSize;
+    }
+
+    /**
+     * @return bytes of the row group's pages once decompressed
+     */
+    public long getUncompressedSize() {
+        return uncompressedSize;
+    }
+
+    public void setUncompressedSize(long uncompressedSize) {
+        this.uncompressedSize = uncompressedSize;
+    }
+
+    public List<ColumnChunkMetadata> getColumns() {
+        return columns;
+    }
+
+    public void setColumns(List<ColumnChunkMetadata> columns) {
+        this.columns = columns;
+    }
+}
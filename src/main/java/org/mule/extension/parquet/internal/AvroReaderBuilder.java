@@ -0,0 +1,174 @@
+package org.mule.extension.parquet.internal;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.avro.AvroReadSupport;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.api.InitContext;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.RecordMaterializer;
+import org.apache.parquet.schema.MessageType;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link ParquetReader} builder producing generic Avro records, like {@code AvroParquetReader}, that
+ * can also be handed a projection as a parquet {@link MessageType}.
+ * <p>
+ * Projecting with the file's own parquet types avoids a round trip through an Avro projection schema,
+ * which can't express INT96 and would no longer match the file. The records are built with the Avro
+ * schema of the projected columns rather than the one the file was written with, and columns only read
+ * to evaluate the filter are dropped from them.
+ */
+class AvroReaderBuilder extends ParquetReader.Builder<GenericRecord> {
+    private MessageType projection;
+    private Schema readSchema;
+    private Schema recordSchema;
+
+    AvroReaderBuilder(InputFile file) {
+        super(file);
+    }
+
+    /**
+     * @param projection the columns to read
+     * @param readSchema the Avro schema of the {@code projection} columns
+     * @param recordSchema the Avro schema of the records produced, {@code readSchema} without the
+     *                     columns only read for the filter
+     */
+    AvroReaderBuilder withProjection(MessageType projection, Schema readSchema, Schema recordSchema) {
+        this.projection = projection;
+        this.readSchema = readSchema;
+        this.recordSchema = recordSchema;
+        return this;
+    }
+
+    @Override
+    protected ReadSupport<GenericRecord> getReadSupport() {
+        return new ProjectedAvroReadSupport(projection, readSchema, recordSchema);
+    }
+
+    private static class ProjectedAvroReadSupport extends AvroReadSupport<GenericRecord> {
+        private final MessageType projection;
+        private final Schema readSchema;
+        private final Schema recordSchema;
+
+        ProjectedAvroReadSupport(MessageType projection, Schema readSchema, Schema recordSchema) {
+            super(GenericData.get());
+            this.projection = projection;
+            this.readSchema = readSchema;
+            this.recordSchema = recordSchema;
+        }
+
+        @Override
+        public ReadContext init(InitContext context) {
+            ReadContext readContext = super.init(context);
+            if (projection == null) {
+                return readContext;
+            }
+            // without it, records are built with the whole schema the file was written with
+            Map<String, String> metadata = new HashMap<>(readContext.getReadSupportMetadata());
+            metadata.put(AVRO_READ_SCHEMA_METADATA_KEY, readSchema.toString());
+            return new ReadContext(projection, metadata);
+        }
+
+        @Override
+        public RecordMaterializer<GenericRecord> prepareForRead(Configuration configuration, Map<String, String> keyValueMetaData,
+                                                                MessageType fileSchema, ReadContext readContext) {
+            RecordMaterializer<GenericRecord> materializer = super.prepareForRead(configuration, keyValueMetaData, fileSchema, readContext);
+            if (projection == null || recordSchema.equals(readSchema)) {
+                return materializer;
+            }
+            return new SelectingMaterializer(materializer, new RecordSelector(readSchema, recordSchema));
+        }
+    }
+
+    /**
+     * Hands out the records of a materializer with the selected fields only.
+     */
+    private static final class SelectingMaterializer extends RecordMaterializer<GenericRecord> {
+        private final RecordMaterializer<GenericRecord> delegate;
+        private final RecordSelector selector;
+
+        SelectingMaterializer(RecordMaterializer<GenericRecord> delegate, RecordSelector selector) {
+            this.delegate = delegate;
+            this.selector = selector;
+        }
+
+        @Override
+        public GenericRecord getCurrentRecord() {
+            GenericRecord record = delegate.getCurrentRecord();
+            return record == null ? null : selector.select(record);
+        }
+
+        @Override
+        public void skipCurrentRecord() {
+            delegate.skipCurrentRecord();
+        }
+
+        @Override
+        public GroupConverter getRootConverter() {
+            return delegate.getRootConverter();
+        }
+    }
+
+    /**
+     * Copies the fields of one record schema out of records of a wider one, going into the nested records
+     * the filter read more fields of. Filters only reference primitive columns outside of lists and maps,
+     * so no other nested values have to be cut down.
+     */
+    private static final class RecordSelector {
+        private final Schema schema;
+        private final int[] positions;
+        private final RecordSelector[] nested;
+
+        RecordSelector(Schema readSchema, Schema recordSchema) {
+            List<Schema.Field> fields = recordSchema.getFields();
+            this.schema = recordSchema;
+            this.positions = new int[fields.size()];
+            this.nested = new RecordSelector[fields.size()];
+            for (int i = 0; i < positions.length; i++) {
+                Schema.Field field = fields.get(i);
+                Schema.Field read = readSchema.getField(field.name());
+                positions[i] = read.pos();
+                Schema selected = record(field.schema());
+                Schema decoded = record(read.schema());
+                if (selected != null && decoded != null && !selected.equals(decoded)) {
+                    nested[i] = new RecordSelector(decoded, selected);
+                }
+            }
+        }
+
+        GenericRecord select(GenericRecord record) {
+            GenericData.Record selected = new GenericData.Record(schema);
+            for (int i = 0; i < positions.length; i++) {
+                Object value = record.get(positions[i]);
+                if (nested[i] != null && value != null) {
+                    value = nested[i].select((GenericRecord) value);
+                }
+                selected.put(i, value);
+            }
+            return selected;
+        }
+
+        /**
+         * Returns the record branch of a record or optional record schema, null for any other schema.
+         */
+        private static Schema record(Schema schema) {
+            if (schema.getType() == Schema.Type.UNION) {
+                for (Schema type : schema.getTypes()) {
+                    if (type.getType() == Schema.Type.RECORD) {
+                        return type;
+                    }
+                }
+                return null;
+            }
+            return schema.getType() == Schema.Type.RECORD ? schema : null;
+        }
+    }
+}
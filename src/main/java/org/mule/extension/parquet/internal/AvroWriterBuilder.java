@@ -0,0 +1,40 @@
+package org.mule.extension.parquet.internal;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.avro.AvroWriteSupport;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.schema.MessageType;
+
+/**
+ * {@link ParquetWriter} builder for generic Avro records that writes them with a given parquet schema,
+ * the counterpart of {@link AvroReaderBuilder}.
+ * <p>
+ * Records read from a parquet file are written back with the file's own types instead of the ones Avro
+ * would derive, so INT96 timestamps, unsigned integers and the other types Avro can't express survive a
+ * rewrite unchanged.
+ */
+class AvroWriterBuilder extends ParquetWriter.Builder<GenericRecord, AvroWriterBuilder> {
+    private final MessageType schema;
+    private final Schema avroSchema;
+
+    AvroWriterBuilder(OutputFile file, MessageType schema, Schema avroSchema) {
+        super(file);
+        this.schema = schema;
+        this.avroSchema = avroSchema;
+    }
+
+    @Override
+    protected AvroWriterBuilder self() {
+        return this;
+    }
+
+    @Override
+    protected WriteSupport<GenericRecord> getWriteSupport(Configuration conf) {
+        return new AvroWriteSupport<>(schema, avroSchema, GenericData.get());
+    }
+}
@@ -0,0 +1,228 @@
+package org.mule.extension.parquet.internal;
+
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.mule.extension.parquet.internal.cache.CachedFooter;
+import org.mule.runtime.api.store.ObjectStore;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Progress of a "Batch by Batch - Stream" run, saved to an {@link ObjectStore} so a restarted run resumes
+ * after the last delivered record instead of sending the whole file again.
+ * <p>
+ * A position is a row group of the file and the number of records of that row group already handed to
+ * batches. Batches settle out of order when several are in flight, so the saved position only moves past a
+ * batch once it and every batch before it were delivered or written to the dead letter directory. A batch
+ * that failed without a dead letter file holds the position back for the rest of the run, so the next run
+ * sends it again, along with the batches after it that were delivered.
+ * <p>
+ * Positions are saved as strings, which any object store can persist and read back whatever class loader it
+ * uses, along with a fingerprint of the footer and filter: a checkpoint left under the same key by another
+ * file or filter is ignored rather than skipping records the new read never sent. The checkpoint is removed once a run
+ * settles every batch without holding the position back.
+ * <p>
+ * Object stores can't overwrite a key, so positions alternate between two keys: a new position is stored
+ * under the key not holding the previous one, which is only removed afterwards. A run stopped in between
+ * leaves both and the next one resumes at the furthest.
+ */
+final class BatchCheckpoint {
+    private static final char SEPARATOR = ';';
+    private static final String ALTERNATE_SUFFIX = "#2";
+
+    private final Logger LOGGER = LoggerFactory.getLogger(BatchCheckpoint.class);
+
+    private final ObjectStore<Serializable> store;
+    private final String key;
+    private final String alternate;
+    private final String fingerprint;
+    private final Position start;
+    private final Map<Long, Position> ends = new HashMap<>();
+    private final Set<Long> settled = new HashSet<>();
+    private long committed;
+    private long held = Long.MAX_VALUE;
+    // the key holding the last saved position, null while none is saved
+    private String saved;
+
+    private BatchCheckpoint(ObjectStore<Serializable> store, String key, String fingerprint) throws ObjectStoreException {
+        this.store = store;
+        this.key = key;
+        this.alternate = key + ALTERNATE_SUFFIX;
+        this.fingerprint = fingerprint;
+        Position position = load(key);
+        Position other = load(alternate);
+        if (other != null && (position == null || other.records > position.records)) {
+            position = other;
+            saved = alternate;
+        } else if (position != null) {
+            saved = key;
+        }
+        this.start = position;
+    }
+
+    /**
+     * Loads the checkpoint saved under {@code key}, if any was saved for the same file.
+     *
+     * @param store the store checkpoints are kept in
+     * @param key the key of this file's checkpoint
+     * @param footer footer of the file being sent
+     * @param length length of the file in bytes
+     * @param filter the filter of the read, which decides the records an offset counts, may be null
+     * @return the checkpoint, starting at the saved position or at the beginning of the file
+     * @throws ObjectStoreException if the store cannot be read
+     */
+    static BatchCheckpoint open(ObjectStore<Serializable> store, String key, CachedFooter footer, long length,
+                                String filter) throws ObjectStoreException {
+        return new BatchCheckpoint(store, key, fingerprint(footer, length, filter));
+    }
+
+    private Position load(String slot) throws ObjectStoreException {
+        if (!store.contains(slot)) {
+            return null;
+        }
+        String[] fields = store.retrieve(slot).toString().split(String.valueOf(SEPARATOR));
+        if (fields.length != 4 || !fields[0].equals(fingerprint)) {
+            LOGGER.warn("Ignoring checkpoint " + slot + ", it was saved for another file");
+            return null;
+        }
+        return new Position(Integer.parseInt(fields[1]), Long.parseLong(fields[2]), Long.parseLong(fields[3]));
+    }
+
+    /**
+     * Identifies a read by the length, schema and row group layout of the file and by the filter, which is
+     * all a position refers to.
+     */
+    private static String fingerprint(CachedFooter footer, long length, String filter) {
+        CRC32 crc = new CRC32();
+        StringBuilder layout = new StringBuilder(footer.getSchema().toString()).append(filter == null ? "" : filter.trim());
+        for (BlockMetaData rowGroup : footer.getFooter().getBlocks()) {
+            layout.append(rowGroup.getStartingPos()).append(',').append(rowGroup.getRowCount())
+                    .append(',').append(rowGroup.getCompressedSize()).append(';');
+        }
+        crc.update(layout.toString().getBytes(StandardCharsets.UTF_8));
+        return length + ":" + footer.getFooter().getBlocks().size() + ":" + Long.toHexString(crc.getValue());
+    }
+
+    /**
+     * @return the position to resume at, or null to start at the beginning of the file
+     */
+    Position getStart() {
+        return start;
+    }
+
+    /**
+     * Registers a batch before it is dispatched.
+     *
+     * @param batch the batch number, counting from 1 in dispatch order
+     * @param end the position right after the last record of the batch
+     */
+    synchronized void dispatched(long batch, Position end) {
+        ends.put(batch, end);
+    }
+
+    /**
+     * Records the outcome of a batch, saving the position after the last batch settled along with every
+     * batch before it.
+     *
+     * @param batch the batch number
+     * @param durable whether the batch was delivered or written to a dead letter file
+     */
+    synchronized void settled(long batch, boolean durable) {
+        if (!durable) {
+            held = Math.min(held, batch);
+        }
+        if (batch >= held) {
+            ends.remove(batch);
+            return;
+        }
+        settled.add(batch);
+        Position position = null;
+        while (settled.remove(committed + 1)) {
+            committed++;
+            position = ends.remove(committed);
+        }
+        if (position != null) {
+            save(position);
+        }
+    }
+
+    private void save(Position position) {
+        String value = fingerprint + SEPARATOR + position.rowGroup + SEPARATOR + position.offset + SEPARATOR + position.records;
+        String target = key.equals(saved) ? alternate : key;
+        try {
+            if (store.contains(target)) {
+                store.remove(target);
+            }
+            store.store(target, value);
+            saved = target;
+            String previous = target.equals(key) ? alternate : key;
+            if (store.contains(previous)) {
+                store.remove(previous);
+            }
+        } catch (ObjectStoreException e) {
+            LOGGER.warn("Could not save checkpoint " + key + " at record " + position.records + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the checkpoint once every batch of the run settled, unless a failed batch held it back.
+     */
+    synchronized void complete() {
+        if (held != Long.MAX_VALUE) {
+            LOGGER.warn("Keeping checkpoint " + key + " before batch " + held + ", which failed without a dead letter file");
+            return;
+        }
+        try {
+            if (store.contains(key)) {
+                store.remove(key);
+            }
+            if (store.contains(alternate)) {
+                store.remove(alternate);
+            }
+            saved = null;
+        } catch (ObjectStoreException e) {
+            LOGGER.warn("Could not remove checkpoint " + key + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * A point in the file: records of the row groups before {@code rowGroup} and the first {@code offset}
+     * records of {@code rowGroup}, counted after the filter, were handed out.
+     */
+    static final class Position {
+        private final int rowGroup;
+        private final long offset;
+        private final long records;
+
+        /**
+         * @param rowGroup index of the row group in the footer
+         * @param offset records of the row group already read
+         * @param records records of the file read up to this point
+         */
+        Position(int rowGroup, long offset, long records) {
+            this.rowGroup = rowGroup;
+            this.offset = offset;
+            this.records = records;
+        }
+
+        int getRowGroup() {
+            return rowGroup;
+        }
+
+        long getOffset() {
+            return offset;
+        }
+
+        long getRecords() {
+            return records;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package org.mule.extension.parquet.internal;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.mule.extension.parquet.api.PayloadCompression;
+import org.mule.extension.parquet.api.PayloadFormat;
+import org.mule.extension.parquet.internal.arrow.AvroArrowWriter;
+import org.mule.extension.parquet.internal.json.GenericRecordJsonWriter;
+import org.mule.extension.parquet.internal.json.Utf8Encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodes the records of a batch straight into the request body.
+ * <p>
+ * Records are written, and compressed if configured, straight into a pooled {@link Payload}, so a batch
+ * is never materialized as a String nor copied: {@link #finish()} hands the buffer itself to the HTTP
+ * request, and the sender releases it back to the pool once the batch settled. The pool only grows to the
+ * number of batches in flight plus the one being encoded. Instances are not thread-safe, payloads may be
+ * released from any thread.
+ */
+abstract class BatchEncoder {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final PayloadCompression compression;
+    private final Queue<Payload> pool = new ConcurrentLinkedQueue<>();
+    private Payload buffer;
+    protected OutputStream out;
+
+    private BatchEncoder(PayloadCompression compression) {
+        this.compression = compression != null ? compression : PayloadCompression.NONE;
+    }
+
+    static BatchEncoder create(PayloadFormat format, PayloadCompression compression) {
+        if (format == PayloadFormat.AVRO) {
+            return new AvroBatchEncoder(compression);
+        }
+        if (format == PayloadFormat.ARROW) {
+            return new ArrowBatchEncoder(compression);
+        }
+        return new JsonBatchEncoder(compression, format == PayloadFormat.NDJSON);
+    }
+
+    /**
+     * Starts a new batch, discarding whatever the buffer held.
+     *
+     * @param schema schema of the records of the batch
+     */
+    void start(Schema schema) throws IOException {
+        buffer = pool.poll();
+        if (buffer == null) {
+            buffer = new Payload(pool);
+        }
+        buffer.reset();
+        switch (compression) {
+            case GZIP:
+                out = new GZIPOutputStream(buffer, BUFFER_SIZE);
+                break;
+            case ZSTD:
+                out = new ZstdOutputStream(buffer);
+                break;
+            default:
+                out = buffer;
+        }
+        begin(schema);
+    }
+
+    abstract void add(GenericRecord record) throws IOException;
+
+    /**
+     * Completes the batch.
+     *
+     * @return the encoded, possibly compressed, body, to be released once it was sent
+     */
+    Payload finish() throws IOException {
+        end();
+        out.close();
+        Payload payload = buffer;
+        buffer = null;
+        return payload;
+    }
+
+    abstract String getContentType();
+
+    /**
+     * @return the {@code Content-Encoding} header value, or null when batches are not compressed
+     */
+    String getContentEncoding() {
+        switch (compression) {
+            case GZIP:
+                return "gzip";
+            case ZSTD:
+                return "zstd";
+            default:
+                return null;
+        }
+    }
+
+    abstract String getFileExtension();
+
+    protected abstract void begin(Schema schema) throws IOException;
+
+    protected abstract void end() throws IOException;
+
+    /**
+     * Frees what the encoder holds between batches. Payloads already handed over stay valid.
+     */
+    void close() {
+    }
+
+    /**
+     * The body of a batch, read in place from the buffer it was encoded into.
+     */
+    static final class Payload extends ByteArrayOutputStream {
+        private final Queue<Payload> pool;
+
+        private Payload(Queue<Payload> pool) {
+            super(BUFFER_SIZE);
+            this.pool = pool;
+        }
+
+        /**
+         * @return the buffer, of which the first {@link #size()} bytes are the body
+         */
+        byte[] bytes() {
+            return buf;
+        }
+
+        /**
+         * Hands the buffer back to its encoder for another batch. The payload must not be read afterwards.
+         */
+        void release() {
+            pool.offer(this);
+        }
+    }
+
+    private static final class JsonBatchEncoder extends BatchEncoder {
+        private final boolean lines;
+        private final StringBuilder record = new StringBuilder(512);
+        private final Utf8Encoder utf8 = new Utf8Encoder(8 * 1024);
+        private GenericRecordJsonWriter writer;
+        private boolean first;
+
+        JsonBatchEncoder(PayloadCompression compression, boolean lines) {
+            super(compression);
+            this.lines = lines;
+        }
+
+        @Override
+        protected void begin(Schema schema) throws IOException {
+            if (writer == null || writer.getSchema() != schema) {
+                writer = GenericRecordJsonWriter.forSchema(schema);
+            }
+            first = true;
+            if (!lines) {
+                out.write('[');
+            }
+        }
+
+        @Override
+        void add(GenericRecord value) throws IOException {
+            record.setLength(0);
+            if (!lines && !first) {
+                record.append(',');
+            }
+            writer.write(value, record);
+            if (lines) {
+                record.append('\n');
+            }
+            utf8.write(record, out);
+            first = false;
+        }
+
+        @Override
+        protected void end() throws IOException {
+            if (!lines) {
+                out.write(']');
+            }
+        }
+
+        @Override
+        String getContentType() {
+            return lines ? "application/x-ndjson" : "application/json";
+        }
+
+        @Override
+        String getFileExtension() {
+            return lines ? ".ndjson" : ".json";
+        }
+    }
+
+    private static final class AvroBatchEncoder extends BatchEncoder {
+        private Schema schema;
+        private GenericDatumWriter<GenericRecord> datumWriter;
+        private DataFileWriter<GenericRecord> fileWriter;
+
+        AvroBatchEncoder(PayloadCompression compression) {
+            super(compression);
+        }
+
+        @Override
+        protected void begin(Schema schema) throws IOException {
+            if (datumWriter == null || this.schema != schema) {
+                this.schema = schema;
+                this.datumWriter = new GenericDatumWriter<>(schema);
+            }
+            fileWriter = new DataFileWriter<>(datumWriter).create(schema, out);
+        }
+
+        @Override
+        void add(GenericRecord record) throws IOException {
+            fileWriter.append(record);
+        }
+
+        @Override
+        protected void end() throws IOException {
+            fileWriter.close();
+        }
+
+        @Override
+        String getContentType() {
+            return "application/avro";
+        }
+
+        @Override
+        String getFileExtension() {
+            return ".avro";
+        }
+    }
+
+    private static final class ArrowBatchEncoder extends BatchEncoder {
+        private Schema schema;
+        private AvroArrowWriter writer;
+
+        ArrowBatchEncoder(PayloadCompression compression) {
+            super(compression);
+        }
+
+        @Override
+        protected void begin(Schema schema) throws IOException {
+            if (writer == null || this.schema != schema) {
+                close();
+                this.schema = schema;
+                this.writer = new AvroArrowWriter(schema);
+            }
+            writer.start(out);
+        }
+
+        @Override
+        void add(GenericRecord record) {
+            writer.add(record);
+        }
+
+        @Override
+        protected void end() throws IOException {
+            writer.finish();
+        }
+
+        @Override
+        void close() {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+        }
+
+        @Override
+        String getContentType() {
+            return "application/vnd.apache.arrow.stream";
+        }
+
+        @Override
+        String getFileExtension() {
+            return ".arrows";
+        }
+    }
+}
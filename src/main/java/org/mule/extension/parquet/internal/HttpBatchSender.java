@@ -0,0 +1,262 @@
+package org.mule.extension.parquet.internal;
+
+import org.mule.extension.parquet.api.BatchSendResult;
+import org.mule.extension.parquet.internal.metrics.Metric;
+import org.mule.extension.parquet.internal.metrics.OperationMetrics;
+import org.mule.extension.parquet.internal.metrics.Span;
+import org.mule.runtime.http.api.domain.message.response.HttpResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends batches to the configured endpoint while the caller keeps decoding the next ones.
+ * <p>
+ * Up to {@code maxInFlight} batches are outstanding at once, retries included. {@link #send} blocks once
+ * that many are in flight, which keeps the decoder from running ahead of the endpoint and bounds the
+ * number of encoded batches held in memory.
+ * <p>
+ * A batch is delivered on any status below 400. 5xx, 429, timeouts and connection errors are retried
+ * with exponential backoff and full jitter up to the configured number of retries; other statuses fail
+ * the batch right away. Failed batches are written, one file each, to the dead letter directory when one is
+ * configured.
+ * <p>
+ * When given a {@link BatchCheckpoint}, every batch is registered with it before it is dispatched and
+ * reported once it is delivered or failed for good, a failed batch counting as kept when it was written
+ * to a dead letter file.
+ * <p>
+ * Batch outcomes, retries and the latency from dispatch to final outcome go to the operation metrics,
+ * and encoded batches count as buffered bytes until they are settled. Each batch is traced as a
+ * {@code parquet.httpBatch} span.
+ */
+class HttpBatchSender {
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final Logger LOGGER = LoggerFactory.getLogger(HttpBatchSender.class);
+
+    private final ParquetConnection connection;
+    private final ParquetConfiguration config;
+    private final ScheduledExecutorService retryScheduler;
+    private final BatchEncoder encoder;
+    private final OperationMetrics metrics;
+    private final BatchCheckpoint checkpoint;
+    private final String runId = UUID.randomUUID().toString();
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final LongAdder batchesSent = new LongAdder();
+    private final LongAdder recordsSent = new LongAdder();
+    private final LongAdder batchesFailed = new LongAdder();
+    private final LongAdder recordsFailed = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final List<String> deadLetterFiles = new CopyOnWriteArrayList<>();
+    private long batches;
+
+    HttpBatchSender(ParquetConnection connection, ParquetConfiguration config, int maxInFlight,
+                    ScheduledExecutorService retryScheduler, BatchEncoder encoder, BatchCheckpoint checkpoint,
+                    OperationMetrics metrics) {
+        this.connection = connection;
+        this.config = config;
+        this.retryScheduler = retryScheduler;
+        this.encoder = encoder;
+        this.metrics = metrics;
+        this.checkpoint = checkpoint;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.inFlight = new Semaphore(this.maxInFlight);
+    }
+
+    /**
+     * Dispatches a batch, waiting for a free slot first.
+     *
+     * @param payload the encoded batch
+     * @param records number of records in the batch
+     * @param end position right after the last record of the batch, null without a checkpoint
+     * @throws InterruptedException if interrupted while waiting for a slot
+     */
+    void send(BatchEncoder.Payload payload, int records, BatchCheckpoint.Position end) throws InterruptedException {
+        inFlight.acquire();
+        metrics.buffered(payload.size());
+        Batch batch = new Batch(++batches, payload, records);
+        if (checkpoint != null) {
+            checkpoint.dispatched(batch.number, end);
+        }
+        attempt(batch);
+    }
+
+    private void attempt(Batch batch) {
+        batch.attempts++;
+        CompletableFuture<HttpResponse> response;
+        try {
+            response = connection.callHttpAsync(config.getTargetUrl(), batch.payload.bytes(), batch.payload.size(),
+                    encoder.getContentType(), encoder.getContentEncoding(), config.getTimeout());
+        } catch (RuntimeException e) {
+            response = new CompletableFuture<>();
+            response.completeExceptionally(e);
+        }
+        response.whenComplete((httpResponse, error) -> {
+            if (error == null && httpResponse.getStatusCode() < 400) {
+                LOGGER.info("Sent batch " + batch.number + " to Http endpoint with status code " + httpResponse.getStatusCode());
+                delivered(batch);
+                return;
+            }
+            String reason = error != null ? String.valueOf(error.getMessage()) : "status code " + httpResponse.getStatusCode();
+            if (isRetryable(httpResponse, error) && batch.attempts <= config.getMaxRetries()) {
+                long delay = backoff(batch.attempts);
+                LOGGER.warn("Batch " + batch.number + " failed with " + reason + ", retrying in " + delay + " ms");
+                retries.increment();
+                metrics.add(Metric.RETRIES, 1);
+                try {
+                    retryScheduler.schedule(() -> attempt(batch), delay, TimeUnit.MILLISECONDS);
+                } catch (RuntimeException e) {
+                    failed(batch, "retry could not be scheduled: " + e.getMessage());
+                }
+            } else {
+                failed(batch, reason);
+            }
+        });
+    }
+
+    private static boolean isRetryable(HttpResponse response, Throwable error) {
+        if (error != null) {
+            // timeouts and connection errors
+            return true;
+        }
+        int status = response.getStatusCode();
+        return status >= 500 || status == TOO_MANY_REQUESTS;
+    }
+
+    private long backoff(int attempt) {
+        long ceiling = config.getRetryBackoff() << Math.min(attempt - 1, 30);
+        if (ceiling <= 0 || ceiling > config.getMaxRetryBackoff()) {
+            ceiling = config.getMaxRetryBackoff();
+        }
+        return ThreadLocalRandom.current().nextLong(Math.max(1, ceiling) + 1);
+    }
+
+    private void delivered(Batch batch) {
+        try {
+            batchesSent.increment();
+            recordsSent.add(batch.records);
+            bytesSent.add(batch.payload.size());
+            settled(batch, "delivered", Metric.BATCHES_SENT);
+        } finally {
+            try {
+                checkpoint(batch, true);
+            } finally {
+                batch.payload.release();
+                inFlight.release();
+            }
+        }
+    }
+
+    private void settled(Batch batch, String outcome, Metric counter) {
+        metrics.add(counter, 1);
+        metrics.recordBatchLatency(System.nanoTime() - batch.dispatched);
+        metrics.buffered(-batch.payload.size());
+        batch.span.attribute("attempts", batch.attempts).attribute("outcome", outcome).end();
+    }
+
+    private void failed(Batch batch, String reason) {
+        boolean kept = false;
+        try {
+            LOGGER.error("Batch " + batch.number + " of " + batch.records + " records failed after " + batch.attempts + " attempts: " + reason);
+            batchesFailed.increment();
+            recordsFailed.add(batch.records);
+            settled(batch, "failed", Metric.BATCHES_FAILED);
+            kept = writeDeadLetter(batch);
+        } catch (IOException e) {
+            LOGGER.error("Could not write batch " + batch.number + " to the dead letter file: " + e.getMessage());
+        } finally {
+            try {
+                checkpoint(batch, kept);
+            } finally {
+                batch.payload.release();
+                inFlight.release();
+            }
+        }
+    }
+
+    /**
+     * Records the outcome in the checkpoint. Runs on the HTTP client's callback thread, so a failure of the
+     * object store is only logged: the checkpoint then stays at the last position it could save.
+     */
+    private void checkpoint(Batch batch, boolean durable) {
+        if (checkpoint == null) {
+            return;
+        }
+        try {
+            checkpoint.settled(batch.number, durable);
+        } catch (RuntimeException e) {
+            LOGGER.error("Could not checkpoint batch " + batch.number + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return whether the batch was written, false when no dead letter directory is configured
+     */
+    private boolean writeDeadLetter(Batch batch) throws IOException {
+        if (config.getDeadLetterDirectory() == null) {
+            return false;
+        }
+        Path directory = Files.createDirectories(Paths.get(config.getDeadLetterDirectory()));
+        Path file = directory.resolve("parquet-dead-letter-" + runId + "-" + batch.number + encoder.getFileExtension()
+                + (encoder.getContentEncoding() != null ? "." + encoder.getContentEncoding() : ""));
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(batch.payload.bytes(), 0, batch.payload.size());
+        }
+        deadLetterFiles.add(file.toString());
+        return true;
+    }
+
+    /**
+     * Waits until every dispatched batch was delivered or failed for good.
+     *
+     * @param result the result to fill with the send counters
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void awaitCompletion(BatchSendResult result) throws InterruptedException {
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+        result.setDeadLetterFiles(new ArrayList<>(deadLetterFiles));
+        result.setBatchesSent(batchesSent.sum());
+        result.setRecordsSent(recordsSent.sum());
+        result.setBatchesFailed(batchesFailed.sum());
+        result.setRecordsFailed(recordsFailed.sum());
+        result.setRetries(retries.sum());
+        result.setBytesSent(bytesSent.sum());
+    }
+
+    private static final class Batch {
+        private final long number;
+        private final BatchEncoder.Payload payload;
+        private final int records;
+        private final long dispatched = System.nanoTime();
+        private final Span span;
+        private volatile int attempts;
+
+        Batch(long number, BatchEncoder.Payload payload, int records) {
+            this.number = number;
+            this.payload = payload;
+            this.records = records;
+            this.span = Span.start("parquet.httpBatch")
+                    .attribute("batch", number)
+                    .attribute("records", records)
+                    .attribute("bytes", payload.size());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.mule.extension.parquet.internal;
+
+import org.apache.avro.Schema;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.schema.MessageType;
+import org.mule.extension.parquet.internal.record.JsonReadSupport;
+
+/**
+ * {@link ParquetReader} builder producing the JSON text of flat records, projected with the file's own
+ * parquet types like {@link AvroReaderBuilder}.
+ */
+class JsonReaderBuilder extends ParquetReader.Builder<StringBuilder> {
+    private final MessageType projection;
+    private final Schema recordSchema;
+
+    /**
+     * @param projection the columns to read, or null to read every column
+     * @param recordSchema the Avro schema the Avro readers would produce the records with
+     */
+    JsonReaderBuilder(InputFile file, MessageType projection, Schema recordSchema) {
+        super(file);
+        this.projection = projection;
+        this.recordSchema = recordSchema;
+    }
+
+    @Override
+    protected ReadSupport<StringBuilder> getReadSupport() {
+        return new JsonReadSupport(projection, recordSchema);
+    }
+}
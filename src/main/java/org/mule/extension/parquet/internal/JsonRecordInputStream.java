@@ -0,0 +1,183 @@
+package org.mule.extension.parquet.internal;
+
+import org.apache.avro.generic.GenericRecord;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.mule.extension.parquet.internal.cache.CachedFooter;
+import org.mule.extension.parquet.internal.json.GenericRecordJsonWriter;
+import org.mule.extension.parquet.internal.json.Utf8Encoder;
+import org.mule.extension.parquet.internal.metrics.AllocationMeter;
+import org.mule.extension.parquet.internal.metrics.Metric;
+import org.mule.extension.parquet.internal.metrics.OperationMetrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The records of a parquet file as a JSON array, encoded as the stream is read.
+ * <p>
+ * Records are decoded from the {@link ParquetReader} and written as UTF-8 into a small chunk only when
+ * the consumer asks for more bytes, so neither the records nor the JSON text of the file are ever held
+ * in memory as a whole. The reader and its source file, if any, are closed, and the invocation finished
+ * in the operation metrics, when the stream reaches its end or is closed.
+ * <p>
+ * The reader either produces Avro records, encoded with a {@link GenericRecordJsonWriter}, or the JSON
+ * text of every record directly, as a reader built on a
+ * {@link org.mule.extension.parquet.internal.record.JsonRecordMaterializer} does, which is copied as is.
+ */
+class JsonRecordInputStream extends InputStream {
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    private final ParquetReader<?> reader;
+    private final CachedFooter footer;
+    private final Closeable source;
+    private final OperationMetrics metrics;
+    private final long started;
+    private final Chunk chunk = new Chunk();
+    private final StringBuilder record = new StringBuilder(512);
+    private final Utf8Encoder utf8 = new Utf8Encoder(8 * 1024);
+    private GenericRecordJsonWriter writer;
+    private int position;
+    private long records;
+    private boolean ended;
+    private boolean closed;
+
+    JsonRecordInputStream(ParquetReader<?> reader, CachedFooter footer, Closeable source,
+                          OperationMetrics metrics, long started) {
+        this.reader = reader;
+        this.footer = footer;
+        this.source = source;
+        this.metrics = metrics;
+        this.started = started;
+        chunk.write('[');
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!available(1)) {
+            return -1;
+        }
+        return chunk.bytes()[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!available(len)) {
+            return -1;
+        }
+        int n = Math.min(len, chunk.size() - position);
+        System.arraycopy(chunk.bytes(), position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return chunk.size() - position;
+    }
+
+    private boolean available(int wanted) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        while (position == chunk.size()) {
+            if (ended) {
+                return false;
+            }
+            chunk.reset();
+            position = 0;
+            fill(Math.max(wanted, CHUNK_SIZE));
+        }
+        return true;
+    }
+
+    private void fill(int size) throws IOException {
+        long decodeNanos = 0;
+        long encodeNanos = 0;
+        long decodedRecords = 0;
+        long allocated = AllocationMeter.allocatedBytes();
+        try {
+            long mark = System.nanoTime();
+            while (chunk.size() < size) {
+                Object value = reader.read();
+                long decoded = System.nanoTime();
+                decodeNanos += decoded - mark;
+                if (value == null) {
+                    chunk.write(']');
+                    end(false);
+                    return;
+                }
+                if (value instanceof CharSequence) {
+                    if (records > 0) {
+                        chunk.write(',');
+                    }
+                    utf8.write((CharSequence) value, chunk);
+                } else {
+                    GenericRecord avro = (GenericRecord) value;
+                    if (writer == null) {
+                        writer = ParquetOperations.jsonWriter(footer, avro.getSchema());
+                    }
+                    record.setLength(0);
+                    if (records > 0) {
+                        record.append(',');
+                    }
+                    writer.write(avro, record);
+                    utf8.write(record, chunk);
+                }
+                records++;
+                decodedRecords++;
+                mark = System.nanoTime();
+                encodeNanos += mark - decoded;
+            }
+        } catch (IOException | RuntimeException e) {
+            end(true);
+            throw e;
+        } finally {
+            metrics.add(Metric.RECORDS_DECODED, decodedRecords);
+            metrics.add(Metric.DECODE_NANOS, decodeNanos);
+            metrics.add(Metric.ENCODE_NANOS, encodeNanos);
+            metrics.add(Metric.BYTES_ALLOCATED, AllocationMeter.allocatedBytes() - allocated);
+        }
+    }
+
+    private void end(boolean failed) throws IOException {
+        if (ended) {
+            return;
+        }
+        ended = true;
+        try (Closeable file = source) {
+            reader.close();
+        } finally {
+            metrics.finish(started, failed);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        chunk.reset();
+        position = 0;
+        // closing before the end counts as a completed, if partial, read
+        end(false);
+    }
+
+    /**
+     * A {@link ByteArrayOutputStream} whose bytes can be read in place.
+     */
+    private static final class Chunk extends ByteArrayOutputStream {
+        Chunk() {
+            super(CHUNK_SIZE + 1024);
+        }
+
+        byte[] bytes() {
+            return buf;
+        }
+    }
+}
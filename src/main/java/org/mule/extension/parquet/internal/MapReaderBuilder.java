@@ -0,0 +1,38 @@
+package org.mule.extension.parquet.internal;
+
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.schema.MessageType;
+import org.mule.extension.parquet.internal.record.MapReadSupport;
+
+import java.util.Map;
+
+/**
+ * {@link ParquetReader} builder producing records as plain Java maps, projected with the file's own
+ * parquet types like {@link AvroReaderBuilder}.
+ */
+class MapReaderBuilder extends ParquetReader.Builder<Map<String, Object>> {
+    private MessageType projection;
+    private MessageType selection;
+
+    MapReaderBuilder(InputFile file) {
+        super(file);
+    }
+
+    /**
+     * @param projection the columns to read
+     * @param selection the columns of the maps produced, the {@code projection} without the columns only
+     *                  read for the filter, or null for all of them
+     */
+    MapReaderBuilder withProjection(MessageType projection, MessageType selection) {
+        this.projection = projection;
+        this.selection = selection;
+        return this;
+    }
+
+    @Override
+    protected ReadSupport<Map<String, Object>> getReadSupport() {
+        return new MapReadSupport(projection, selection);
+    }
+}
@@ -0,0 +1,249 @@
+package org.mule.extension.parquet.internal;
+
+import org.apache.avro.generic.GenericRecord;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.io.InputFile;
+import org.mule.extension.parquet.internal.cache.CachedFooter;
+import org.mule.extension.parquet.internal.json.GenericRecordJsonWriter;
+import org.mule.extension.parquet.internal.metrics.AllocationMeter;
+import org.mule.extension.parquet.internal.metrics.Metric;
+import org.mule.extension.parquet.internal.metrics.OperationMetrics;
+import org.mule.extension.parquet.internal.metrics.Span;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decodes the row groups of one file concurrently.
+ * <p>
+ * Every row group becomes a task that opens its own reader over the shared {@link InputFile}, restricted to
+ * that row group's byte range. The cached footer only plans the tasks, prunes row groups and gives the
+ * schemas: the reader of each task still reads and decodes the footer from the file, as parquet 1.12 has
+ * no way to open a reader over an {@link InputFile} from a footer already decoded. That costs one footer
+ * decode per row group, small next to decoding the row group itself. At most {@code parallelism} row groups
+ * are decoded or waiting to be consumed at any time, which bounds memory to that many decoded row
+ * groups. Results are handed out in file order, or as they complete when order doesn't matter.
+ * <p>
+ * Only the row groups handed in are read, those of the whole file or of a split. Row groups the filter
+ * rules out on their statistics are dropped before any task is submitted. Every decoded row group is
+ * traced as a {@code parquet.rowGroup} span, and decoded records waiting to be consumed are tracked as
+ * buffered bytes, two per character.
+ * <p>
+ * With low allocation decode, row groups of flat files are read straight to JSON text, see
+ * {@link org.mule.extension.parquet.internal.record.JsonRecordMaterializer}. The bytes each task allocates
+ * are measured on its worker thread.
+ */
+class ParallelRowGroupReader implements Closeable {
+    private final Logger LOGGER = LoggerFactory.getLogger(ParallelRowGroupReader.class);
+
+    private final InputFile inputFile;
+    private final ReadOptions readOptions;
+    private final int parallelism;
+    private final boolean preserveOrder;
+    private final boolean lowAllocation;
+    private final OperationMetrics metrics;
+    private final CachedFooter footer;
+    private final List<BlockMetaData> rowGroups;
+    private final CompletionService<RowGroupResult> completion;
+    private final List<Future<RowGroupResult>> submitted = new ArrayList<>();
+    private final Map<Integer, RowGroupResult> completed = new HashMap<>();
+    private final Map<String, WorkerStats> workers = new ConcurrentHashMap<>();
+    private final AtomicLong bufferedBytes = new AtomicLong();
+    private int nextToSubmit;
+    private int nextToEmit;
+    private int inFlight;
+
+    ParallelRowGroupReader(InputFile inputFile, CachedFooter footer, List<BlockMetaData> rowGroups, ReadOptions readOptions,
+                           ExecutorService executor, int parallelism, boolean preserveOrder, boolean lowAllocation, OperationMetrics metrics) {
+        this.inputFile = inputFile;
+        this.readOptions = readOptions;
+        this.parallelism = Math.max(1, parallelism);
+        this.preserveOrder = preserveOrder;
+        this.lowAllocation = lowAllocation;
+        this.metrics = metrics;
+        this.completion = new ExecutorCompletionService<>(executor);
+        this.footer = footer;
+        this.rowGroups = ParquetOperations.countRowGroups(metrics, rowGroups, readOptions, footer.getSchema());
+    }
+
+    /**
+     * Returns the records of the next row group, blocking until it is decoded.
+     *
+     * @return the JSON records of a row group, possibly empty when a filter dropped all of them, or
+     *         null once every row group has been returned
+     * @throws IOException if decoding a row group failed
+     */
+    List<String> next() throws IOException {
+        while (true) {
+            if (preserveOrder) {
+                RowGroupResult result = completed.remove(nextToEmit);
+                if (result != null) {
+                    nextToEmit++;
+                    return consume(result);
+                }
+            }
+            submit();
+            if (inFlight == 0) {
+                return null;
+            }
+            RowGroupResult result = take();
+            if (!preserveOrder) {
+                return consume(result);
+            }
+            completed.put(result.index, result);
+        }
+    }
+
+    private List<String> consume(RowGroupResult result) {
+        bufferedBytes.addAndGet(-result.bytes);
+        metrics.buffered(-result.bytes);
+        return result.records;
+    }
+
+    private void submit() {
+        while (nextToSubmit < rowGroups.size()
+                && (preserveOrder ? nextToSubmit - nextToEmit < parallelism : inFlight < parallelism)) {
+            final int index = nextToSubmit++;
+            submitted.add(completion.submit(() -> decode(index)));
+            inFlight++;
+        }
+    }
+
+    private RowGroupResult take() throws IOException {
+        try {
+            Future<RowGroupResult> future = completion.take();
+            inFlight--;
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for row groups of " + inputFile);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Error decoding a row group of " + inputFile, e.getCause());
+        }
+    }
+
+    private RowGroupResult decode(int index) throws IOException {
+        long started = System.nanoTime();
+        BlockMetaData rowGroup = rowGroups.get(index);
+        Span span = Span.start("parquet.rowGroup")
+                .attribute("file", inputFile)
+                .attribute("index", index)
+                .attribute("rows", rowGroup.getRowCount())
+                .attribute("compressedBytes", rowGroup.getCompressedSize());
+        List<String> records = new ArrayList<>();
+        long decodeNanos = 0;
+        long encodeNanos = 0;
+        long chars = 0;
+        long allocated = AllocationMeter.allocatedBytes();
+        try (ParquetReader<?> reader = open(rowGroup)) {
+            GenericRecordJsonWriter writer = null;
+            long mark = System.nanoTime();
+            Object value;
+            while ((value = reader.read()) != null) {
+                long decoded = System.nanoTime();
+                decodeNanos += decoded - mark;
+                String json;
+                if (value instanceof CharSequence) {
+                    json = value.toString();
+                } else {
+                    GenericRecord record = (GenericRecord) value;
+                    if (writer == null) {
+                        writer = ParquetOperations.jsonWriter(footer, record.getSchema());
+                    }
+                    json = writer.write(record);
+                }
+                chars += json.length();
+                records.add(json);
+                mark = System.nanoTime();
+                encodeNanos += mark - decoded;
+            }
+        } finally {
+            span.attribute("records", records.size()).end();
+        }
+        metrics.add(Metric.DECODE_NANOS, decodeNanos);
+        metrics.add(Metric.ENCODE_NANOS, encodeNanos);
+        metrics.add(Metric.BYTES_ALLOCATED, AllocationMeter.allocatedBytes() - allocated);
+        bufferedBytes.addAndGet(2 * chars);
+        metrics.buffered(2 * chars);
+        workers.computeIfAbsent(Thread.currentThread().getName(), WorkerStats::new)
+                .add(records.size(), System.nanoTime() - started);
+        return new RowGroupResult(index, records, 2 * chars);
+    }
+
+    private ParquetReader<?> open(BlockMetaData rowGroup) throws IOException {
+        long start = rowGroup.getStartingPos();
+        long end = start + rowGroup.getCompressedSize();
+        ParquetReader.Builder<StringBuilder> json = lowAllocation ? ParquetOperations.jsonReaderBuilder(inputFile, footer, readOptions) : null;
+        if (json != null) {
+            return json.withFileRange(start, end).build();
+        }
+        return ParquetOperations.avroReaderBuilder(inputFile, readOptions, footer).withFileRange(start, end).build();
+    }
+
+    @Override
+    public void close() {
+        for (Future<RowGroupResult> future : submitted) {
+            future.cancel(true);
+        }
+        completed.clear();
+        metrics.buffered(-bufferedBytes.getAndSet(0));
+        for (WorkerStats stats : workers.values()) {
+            LOGGER.info(stats.toString());
+        }
+    }
+
+    private static final class RowGroupResult {
+        private final int index;
+        private final List<String> records;
+        private final long bytes;
+
+        RowGroupResult(int index, List<String> records, long bytes) {
+            this.index = index;
+            this.records = records;
+            this.bytes = bytes;
+        }
+    }
+
+    private static final class WorkerStats {
+        private final String worker;
+        private final LongAdder rowGroups = new LongAdder();
+        private final LongAdder records = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        WorkerStats(String worker) {
+            this.worker = worker;
+        }
+
+        void add(long recordCount, long elapsedNanos) {
+            rowGroups.increment();
+            records.add(recordCount);
+            nanos.add(elapsedNanos);
+        }
+
+        @Override
+        public String toString() {
+            return "Row group worker " + worker + " decoded " + rowGroups.sum() + " row groups, "
+                    + records.sum() + " records in " + TimeUnit.NANOSECONDS.toMillis(nanos.sum()) + " ms";
+        }
+    }
+}
@@ -1,55 +1,120 @@
 package org.mule.extension.parquet.internal;
 
-import org.apache.parquet.io.DelegatingSeekableInputStream;
 import org.apache.parquet.io.InputFile;
 import org.apache.parquet.io.SeekableInputStream;
+import org.mule.extension.parquet.internal.cache.FooterCache;
+import org.mule.extension.parquet.internal.io.CountingInputFile;
+import org.mule.extension.parquet.internal.io.CursorStreamInputFile;
+import org.mule.extension.parquet.internal.io.HttpRangeInputFile;
+import org.mule.extension.parquet.internal.io.MappedInputFile;
+import org.mule.extension.parquet.internal.metrics.Metric;
+import org.mule.extension.parquet.internal.metrics.OperationMetrics;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
 
-import org.apache.commons.io.IOUtils;
-import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
-public class ParquetBufferedReader implements InputFile {
+/**
+ * Seekable view of a streamed parquet payload.
+ * <p>
+ * Repeatable payloads are read in place through cursors of their {@link CursorStream} provider. Anything
+ * else is spilled once to a memory-mapped temp file, so the heap never holds the file and payloads larger
+ * than 2 GB are fine either way. Local files are mapped in place and remote objects read with range
+ * requests. When given metrics, the spill and every byte parquet reads are counted.
+ */
+public class ParquetBufferedReader implements InputFile, Closeable {
     private final String streamId;
-    private final byte[] data;
+    private final String identity;
+    private final InputFile source;
+    private final InputFile delegate;
 
-    private static class SeekableByteArrayInputStream extends ByteArrayInputStream {
-        public SeekableByteArrayInputStream(byte[] buf) {
-            super(buf);
-        }
-
-        public void setPos(int pos) {
-            this.pos = pos;
-        }
+    public ParquetBufferedReader(String streamId, InputStream stream) throws IOException {
+        this(streamId, stream, null);
+    }
 
-        public int getPos() {
-            return this.pos;
-        }
+    public ParquetBufferedReader(String streamId, InputStream stream, OperationMetrics metrics) throws IOException {
+        this(streamId, null, buffer(stream, metrics), metrics);
     }
 
-    public ParquetBufferedReader(String streamId, InputStream stream) throws IOException {
+    private ParquetBufferedReader(String streamId, String identity, InputFile source, OperationMetrics metrics) {
         this.streamId = streamId;
-        this.data = IOUtils.toByteArray(stream);
+        this.identity = identity;
+        this.source = source;
+        this.delegate = metrics != null ? new CountingInputFile(source, bytes -> metrics.add(Metric.BYTES_READ, bytes)) : source;
+    }
+
+    /**
+     * Reads a local file in place.
+     *
+     * @param file the parquet file
+     * @param metrics metrics to count the bytes read in, may be null
+     * @return a reader over the mapped file
+     * @throws IOException if the file cannot be opened
+     */
+    public static ParquetBufferedReader open(Path file, OperationMetrics metrics) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        String identity = FooterCache.identity(absolute.toString(), Files.size(absolute),
+                Files.getLastModifiedTime(absolute).toMillis());
+        return new ParquetBufferedReader(file.toString(), identity, MappedInputFile.open(absolute), metrics);
+    }
+
+    /**
+     * Reads a remote object through HTTP range requests. Its footer is cached on its URL and ETag when the
+     * server sends one, and on the footer content otherwise.
+     *
+     * @param url the URL of the object
+     * @param file the object
+     * @param metrics metrics to count the bytes read in, may be null
+     * @return a reader over the object
+     */
+    public static ParquetBufferedReader remote(String url, HttpRangeInputFile file, OperationMetrics metrics) {
+        int query = url.indexOf('?');
+        // query strings hold signatures of presigned URLs, which change between requests for the same object
+        String location = query < 0 ? url : url.substring(0, query);
+        String identity = file.getVersion() == null ? null
+                : FooterCache.identity(location + "@" + file.getVersion(), file.getLength(), 0);
+        return new ParquetBufferedReader(location, identity, file, metrics);
+    }
+
+    /**
+     * @return the footer cache identity of a local file, or null for streamed payloads, which are cached
+     *         on their footer content instead
+     */
+    public String getIdentity() {
+        return identity;
+    }
+
+    private static InputFile buffer(InputStream stream, OperationMetrics metrics) throws IOException {
+        if (stream instanceof CursorStream) {
+            return new CursorStreamInputFile(((CursorStream) stream).getProvider());
+        }
+        long started = System.nanoTime();
+        MappedInputFile spill = MappedInputFile.spill(stream);
+        if (metrics != null) {
+            metrics.add(Metric.SPILL_NANOS, System.nanoTime() - started);
+            metrics.add(Metric.BYTES_SPILLED, spill.getLength());
+        }
+        return spill;
     }
 
     @Override
     public long getLength() throws IOException {
-        return this.data.length;
+        return delegate.getLength();
     }
 
     @Override
     public SeekableInputStream newStream() throws IOException {
-        return new DelegatingSeekableInputStream(new SeekableByteArrayInputStream(this.data)) {
-            @Override
-            public void seek(long newPos) throws IOException {
-                ((SeekableByteArrayInputStream) this.getStream()).setPos((int) newPos);
-            }
-
-            @Override
-            public long getPos() throws IOException {
-                return ((SeekableByteArrayInputStream) this.getStream()).getPos();
-            }
-        };
+        return delegate.newStream();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (source instanceof Closeable) {
+            ((Closeable) source).close();
+        }
     }
 
     @Override
@@ -1,49 +1,79 @@
 package org.mule.extension.parquet.internal;
 
-import org.apache.parquet.io.DelegatingPositionOutputStream;
 import org.apache.parquet.io.OutputFile;
 import org.apache.parquet.io.PositionOutputStream;
- 
-import java.io.ByteArrayOutputStream;
+
 import java.io.IOException;
 import java.io.OutputStream;
 
+/**
+ * {@link OutputFile} writing a parquet file to a stream, such as the pipe behind the stream write
+ * operations.
+ * <p>
+ * Nothing is kept in memory here: the parquet writer flushes every finished row group straight through,
+ * and the footer follows when the writer is closed. Closing the writer only flushes the stream, which
+ * stays open so the caller decides whether the output ended normally or failed.
+ */
 public class ParquetBufferedWriter implements OutputFile {
-    private final ByteArrayOutputStream baos = new ByteArrayOutputStream();
- 
+    private final OutputStream stream;
+
+    public ParquetBufferedWriter(OutputStream stream) {
+        this.stream = stream;
+    }
+
     @Override
     public PositionOutputStream create(long blockSizeHint) throws IOException {
-        return new InMemoryPositionOutputStream(baos);
+        return new StreamPositionOutputStream(stream);
     }
- 
+
     @Override
     public PositionOutputStream createOrOverwrite(long blockSizeHint) throws IOException {
-        return null;
+        return create(blockSizeHint);
     }
- 
+
     @Override
     public boolean supportsBlockSize() {
         return false;
     }
- 
+
     @Override
     public long defaultBlockSize() {
         return 0;
     }
- 
-    public byte[] toArray() {
-        return baos.toByteArray();
-    }
- 
-    private static class InMemoryPositionOutputStream extends DelegatingPositionOutputStream {
- 
-        public InMemoryPositionOutputStream(OutputStream outputStream) {
-            super(outputStream);
+
+    private static class StreamPositionOutputStream extends PositionOutputStream {
+        private final OutputStream stream;
+        private long position;
+
+        StreamPositionOutputStream(OutputStream stream) {
+            this.stream = stream;
         }
- 
+
+        @Override
+        public long getPos() {
+            return position;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            stream.write(b);
+            position++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            stream.write(b, off, len);
+            position += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            stream.flush();
+        }
+
         @Override
-        public long getPos() throws IOException {
-            return ((ByteArrayOutputStream) this.getStream()).size();
+        public void close() throws IOException {
+            stream.flush();
         }
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,13 @@
 package org.mule.extension.parquet.internal;
 
+import org.mule.extension.parquet.api.PayloadCompression;
+import org.mule.extension.parquet.api.PayloadFormat;
 import org.mule.runtime.extension.api.annotation.Operations;
 import org.mule.runtime.extension.api.annotation.connectivity.ConnectionProviders;
+import org.mule.runtime.extension.api.annotation.param.Optional;
 import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
 
 @Operations(ParquetOperations.class)
 @ConnectionProviders(ParquetConnectionProvider.class)
@@ -23,6 +28,41 @@ public class ParquetConfiguration {
     @Parameter
     private int timeout;
 
+    @Parameter
+    @Optional(defaultValue = "JSON")
+    @DisplayName("Payload Format")
+    @Summary("Body format of the posted batches")
+    private PayloadFormat payloadFormat;
+
+    @Parameter
+    @Optional(defaultValue = "NONE")
+    @DisplayName("Payload Compression")
+    @Summary("Content-Encoding applied to the posted batches")
+    private PayloadCompression payloadCompression;
+
+    @Parameter
+    @Optional(defaultValue = "3")
+    @DisplayName("Max Retries")
+    @Summary("Times a batch is retried after a 5xx, 429, timeout or connection error before it counts as failed")
+    private int maxRetries;
+
+    @Parameter
+    @Optional(defaultValue = "500")
+    @DisplayName("Retry Backoff (ms)")
+    @Summary("Base delay of the exponential backoff between retries, randomized with full jitter")
+    private long retryBackoff;
+
+    @Parameter
+    @Optional(defaultValue = "30000")
+    @DisplayName("Max Retry Backoff (ms)")
+    private long maxRetryBackoff;
+
+    @Parameter
+    @Optional
+    @DisplayName("Dead Letter Directory")
+    @Summary("Directory where batches that still fail after all retries are written, one file per batch")
+    private String deadLetterDirectory;
+
     public String getTargetUrl() {
         return targetUrl;
     }
@@ -30,4 +70,52 @@ public class ParquetConfiguration {
     public void setTargetUrl(String targetUrl) {
         this.targetUrl = targetUrl;
     }
+
+    public PayloadFormat getPayloadFormat() {
+        return payloadFormat;
+    }
+
+    public void setPayloadFormat(PayloadFormat payloadFormat) {
+        this.payloadFormat = payloadFormat;
+    }
+
+    public PayloadCompression getPayloadCompression() {
+        return payloadCompression;
+    }
+
+    public void setPayloadCompression(PayloadCompression payloadCompression) {
+        this.payloadCompression = payloadCompression;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public long getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    public void setRetryBackoff(long retryBackoff) {
+        this.retryBackoff = retryBackoff;
+    }
+
+    public long getMaxRetryBackoff() {
+        return maxRetryBackoff;
+    }
+
+    public void setMaxRetryBackoff(long maxRetryBackoff) {
+        this.maxRetryBackoff = maxRetryBackoff;
+    }
+
+    public String getDeadLetterDirectory() {
+        return deadLetterDirectory;
+    }
+
+    public void setDeadLetterDirectory(String deadLetterDirectory) {
+        this.deadLetterDirectory = deadLetterDirectory;
+    }
 }
@@ -1,52 +1,134 @@
 package org.mule.extension.parquet.internal;
 
-import org.apache.http.entity.StringEntity;
+import org.mule.extension.parquet.internal.io.HttpRangeInputFile;
+import org.mule.extension.parquet.internal.metrics.OperationMetrics;
 import org.mule.runtime.http.api.HttpConstants;
-import org.mule.runtime.http.api.HttpService;
 import org.mule.runtime.http.api.client.HttpClient;
-import org.mule.runtime.http.api.client.HttpClientConfiguration;
+import org.mule.runtime.http.api.domain.entity.HttpEntity;
 import org.mule.runtime.http.api.domain.entity.ByteArrayHttpEntity;
+import org.mule.runtime.http.api.domain.entity.InputStreamHttpEntity;
 import org.mule.runtime.http.api.domain.message.request.HttpRequest;
 import org.mule.runtime.http.api.domain.message.request.HttpRequestBuilder;
 import org.mule.runtime.http.api.domain.message.response.HttpResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * The HTTP client of a configuration, shared by every flow using it.
+ * <p>
+ * Requests are built from a fresh builder on every call, so concurrent flows never share request state.
+ */
 public final class ParquetConnection {
+    private static final OperationMetrics HTTP_METRICS = OperationMetrics.forOperation("http");
+
     private final Logger LOGGER = LoggerFactory.getLogger(ParquetConnection.class);
-    private HttpClient httpClient;
-    private HttpRequestBuilder httpRequestBuilder;
-
-    public ParquetConnection(HttpService httpService) {
-        HttpClientConfiguration.Builder builder = new HttpClientConfiguration.Builder();
-        builder.setName("AnupamHttpConfig");
-        this.httpClient = httpService.getClientFactory().create(builder.build());
-        this.httpRequestBuilder = HttpRequest.builder();
-        this.httpClient.start();
+    private final HttpClient httpClient;
+    private volatile boolean stopped;
+
+    public ParquetConnection(HttpClient httpClient) {
+        this.httpClient = httpClient;
     }
 
     public void invalidate() {
+        stopped = true;
         this.httpClient.stop();
     }
 
-    public void callHttp(String url, String data, int timeout) {
-        HttpResponse httpResponse = null;
-        ByteArrayHttpEntity entity = new ByteArrayHttpEntity(data.getBytes(StandardCharsets.UTF_8));
-        HttpRequest request = this.httpRequestBuilder
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Posts an encoded batch without waiting for the response. Requests in flight and their duration
+     * are tracked in the {@code http} metrics.
+     * <p>
+     * The body is read from {@code data} in place: a buffer longer than the body is streamed with its
+     * length rather than copied to an array of the exact size.
+     *
+     * @param data buffer holding the body
+     * @param length length of the body, from the start of {@code data}
+     * @return a future completed with the response, or exceptionally on connection errors and timeouts
+     */
+    public CompletableFuture<HttpResponse> callHttpAsync(String url, byte[] data, int length, String contentType,
+                                                         String contentEncoding, int timeout) {
+        HttpEntity entity = length == data.length ? new ByteArrayHttpEntity(data)
+                : new InputStreamHttpEntity(new ByteArrayInputStream(data, 0, length), (long) length);
+        HttpRequestBuilder builder = HttpRequest.builder()
                 .method(HttpConstants.Method.POST)
-                .addHeader("Content-Type","application/json")
+                .addHeader("Content-Type", contentType)
                 .entity(entity)
+                .uri(url);
+        if (contentEncoding != null) {
+            builder.addHeader("Content-Encoding", contentEncoding);
+        }
+
+        HTTP_METRICS.requestStarted();
+        long started = System.nanoTime();
+        try {
+            return this.httpClient.sendAsync(builder.build(), timeout, false, null)
+                    .whenComplete((response, error) -> {
+                        HTTP_METRICS.requestFinished(System.nanoTime() - started);
+                        if (response != null) {
+                            release(response);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            HTTP_METRICS.requestFinished(System.nanoTime() - started);
+            throw e;
+        }
+    }
+
+    /**
+     * Fetches a byte range of {@code url} with a {@code GET} carrying a {@code Range} header. Requests
+     * and their duration are tracked in the {@code http} metrics.
+     *
+     * @param range value of the {@code Range} header
+     * @return the partial content
+     * @throws IOException if the request fails or the server doesn't answer with partial content
+     */
+    public HttpRangeInputFile.Range fetchRange(String url, String range, int timeout) throws IOException {
+        HttpRequest request = HttpRequest.builder()
+                .method(HttpConstants.Method.GET)
+                .addHeader("Range", range)
                 .uri(url)
                 .build();
-
+        HTTP_METRICS.requestStarted();
+        long started = System.nanoTime();
         try {
-            httpResponse = this.httpClient.send(request, timeout, false, null);
-            LOGGER.info("Sent to Http endpoint with status code " + httpResponse.getStatusCode());
+            HttpResponse response = this.httpClient.send(request, timeout, true, null);
+            if (response.getStatusCode() != 206) {
+                release(response);
+                throw new IOException(url + " answered " + range + " with status code " + response.getStatusCode()
+                        + " instead of 206, it has to support range requests");
+            }
+            long[] contentRange = HttpRangeInputFile.Range.parseContentRange(response.getHeaderValue("Content-Range"));
+            return new HttpRangeInputFile.Range(contentRange[0], response.getEntity().getBytes(), contentRange[1],
+                    response.getHeaderValue("ETag"));
+        } catch (IOException e) {
+            throw e;
         } catch (Exception e) {
-            LOGGER.error(e.getMessage());
+            throw new IOException("Error fetching " + range + " of " + url + ": " + e.getMessage(), e);
+        } finally {
+            HTTP_METRICS.requestFinished(System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Closes a streamed response body, which only the status of is used, so its connection goes back to the pool.
+     */
+    private void release(HttpResponse response) {
+        HttpEntity entity = response.getEntity();
+        if (entity != null && entity.isStreaming()) {
+            try (InputStream content = entity.getContent()) {
+                // nothing to read
+            } catch (IOException e) {
+                LOGGER.debug("Could not release response body: " + e.getMessage());
+            }
         }
     }
 }
@@ -1,30 +1,91 @@
 package org.mule.extension.parquet.internal;
 
+import org.mule.runtime.api.connection.CachedConnectionProvider;
 import org.mule.runtime.api.connection.ConnectionException;
-import org.mule.runtime.extension.api.annotation.param.Parameter;
-import org.mule.runtime.extension.api.annotation.param.Optional;
 import org.mule.runtime.api.connection.ConnectionValidationResult;
-import org.mule.runtime.api.connection.PoolingConnectionProvider;
-import org.mule.runtime.api.connection.ConnectionProvider;
-import org.mule.runtime.api.connection.CachedConnectionProvider;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.RefName;
 import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
-
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
 import org.mule.runtime.http.api.HttpService;
+import org.mule.runtime.http.api.client.HttpClient;
+import org.mule.runtime.http.api.client.HttpClientConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 
-public class ParquetConnectionProvider implements PoolingConnectionProvider<ParquetConnection> {
+/**
+ * Provides the HTTP client batches are posted with.
+ * <p>
+ * The connection is cached, so every flow using a configuration shares one client and its connection pool.
+ * The client multiplexes requests itself: handing out a client per pooled connection only multiplied the
+ * sockets and selector threads without adding any throughput.
+ */
+public class ParquetConnectionProvider implements CachedConnectionProvider<ParquetConnection> {
 
     private final Logger LOGGER = LoggerFactory.getLogger(ParquetConnectionProvider.class);
 
     @Inject
     private HttpService httpService;
 
+    @RefName
+    private String configName;
+
+    @Parameter
+    @Optional(defaultValue = "-1")
+    @DisplayName("Max Connections")
+    @Summary("Maximum number of outbound connections kept open by the client, -1 for no limit")
+    @Placement(tab = "Advanced")
+    private int maxConnections;
+
+    @Parameter
+    @Optional(defaultValue = "true")
+    @DisplayName("Use Persistent Connections")
+    @Summary("Keep connections alive between batches instead of opening one per request")
+    @Placement(tab = "Advanced")
+    private boolean usePersistentConnections;
+
+    @Parameter
+    @Optional(defaultValue = "30000")
+    @DisplayName("Connection Idle Timeout (ms)")
+    @Summary("Time an unused persistent connection is kept open")
+    @Placement(tab = "Advanced")
+    private int connectionIdleTimeout;
+
+    @Parameter
+    @Optional(defaultValue = "-1")
+    @DisplayName("Response Buffer Size")
+    @Summary("Size in bytes of the buffer responses are read into, -1 for the runtime's default")
+    @Placement(tab = "Advanced")
+    private int responseBufferSize;
+
+    @Parameter
+    @Optional(defaultValue = "false")
+    @DisplayName("Stream Response")
+    @Summary("Stream response bodies instead of buffering them. Only the status of a batch response is used.")
+    @Placement(tab = "Advanced")
+    private boolean streamResponse;
+
     @Override
     public ParquetConnection connect() throws ConnectionException {
-        return new ParquetConnection(this.httpService);
+        HttpClientConfiguration configuration = new HttpClientConfiguration.Builder()
+                .setName("parquet-http-" + configName)
+                .setMaxConnections(maxConnections)
+                .setUsePersistentConnections(usePersistentConnections)
+                .setConnectionIdleTimeout(connectionIdleTimeout)
+                .setResponseBufferSize(responseBufferSize)
+                .setStreaming(streamResponse)
+                .build();
+        HttpClient client = httpService.getClientFactory().create(configuration);
+        try {
+            client.start();
+        } catch (RuntimeException e) {
+            throw new ConnectionException("Could not start the HTTP client of " + configName, e);
+        }
+        return new ParquetConnection(client);
     }
 
     @Override
@@ -32,12 +93,16 @@ public class ParquetConnectionProvider implements PoolingConnectionProvider<Parq
         try {
             connection.invalidate();
         } catch (Exception e) {
-            LOGGER.error("Error while disconnecting []");
+            LOGGER.error("Error while stopping the HTTP client of " + configName + ": " + e.getMessage());
         }
     }
 
     @Override
     public ConnectionValidationResult validate(ParquetConnection connection) {
+        if (connection.isStopped()) {
+            return ConnectionValidationResult.failure("The HTTP client of " + configName + " is stopped",
+                    new ConnectionException("HTTP client stopped"));
+        }
         return ConnectionValidationResult.success();
     }
 }
@@ -0,0 +1,347 @@
+package org.mule.extension.parquet.internal;
+
+import org.apache.avro.generic.GenericRecord;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.schema.MessageType;
+import org.mule.extension.parquet.internal.cache.CachedFooter;
+import org.mule.extension.parquet.internal.dataset.DatasetFile;
+import org.mule.extension.parquet.internal.dataset.DatasetScanner;
+import org.mule.extension.parquet.internal.filter.ColumnProjection;
+import org.mule.extension.parquet.internal.filter.FilterExpression;
+import org.mule.extension.parquet.internal.json.GenericRecordJsonWriter;
+import org.mule.extension.parquet.internal.metrics.Metric;
+import org.mule.extension.parquet.internal.metrics.OperationMetrics;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.extension.api.runtime.streaming.PagingProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+
+/**
+ * Pages the records of every parquet file of a dataset out to Mule as JSON strings.
+ * <p>
+ * The files are found by a {@link DatasetScanner} on the first page, which already drops the partitions
+ * the filter rules out. Up to {@code parallelism} files are then read concurrently on the scheduler,
+ * each worker taking the next file once it is done with the previous one. Within a file the filter is
+ * bound to the file's partition values first, so predicates on partition columns never reach the parquet
+ * reader and a file whose partition satisfies the whole filter is read without any record filter at all.
+ * <p>
+ * Partition values are appended to every record as string fields, or null for Hive's default partition,
+ * unless the file itself has a column of that name. Records only hold the selected columns: those the
+ * filter alone reads are dropped, and when only partition columns are selected the file's smallest column
+ * is read just to count its records. Workers hand over pages through a queue of twice the
+ * parallelism, which bounds the decoded records waiting to be consumed. Records come out in no particular
+ * order across files.
+ */
+public class ParquetDatasetPagingProvider implements PagingProvider<ParquetConnection, String> {
+    private static final Page END = new Page(Collections.emptyList(), null);
+
+    private final Logger LOGGER = LoggerFactory.getLogger(ParquetDatasetPagingProvider.class);
+
+    private final String location;
+    private final int pageSize;
+    private final ReadOptions readOptions;
+    private final Scheduler scheduler;
+    private final int parallelism;
+    private final OperationMetrics metrics;
+    private final long started;
+    private final BlockingQueue<Page> pages;
+    private final AtomicInteger nextFile = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final List<Future<?>> workers = new ArrayList<>();
+    private FilterExpression filter;
+    private List<String> selected;
+    private List<DatasetFile> files;
+    private volatile boolean closed;
+    private boolean exhausted;
+    private long total;
+    private boolean failed;
+
+    public ParquetDatasetPagingProvider(String location, int pageSize, ReadOptions readOptions, Scheduler scheduler,
+                                        int parallelism, OperationMetrics metrics, long started) {
+        this.location = location;
+        this.pageSize = pageSize > 0 ? pageSize : 1;
+        this.readOptions = readOptions;
+        this.scheduler = scheduler;
+        this.parallelism = Math.max(1, parallelism);
+        this.metrics = metrics;
+        this.pages = new ArrayBlockingQueue<>(this.parallelism * 2);
+        this.started = started;
+    }
+
+    @Override
+    public List<String> getPage(ParquetConnection connection) {
+        if (exhausted) {
+            return Collections.emptyList();
+        }
+        try {
+            if (files == null) {
+                start();
+            }
+            Page page = pages.take();
+            if (page.failure != null) {
+                throw page.failure;
+            }
+            if (page == END) {
+                exhausted = true;
+            }
+            total += page.records.size();
+            return page.records;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed = true;
+            throw new MuleRuntimeException(createStaticMessage("Interrupted reading parquet dataset " + location), e);
+        } catch (Exception e) {
+            failed = true;
+            throw new MuleRuntimeException(createStaticMessage("Error reading parquet dataset " + location + ": " + e.getMessage()), e);
+        }
+    }
+
+    private void start() throws IOException {
+        filter = readOptions == null ? null : readOptions.getFilterExpression();
+        selected = readOptions == null ? Collections.emptyList() : ColumnProjection.parseColumns(readOptions.getColumns());
+        files = new DatasetScanner(scheduler, filter, metrics).scan(location);
+        LOGGER.info("Reading " + files.size() + " parquet files of " + location);
+        int count = Math.min(parallelism, files.size());
+        if (count == 0) {
+            pages.add(END);
+            return;
+        }
+        running.set(count);
+        for (int i = 0; i < count; i++) {
+            workers.add(scheduler.submit(this::work));
+        }
+    }
+
+    private void work() {
+        try {
+            int index;
+            while (!closed && (index = nextFile.getAndIncrement()) < files.size()) {
+                read(files.get(index));
+            }
+        } catch (Exception e) {
+            offer(new Page(null, e));
+        } finally {
+            if (running.decrementAndGet() == 0) {
+                offer(END);
+            }
+        }
+    }
+
+    private void read(DatasetFile file) throws IOException {
+        FilterExpression residual = filter == null ? FilterExpression.ALWAYS : filter.bindPartition(file.getPartition());
+        if (residual == FilterExpression.NEVER) {
+            return;
+        }
+        try (ParquetBufferedReader inputFile = ParquetBufferedReader.open(file.getPath(), metrics)) {
+            CachedFooter footer = ParquetOperations.readFooter(inputFile);
+            MessageType fileSchema = footer.getSchema();
+            FilterCompat.Filter recordFilter = residual == FilterExpression.ALWAYS
+                    ? FilterCompat.NOOP : FilterCompat.get(residual.toPredicate(fileSchema));
+            ParquetOperations.countRowGroups(metrics, footer.getFooter().getBlocks(), recordFilter, fileSchema);
+            String partitionFields = partitionFields(file.getPartition(), fileSchema);
+            Set<String> columns = fileColumns(fileSchema, file.getPartition());
+            // with only partition columns selected, every record of the file is just its partition values
+            String partitionRecord = columns != null && columns.isEmpty()
+                    ? "{" + (partitionFields == null ? "" : partitionFields) + "}" : null;
+            MessageType selection = columns == null || columns.isEmpty() ? null : ColumnProjection.project(fileSchema, columns);
+            try (ParquetReader<GenericRecord> reader = ParquetOperations.avroReaderBuilder(inputFile, footer,
+                    projection(footer, columns, residual), selection, recordFilter).build()) {
+                metrics.add(Metric.FILES_READ, 1);
+                GenericRecordJsonWriter writer = null;
+                StringBuilder json = new StringBuilder(512);
+                List<String> records = new ArrayList<>(pageSize);
+                long decodeNanos = 0;
+                long encodeNanos = 0;
+                long mark = System.nanoTime();
+                GenericRecord record;
+                while (!closed && (record = reader.read()) != null) {
+                    long decoded = System.nanoTime();
+                    decodeNanos += decoded - mark;
+                    if (partitionRecord != null) {
+                        records.add(partitionRecord);
+                    } else {
+                        if (writer == null) {
+                            writer = ParquetOperations.jsonWriter(footer, record.getSchema());
+                        }
+                        json.setLength(0);
+                        writer.write(record, json);
+                        appendPartition(json, partitionFields);
+                        records.add(json.toString());
+                    }
+                    mark = System.nanoTime();
+                    encodeNanos += mark - decoded;
+                    if (records.size() == pageSize) {
+                        publish(records, decodeNanos, encodeNanos);
+                        records = new ArrayList<>(pageSize);
+                        decodeNanos = 0;
+                        encodeNanos = 0;
+                        mark = System.nanoTime();
+                    }
+                }
+                if (!records.isEmpty()) {
+                    publish(records, decodeNanos, encodeNanos);
+                }
+            }
+        }
+    }
+
+    private void publish(List<String> records, long decodeNanos, long encodeNanos) throws InterruptedIOException {
+        metrics.add(Metric.RECORDS_DECODED, records.size());
+        metrics.add(Metric.DECODE_NANOS, decodeNanos);
+        metrics.add(Metric.ENCODE_NANOS, encodeNanos);
+        if (!offer(new Page(records, null)) && !closed) {
+            throw new InterruptedIOException("Interrupted handing over records of " + location);
+        }
+    }
+
+    /**
+     * Waits for room in the queue, giving up once the provider is closed so workers never outlive it.
+     */
+    private boolean offer(Page page) {
+        try {
+            while (!closed) {
+                if (pages.offer(page, 100, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    /**
+     * Returns the selected columns of a file, those that aren't partition columns, or null when every
+     * column is selected. The set is empty when only partition columns are.
+     */
+    private Set<String> fileColumns(MessageType fileSchema, Map<String, String> partition) {
+        if (selected.isEmpty()) {
+            return null;
+        }
+        Set<String> columns = new LinkedHashSet<>();
+        for (String column : selected) {
+            if (!partition.containsKey(column) || fileSchema.containsField(column)) {
+                columns.add(column);
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Returns the columns to read from a file: the selected ones plus those the filter still needs once
+     * bound to the partition. Records are only counted when just partition columns are selected, which
+     * the filter's columns do, or else the column that is the smallest on disk.
+     */
+    private static MessageType projection(CachedFooter footer, Set<String> columns, FilterExpression residual) {
+        if (columns == null) {
+            return null;
+        }
+        Set<String> read = new LinkedHashSet<>(columns);
+        residual.collectColumns(read);
+        if (read.isEmpty()) {
+            read.add(smallestColumn(footer));
+        }
+        return ColumnProjection.project(footer.getSchema(), read);
+    }
+
+    private static String smallestColumn(CachedFooter footer) {
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        for (String[] path : footer.getSchema().getPaths()) {
+            sizes.put(String.join(".", path), 0L);
+        }
+        for (BlockMetaData rowGroup : footer.getFooter().getBlocks()) {
+            for (ColumnChunkMetaData column : rowGroup.getColumns()) {
+                sizes.merge(column.getPath().toDotString(), column.getTotalSize(), Long::sum);
+            }
+        }
+        return Collections.min(sizes.entrySet(), Map.Entry.comparingByValue()).getKey();
+    }
+
+    /**
+     * Encodes the partition values to append to every record of a file, or returns null when there are none.
+     */
+    private String partitionFields(Map<String, String> partition, MessageType fileSchema) {
+        StringBuilder fields = new StringBuilder();
+        for (Map.Entry<String, String> entry : partition.entrySet()) {
+            String key = entry.getKey();
+            if (fileSchema.containsField(key) || !selected.isEmpty() && !selected.contains(key)) {
+                continue;
+            }
+            if (fields.length() > 0) {
+                fields.append(", ");
+            }
+            GenericRecordJsonWriter.writeString(key, fields);
+            fields.append(": ");
+            if (entry.getValue() == null) {
+                fields.append("null");
+            } else {
+                GenericRecordJsonWriter.writeString(entry.getValue(), fields);
+            }
+        }
+        return fields.length() == 0 ? null : fields.toString();
+    }
+
+    private static void appendPartition(StringBuilder json, String partitionFields) {
+        if (partitionFields == null) {
+            return;
+        }
+        int end = json.length() - 1;
+        json.setLength(end);
+        if (end > 1) {
+            json.append(", ");
+        }
+        json.append(partitionFields).append('}');
+    }
+
+    @Override
+    public Optional<Integer> getTotalResults(ParquetConnection connection) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void close(ParquetConnection connection) {
+        LOGGER.info("Total records paged from " + location + ": " + total);
+        closed = true;
+        try {
+            for (Future<?> worker : workers) {
+                worker.cancel(true);
+            }
+            pages.clear();
+            scheduler.stop();
+        } finally {
+            metrics.finish(started, failed);
+        }
+    }
+
+    private static final class Page {
+        private final List<String> records;
+        private final Exception failure;
+
+        Page(List<String> records, Exception failure) {
+            this.records = records;
+            this.failure = failure;
+        }
+    }
+}
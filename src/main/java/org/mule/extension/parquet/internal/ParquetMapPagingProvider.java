@@ -0,0 +1,125 @@
+package org.mule.extension.parquet.internal;
+
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.schema.MessageType;
+import org.mule.extension.parquet.internal.cache.CachedFooter;
+import org.mule.extension.parquet.internal.metrics.AllocationMeter;
+import org.mule.extension.parquet.internal.metrics.Metric;
+import org.mule.extension.parquet.internal.metrics.OperationMetrics;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.extension.api.runtime.streaming.PagingProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+
+/**
+ * Pages the records of a parquet file out to Mule as Java maps, with no JSON text in between.
+ * <p>
+ * Records are built by a {@link org.mule.extension.parquet.internal.record.MapRecordMaterializer}
+ * straight from the column readers, so DataWeave gets objects it can transform without parsing anything.
+ * Like {@link ParquetRecordPagingProvider}, the reader is opened on the first page and only holds the
+ * row group it is decoding.
+ */
+public class ParquetMapPagingProvider implements PagingProvider<ParquetConnection, Map<String, Object>> {
+    private final Logger LOGGER = LoggerFactory.getLogger(ParquetMapPagingProvider.class);
+
+    private final ParquetBufferedReader inputFile;
+    private final int pageSize;
+    private final ReadOptions readOptions;
+    private final OperationMetrics metrics;
+    private final long started;
+    private ParquetReader<Map<String, Object>> reader;
+    private boolean exhausted;
+    private long total;
+    private boolean failed;
+
+    public ParquetMapPagingProvider(ParquetBufferedReader inputFile, int pageSize, ReadOptions readOptions,
+                                    OperationMetrics metrics, long started) {
+        this.inputFile = inputFile;
+        this.pageSize = pageSize > 0 ? pageSize : 1;
+        this.readOptions = readOptions;
+        this.metrics = metrics;
+        this.started = started;
+    }
+
+    @Override
+    public List<Map<String, Object>> getPage(ParquetConnection connection) {
+        if (exhausted) {
+            return Collections.emptyList();
+        }
+        List<Map<String, Object>> page = new ArrayList<>(pageSize);
+        try {
+            if (reader == null) {
+                reader = open();
+            }
+            long mark = System.nanoTime();
+            long allocated = AllocationMeter.allocatedBytes();
+            Map<String, Object> record;
+            while (page.size() < pageSize && (record = reader.read()) != null) {
+                page.add(record);
+            }
+            metrics.add(Metric.DECODE_NANOS, System.nanoTime() - mark);
+            metrics.add(Metric.BYTES_ALLOCATED, AllocationMeter.allocatedBytes() - allocated);
+        } catch (IOException | RuntimeException e) {
+            failed = true;
+            throw new MuleRuntimeException(createStaticMessage("Error reading parquet records from " + inputFile), e);
+        }
+        if (page.size() < pageSize) {
+            exhausted = true;
+        }
+        total += page.size();
+        metrics.add(Metric.RECORDS_DECODED, page.size());
+        return page;
+    }
+
+    private ParquetReader<Map<String, Object>> open() throws IOException {
+        CachedFooter footer = ParquetOperations.readFooter(inputFile);
+        MessageType fileSchema = footer.getSchema();
+        ParquetOperations.countRowGroups(metrics, footer.getFooter().getBlocks(), readOptions, fileSchema);
+        MapReaderBuilder builder = new MapReaderBuilder(inputFile);
+        FilterCompat.Filter filter = FilterCompat.NOOP;
+        if (readOptions != null && readOptions.isSelective()) {
+            builder.withProjection(readOptions.projection(fileSchema), readOptions.selection(fileSchema));
+            filter = readOptions.recordFilter(fileSchema);
+        }
+        // withConf resets the read options, so it has to come before the filter
+        return builder.withConf(SharedConfiguration.forReading())
+                .withFilter(filter)
+                .build();
+    }
+
+    @Override
+    public Optional<Integer> getTotalResults(ParquetConnection connection) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void close(ParquetConnection connection) {
+        LOGGER.info("Total records paged from " + inputFile + ": " + total);
+        // the file is released even when closing the reader failed
+        try {
+            if (reader != null) {
+                reader.close();
+            }
+        } catch (IOException e) {
+            LOGGER.error("Could not close the reader of " + inputFile + ": " + e.getMessage());
+        } finally {
+            try {
+                inputFile.close();
+            } catch (IOException e) {
+                LOGGER.error("Could not release " + inputFile + ": " + e.getMessage());
+            } finally {
+                metrics.finish(started, failed);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.mule.extension.parquet.internal;
+
+import org.apache.avro.Schema;
+import org.apache.parquet.avro.AvroSchemaConverter;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.mule.extension.parquet.api.ColumnChunkMetadata;
+import org.mule.extension.parquet.api.ParquetFileMetadata;
+import org.mule.extension.parquet.api.RowGroupMetadata;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns a parquet footer into the {@link ParquetFileMetadata} returned by "Get Parquet Metadata".
+ * <p>
+ * Everything comes from the footer, so describing a file never touches its data pages.
+ */
+final class ParquetMetadataMapper {
+    private static final String AVRO_SCHEMA_KEY = "parquet.avro.schema";
+
+    private ParquetMetadataMapper() {
+    }
+
+    static ParquetFileMetadata describe(ParquetMetadata footer, Schema avroSchema, long fileSize) {
+        FileMetaData fileMetaData = footer.getFileMetaData();
+        ParquetFileMetadata metadata = new ParquetFileMetadata();
+        metadata.setFileSize(fileSize);
+        metadata.setCreatedBy(fileMetaData.getCreatedBy());
+        metadata.setParquetSchema(fileMetaData.getSchema().toString());
+        metadata.setAvroSchema(avroSchema.toString(true));
+        metadata.getKeyValueMetadata().putAll(fileMetaData.getKeyValueMetaData());
+
+        List<BlockMetaData> blocks = footer.getBlocks();
+        metadata.setRowGroupCount(blocks.size());
+        metadata.setRowCount(rowCount(footer));
+        for (int i = 0; i < blocks.size(); i++) {
+            metadata.getRowGroups().add(describe(blocks.get(i), i));
+        }
+        return metadata;
+    }
+
+    static long rowCount(ParquetMetadata footer) {
+        long rows = 0;
+        for (BlockMetaData block : footer.getBlocks()) {
+            rows += block.getRowCount();
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the Avro schema the read operations produce records with: the one the file was written with,
+     * if it was written from Avro, otherwise one derived from the parquet schema with INT96 as fixed(12).
+     */
+    static Schema avroSchema(ParquetMetadata footer) {
+        String written = footer.getFileMetaData().getKeyValueMetaData().get(AVRO_SCHEMA_KEY);
+        if (written != null) {
+            return new Schema.Parser().parse(written);
+        }
+        return new AvroSchemaConverter(SharedConfiguration.forReading()).convert(footer.getFileMetaData().getSchema());
+    }
+
+    /**
+     * Returns the Avro schema the read operations produce records of the {@code requested} columns with:
+     * the one the file was written with, pruned to the requested columns, if it was written from Avro,
+     * otherwise one derived from the requested columns.
+     */
+    static Schema avroSchema(ParquetMetadata footer, MessageType requested) {
+        if (!footer.getFileMetaData().getKeyValueMetaData().containsKey(AVRO_SCHEMA_KEY)) {
+            return new AvroSchemaConverter(SharedConfiguration.forReading()).convert(requested);
+        }
+        Schema written = avroSchema(footer);
+        if (written.getType() != Schema.Type.RECORD || written.getFields().size() == requested.getFieldCount()) {
+            return written;
+        }
+        List<Schema.Field> fields = new ArrayList<>();
+        for (Schema.Field field : written.getFields()) {
+            if (requested.containsField(field.name())) {
+                fields.add(new Schema.Field(field, field.schema()));
+            }
+        }
+        return Schema.createRecord(written.getName(), written.getDoc(), written.getNamespace(), written.isError(), fields);
+    }
+
+    private static RowGroupMetadata describe(BlockMetaData block, int index) {
+        RowGroupMetadata rowGroup = new RowGroupMetadata();
+        rowGroup.setIndex(index);
+        rowGroup.setRowCount(block.getRowCount());
+        rowGroup.setStartingPosition(block.getStartingPos());
+        rowGroup.setCompressedSize(block.getCompressedSize());
+        rowGroup.setUncompressedSize(block.getTotalByteSize());
+        for (org.apache.parquet.hadoop.metadata.ColumnChunkMetaData chunk : block.getColumns()) {
+            rowGroup.getColumns().add(describe(chunk));
+        }
+        return rowGroup;
+    }
+
+    private static ColumnChunkMetadata describe(org.apache.parquet.hadoop.metadata.ColumnChunkMetaData chunk) {
+        ColumnChunkMetadata column = new ColumnChunkMetadata();
+        column.setPath(chunk.getPath().toDotString());
+        PrimitiveType type = chunk.getPrimitiveType();
+        column.setType(type.getLogicalTypeAnnotation() != null
+                ? type.getPrimitiveTypeName() + " (" + type.getLogicalTypeAnnotation() + ")"
+                : type.getPrimitiveTypeName().toString());
+        column.setCodec(chunk.getCodec().name());
+        for (Encoding encoding : chunk.getEncodings()) {
+            column.getEncodings().add(encoding.name());
+        }
+        column.setValueCount(chunk.getValueCount());
+        column.setCompressedSize(chunk.getTotalSize());
+        column.setUncompressedSize(chunk.getTotalUncompressedSize());
+        Statistics<?> statistics = chunk.getStatistics();
+        if (statistics != null && !statistics.isEmpty()) {
+            if (statistics.isNumNullsSet()) {
+                column.setNullCount(statistics.getNumNulls());
+            }
+            if (statistics.hasNonNullValue()) {
+                column.setMin(statistics.minAsString());
+                column.setMax(statistics.maxAsString());
+            }
+        }
+        return column;
+    }
+}
@@ -1,189 +1,715 @@
 package org.mule.extension.parquet.internal;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import org.apache.avro.Conversion;
-import org.apache.avro.LogicalType;
 import org.apache.avro.Schema;
-import org.apache.avro.data.TimeConversions;
-import org.apache.avro.generic.GenericData;
-import org.apache.avro.generic.GenericDatumReader;
-import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.SchemaParseException;
 import org.apache.avro.generic.GenericRecord;
-import org.apache.avro.io.*;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.Path;
-import org.apache.parquet.avro.AvroParquetReader;
-import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.compat.RowGroupFilter;
+import org.apache.parquet.HadoopReadOptions;
 import org.apache.parquet.hadoop.ParquetReader;
-import org.apache.parquet.hadoop.metadata.ParquetMetadata;
-import org.apache.parquet.tools.json.JsonRecordFormatter;
-import org.apache.parquet.tools.read.SimpleReadSupport;
-import org.apache.parquet.tools.read.SimpleRecord;
-import org.mule.extension.parquet.internal.int96.ParquetTimestampUtils;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.schema.MessageType;
+import org.mule.extension.parquet.api.BatchSendResult;
+import org.mule.extension.parquet.api.ParquetFileMetadata;
+import org.mule.extension.parquet.api.ParquetSplit;
+import org.mule.extension.parquet.api.RewriteResult;
+import org.mule.extension.parquet.internal.arrow.ParquetToArrow;
+import org.mule.extension.parquet.internal.cache.CachedFooter;
+import org.mule.extension.parquet.internal.cache.FooterCache;
+import org.mule.extension.parquet.internal.dataset.DatasetFile;
+import org.mule.extension.parquet.internal.dataset.DatasetScanner;
+import org.mule.extension.parquet.internal.filter.ColumnProjection;
+import org.mule.extension.parquet.internal.io.CountingInputFile;
+import org.mule.extension.parquet.internal.io.OutputFile;
+import org.mule.extension.parquet.internal.io.ProducerInputStream;
+import org.mule.extension.parquet.internal.json.GenericRecordJsonWriter;
+import org.mule.extension.parquet.internal.metrics.Metric;
+import org.mule.extension.parquet.internal.metrics.OperationMetrics;
+import org.mule.extension.parquet.internal.record.JsonRecordMaterializer;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.api.store.ObjectStore;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.ObjectStoreManager;
+import org.mule.runtime.api.store.ObjectStoreSettings;
+import org.mule.runtime.extension.api.annotation.Expression;
 import org.mule.runtime.extension.api.annotation.param.Config;
 import org.mule.runtime.extension.api.annotation.param.Connection;
 import org.mule.runtime.extension.api.annotation.param.MediaType;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.ParameterGroup;
 import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
+import org.mule.runtime.extension.api.annotation.param.display.Example;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
+import org.mule.runtime.extension.api.annotation.param.display.Text;
+import org.mule.runtime.extension.api.runtime.streaming.PagingProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import javax.inject.Inject;
+
 import java.io.IOException;
 import java.io.InputStream;
-import java.time.Instant;
-import java.util.ArrayList;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.Map;
 
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.meta.ExpressionSupport.NOT_SUPPORTED;
 import static org.mule.runtime.api.meta.model.display.PathModel.Location.EXTERNAL;
+import static org.mule.runtime.api.meta.model.display.PathModel.Type.DIRECTORY;
 import static org.mule.runtime.api.meta.model.display.PathModel.Type.FILE;
 
 public class ParquetOperations {
+    private static final int PIPE_SIZE = 1024 * 1024;
+    // range cache of split reads over HTTP, the defaults of Read Parquet - URL
+    private static final int SPLIT_BLOCK_SIZE = 1024 * 1024;
+    private static final int SPLIT_CACHED_BLOCKS = 16;
+    private static final String CHECKPOINT_STORE = "parquet-batch-checkpoints";
+    private static final OperationMetrics READ_FILE_METRICS = OperationMetrics.forOperation("readParquet");
+    private static final OperationMetrics READ_STREAM_METRICS = OperationMetrics.forOperation("readParquetStream");
+    private static final OperationMetrics READ_OBJECTS_METRICS = OperationMetrics.forOperation("readParquetObjects");
+    private static final OperationMetrics READ_ARROW_METRICS = OperationMetrics.forOperation("readParquetArrow");
+    private static final OperationMetrics READ_DATASET_METRICS = OperationMetrics.forOperation("readParquetDataset");
+    private static final OperationMetrics READ_URL_METRICS = OperationMetrics.forOperation("readParquetUrl");
+    private static final OperationMetrics READ_SPLIT_METRICS = OperationMetrics.forOperation("readParquetSplit");
+    private static final OperationMetrics PLAN_SPLITS_METRICS = OperationMetrics.forOperation("planSplits");
+    private static final OperationMetrics SEND_METRICS = OperationMetrics.forOperation("readAndSendToHttp");
+    private static final OperationMetrics WRITE_AVRO_FILE_METRICS = OperationMetrics.forOperation("writeAvroToParquet");
+    private static final OperationMetrics WRITE_AVRO_STREAM_METRICS = OperationMetrics.forOperation("writeAvroToParquetStream");
+    private static final OperationMetrics WRITE_JSON_FILE_METRICS = OperationMetrics.forOperation("writeJsonToParquet");
+    private static final OperationMetrics WRITE_JSON_STREAM_METRICS = OperationMetrics.forOperation("writeJsonToParquetStream");
+    private static final OperationMetrics METADATA_METRICS = OperationMetrics.forOperation("getParquetMetadata");
+    private static final OperationMetrics COUNT_METRICS = OperationMetrics.forOperation("countRows");
+    private static final OperationMetrics REWRITE_METRICS = OperationMetrics.forOperation("rewriteParquet");
+
     private final Logger LOGGER = LoggerFactory.getLogger(ParquetOperations.class);
 
-    @MediaType(value = MediaType.APPLICATION_JSON, strict = false)
-    @DisplayName("Read Parquet - File")
-    public String readParquet(@DisplayName("Parquet File Location") @org.mule.runtime.extension.api.annotation.param.display.Path(type = FILE, location = EXTERNAL) String parquetFilePath) {
+    @Inject
+    private SchedulerService schedulerService;
 
-        ParquetReader<SimpleRecord> reader = null;
-        JsonArray array = new JsonArray();
-        JsonParser parser = new JsonParser();
-        String item = null;
+    @Inject
+    private ObjectStoreManager objectStoreManager;
 
+    @MediaType(value = MediaType.APPLICATION_JSON, strict = false)
+    @DisplayName("Read Parquet - File")
+    public InputStream readParquet(@DisplayName("Parquet File Location") @org.mule.runtime.extension.api.annotation.param.display.Path(type = FILE, location = EXTERNAL) String parquetFilePath,
+                                   @ParameterGroup(name = "Read Options") ReadOptions readOptions,
+                                   @Optional(defaultValue = "false") @DisplayName("Low Allocation Decode") @Summary("Decode flat records straight to JSON, reusing buffers instead of building Avro records. Files with nested columns are read as usual.") boolean lowAllocation) {
+        long started = READ_FILE_METRICS.start();
+        ParquetBufferedReader localFile = null;
         try {
-            reader = ParquetReader.builder(new SimpleReadSupport(), new Path(parquetFilePath)).build();
-            ParquetMetadata metadata = ParquetFileReader.readFooter(new Configuration(), new Path(parquetFilePath));
+            InputFile inputFile;
+            CachedFooter footer;
+            if (isLocal(parquetFilePath)) {
+                localFile = ParquetBufferedReader.open(localPath(parquetFilePath), READ_FILE_METRICS);
+                inputFile = localFile;
+                footer = readFooter(localFile);
+            } else {
+                Configuration conf = SharedConfiguration.forReading();
+                Path path = new Path(parquetFilePath);
+                FileStatus status = path.getFileSystem(conf).getFileStatus(path);
+                inputFile = new CountingInputFile(HadoopInputFile.fromStatus(status, conf),
+                        bytes -> READ_FILE_METRICS.add(Metric.BYTES_READ, bytes));
+                footer = FooterCache.shared().get(inputFile,
+                        FooterCache.identity(status.getPath().toString(), status.getLen(), status.getModificationTime()));
+            }
+            ParquetReader<?> reader = lowAllocation ? openJsonReader(inputFile, footer, readOptions, READ_FILE_METRICS) : null;
+            if (lowAllocation && reader == null) {
+                LOGGER.info("Reading " + parquetFilePath + " through Avro records, low allocation decode only supports flat columns");
+            }
+            if (reader == null) {
+                reader = openAvroReader(inputFile, footer, readOptions, READ_FILE_METRICS);
+            }
+            return new JsonRecordInputStream(reader, footer, localFile, READ_FILE_METRICS, started);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(localFile);
+            READ_FILE_METRICS.finish(started, true);
+            throw new MuleRuntimeException(createStaticMessage("Error reading parquet file " + parquetFilePath + ": " + e.getMessage()), e);
+        }
+    }
 
-            JsonRecordFormatter.JsonGroupFormatter formatter = JsonRecordFormatter.fromSchema(metadata.getFileMetaData().getSchema());
+    /**
+     * Local paths and {@code file:} URIs are mapped with NIO, anything with another scheme, such as
+     * {@code hdfs://} or {@code s3a://}, goes through the Hadoop file system registered for it.
+     */
+    private static boolean isLocal(String location) {
+        int colon = location.indexOf(':');
+        // a single letter before the colon is a Windows drive
+        return colon <= 1 || location.startsWith("file:");
+    }
 
-            for (SimpleRecord value = reader.read(); value != null; value = reader.read()) {
-                item = formatter.formatRecord(value);
-                JsonObject jsonObject = (JsonObject) parser.parse(item);
-                array.add(jsonObject);
-            }
+    /**
+     * Resolves the local path of an operation, given as a plain path or a {@code file:} URI.
+     */
+    private static java.nio.file.Path localPath(String location) {
+        return location.startsWith("file:") ? Paths.get(URI.create(location)) : Paths.get(location);
+    }
 
-        } catch (IllegalArgumentException e) {
-            LOGGER.error(e.getMessage());
+    @MediaType(value = MediaType.APPLICATION_JSON, strict = false)
+    @DisplayName("Read Parquet - Stream")
+    public PagingProvider<ParquetConnection, String> readParquetStream(InputStream body,
+                                                                       @Optional(defaultValue = "1000") @DisplayName("Page Size") int pageSize,
+                                                                       @ParameterGroup(name = "Read Options") ReadOptions readOptions,
+                                                                       @Optional(defaultValue = "1") @DisplayName("Parallelism") @Summary("Number of row groups decoded concurrently, 1 reads the file sequentially") int parallelism,
+                                                                       @Optional(defaultValue = "true") @DisplayName("Preserve Order") @Summary("Emit records in file order when reading row groups in parallel") boolean preserveOrder,
+                                                                       @Optional(defaultValue = "false") @DisplayName("Low Allocation Decode") @Summary("Decode flat records straight to JSON, reusing buffers instead of building Avro records. Files with nested columns are read as usual.") boolean lowAllocation) {
+        long started = READ_STREAM_METRICS.start();
+        try {
+            ParquetBufferedReader inputFile = new ParquetBufferedReader(null, body, READ_STREAM_METRICS);
+            if (parallelism > 1) {
+                return new ParquetRecordPagingProvider(inputFile, pageSize, readOptions,
+                        schedulerService.cpuIntensiveScheduler(), parallelism, preserveOrder, lowAllocation, null, READ_STREAM_METRICS, started);
+            }
+            return new ParquetRecordPagingProvider(inputFile, pageSize, readOptions, lowAllocation, READ_STREAM_METRICS, started);
         } catch (IOException e) {
-            LOGGER.error(e.getMessage());
+            READ_STREAM_METRICS.finish(started, true);
+            throw new MuleRuntimeException(createStaticMessage("Error buffering parquet stream"), e);
         }
-        return array.toString();
     }
 
     @MediaType(value = MediaType.APPLICATION_JSON, strict = false)
-    @DisplayName("Read Parquet - Stream")
-    public String readParquetStream(InputStream body) {
+    @DisplayName("Read Parquet - URL")
+    @Summary("Records of a parquet object read with HTTP range requests, which only transfer its footer and the column chunks read")
+    public PagingProvider<ParquetConnection, String> readParquetUrl(@Config ParquetConfiguration config,
+                                                                    @DisplayName("URL") @Summary("URL of the object, e.g. a presigned S3 URL. The server has to support range requests.") String url,
+                                                                    @Optional(defaultValue = "1000") @DisplayName("Page Size") int pageSize,
+                                                                    @ParameterGroup(name = "Read Options") ReadOptions readOptions,
+                                                                    @Optional(defaultValue = "1") @DisplayName("Parallelism") @Summary("Number of row groups fetched and decoded concurrently, 1 reads the object sequentially") int parallelism,
+                                                                    @Optional(defaultValue = "true") @DisplayName("Preserve Order") @Summary("Emit records in file order when reading row groups in parallel") boolean preserveOrder,
+                                                                    @Optional(defaultValue = "1048576") @DisplayName("Range Block Size") @Summary("Size in bytes of the blocks small reads are fetched and cached in") int blockSize,
+                                                                    @Optional(defaultValue = "16") @DisplayName("Cached Blocks") @Summary("Number of blocks kept in the cache. Reads larger than half the cache are fetched directly.") int cachedBlocks,
+                                                                    @Optional(defaultValue = "false") @DisplayName("Low Allocation Decode") @Summary("Decode flat records straight to JSON, reusing buffers instead of building Avro records. Files with nested columns are read as usual.") boolean lowAllocation) {
+        long started = READ_URL_METRICS.start();
+        return new ParquetUrlPagingProvider(url, config.getTimeout(), blockSize, cachedBlocks, pageSize, readOptions,
+                // row groups wait on range requests, so they are decoded on IO threads
+                parallelism > 1 ? schedulerService.ioScheduler() : null, parallelism, preserveOrder, lowAllocation, null, READ_URL_METRICS, started);
+    }
 
-        String item = null;
-        List<String> records = new ArrayList<>();
+    @MediaType(value = MediaType.APPLICATION_JSON, strict = false)
+    @DisplayName("Read Parquet - Split")
+    @Summary("Records of the row groups of one split planned by Plan Splits, reading only the split's byte range of a file or URL")
+    public PagingProvider<ParquetConnection, String> readParquetSplit(@Config ParquetConfiguration config,
+                                                                      @Optional(defaultValue = "#[payload]") @DisplayName("Split") ParquetSplit split,
+                                                                      @Optional @DisplayName("Body") @Summary("Parquet file as a stream, buffered whole before its split is read") InputStream body,
+                                                                      @Optional @DisplayName("Parquet File Location") @Summary("Local file to read instead of the body") @org.mule.runtime.extension.api.annotation.param.display.Path(type = FILE, location = EXTERNAL) String parquetFilePath,
+                                                                      @Optional @DisplayName("URL") @Summary("URL of the object to read with HTTP range requests instead of the body") String url,
+                                                                      @Optional(defaultValue = "1000") @DisplayName("Page Size") int pageSize,
+                                                                      @ParameterGroup(name = "Read Options") ReadOptions readOptions,
+                                                                      @Optional(defaultValue = "1") @DisplayName("Parallelism") @Summary("Number of row groups of the split decoded concurrently, 1 reads the split sequentially") int parallelism,
+                                                                      @Optional(defaultValue = "true") @DisplayName("Preserve Order") @Summary("Emit records in file order when reading row groups in parallel") boolean preserveOrder,
+                                                                      @Optional(defaultValue = "false") @DisplayName("Low Allocation Decode") @Summary("Decode flat records straight to JSON, reusing buffers instead of building Avro records. Files with nested columns are read as usual.") boolean lowAllocation) {
+        long started = READ_SPLIT_METRICS.start();
+        if (split == null) {
+            READ_SPLIT_METRICS.finish(started, true);
+            throw new MuleRuntimeException(createStaticMessage("A split planned by Plan Splits is required"));
+        }
+        if (url != null && !url.trim().isEmpty()) {
+            return new ParquetUrlPagingProvider(url, config.getTimeout(), SPLIT_BLOCK_SIZE, SPLIT_CACHED_BLOCKS, pageSize, readOptions,
+                    parallelism > 1 ? schedulerService.ioScheduler() : null, parallelism, preserveOrder, lowAllocation, split,
+                    READ_SPLIT_METRICS, started);
+        }
+        try {
+            ParquetBufferedReader inputFile = openSource(body, parquetFilePath, READ_SPLIT_METRICS);
+            return new ParquetRecordPagingProvider(inputFile, pageSize, readOptions,
+                    parallelism > 1 ? schedulerService.cpuIntensiveScheduler() : null, parallelism, preserveOrder, lowAllocation,
+                    split, READ_SPLIT_METRICS, started);
+        } catch (IOException | RuntimeException e) {
+            READ_SPLIT_METRICS.finish(started, true);
+            throw new MuleRuntimeException(createStaticMessage("Error opening parquet input: " + e.getMessage()), e);
+        }
+    }
 
+    @MediaType(value = MediaType.APPLICATION_JAVA, strict = false)
+    @DisplayName("Read Parquet - Objects")
+    @Summary("Records as Java maps, built straight from the parquet columns for DataWeave to transform without parsing JSON")
+    public PagingProvider<ParquetConnection, Map<String, Object>> readParquetObjects(@Optional(defaultValue = "#[payload]") @DisplayName("Body") InputStream body,
+                                                                                      @Optional @DisplayName("Parquet File Location") @Summary("Local file to read instead of the body") @org.mule.runtime.extension.api.annotation.param.display.Path(type = FILE, location = EXTERNAL) String parquetFilePath,
+                                                                                      @Optional(defaultValue = "1000") @DisplayName("Page Size") int pageSize,
+                                                                                      @ParameterGroup(name = "Read Options") ReadOptions readOptions) {
+        long started = READ_OBJECTS_METRICS.start();
         try {
-            ParquetBufferedReader inputFile = new ParquetBufferedReader(item, body);
+            return new ParquetMapPagingProvider(openSource(body, parquetFilePath, READ_OBJECTS_METRICS), pageSize, readOptions,
+                    READ_OBJECTS_METRICS, started);
+        } catch (IOException | RuntimeException e) {
+            READ_OBJECTS_METRICS.finish(started, true);
+            throw new MuleRuntimeException(createStaticMessage("Error opening parquet input: " + e.getMessage()), e);
+        }
+    }
 
-            Configuration conf = new Configuration();
-            conf.setBoolean(org.apache.parquet.avro.AvroReadSupport.READ_INT96_AS_FIXED, true);
+    @MediaType(value = "application/vnd.apache.arrow.stream", strict = false)
+    @DisplayName("Read Parquet - Arrow")
+    @Summary("Columns of a flat parquet file as an Arrow IPC stream of record batches, decoded column by column without building records")
+    public InputStream readParquetArrow(@Optional(defaultValue = "#[payload]") @DisplayName("Body") InputStream body,
+                                       @Optional @DisplayName("Parquet File Location") @Summary("Local file to read instead of the body") @org.mule.runtime.extension.api.annotation.param.display.Path(type = FILE, location = EXTERNAL) String parquetFilePath,
+                                       @Optional @DisplayName("Columns") @Summary("Comma separated top level columns to read. All columns are read when empty.") String columns,
+                                       @Optional(defaultValue = "65536") @DisplayName("Batch Size") @Summary("Rows per Arrow record batch") int batchSize) {
+        long started = READ_ARROW_METRICS.start();
+        ParquetBufferedReader inputFile = null;
+        MessageType projection;
+        try {
+            inputFile = openSource(body, parquetFilePath, READ_ARROW_METRICS);
+            CachedFooter footer = readFooter(inputFile);
+            List<String> selected = ColumnProjection.parseColumns(columns);
+            projection = selected.isEmpty() ? footer.getSchema() : ColumnProjection.project(footer.getSchema(), selected);
+            ParquetToArrow.checkFlat(projection);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(inputFile);
+            READ_ARROW_METRICS.finish(started, true);
+            throw new MuleRuntimeException(createStaticMessage("Error opening parquet input: " + e.getMessage()), e);
+        }
+        ParquetBufferedReader source = inputFile;
+        return produceStream(READ_ARROW_METRICS, started, "Arrow stream", sink -> {
+            try (ParquetBufferedReader file = source) {
+                return ParquetToArrow.write(file, projection, HadoopReadOptions.builder(SharedConfiguration.forReading()).build(),
+                        batchSize, sink, READ_ARROW_METRICS);
+            }
+        });
+    }
 
-            ParquetReader<GenericRecord> r = AvroParquetReader.<GenericRecord>builder(inputFile)
-                    .disableCompatibility()
-                    .withConf(conf)
-                    .build();
-            GenericRecord record;
+    @MediaType(value = MediaType.APPLICATION_JSON, strict = false)
+    @DisplayName("Read Parquet - Dataset")
+    @Summary("Records of every parquet file under a directory or matching a glob, skipping Hive style key=value partitions the filter rules out")
+    public PagingProvider<ParquetConnection, String> readParquetDataset(@DisplayName("Dataset Location") @Summary("Directory read recursively, or a glob such as /data/events/dt=2026-10-*/*.parquet") String location,
+                                                                        @Optional(defaultValue = "1000") @DisplayName("Page Size") int pageSize,
+                                                                        @ParameterGroup(name = "Read Options") ReadOptions readOptions,
+                                                                        @Optional(defaultValue = "4") @DisplayName("Parallelism") @Summary("Number of files read concurrently") int parallelism) {
+        long started = READ_DATASET_METRICS.start();
+        return new ParquetDatasetPagingProvider(location, pageSize, readOptions, schedulerService.ioScheduler(),
+                parallelism, READ_DATASET_METRICS, started);
+    }
 
-            while ((record = r.read()) != null) {
-                String jsonRecord = deserialize(record.getSchema(), toByteArray(record.getSchema(), record)).toString();
-                jsonRecord = ParquetTimestampUtils.convertInt96(jsonRecord);
-                records.add(jsonRecord);
+    private void closeQuietly(ParquetBufferedReader inputFile) {
+        if (inputFile != null) {
+            try {
+                inputFile.close();
+            } catch (IOException e) {
+                LOGGER.warn("Could not release " + inputFile + ": " + e.getMessage());
             }
-
-        } catch (IllegalArgumentException e) {
-            LOGGER.error(e.getMessage());
-        } catch (IOException e) {
-            LOGGER.error(e.getMessage());
         }
-        return records.toString();
     }
 
-    @MediaType(value = MediaType.ANY, strict = false)
     @DisplayName("Batch by Batch - Stream")
-    public String readAndSendToHttp(@Connection ParquetConnection connection, @Config ParquetConfiguration config, long fetchSize, InputStream body) {
-        List<String> recordList = new ArrayList<>();
+    public BatchSendResult readAndSendToHttp(@Connection ParquetConnection connection, @Config ParquetConfiguration config, long fetchSize, InputStream body,
+                                             @ParameterGroup(name = "Read Options") ReadOptions readOptions,
+                                             @Optional(defaultValue = "1") @DisplayName("Max In-Flight Requests") @Summary("Batches posted concurrently while the next ones are decoded") int maxInFlight,
+                                             @Optional @DisplayName("Checkpoint Key") @Summary("Key the position after the last delivered batch is saved under, so a run restarted on the same file resumes there. No checkpoint is kept when empty.") String checkpointKey,
+                                             @Optional @Expression(NOT_SUPPORTED) @DisplayName("Checkpoint Store") @Summary("Object store checkpoints are saved to, a persistent store of the connector by default") ObjectStore<Serializable> checkpointStore) {
+        long started = System.currentTimeMillis();
+        long metricsStarted = SEND_METRICS.start();
+        boolean failed = true;
+        long decodeNanos = 0;
+        long encodeNanos = 0;
+        int batchSize = (int) Math.max(1, Math.min(fetchSize, Integer.MAX_VALUE));
+        BatchSendResult result = new BatchSendResult();
+        BatchEncoder encoder = BatchEncoder.create(config.getPayloadFormat(), config.getPayloadCompression());
+        int count = 0;
         long total = 0;
-        try {
-            ParquetBufferedReader inputFile = new ParquetBufferedReader(null, body);
-            Configuration conf = new Configuration();
-            conf.setBoolean(org.apache.parquet.avro.AvroReadSupport.READ_INT96_AS_FIXED, true);
-
-            ParquetReader<GenericRecord> r = AvroParquetReader.<GenericRecord>builder(inputFile).disableCompatibility().withConf(conf).build();
-            GenericRecord record = null;
-
-            long count = 0;
-            while ((record = r.read()) != null) {
-                if (count < fetchSize) {
-                    String jsonRecord = deserialize(record.getSchema(), toByteArray(record.getSchema(), record)).toString();
-                    recordList.add(jsonRecord);
-                    count = count + 1;
-                } else {
-                    sendDataToHttp(connection, config, recordList.toString());
-                    count = 0;
-                    recordList = new ArrayList<>();
+        long resumed = 0;
+        BatchCheckpoint checkpoint = null;
+        boolean settled = false;
+        Scheduler retryScheduler = schedulerService.ioScheduler();
+        HttpBatchSender sender = null;
+        try (ParquetBufferedReader inputFile = new ParquetBufferedReader(null, body, SEND_METRICS)) {
+            CachedFooter footer = readFooter(inputFile);
+            if (checkpointKey != null && !checkpointKey.trim().isEmpty()) {
+                checkpoint = BatchCheckpoint.open(checkpointStore != null ? checkpointStore : defaultCheckpointStore(),
+                        checkpointKey, footer, inputFile.getLength(), readOptions == null ? null : readOptions.getFilter());
+                if (checkpoint.getStart() != null) {
+                    resumed = checkpoint.getStart().getRecords();
+                    LOGGER.info("Resuming " + checkpointKey + " after record " + resumed + ", at row group "
+                            + checkpoint.getStart().getRowGroup());
+                }
+            }
+            sender = new HttpBatchSender(connection, config, maxInFlight, retryScheduler, encoder, checkpoint, SEND_METRICS);
+            try (PositionedRecordReader r = new PositionedRecordReader(inputFile, footer, readOptions, SEND_METRICS,
+                    checkpoint == null ? null : checkpoint.getStart())) {
+                GenericRecord record;
+                long mark = System.nanoTime();
+                while ((record = r.read()) != null) {
+                    long decoded = System.nanoTime();
+                    decodeNanos += decoded - mark;
+                    if (count == 0) {
+                        encoder.start(record.getSchema());
+                    }
+                    encoder.add(record);
+                    count++;
+                    total++;
+                    if (count == batchSize) {
+                        BatchEncoder.Payload payload = encoder.finish();
+                        encodeNanos += System.nanoTime() - decoded;
+                        sender.send(payload, count, checkpoint == null ? null : r.position(resumed + total));
+                        count = 0;
+                        mark = System.nanoTime();
+                    } else {
+                        mark = System.nanoTime();
+                        encodeNanos += mark - decoded;
+                    }
                 }
-                total = total + 1;
+                if (count > 0) {
+                    sender.send(encoder.finish(), count, checkpoint == null ? null : r.position(resumed + total));
+                }
+                SEND_METRICS.add(Metric.RECORDS_DECODED, r.getSkipped());
+            }
+            failed = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MuleRuntimeException(createStaticMessage("Interrupted while sending batches"), e);
+        } catch (IOException e) {
+            throw new MuleRuntimeException(createStaticMessage("Error reading parquet stream after " + total + " records"), e);
+        } catch (ObjectStoreException e) {
+            throw new MuleRuntimeException(createStaticMessage("Error loading checkpoint " + checkpointKey + ": " + e.getMessage()), e);
+        } finally {
+            try {
+                if (sender != null) {
+                    sender.awaitCompletion(result);
+                }
+                settled = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            retryScheduler.stop();
+            encoder.close();
+            SEND_METRICS.add(Metric.RECORDS_DECODED, total);
+            SEND_METRICS.add(Metric.DECODE_NANOS, decodeNanos);
+            SEND_METRICS.add(Metric.ENCODE_NANOS, encodeNanos);
+            SEND_METRICS.finish(metricsStarted, failed || result.getBatchesFailed() > 0);
+        }
+        if (checkpoint != null && settled) {
+            checkpoint.complete();
+        }
+        result.setRecordsRead(total);
+        result.setRecordsResumed(resumed);
+        result.setElapsedMillis(System.currentTimeMillis() - started);
+        LOGGER.info("Total records processed: " + total + ", " + result);
+        return result;
+    }
+
+    private ObjectStore<Serializable> defaultCheckpointStore() {
+        return objectStoreManager.getOrCreateObjectStore(CHECKPOINT_STORE, ObjectStoreSettings.builder().persistent(true).build());
+    }
+
+    @DisplayName("Get Parquet Metadata")
+    @Summary("Schema, row groups, column statistics and key-value metadata of a parquet file, read from its footer only")
+    public ParquetFileMetadata getParquetMetadata(@Optional(defaultValue = "#[payload]") @DisplayName("Body") InputStream body,
+                                                  @Optional @DisplayName("Parquet File Location") @Summary("Local file to read instead of the body") @org.mule.runtime.extension.api.annotation.param.display.Path(type = FILE, location = EXTERNAL) String parquetFilePath) {
+        long started = METADATA_METRICS.start();
+        try (ParquetBufferedReader inputFile = openSource(body, parquetFilePath, METADATA_METRICS)) {
+            CachedFooter footer = readFooter(inputFile);
+            ParquetFileMetadata metadata = ParquetMetadataMapper.describe(footer.getFooter(), avroSchema(footer), inputFile.getLength());
+            METADATA_METRICS.finish(started, false);
+            return metadata;
+        } catch (IOException | RuntimeException e) {
+            METADATA_METRICS.finish(started, true);
+            throw new MuleRuntimeException(createStaticMessage("Error reading parquet footer: " + e.getMessage()), e);
+        }
+    }
+
+    @DisplayName("Plan Splits")
+    @Summary("Splits a parquet file into ranges of consecutive row groups of about the same size in bytes, read from its footer only, for Read Parquet - Split to read on several workers")
+    public List<ParquetSplit> planSplits(@Connection ParquetConnection connection, @Config ParquetConfiguration config,
+                                         @Optional(defaultValue = "#[payload]") @DisplayName("Body") InputStream body,
+                                         @Optional @DisplayName("Parquet File Location") @Summary("Local file to read instead of the body") @org.mule.runtime.extension.api.annotation.param.display.Path(type = FILE, location = EXTERNAL) String parquetFilePath,
+                                         @Optional @DisplayName("URL") @Summary("URL of the object to read the footer of with HTTP range requests instead of the body") String url,
+                                         @Optional(defaultValue = "4") @DisplayName("Splits") @Summary("Number of splits wanted. A file has at most one split per row group.") int splits) {
+        long started = PLAN_SPLITS_METRICS.start();
+        try (ParquetBufferedReader inputFile = url != null && !url.trim().isEmpty()
+                ? ParquetUrlPagingProvider.openRemote(connection, url, config.getTimeout(), SPLIT_BLOCK_SIZE, SPLIT_CACHED_BLOCKS, PLAN_SPLITS_METRICS)
+                : openSource(body, parquetFilePath, PLAN_SPLITS_METRICS)) {
+            List<ParquetSplit> plan = SplitPlanner.plan(readFooter(inputFile), inputFile.getLength(), splits);
+            PLAN_SPLITS_METRICS.finish(started, false);
+            return plan;
+        } catch (IOException | RuntimeException e) {
+            PLAN_SPLITS_METRICS.finish(started, true);
+            throw new MuleRuntimeException(createStaticMessage("Error planning splits: " + e.getMessage()), e);
+        }
+    }
+
+    @DisplayName("Count Rows")
+    @Summary("Number of rows of a parquet file, summed from the row groups in its footer")
+    public long countRows(@Optional(defaultValue = "#[payload]") @DisplayName("Body") InputStream body,
+                          @Optional @DisplayName("Parquet File Location") @Summary("Local file to read instead of the body") @org.mule.runtime.extension.api.annotation.param.display.Path(type = FILE, location = EXTERNAL) String parquetFilePath) {
+        long started = COUNT_METRICS.start();
+        try (ParquetBufferedReader inputFile = openSource(body, parquetFilePath, COUNT_METRICS)) {
+            long rows = ParquetMetadataMapper.rowCount(readFooter(inputFile).getFooter());
+            COUNT_METRICS.finish(started, false);
+            return rows;
+        } catch (IOException | RuntimeException e) {
+            COUNT_METRICS.finish(started, true);
+            throw new MuleRuntimeException(createStaticMessage("Error reading parquet footer: " + e.getMessage()), e);
+        }
+    }
+
+    private static ParquetBufferedReader openSource(InputStream body, String parquetFilePath, OperationMetrics metrics) throws IOException {
+        if (parquetFilePath != null && !parquetFilePath.trim().isEmpty()) {
+            return ParquetBufferedReader.open(localPath(parquetFilePath), metrics);
+        }
+        if (body == null) {
+            throw new IllegalArgumentException("Either a body or a Parquet File Location is required");
+        }
+        return new ParquetBufferedReader(null, body, metrics);
+    }
+
+    @DisplayName("Write Avro to Parquet - File")
+    public void writeAvroToParquet(@DisplayName("Body") InputStream body,
+                                   @DisplayName("File Output Location") @org.mule.runtime.extension.api.annotation.param.display.Path(type = FILE, location = EXTERNAL) String outputPath,
+                                   @ParameterGroup(name = "Write Options") WriteOptions writeOptions) {
+        writeFile(outputPath, WRITE_AVRO_FILE_METRICS, outputFile -> ParquetRecordWriter.writeAvro(body, outputFile, writeOptions));
+    }
+
+    @MediaType(value = MediaType.BINARY, strict = false)
+    @DisplayName("Write Avro to Parquet - Stream")
+    public InputStream writeAvroToParquetStream(@DisplayName("Body") InputStream body,
+                                                @ParameterGroup(name = "Write Options") WriteOptions writeOptions) {
+        return writeStream(WRITE_AVRO_STREAM_METRICS, outputFile -> ParquetRecordWriter.writeAvro(body, outputFile, writeOptions));
+    }
+
+    @DisplayName("Write JSON to Parquet - File")
+    public void writeJsonToParquet(@DisplayName("Body") InputStream body,
+                                   @DisplayName("Avro Schema") @Summary("Avro schema of the records, as JSON") @Text String avroSchema,
+                                   @DisplayName("File Output Location") @org.mule.runtime.extension.api.annotation.param.display.Path(type = FILE, location = EXTERNAL) String outputPath,
+                                   @ParameterGroup(name = "Write Options") WriteOptions writeOptions) {
+        Schema schema = parseSchema(avroSchema);
+        writeFile(outputPath, WRITE_JSON_FILE_METRICS, outputFile -> ParquetRecordWriter.writeJson(body, schema, outputFile, writeOptions));
+    }
+
+    @MediaType(value = MediaType.BINARY, strict = false)
+    @DisplayName("Write JSON to Parquet - Stream")
+    public InputStream writeJsonToParquetStream(@DisplayName("Body") InputStream body,
+                                                @DisplayName("Avro Schema") @Summary("Avro schema of the records, as JSON") @Text String avroSchema,
+                                                @ParameterGroup(name = "Write Options") WriteOptions writeOptions) {
+        Schema schema = parseSchema(avroSchema);
+        return writeStream(WRITE_JSON_STREAM_METRICS, outputFile -> ParquetRecordWriter.writeJson(body, schema, outputFile, writeOptions));
+    }
+
+    @DisplayName("Rewrite Parquet")
+    @Summary("Compacts, filters, sorts or re-compresses parquet files into new files of a target size, copying row groups without decoding them when the records don't change")
+    public RewriteResult rewriteParquet(@DisplayName("Dataset Location") @Summary("Parquet file, directory read recursively, or a glob such as /data/events/dt=2026-10-*/*.parquet") String location,
+                                        @DisplayName("Output Directory") @org.mule.runtime.extension.api.annotation.param.display.Path(type = DIRECTORY, location = EXTERNAL) String outputDirectory,
+                                        @Optional(defaultValue = "536870912") @DisplayName("Target File Size") @Summary("Size in bytes at which a new output file is started") long targetFileSize,
+                                        @Optional @DisplayName("Sort By") @Summary("Comma separated top level columns to sort the records by, each optionally followed by desc") @Example("customer_id, event_time desc") String sortBy,
+                                        @Optional(defaultValue = "1000000") @DisplayName("Sort Buffer Records") @Summary("Records sorted in memory before a sorted run is spilled to disk") int sortBufferRecords,
+                                        @Optional(defaultValue = "false") @DisplayName("Merge Row Groups") @Summary("Re-encode the records into row groups of Row Group Size instead of copying the existing row groups") boolean mergeRowGroups,
+                                        @ParameterGroup(name = "Read Options") ReadOptions readOptions,
+                                        @ParameterGroup(name = "Write Options") WriteOptions writeOptions) {
+        long started = REWRITE_METRICS.start();
+        Scheduler scheduler = schedulerService.ioScheduler();
+        try {
+            List<DatasetFile> files = new DatasetScanner(scheduler, readOptions == null ? null : readOptions.getFilterExpression(),
+                    REWRITE_METRICS).scan(location);
+            RewriteResult result = new ParquetRewriter(localPath(outputDirectory), targetFileSize, readOptions, sortBy,
+                    sortBufferRecords, mergeRowGroups, writeOptions, REWRITE_METRICS).rewrite(files);
+            REWRITE_METRICS.add(Metric.RECORDS_WRITTEN, result.getRecordsWritten());
+            REWRITE_METRICS.finish(started, false);
+            LOGGER.info("Rewrote " + location + ": " + result);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            REWRITE_METRICS.finish(started, true);
+            throw new MuleRuntimeException(createStaticMessage("Error rewriting parquet dataset " + location + ": " + e.getMessage()), e);
+        } finally {
+            scheduler.stop();
+        }
+    }
+
+    private void writeFile(String outputPath, OperationMetrics metrics, WriteTask task) {
+        java.nio.file.Path path = localPath(outputPath);
+        long started = metrics.start();
+        try {
+            long records = task.write(OutputFile.nioPathToOutputFile(path));
+            metrics.add(Metric.RECORDS_WRITTEN, records);
+            metrics.finish(started, false);
+            LOGGER.info("Wrote " + records + " records to " + path);
+        } catch (IOException | RuntimeException e) {
+            metrics.finish(started, true);
+            try {
+                // the writer closes the file with a valid footer even when a record failed
+                Files.deleteIfExists(path);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
             }
-            if (!recordList.isEmpty()) {
-                sendDataToHttp(connection, config, recordList.toString());
-                count = 0;
-                recordList = new ArrayList<>();
+            throw new MuleRuntimeException(createStaticMessage("Error writing parquet file " + path + ": " + e.getMessage()), e);
+        }
+    }
+
+    private InputStream writeStream(OperationMetrics metrics, WriteTask task) {
+        long started = metrics.start();
+        return produceStream(metrics, started, "parquet stream", sink -> {
+            long records = task.write(new ParquetBufferedWriter(sink));
+            metrics.add(Metric.RECORDS_WRITTEN, records);
+            return records;
+        });
+    }
+
+    /**
+     * Runs {@code task} on an IO thread, writing into a pipe whose read end is returned right away. The
+     * invocation {@code started} is finished once the task is done.
+     */
+    private InputStream produceStream(OperationMetrics metrics, long started, String description, StreamTask task) {
+        Scheduler scheduler = schedulerService.ioScheduler();
+        ProducerInputStream pipe;
+        try {
+            pipe = new ProducerInputStream(PIPE_SIZE, scheduler::stop);
+        } catch (IOException e) {
+            scheduler.stop();
+            metrics.finish(started, true);
+            throw new MuleRuntimeException(createStaticMessage("Error creating " + description), e);
+        }
+        scheduler.submit(() -> {
+            try {
+                long records = task.write(pipe.sink());
+                pipe.sink().close();
+                metrics.finish(started, false);
+                LOGGER.info("Wrote " + records + " records to " + description);
+            } catch (Throwable e) {
+                metrics.finish(started, true);
+                LOGGER.error("Error writing " + description + ": " + e.getMessage());
+                pipe.fail(e);
             }
-        } catch (Exception e) {
-            LOGGER.error(e.getMessage());
+        });
+        return pipe;
+    }
+
+    private static Schema parseSchema(String avroSchema) {
+        try {
+            return new Schema.Parser().parse(avroSchema);
+        } catch (SchemaParseException e) {
+            throw new MuleRuntimeException(createStaticMessage("Invalid Avro schema: " + e.getMessage()), e);
         }
-        System.out.println("Total: " + total);
-        LOGGER.info("Total recordList processed: " + total);
-        return "Total recordList processed: " + total;
     }
 
-    private void sendDataToHttp(ParquetConnection connection, ParquetConfiguration configuration, String postData) {
-        connection.callHttp(configuration.getTargetUrl(), postData, configuration.getTimeout());
+    @FunctionalInterface
+    private interface WriteTask {
+        long write(org.apache.parquet.io.OutputFile outputFile) throws IOException;
     }
 
-    private GenericRecord deserialize(Schema schema, byte[] data) throws IOException {
-        GenericData.get().addLogicalTypeConversion(new TimestampMillisConversion());
-        InputStream is = new ByteArrayInputStream(data);
-        Decoder decoder = DecoderFactory.get().binaryDecoder(is, null);
-        DatumReader<GenericRecord> reader = new GenericDatumReader<>(schema, schema, GenericData.get());
-        return reader.read(null, decoder);
+    @FunctionalInterface
+    private interface StreamTask {
+        long write(OutputStream sink) throws IOException;
     }
 
-    private byte[] toByteArray(Schema schema, GenericRecord genericRecord) throws IOException {
-        GenericDatumWriter<GenericRecord> writer = new GenericDatumWriter<>(schema);
-        writer.getData().addLogicalTypeConversion(new TimeConversions.TimestampMillisConversion());
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(baos, null);
-        writer.write(genericRecord, encoder);
-        encoder.flush();
-        return baos.toByteArray();
+    static ParquetReader<GenericRecord> openAvroReader(InputFile inputFile, CachedFooter footer, ReadOptions readOptions, OperationMetrics metrics) throws IOException {
+        MessageType fileSchema = footer.getSchema();
+        countRowGroups(metrics, footer.getFooter().getBlocks(), readOptions, fileSchema);
+        return avroReaderBuilder(inputFile, readOptions, footer).build();
     }
 
-    public static class TimestampMillisConversion extends Conversion<String> {
-        public TimestampMillisConversion() {
+    /**
+     * Opens a reader producing the JSON text of every record straight from the columns, see
+     * {@link JsonRecordMaterializer}, or returns null when the columns read aren't all flat columns it
+     * supports, in which case nothing is counted and the Avro reader has to be used instead.
+     */
+    static ParquetReader<StringBuilder> openJsonReader(InputFile inputFile, CachedFooter footer, ReadOptions readOptions, OperationMetrics metrics) throws IOException {
+        ParquetReader.Builder<StringBuilder> builder = jsonReaderBuilder(inputFile, footer, readOptions);
+        if (builder == null) {
+            return null;
         }
+        countRowGroups(metrics, footer.getFooter().getBlocks(), readOptions, footer.getSchema());
+        return builder.build();
+    }
 
-        public Class<String> getConvertedType() {
-            return String.class;
+    /**
+     * @return the builder of a {@link JsonRecordMaterializer} reader, or null when it doesn't support the columns read
+     */
+    static ParquetReader.Builder<StringBuilder> jsonReaderBuilder(InputFile inputFile, CachedFooter footer, ReadOptions readOptions) {
+        MessageType fileSchema = footer.getSchema();
+        boolean selective = readOptions != null && readOptions.isSelective();
+        MessageType projection = selective ? readOptions.projection(fileSchema) : null;
+        MessageType selection = selective ? readOptions.selection(fileSchema) : null;
+        MessageType requested = projection != null ? projection : fileSchema;
+        // the columns only read for the filter are left out of the JSON, as they are of the Avro records
+        Schema recordSchema = recordSchema(footer, selection != null ? selection : requested);
+        if (!JsonRecordMaterializer.supports(requested, recordSchema)) {
+            return null;
         }
+        // withConf resets the read options, so it has to come before the filter and any file range
+        return new JsonReaderBuilder(inputFile, projection, recordSchema)
+                .withConf(SharedConfiguration.forReading())
+                .withFilter(selective ? readOptions.recordFilter(fileSchema) : FilterCompat.NOOP);
+    }
 
-        public String getLogicalTypeName() {
-            return "timestamp-millis";
+    /**
+     * Counts the row groups a read will decode and those its filter rules out on statistics alone.
+     *
+     * @return the row groups left to read
+     */
+    static List<BlockMetaData> countRowGroups(OperationMetrics metrics, List<BlockMetaData> rowGroups, ReadOptions readOptions, MessageType fileSchema) {
+        FilterCompat.Filter filter = FilterCompat.NOOP;
+        if (readOptions != null && readOptions.getFilterExpression() != null) {
+            filter = readOptions.recordFilter(fileSchema);
         }
+        return countRowGroups(metrics, rowGroups, filter, fileSchema);
+    }
 
-        public String fromLong(Long millisFromEpoch, Schema schema, LogicalType type) {
-            return Instant.ofEpochMilli(millisFromEpoch).toString();
+    static List<BlockMetaData> countRowGroups(OperationMetrics metrics, List<BlockMetaData> rowGroups, FilterCompat.Filter filter, MessageType fileSchema) {
+        List<BlockMetaData> kept = rowGroups;
+        if (filter != FilterCompat.NOOP) {
+            kept = RowGroupFilter.filterRowGroups(filter, rowGroups, fileSchema);
         }
+        metrics.add(Metric.ROW_GROUPS_READ, kept.size());
+        metrics.add(Metric.ROW_GROUPS_SKIPPED, rowGroups.size() - kept.size());
+        return kept;
+    }
+
+    static ParquetReader.Builder<GenericRecord> avroReaderBuilder(InputFile inputFile, ReadOptions readOptions, CachedFooter footer) {
+        MessageType fileSchema = footer.getSchema();
+        if (readOptions != null && readOptions.isSelective()) {
+            return avroReaderBuilder(inputFile, footer, readOptions.projection(fileSchema), readOptions.selection(fileSchema),
+                    readOptions.recordFilter(fileSchema));
+        }
+        return avroReaderBuilder(inputFile, footer, null, null, FilterCompat.NOOP);
+    }
 
-        public Long toLong(String timestamp, Schema schema, LogicalType type) {
-            return new Long(timestamp);
+    /**
+     * @param footer the footer of the file, only needed with a projection
+     * @param projection the columns to read, or null to read every column
+     * @param selection the columns of the records produced, or null for all of the {@code projection}
+     * @param filter the record filter, {@link FilterCompat#NOOP} when there is none
+     */
+    static ParquetReader.Builder<GenericRecord> avroReaderBuilder(InputFile inputFile, CachedFooter footer, MessageType projection,
+                                                                  MessageType selection, FilterCompat.Filter filter) {
+        AvroReaderBuilder builder = new AvroReaderBuilder(inputFile);
+        if (projection != null) {
+            builder.withProjection(projection, recordSchema(footer, projection),
+                    recordSchema(footer, selection != null ? selection : projection));
         }
+        // withConf resets the read options, so it has to come before the filter and any file range
+        return builder.withConf(SharedConfiguration.forReading())
+                .withFilter(filter);
+    }
+
+    /**
+     * Returns the footer of a payload or local file from the shared {@link FooterCache}.
+     */
+    static CachedFooter readFooter(ParquetBufferedReader inputFile) throws IOException {
+        return FooterCache.shared().get(inputFile, inputFile.getIdentity());
+    }
+
+    static Schema avroSchema(CachedFooter footer) {
+        return footer.derive(Schema.class, type -> ParquetMetadataMapper.avroSchema(footer.getFooter()));
+    }
+
+    /**
+     * Returns the Avro schema records of the {@code columns} are read with, pruned from the
+     * schema the file was written with when there is one.
+     */
+    static Schema recordSchema(CachedFooter footer, MessageType columns) {
+        return footer.derive(columns, requested -> ParquetMetadataMapper.avroSchema(footer.getFooter(), requested));
+    }
+
+    /**
+     * Returns a JSON writer for records of {@code schema}, compiled once per footer and schema.
+     */
+    static GenericRecordJsonWriter jsonWriter(CachedFooter footer, Schema schema) {
+        return footer.<Schema, GenericRecordJsonWriter>derive(schema, GenericRecordJsonWriter::forSchema).duplicate();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,220 @@
+package org.mule.extension.parquet.internal;
+
+import org.apache.avro.generic.GenericRecord;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.mule.extension.parquet.api.ParquetSplit;
+import org.mule.extension.parquet.internal.cache.CachedFooter;
+import org.mule.extension.parquet.internal.json.GenericRecordJsonWriter;
+import org.mule.extension.parquet.internal.metrics.AllocationMeter;
+import org.mule.extension.parquet.internal.metrics.Metric;
+import org.mule.extension.parquet.internal.metrics.OperationMetrics;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.extension.api.runtime.streaming.PagingProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+
+/**
+ * Pages the records of a parquet file out to Mule as JSON strings.
+ * <p>
+ * The underlying {@link ParquetReader} only ever holds the row group it is currently decoding, so the
+ * memory used by a page is bounded by the row group size plus {@code pageSize} encoded records, no
+ * matter how big the file is. The reader is opened lazily on the first page so downstream processors
+ * can start working while the rest of the file is still undecoded.
+ * <p>
+ * With a parallelism above 1 the row groups are decoded concurrently on the given scheduler by a
+ * {@link ParallelRowGroupReader} instead, and pages are cut from the row groups as they come in.
+ * <p>
+ * With low allocation decode, flat files are read with a reader that produces the JSON text of every
+ * record directly, see {@link org.mule.extension.parquet.internal.record.JsonRecordMaterializer}, so only
+ * the strings of the page are allocated per record; other files fall back to Avro records.
+ * <p>
+ * Given a {@link ParquetSplit}, only the row groups of the split are read, and a sequential read is
+ * restricted to the split's byte range.
+ * <p>
+ * Records, decode and encode time and the bytes allocated on the paging thread are added to the operation
+ * metrics once per page, and the invocation is finished when the provider is closed.
+ */
+public class ParquetRecordPagingProvider implements PagingProvider<ParquetConnection, String> {
+    private final Logger LOGGER = LoggerFactory.getLogger(ParquetRecordPagingProvider.class);
+
+    private final ParquetBufferedReader inputFile;
+    private final int pageSize;
+    private final ReadOptions readOptions;
+    private final Scheduler scheduler;
+    private final int parallelism;
+    private final boolean preserveOrder;
+    private final boolean lowAllocation;
+    private final ParquetSplit split;
+    private final OperationMetrics metrics;
+    private final long started;
+    private CachedFooter footer;
+    private ParquetReader<?> reader;
+    private ParallelRowGroupReader parallelReader;
+    private Iterator<String> rowGroupRecords = Collections.emptyIterator();
+    private GenericRecordJsonWriter writer;
+    private boolean exhausted;
+    private long total;
+    private boolean failed;
+
+    public ParquetRecordPagingProvider(ParquetBufferedReader inputFile, int pageSize, ReadOptions readOptions,
+                                       boolean lowAllocation, OperationMetrics metrics, long started) {
+        this(inputFile, pageSize, readOptions, null, 1, true, lowAllocation, null, metrics, started);
+    }
+
+    public ParquetRecordPagingProvider(ParquetBufferedReader inputFile, int pageSize, ReadOptions readOptions,
+                                       Scheduler scheduler, int parallelism, boolean preserveOrder,
+                                       boolean lowAllocation, ParquetSplit split, OperationMetrics metrics,
+                                       long started) {
+        this.inputFile = inputFile;
+        this.pageSize = pageSize > 0 ? pageSize : 1;
+        this.readOptions = readOptions;
+        this.scheduler = scheduler;
+        this.parallelism = parallelism;
+        this.preserveOrder = preserveOrder;
+        this.lowAllocation = lowAllocation;
+        this.split = split;
+        this.metrics = metrics;
+        this.started = started;
+    }
+
+    @Override
+    public List<String> getPage(ParquetConnection connection) {
+        if (exhausted) {
+            return Collections.emptyList();
+        }
+        List<String> page = new ArrayList<>(pageSize);
+        long allocated = AllocationMeter.allocatedBytes();
+        try {
+            if (scheduler != null) {
+                fillFromRowGroups(page);
+            } else {
+                fill(page);
+            }
+        } catch (IOException | RuntimeException e) {
+            failed = true;
+            throw new MuleRuntimeException(createStaticMessage("Error reading parquet records from " + inputFile), e);
+        }
+        if (page.size() < pageSize) {
+            exhausted = true;
+        }
+        total += page.size();
+        metrics.add(Metric.RECORDS_DECODED, page.size());
+        metrics.add(Metric.BYTES_ALLOCATED, AllocationMeter.allocatedBytes() - allocated);
+        return page;
+    }
+
+    private void fill(List<String> page) throws IOException {
+        if (reader == null) {
+            footer = ParquetOperations.readFooter(inputFile);
+            reader = open();
+        }
+        long decodeNanos = 0;
+        long encodeNanos = 0;
+        long mark = System.nanoTime();
+        Object value;
+        while (page.size() < pageSize && (value = reader.read()) != null) {
+            long decoded = System.nanoTime();
+            decodeNanos += decoded - mark;
+            if (value instanceof CharSequence) {
+                page.add(value.toString());
+            } else {
+                GenericRecord record = (GenericRecord) value;
+                if (writer == null) {
+                    writer = ParquetOperations.jsonWriter(footer, record.getSchema());
+                }
+                page.add(writer.write(record));
+            }
+            mark = System.nanoTime();
+            encodeNanos += mark - decoded;
+        }
+        metrics.add(Metric.DECODE_NANOS, decodeNanos);
+        metrics.add(Metric.ENCODE_NANOS, encodeNanos);
+    }
+
+    private ParquetReader<?> open() throws IOException {
+        ParquetReader.Builder<?> builder = lowAllocation ? ParquetOperations.jsonReaderBuilder(inputFile, footer, readOptions) : null;
+        if (lowAllocation && builder == null) {
+            LOGGER.info("Reading " + inputFile + " through Avro records, low allocation decode only supports flat columns");
+        }
+        if (builder == null) {
+            builder = ParquetOperations.avroReaderBuilder(inputFile, readOptions, footer);
+        }
+        if (split != null) {
+            builder.withFileRange(split.getStart(), split.getEnd());
+        }
+        ParquetOperations.countRowGroups(metrics, rowGroups(footer), readOptions, footer.getSchema());
+        return builder.build();
+    }
+
+    private List<BlockMetaData> rowGroups(CachedFooter footer) throws IOException {
+        return split == null ? footer.getFooter().getBlocks() : SplitPlanner.rowGroups(footer, split, inputFile.getLength());
+    }
+
+    private void fillFromRowGroups(List<String> page) throws IOException {
+        if (parallelReader == null) {
+            CachedFooter footer = ParquetOperations.readFooter(inputFile);
+            parallelReader = new ParallelRowGroupReader(inputFile, footer, rowGroups(footer), readOptions,
+                    scheduler, parallelism, preserveOrder, lowAllocation, metrics);
+        }
+        while (page.size() < pageSize) {
+            if (!rowGroupRecords.hasNext()) {
+                List<String> rowGroup = parallelReader.next();
+                if (rowGroup == null) {
+                    return;
+                }
+                rowGroupRecords = rowGroup.iterator();
+                continue;
+            }
+            page.add(rowGroupRecords.next());
+        }
+    }
+
+    @Override
+    public Optional<Integer> getTotalResults(ParquetConnection connection) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void close(ParquetConnection connection) {
+        LOGGER.info("Total records paged from " + inputFile + ": " + total);
+        // each resource is released even when releasing the one before it failed
+        try {
+            if (reader != null) {
+                reader.close();
+            }
+        } catch (IOException e) {
+            LOGGER.error("Could not close the reader of " + inputFile + ": " + e.getMessage());
+        } finally {
+            try {
+                if (parallelReader != null) {
+                    parallelReader.close();
+                }
+            } finally {
+                try {
+                    if (scheduler != null) {
+                        scheduler.stop();
+                    }
+                } finally {
+                    try {
+                        inputFile.close();
+                    } catch (IOException e) {
+                        LOGGER.error("Could not release " + inputFile + ": " + e.getMessage());
+                    } finally {
+                        metrics.finish(started, failed);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.mule.extension.parquet.internal;
+
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.mule.extension.parquet.api.CompressionCodec;
+import org.mule.extension.parquet.internal.filter.ColumnProjection;
+import org.mule.extension.parquet.internal.json.JsonRecordReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Writes streamed records to parquet through {@link AvroParquetWriter}.
+ * <p>
+ * Records are pulled from the payload one at a time and handed to the writer, which buffers a single row
+ * group and flushes it to the {@link OutputFile} once it reaches the configured size. Memory is bounded
+ * by the row group size whatever the size of the payload.
+ */
+final class ParquetRecordWriter {
+
+    private ParquetRecordWriter() {
+    }
+
+    /**
+     * Writes an Avro object container payload, using the schema it carries.
+     *
+     * @return the number of records written
+     */
+    static long writeAvro(InputStream body, OutputFile outputFile, WriteOptions options) throws IOException {
+        try (DataFileStream<GenericRecord> records = new DataFileStream<>(body, new GenericDatumReader<>())) {
+            return write(records, records.getSchema(), outputFile, options);
+        }
+    }
+
+    /**
+     * Writes a JSON array or newline delimited JSON payload as records of {@code schema}.
+     *
+     * @return the number of records written
+     */
+    static long writeJson(InputStream body, Schema schema, OutputFile outputFile, WriteOptions options) throws IOException {
+        try (JsonRecordReader records = new JsonRecordReader(body, schema)) {
+            return write(records, schema, outputFile, options);
+        }
+    }
+
+    private static long write(Iterator<GenericRecord> records, Schema schema, OutputFile outputFile, WriteOptions options) throws IOException {
+        long count = 0;
+        try (ParquetWriter<GenericRecord> writer = writerBuilder(outputFile, schema, options).build()) {
+            while (records.hasNext()) {
+                writer.write(records.next());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static AvroParquetWriter.Builder<GenericRecord> writerBuilder(OutputFile outputFile, Schema schema, WriteOptions options) {
+        return configure(AvroParquetWriter.<GenericRecord>builder(outputFile)
+                .withSchema(schema)
+                .withDataModel(GenericData.get()), options);
+    }
+
+    /**
+     * Applies the write options, and the shared write configuration, to a writer builder.
+     */
+    static <B extends ParquetWriter.Builder<GenericRecord, B>> B configure(B builder, WriteOptions options) {
+        builder.withConf(SharedConfiguration.forWriting())
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .withCompressionCodec(codec(options))
+                .withRowGroupSize(options.getRowGroupSize())
+                .withPageSize(options.getPageSize())
+                .withDictionaryEncoding(options.isDictionaryEncoding());
+        for (String column : ColumnProjection.parseColumns(options.getBloomFilterColumns())) {
+            builder.withBloomFilterEnabled(column, true);
+        }
+        return builder;
+    }
+
+    static CompressionCodecName codec(WriteOptions options) {
+        CompressionCodec codec = options.getCompressionCodec() != null ? options.getCompressionCodec() : CompressionCodec.SNAPPY;
+        return CompressionCodecName.valueOf(codec.name());
+    }
+}
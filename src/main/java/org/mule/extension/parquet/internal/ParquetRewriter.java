@@ -0,0 +1,326 @@
+package org.mule.extension.parquet.internal;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.SeekableInputStream;
+import org.apache.parquet.schema.MessageType;
+import org.mule.extension.parquet.api.RewriteResult;
+import org.mule.extension.parquet.internal.cache.CachedFooter;
+import org.mule.extension.parquet.internal.dataset.DatasetFile;
+import org.mule.extension.parquet.internal.filter.ColumnProjection;
+import org.mule.extension.parquet.internal.filter.FilterExpression;
+import org.mule.extension.parquet.internal.io.OutputFile;
+import org.mule.extension.parquet.internal.metrics.Metric;
+import org.mule.extension.parquet.internal.metrics.OperationMetrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rewrites parquet files into new files of a target size.
+ * <p>
+ * When the records don't change, that is without columns, sort, merged row groups, bloom filters or a
+ * filter on anything but partition columns, and the inputs share a schema and already use the requested
+ * codec, row groups are copied byte for byte with {@link ParquetFileWriter#appendRowGroup}: column chunks
+ * are never decompressed or decoded. Anything else decodes the records and writes them again with the
+ * write options, through a {@link RecordSorter} when a sort order is given, so the output is sorted as a
+ * whole and every file and row group covers its own range of the sort columns.
+ * <p>
+ * A new output file is started once the current one reaches the target size, at row group boundaries
+ * when copying. Partition values of the inputs are only used to prune files, they aren't written.
+ */
+final class ParquetRewriter {
+    private static final String PART_NAME = "part-%05d.parquet";
+    // the writer's buffered size is only checked every so many records, as it sums every column
+    private static final int SIZE_CHECK_INTERVAL = 1024;
+
+    private final Path outputDirectory;
+    private final long targetFileSize;
+    private final FilterExpression filter;
+    private final List<String> selected;
+    private final String sortBy;
+    private final int sortBufferRecords;
+    private final boolean mergeRowGroups;
+    private final WriteOptions writeOptions;
+    private final OperationMetrics metrics;
+    private final RewriteResult result = new RewriteResult();
+
+    ParquetRewriter(Path outputDirectory, long targetFileSize, ReadOptions readOptions, String sortBy,
+                    int sortBufferRecords, boolean mergeRowGroups, WriteOptions writeOptions, OperationMetrics metrics) {
+        this.outputDirectory = outputDirectory.toAbsolutePath().normalize();
+        this.targetFileSize = targetFileSize;
+        this.filter = readOptions == null ? null : readOptions.getFilterExpression();
+        this.selected = readOptions == null ? Collections.emptyList() : ColumnProjection.parseColumns(readOptions.getColumns());
+        this.sortBy = sortBy;
+        this.sortBufferRecords = sortBufferRecords;
+        this.mergeRowGroups = mergeRowGroups;
+        this.writeOptions = writeOptions;
+        this.metrics = metrics;
+    }
+
+    RewriteResult rewrite(List<DatasetFile> files) throws IOException {
+        long started = System.nanoTime();
+        for (DatasetFile file : files) {
+            if (outputDirectory.equals(file.getPath().toAbsolutePath().normalize().getParent())) {
+                throw new IllegalArgumentException("Input " + file + " is in the output directory, which would be overwritten");
+            }
+        }
+        Files.createDirectories(outputDirectory);
+        result.setInputFiles(files.size());
+        if (canCopy(files)) {
+            copy(files);
+        } else {
+            reencode(files);
+        }
+        result.setElapsedMillis((System.nanoTime() - started) / 1_000_000);
+        return result;
+    }
+
+    private FilterExpression residual(DatasetFile file) {
+        return filter == null ? FilterExpression.ALWAYS : filter.bindPartition(file.getPartition());
+    }
+
+    private boolean canCopy(List<DatasetFile> files) throws IOException {
+        if (!selected.isEmpty() || !RecordSorter.sortColumns(sortBy).isEmpty() || mergeRowGroups
+                || !ColumnProjection.parseColumns(writeOptions.getBloomFilterColumns()).isEmpty()) {
+            return false;
+        }
+        CompressionCodecName codec = ParquetRecordWriter.codec(writeOptions);
+        MessageType schema = null;
+        for (DatasetFile file : files) {
+            if (residual(file) != FilterExpression.ALWAYS) {
+                return false;
+            }
+            try (ParquetBufferedReader inputFile = ParquetBufferedReader.open(file.getPath(), null)) {
+                CachedFooter footer = ParquetOperations.readFooter(inputFile);
+                if (schema == null) {
+                    schema = footer.getSchema();
+                } else if (!schema.equals(footer.getSchema())) {
+                    return false;
+                }
+                for (BlockMetaData rowGroup : footer.getFooter().getBlocks()) {
+                    for (ColumnChunkMetaData column : rowGroup.getColumns()) {
+                        if (column.getCodec() != codec) {
+                            return false;
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private void copy(List<DatasetFile> files) throws IOException {
+        ParquetFileWriter writer = null;
+        Map<String, String> keyValueMetadata = null;
+        for (DatasetFile file : files) {
+            if (residual(file) == FilterExpression.NEVER) {
+                continue;
+            }
+            try (ParquetBufferedReader inputFile = ParquetBufferedReader.open(file.getPath(), metrics);
+                 SeekableInputStream in = inputFile.newStream()) {
+                CachedFooter footer = ParquetOperations.readFooter(inputFile);
+                MessageType schema = footer.getSchema();
+                if (keyValueMetadata == null) {
+                    keyValueMetadata = footer.getFooter().getFileMetaData().getKeyValueMetaData();
+                }
+                metrics.add(Metric.FILES_READ, 1);
+                List<BlockMetaData> rowGroups = ParquetOperations.countRowGroups(metrics, footer.getFooter().getBlocks(), FilterCompat.NOOP, schema);
+                for (BlockMetaData rowGroup : rowGroups) {
+                    if (writer != null && writer.getPos() + rowGroup.getCompressedSize() > targetFileSize) {
+                        endCopy(writer, keyValueMetadata);
+                        writer = null;
+                    }
+                    if (writer == null) {
+                        writer = new ParquetFileWriter(OutputFile.nioPathToOutputFile(nextOutput()), schema,
+                                ParquetFileWriter.Mode.OVERWRITE, writeOptions.getRowGroupSize(), 0);
+                        writer.start();
+                    }
+                    writer.appendRowGroup(in, rowGroup, false);
+                    result.setRowGroupsCopied(result.getRowGroupsCopied() + 1);
+                    result.setRecordsWritten(result.getRecordsWritten() + rowGroup.getRowCount());
+                }
+            }
+        }
+        if (writer != null) {
+            endCopy(writer, keyValueMetadata);
+        }
+    }
+
+    private void endCopy(ParquetFileWriter writer, Map<String, String> keyValueMetadata) throws IOException {
+        writer.end(keyValueMetadata);
+        addBytesWritten();
+    }
+
+    private void reencode(List<DatasetFile> files) throws IOException {
+        MessageType schema = null;
+        Schema avroSchema = null;
+        DatasetFile first = null;
+        RecordSorter sorter = null;
+        RollingWriter output = null;
+        boolean sorted = !RecordSorter.sortColumns(sortBy).isEmpty();
+        try {
+            for (DatasetFile file : files) {
+                FilterExpression residual = residual(file);
+                if (residual == FilterExpression.NEVER) {
+                    continue;
+                }
+                try (ParquetBufferedReader inputFile = ParquetBufferedReader.open(file.getPath(), metrics)) {
+                    CachedFooter footer = ParquetOperations.readFooter(inputFile);
+                    MessageType fileSchema = footer.getSchema();
+                    MessageType projection = projection(fileSchema, file.getPartition(), residual);
+                    MessageType written = written(fileSchema, file.getPartition());
+                    if (schema == null) {
+                        schema = written;
+                        // AvroWriteSupport pairs Avro and parquet fields by position, so both come from the written columns
+                        avroSchema = ParquetOperations.recordSchema(footer, written);
+                        first = file;
+                    } else if (!schema.equals(written)) {
+                        throw new IOException("The columns read from " + file + " don't match those of " + first);
+                    }
+                    FilterCompat.Filter recordFilter = residual == FilterExpression.ALWAYS
+                            ? FilterCompat.NOOP : FilterCompat.get(residual.toPredicate(fileSchema));
+                    ParquetOperations.countRowGroups(metrics, footer.getFooter().getBlocks(), recordFilter, fileSchema);
+                    metrics.add(Metric.FILES_READ, 1);
+                    try (ParquetReader<GenericRecord> reader = ParquetOperations.avroReaderBuilder(inputFile, footer,
+                            projection == fileSchema ? null : projection, written, recordFilter).build()) {
+                        long decoded = 0;
+                        GenericRecord record;
+                        while ((record = reader.read()) != null) {
+                            decoded++;
+                            if (sorted) {
+                                if (sorter == null) {
+                                    sorter = new RecordSorter(sortBy, sortBufferRecords, schema, avroSchema, metrics);
+                                }
+                                sorter.add(record);
+                            } else {
+                                if (output == null) {
+                                    output = new RollingWriter(schema, avroSchema);
+                                }
+                                output.write(record);
+                            }
+                        }
+                        metrics.add(Metric.RECORDS_DECODED, decoded);
+                    }
+                }
+            }
+            if (sorter != null) {
+                Iterator<GenericRecord> records = sorter.sorted();
+                while (records.hasNext()) {
+                    GenericRecord record = records.next();
+                    if (output == null) {
+                        output = new RollingWriter(schema, avroSchema);
+                    }
+                    output.write(record);
+                }
+            }
+        } finally {
+            try (RecordSorter closeSorter = sorter) {
+                if (output != null) {
+                    output.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the columns to read from a file: the selected ones that aren't partition columns, plus those
+     * the filter still needs once bound to the partition and the sort columns, or the whole file schema.
+     */
+    private MessageType projection(MessageType fileSchema, Map<String, String> partition, FilterExpression residual) {
+        if (selected.isEmpty()) {
+            return fileSchema;
+        }
+        Set<String> columns = new LinkedHashSet<>();
+        for (String column : selected) {
+            if (!partition.containsKey(column) || fileSchema.containsField(column)) {
+                columns.add(column);
+            }
+        }
+        residual.collectColumns(columns);
+        columns.addAll(RecordSorter.sortColumns(sortBy));
+        return ColumnProjection.project(fileSchema, columns);
+    }
+
+    /**
+     * Returns the columns written: the selected ones that aren't partition columns and the sort columns,
+     * which the merge of sorted runs compares on, or the whole file schema. Columns only the filter
+     * needs are read but not written.
+     */
+    private MessageType written(MessageType fileSchema, Map<String, String> partition) {
+        if (selected.isEmpty()) {
+            return fileSchema;
+        }
+        Set<String> columns = new LinkedHashSet<>();
+        for (String column : selected) {
+            if (!partition.containsKey(column) || fileSchema.containsField(column)) {
+                columns.add(column);
+            }
+        }
+        columns.addAll(RecordSorter.sortColumns(sortBy));
+        return ColumnProjection.project(fileSchema, columns);
+    }
+
+    private Path nextOutput() {
+        Path path = outputDirectory.resolve(String.format(PART_NAME, result.getOutputFiles().size()));
+        result.getOutputFiles().add(path.toString());
+        return path;
+    }
+
+    private void addBytesWritten() throws IOException {
+        List<String> outputs = result.getOutputFiles();
+        result.setBytesWritten(result.getBytesWritten() + Files.size(Paths.get(outputs.get(outputs.size() - 1))));
+    }
+
+    /**
+     * Writes records to consecutive output files, starting a new one once the current file reaches the target size.
+     */
+    private final class RollingWriter implements Closeable {
+        private final MessageType schema;
+        private final Schema avroSchema;
+        private ParquetWriter<GenericRecord> writer;
+        private long written;
+
+        RollingWriter(MessageType schema, Schema avroSchema) {
+            this.schema = schema;
+            this.avroSchema = avroSchema;
+        }
+
+        void write(GenericRecord record) throws IOException {
+            if (writer == null) {
+                writer = ParquetRecordWriter.configure(new AvroWriterBuilder(OutputFile.nioPathToOutputFile(nextOutput()),
+                        schema, avroSchema), writeOptions).build();
+            }
+            writer.write(record);
+            result.setRecordsWritten(result.getRecordsWritten() + 1);
+            if (++written % SIZE_CHECK_INTERVAL == 0 && writer.getDataSize() >= targetFileSize) {
+                close();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+                addBytesWritten();
+            }
+        }
+    }
+}
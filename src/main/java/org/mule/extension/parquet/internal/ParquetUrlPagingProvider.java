@@ -0,0 +1,115 @@
+package org.mule.extension.parquet.internal;
+
+import org.mule.extension.parquet.api.ParquetSplit;
+import org.mule.extension.parquet.internal.cache.FooterCache;
+import org.mule.extension.parquet.internal.io.HttpRangeInputFile;
+import org.mule.extension.parquet.internal.metrics.Metric;
+import org.mule.extension.parquet.internal.metrics.OperationMetrics;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.extension.api.runtime.streaming.PagingProvider;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+
+/**
+ * Pages the records of a parquet object read over HTTP out to Mule as JSON strings.
+ * <p>
+ * Range requests go through the HTTP client of the connection, which paging operations only get with
+ * the first page, so the object is opened then and read by a {@link ParquetRecordPagingProvider} from
+ * there on.
+ */
+public class ParquetUrlPagingProvider implements PagingProvider<ParquetConnection, String> {
+    private final String url;
+    private final int timeout;
+    private final int blockSize;
+    private final int cachedBlocks;
+    private final int pageSize;
+    private final ReadOptions readOptions;
+    private final Scheduler scheduler;
+    private final int parallelism;
+    private final boolean preserveOrder;
+    private final boolean lowAllocation;
+    private final ParquetSplit split;
+    private final OperationMetrics metrics;
+    private final long started;
+    private ParquetRecordPagingProvider delegate;
+    private boolean failed;
+
+    public ParquetUrlPagingProvider(String url, int timeout, int blockSize, int cachedBlocks, int pageSize,
+                                    ReadOptions readOptions, Scheduler scheduler, int parallelism,
+                                    boolean preserveOrder, boolean lowAllocation, ParquetSplit split,
+                                    OperationMetrics metrics, long started) {
+        this.url = url;
+        this.timeout = timeout;
+        this.blockSize = blockSize;
+        this.cachedBlocks = cachedBlocks;
+        this.pageSize = pageSize;
+        this.readOptions = readOptions;
+        this.scheduler = scheduler;
+        this.parallelism = parallelism;
+        this.preserveOrder = preserveOrder;
+        this.lowAllocation = lowAllocation;
+        this.split = split;
+        this.metrics = metrics;
+        this.started = started;
+    }
+
+    @Override
+    public List<String> getPage(ParquetConnection connection) {
+        if (delegate == null) {
+            delegate = open(connection);
+        }
+        return delegate.getPage(connection);
+    }
+
+    private ParquetRecordPagingProvider open(ParquetConnection connection) {
+        ParquetBufferedReader inputFile;
+        try {
+            inputFile = openRemote(connection, url, timeout, blockSize, cachedBlocks, metrics);
+        } catch (IOException | RuntimeException e) {
+            failed = true;
+            throw new MuleRuntimeException(createStaticMessage("Error opening parquet object " + url + ": " + e.getMessage()), e);
+        }
+        return new ParquetRecordPagingProvider(inputFile, pageSize, readOptions, scheduler,
+                scheduler != null ? parallelism : 1, preserveOrder, lowAllocation, split, metrics, started);
+    }
+
+    /**
+     * Opens a parquet object over HTTP, fetching the tail of the object that holds its footer.
+     *
+     * @throws IOException if the tail cannot be fetched
+     */
+    static ParquetBufferedReader openRemote(ParquetConnection connection, String url, int timeout, int blockSize,
+                                            int cachedBlocks, OperationMetrics metrics) throws IOException {
+        HttpRangeInputFile file = HttpRangeInputFile.open(url, range -> {
+            HttpRangeInputFile.Range fetched = connection.fetchRange(url, range, timeout);
+            metrics.add(Metric.BYTES_FETCHED, fetched.getBytes().length);
+            return fetched;
+        }, FooterCache.tailReadSize(), blockSize, cachedBlocks);
+        return ParquetBufferedReader.remote(url, file, metrics);
+    }
+
+    @Override
+    public Optional<Integer> getTotalResults(ParquetConnection connection) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void close(ParquetConnection connection) {
+        if (delegate != null) {
+            delegate.close(connection);
+            return;
+        }
+        try {
+            if (scheduler != null) {
+                scheduler.stop();
+            }
+        } finally {
+            metrics.finish(started, failed);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.mule.extension.parquet.internal;
+
+import org.apache.avro.generic.GenericRecord;
+import org.apache.parquet.filter.PagedRecordFilter;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.io.InputFile;
+import org.mule.extension.parquet.internal.cache.CachedFooter;
+import org.mule.extension.parquet.internal.metrics.OperationMetrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Reads the records of a file one row group at a time, keeping track of the row group and offset of the
+ * last record read so that a later read can start right after it.
+ * <p>
+ * A read that starts at a position never touches the row groups before it: they are dropped from the
+ * footer's row group list, so none of their column chunks is read or decompressed. Without a filter, the
+ * row group of the position is opened with a {@link PagedRecordFilter} starting at the offset, so the
+ * records before it are skipped column by column without being assembled, and an offset past its last row
+ * skips that row group as well. With a filter the offset counts matching records only, which a row index
+ * can't express, so the records before it are decoded and dropped, costing at most one row group.
+ */
+class PositionedRecordReader implements Closeable {
+    private final InputFile inputFile;
+    private final ReadOptions readOptions;
+    private final CachedFooter footer;
+    private final List<BlockMetaData> rowGroups;
+    private final List<BlockMetaData> kept;
+    private final boolean filtered;
+    private ParquetReader<GenericRecord> reader;
+    private int rowGroup;
+    private int nextKept;
+    private long offset;
+    private long toSkip;
+    private long skipped;
+
+    /**
+     * @param inputFile the file
+     * @param footer footer of the file
+     * @param readOptions columns and filter of the read, may be null
+     * @param metrics metrics to count the row groups read and skipped in
+     * @param position where to start, or null for the beginning of the file
+     */
+    PositionedRecordReader(InputFile inputFile, CachedFooter footer, ReadOptions readOptions, OperationMetrics metrics,
+                           BatchCheckpoint.Position position) {
+        this.inputFile = inputFile;
+        this.readOptions = readOptions;
+        this.footer = footer;
+        this.rowGroups = footer.getFooter().getBlocks();
+        this.filtered = readOptions != null && readOptions.getFilterExpression() != null;
+        int start = position == null ? 0 : Math.min(position.getRowGroup(), rowGroups.size());
+        this.rowGroup = start - 1;
+        if (position != null && start < rowGroups.size()) {
+            toSkip = position.getOffset();
+            if (!filtered && toSkip >= rowGroups.get(start).getRowCount()) {
+                start++;
+                rowGroup = start - 1;
+                toSkip = 0;
+            }
+        }
+        this.kept = ParquetOperations.countRowGroups(metrics, rowGroups.subList(start, rowGroups.size()), readOptions, footer.getSchema());
+    }
+
+    /**
+     * @return the next record, or null at the end of the file
+     * @throws IOException if a row group cannot be read
+     */
+    GenericRecord read() throws IOException {
+        while (true) {
+            if (reader == null && !nextRowGroup()) {
+                return null;
+            }
+            GenericRecord record = reader.read();
+            if (record == null) {
+                reader.close();
+                reader = null;
+                toSkip = 0;
+            } else if (offset++ >= toSkip) {
+                return record;
+            } else {
+                skipped++;
+            }
+        }
+    }
+
+    private boolean nextRowGroup() throws IOException {
+        while (nextKept < kept.size()) {
+            BlockMetaData next = rowGroups.get(++rowGroup);
+            offset = 0;
+            if (next == kept.get(nextKept)) {
+                nextKept++;
+                ParquetReader.Builder<GenericRecord> builder = ParquetOperations.avroReaderBuilder(inputFile, readOptions, footer)
+                        .withFileRange(next.getStartingPos(), next.getStartingPos() + next.getCompressedSize());
+                if (!filtered && toSkip > 0) {
+                    // the paged filter counts rows from 1 and ends before startPos + pageSize
+                    builder.withFilter(FilterCompat.get(PagedRecordFilter.page(toSkip + 1, next.getRowCount() - toSkip)));
+                    offset = toSkip;
+                }
+                reader = builder.build();
+                return true;
+            }
+            // ruled out on statistics, so none of its records match
+            toSkip = 0;
+        }
+        return false;
+    }
+
+    /**
+     * @param records records of the file read up to the last record returned, by this read and those before it
+     * @return the position right after the last record returned
+     */
+    BatchCheckpoint.Position position(long records) {
+        return new BatchCheckpoint.Position(rowGroup, offset, records);
+    }
+
+    /**
+     * @return the records decoded only to reach the starting offset, which only a filtered read decodes
+     */
+    long getSkipped() {
+        return skipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.mule.extension.parquet.internal;
+
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.schema.MessageType;
+import org.mule.extension.parquet.internal.filter.ColumnProjection;
+import org.mule.extension.parquet.internal.filter.FilterExpression;
+import org.mule.extension.parquet.internal.filter.FilterExpressionParser;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
+import org.mule.runtime.extension.api.annotation.param.display.Example;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Column projection and row filter shared by the read operations.
+ * <p>
+ * Both are pushed down into the parquet reader: unselected column chunks are never read, and the filter
+ * skips whole row groups using min/max statistics, dictionaries and column indexes before filtering the
+ * remaining records.
+ */
+public class ReadOptions {
+
+    @Parameter
+    @Optional
+    @DisplayName("Columns")
+    @Summary("Comma separated columns to read, dotted paths select nested fields. All columns are read when empty.")
+    @Example("event_id, event_date, amount")
+    private String columns;
+
+    @Parameter
+    @Optional
+    @DisplayName("Filter")
+    @Summary("Only read records matching this expression, e.g. event_date = '2026-10-01' and amount > 100")
+    @Example("event_date = '2026-10-01' and amount > 100")
+    private String filter;
+
+    // parsed once, the filter is read for every file, row group and reader of an operation, from parallel readers too
+    private volatile ParsedFilter parsedFilter;
+
+    public String getColumns() {
+        return columns;
+    }
+
+    public void setColumns(String columns) {
+        this.columns = columns;
+    }
+
+    public String getFilter() {
+        return filter;
+    }
+
+    public void setFilter(String filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * @return whether a projection or filter was configured, i.e. whether the file schema is needed to open a reader
+     */
+    public boolean isSelective() {
+        return !ColumnProjection.parseColumns(columns).isEmpty() || getFilterExpression() != null;
+    }
+
+    /**
+     * @return the parsed filter, or null when there is none
+     */
+    public FilterExpression getFilterExpression() {
+        String current = filter;
+        if (current == null || current.trim().isEmpty()) {
+            return null;
+        }
+        ParsedFilter parsed = parsedFilter;
+        if (parsed == null || !current.equals(parsed.text)) {
+            parsed = new ParsedFilter(current, FilterExpressionParser.parse(current));
+            parsedFilter = parsed;
+        }
+        return parsed.expression;
+    }
+
+    /**
+     * Returns the requested schema. Columns referenced by the filter are always read as well, since
+     * records are filtered on their values, see {@link #selection(MessageType)} for the columns records
+     * are produced with.
+     *
+     * @param fileSchema the schema of the file being read
+     * @return the projected schema, or null to read every column
+     */
+    public MessageType projection(MessageType fileSchema) {
+        Set<String> selected = new LinkedHashSet<>(ColumnProjection.parseColumns(columns));
+        if (selected.isEmpty()) {
+            return null;
+        }
+        FilterExpression expression = getFilterExpression();
+        if (expression != null) {
+            expression.collectColumns(selected);
+        }
+        return ColumnProjection.project(fileSchema, selected);
+    }
+
+    /**
+     * Returns the columns of the records produced, the {@link #projection(MessageType)} without the
+     * columns only read to evaluate the filter.
+     *
+     * @param fileSchema the schema of the file being read
+     * @return the selected columns, or null when every column is produced
+     */
+    public MessageType selection(MessageType fileSchema) {
+        List<String> selected = ColumnProjection.parseColumns(columns);
+        return selected.isEmpty() ? null : ColumnProjection.project(fileSchema, selected);
+    }
+
+    /**
+     * @param fileSchema the schema of the file being read
+     * @return the record filter, {@link FilterCompat#NOOP} when there is none
+     */
+    public FilterCompat.Filter recordFilter(MessageType fileSchema) {
+        FilterExpression expression = getFilterExpression();
+        return expression == null ? FilterCompat.NOOP : FilterCompat.get(expression.toPredicate(fileSchema));
+    }
+
+    private static final class ParsedFilter {
+        private final String text;
+        private final FilterExpression expression;
+
+        ParsedFilter(String text, FilterExpression expression) {
+            this.text = text;
+            this.expression = expression;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package org.mule.extension.parquet.internal;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.schema.MessageType;
+import org.mule.extension.parquet.internal.filter.ColumnProjection;
+import org.mule.extension.parquet.internal.io.OutputFile;
+import org.mule.extension.parquet.internal.metrics.Metric;
+import org.mule.extension.parquet.internal.metrics.OperationMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * External merge sort of Avro records.
+ * <p>
+ * Records are buffered up to a fixed count, then sorted and spilled to a temporary parquet run. Once every
+ * record is in, the runs are merged through a priority queue holding the head record of each run, so the
+ * memory used is the buffer while sorting and one row group per run while merging, however many records
+ * there are. Nothing is spilled when all records fit in the buffer. Runs are deleted on {@link #close()}.
+ */
+final class RecordSorter implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RecordSorter.class);
+    // small row groups keep the merge at a few MB per run
+    private static final int RUN_ROW_GROUP_SIZE = 8 * 1024 * 1024;
+
+    private final Comparator<GenericRecord> comparator;
+    private final int bufferRecords;
+    private final MessageType schema;
+    private final Schema avroSchema;
+    private final OperationMetrics metrics;
+    private final List<GenericRecord> buffer = new ArrayList<>();
+    private final List<Path> runs = new ArrayList<>();
+    private final List<Closeable> readers = new ArrayList<>();
+    private Path directory;
+
+    /**
+     * @param sortBy comma separated top level columns, each optionally followed by {@code asc} or {@code desc}
+     * @param bufferRecords records sorted in memory before a run is spilled
+     * @param schema parquet schema to write runs with
+     * @param avroSchema schema of the records
+     */
+    RecordSorter(String sortBy, int bufferRecords, MessageType schema, Schema avroSchema, OperationMetrics metrics) {
+        this.comparator = comparator(sortBy, avroSchema);
+        this.bufferRecords = Math.max(1, bufferRecords);
+        this.schema = schema;
+        this.avroSchema = avroSchema;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Parses the sort columns, leaving out the direction keywords.
+     */
+    static List<String> sortColumns(String sortBy) {
+        List<String> columns = new ArrayList<>();
+        for (String key : ColumnProjection.parseColumns(sortBy)) {
+            columns.add(key.split("\\s+")[0]);
+        }
+        return columns;
+    }
+
+    private static Comparator<GenericRecord> comparator(String sortBy, Schema avroSchema) {
+        Comparator<GenericRecord> comparator = null;
+        for (String key : ColumnProjection.parseColumns(sortBy)) {
+            String[] parts = key.split("\\s+");
+            if (parts.length > 2 || parts.length == 2 && !parts[1].equalsIgnoreCase("asc") && !parts[1].equalsIgnoreCase("desc")) {
+                throw new IllegalArgumentException("Invalid sort key '" + key + "', expected a column optionally followed by asc or desc");
+            }
+            Schema.Field field = avroSchema.getField(parts[0]);
+            if (field == null) {
+                throw new IllegalArgumentException("Sort column '" + parts[0] + "' is not a top level column of the records");
+            }
+            int position = field.pos();
+            Schema fieldSchema = field.schema();
+            Comparator<GenericRecord> next = (a, b) -> GenericData.get().compare(a.get(position), b.get(position), fieldSchema);
+            if (parts.length == 2 && parts[1].equalsIgnoreCase("desc")) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        if (comparator == null) {
+            throw new IllegalArgumentException("No sort column given");
+        }
+        return comparator;
+    }
+
+    void add(GenericRecord record) throws IOException {
+        buffer.add(record);
+        if (buffer.size() >= bufferRecords) {
+            spill();
+        }
+    }
+
+    private void spill() throws IOException {
+        buffer.sort(comparator);
+        if (directory == null) {
+            directory = Files.createTempDirectory("parquet-sort-");
+        }
+        Path run = directory.resolve("run-" + runs.size() + ".parquet");
+        runs.add(run);
+        long started = System.nanoTime();
+        try (ParquetWriter<GenericRecord> writer = new AvroWriterBuilder(OutputFile.nioPathToOutputFile(run), schema, avroSchema)
+                .withConf(SharedConfiguration.forWriting())
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .withCompressionCodec(CompressionCodecName.SNAPPY)
+                .withRowGroupSize(RUN_ROW_GROUP_SIZE)
+                .build()) {
+            for (GenericRecord record : buffer) {
+                writer.write(record);
+            }
+        }
+        metrics.add(Metric.SPILL_NANOS, System.nanoTime() - started);
+        metrics.add(Metric.BYTES_SPILLED, Files.size(run));
+        buffer.clear();
+    }
+
+    /**
+     * Returns the records in order. No record can be added afterwards.
+     */
+    Iterator<GenericRecord> sorted() throws IOException {
+        if (runs.isEmpty()) {
+            buffer.sort(comparator);
+            return buffer.iterator();
+        }
+        if (!buffer.isEmpty()) {
+            spill();
+        }
+        LOGGER.info("Merging " + runs.size() + " sorted runs");
+        PriorityQueue<Run> heads = new PriorityQueue<>(runs.size(), (a, b) -> {
+            int comparison = comparator.compare(a.head, b.head);
+            // earlier runs first keeps the sort stable
+            return comparison != 0 ? comparison : Integer.compare(a.index, b.index);
+        });
+        for (int i = 0; i < runs.size(); i++) {
+            ParquetBufferedReader inputFile = ParquetBufferedReader.open(runs.get(i), null);
+            readers.add(inputFile);
+            ParquetReader<GenericRecord> reader = ParquetOperations.avroReaderBuilder(inputFile, null, null, null, FilterCompat.NOOP).build();
+            readers.add(reader);
+            Run run = new Run(i, reader);
+            if (run.advance()) {
+                heads.add(run);
+            }
+        }
+        return new Iterator<GenericRecord>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public GenericRecord next() {
+                Run run = heads.poll();
+                if (run == null) {
+                    throw new NoSuchElementException();
+                }
+                GenericRecord record = run.head;
+                try {
+                    if (run.advance()) {
+                        heads.add(run);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Error reading sorted run " + runs.get(run.index), e);
+                }
+                return record;
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        Collections.reverse(readers);
+        for (Closeable reader : readers) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        readers.clear();
+        buffer.clear();
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+        if (directory != null) {
+            Files.deleteIfExists(directory);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static final class Run {
+        private final int index;
+        private final ParquetReader<GenericRecord> reader;
+        private GenericRecord head;
+
+        Run(int index, ParquetReader<GenericRecord> reader) {
+            this.index = index;
+            this.reader = reader;
+        }
+
+        boolean advance() throws IOException {
+            head = reader.read();
+            return head != null;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.mule.extension.parquet.internal;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.avro.AvroReadSupport;
+
+/**
+ * Hadoop {@link Configuration}s shared by every operation.
+ * <p>
+ * Building a {@code Configuration} loads and parses the Hadoop default resources, which costs more than
+ * opening a small parquet file. The instances here are built once and only ever read afterwards, so they
+ * are safe to share across flows.
+ */
+final class SharedConfiguration {
+    private static final Configuration READ = readConfiguration();
+    private static final Configuration WRITE = new Configuration();
+
+    private SharedConfiguration() {
+    }
+
+    /**
+     * @return the configuration of the Avro readers: INT96 columns as fixed(12) and the 3-level list
+     *         structure parquet writes by default
+     */
+    static Configuration forReading() {
+        return READ;
+    }
+
+    static Configuration forWriting() {
+        return WRITE;
+    }
+
+    private static Configuration readConfiguration() {
+        Configuration conf = new Configuration();
+        conf.setBoolean(AvroReadSupport.READ_INT96_AS_FIXED, true);
+        conf.setBoolean(AvroReadSupport.AVRO_COMPATIBILITY, false);
+        return conf;
+    }
+}
@@ -0,0 +1,97 @@
+package org.mule.extension.parquet.internal;
+
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.mule.extension.parquet.api.ParquetSplit;
+import org.mule.extension.parquet.internal.cache.CachedFooter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plans the splits of a file from its footer and finds the row groups of a split again when it is read.
+ * <p>
+ * Splits are runs of consecutive row groups, so every worker reads one contiguous byte range. They are cut
+ * greedily in file order: each split takes row groups until it reaches its share of the compressed bytes
+ * still unassigned, stopping before a row group that would overshoot that share by more than half of it.
+ * A file has at most as many splits as row groups.
+ */
+final class SplitPlanner {
+
+    private SplitPlanner() {
+    }
+
+    /**
+     * @param footer footer of the file
+     * @param length length of the file in bytes
+     * @param splits number of splits wanted
+     * @return the splits, fewer than asked when the file has fewer row groups, none for a file without rows
+     */
+    static List<ParquetSplit> plan(CachedFooter footer, long length, int splits) {
+        if (splits < 1) {
+            throw new IllegalArgumentException("Splits must be at least 1, got " + splits);
+        }
+        List<BlockMetaData> rowGroups = footer.getFooter().getBlocks();
+        int count = Math.min(splits, rowGroups.size());
+        long remaining = 0;
+        for (BlockMetaData rowGroup : rowGroups) {
+            remaining += rowGroup.getCompressedSize();
+        }
+        List<ParquetSplit> plan = new ArrayList<>(count);
+        int next = 0;
+        for (int index = 0; index < count; index++) {
+            int left = count - index;
+            // leave at least one row group to every split after this one
+            int last = rowGroups.size() - left + 1;
+            double share = (double) remaining / left;
+            int first = next;
+            long bytes = rowGroups.get(next++).getCompressedSize();
+            while (next < last && (left == 1 || bytes + rowGroups.get(next).getCompressedSize() / 2.0 < share)) {
+                bytes += rowGroups.get(next++).getCompressedSize();
+            }
+            remaining -= bytes;
+            plan.add(split(rowGroups, first, next, index, count, length));
+        }
+        return plan;
+    }
+
+    private static ParquetSplit split(List<BlockMetaData> rowGroups, int first, int end, int index, int count, long length) {
+        ParquetSplit split = new ParquetSplit();
+        split.setIndex(index);
+        split.setSplitCount(count);
+        split.setFirstRowGroup(first);
+        split.setRowGroupCount(end - first);
+        split.setStart(rowGroups.get(first).getStartingPos());
+        BlockMetaData last = rowGroups.get(end - 1);
+        split.setEnd(last.getStartingPos() + last.getCompressedSize());
+        long rows = 0;
+        for (BlockMetaData rowGroup : rowGroups.subList(first, end)) {
+            rows += rowGroup.getRowCount();
+        }
+        split.setRowCount(rows);
+        split.setFileLength(length);
+        return split;
+    }
+
+    /**
+     * @param footer footer of the file being read
+     * @param split the split to read
+     * @param length length of the file in bytes
+     * @return the row groups of the split
+     * @throws IllegalArgumentException if the split was planned on another file
+     */
+    static List<BlockMetaData> rowGroups(CachedFooter footer, ParquetSplit split, long length) {
+        List<BlockMetaData> rowGroups = footer.getFooter().getBlocks();
+        int first = split.getFirstRowGroup();
+        int end = first + split.getRowGroupCount();
+        if (split.getFileLength() != length) {
+            throw new IllegalArgumentException("The " + split + " was planned on a file of " + split.getFileLength()
+                    + " bytes, this one has " + length);
+        }
+        if (first < 0 || split.getRowGroupCount() < 1 || end > rowGroups.size()
+                || rowGroups.get(first).getStartingPos() != split.getStart()
+                || rowGroups.get(end - 1).getStartingPos() + rowGroups.get(end - 1).getCompressedSize() != split.getEnd()) {
+            throw new IllegalArgumentException("The " + split + " doesn't match the row groups of this file");
+        }
+        return rowGroups.subList(first, end);
+    }
+}
@@ -0,0 +1,83 @@
+package org.mule.extension.parquet.internal;
+
+import org.mule.extension.parquet.api.CompressionCodec;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
+import org.mule.runtime.extension.api.annotation.param.display.Example;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
+
+/**
+ * Layout and encoding settings shared by the write operations.
+ */
+public class WriteOptions {
+
+    @Parameter
+    @Optional(defaultValue = "SNAPPY")
+    @DisplayName("Compression Codec")
+    private CompressionCodec compressionCodec;
+
+    @Parameter
+    @Optional(defaultValue = "134217728")
+    @DisplayName("Row Group Size")
+    @Summary("Target size in bytes of a row group. Each finished row group is flushed to the output, so this bounds the memory used by the writer.")
+    private int rowGroupSize;
+
+    @Parameter
+    @Optional(defaultValue = "1048576")
+    @DisplayName("Page Size")
+    @Summary("Target size in bytes of a data page")
+    private int pageSize;
+
+    @Parameter
+    @Optional(defaultValue = "true")
+    @DisplayName("Dictionary Encoding")
+    private boolean dictionaryEncoding;
+
+    @Parameter
+    @Optional
+    @DisplayName("Bloom Filter Columns")
+    @Summary("Comma separated columns to write bloom filters for")
+    @Example("customer_id, order_id")
+    private String bloomFilterColumns;
+
+    public CompressionCodec getCompressionCodec() {
+        return compressionCodec;
+    }
+
+    public void setCompressionCodec(CompressionCodec compressionCodec) {
+        this.compressionCodec = compressionCodec;
+    }
+
+    public int getRowGroupSize() {
+        return rowGroupSize;
+    }
+
+    public void setRowGroupSize(int rowGroupSize) {
+        this.rowGroupSize = rowGroupSize;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public boolean isDictionaryEncoding() {
+        return dictionaryEncoding;
+    }
+
+    public void setDictionaryEncoding(boolean dictionaryEncoding) {
+        this.dictionaryEncoding = dictionaryEncoding;
+    }
+
+    public String getBloomFilterColumns() {
+        return bloomFilterColumns;
+    }
+
+    public void setBloomFilterColumns(String bloomFilterColumns) {
+        this.bloomFilterColumns = bloomFilterColumns;
+    }
+}
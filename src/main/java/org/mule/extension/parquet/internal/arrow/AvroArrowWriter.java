@@ -0,0 +1,238 @@
+package org.mule.extension.parquet.internal.arrow;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.FixedSizeBinaryVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeMicroVector;
+import org.apache.arrow.vector.TimeMilliVector;
+import org.apache.arrow.vector.TimeStampVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.avro.LogicalType;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.util.Utf8;
+import org.mule.extension.parquet.internal.int96.ParquetTimestampUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes batches of flat Avro records as Arrow IPC streams, one record batch per stream.
+ * <p>
+ * Column types follow {@link ParquetToArrow}: logical types map to their Arrow counterparts and INT96 to
+ * a UTC millisecond timestamp, so a batch posted by "Batch by Batch - Stream" has the schema "Read Parquet -
+ * Arrow" gives the same columns. The vectors are allocated once and reused for every batch. Instances are
+ * not thread-safe and have to be closed to release the vectors' off-heap memory.
+ */
+public final class AvroArrowWriter implements Closeable {
+    private final BufferAllocator allocator;
+    private final VectorSchemaRoot root;
+    private final Setter[] setters;
+    private final int[] positions;
+    private ArrowStreamWriter writer;
+    private int rows;
+
+    /**
+     * @param schema the schema of the records
+     * @throws IllegalArgumentException if a field is nested, repeated or a union of more than a type and null
+     */
+    public AvroArrowWriter(Schema schema) {
+        List<Schema.Field> fields = schema.getFields();
+        List<Field> arrowFields = new ArrayList<>(fields.size());
+        setters = new Setter[fields.size()];
+        positions = new int[fields.size()];
+        for (int i = 0; i < setters.length; i++) {
+            Schema.Field field = fields.get(i);
+            Schema type = field.schema();
+            boolean nullable = false;
+            if (type.getType() == Schema.Type.UNION) {
+                type = nonNull(field.name(), type);
+                nullable = true;
+            }
+            ArrowColumn column = column(field.name(), type);
+            arrowFields.add(new Field(field.name(), new FieldType(nullable, column.type, null), null));
+            setters[i] = column.setter;
+            positions[i] = field.pos();
+        }
+        allocator = ParquetToArrow.childAllocator("parquet-arrow-batches");
+        root = VectorSchemaRoot.create(new org.apache.arrow.vector.types.pojo.Schema(arrowFields), allocator);
+    }
+
+    /**
+     * Starts a batch written to {@code out}, which the caller closes once {@link #finish()} returned.
+     */
+    public void start(OutputStream out) throws IOException {
+        root.allocateNew();
+        rows = 0;
+        writer = new ArrowStreamWriter(root, null, Channels.newChannel(out));
+        writer.start();
+    }
+
+    public void add(GenericRecord record) {
+        List<FieldVector> vectors = root.getFieldVectors();
+        for (int i = 0; i < setters.length; i++) {
+            Object value = record.get(positions[i]);
+            // validity bits start cleared, so a value left unset reads as null
+            if (value != null) {
+                setters[i].set(vectors.get(i), rows, value);
+            }
+        }
+        rows++;
+    }
+
+    /**
+     * Writes the records added since {@link #start(OutputStream)} as one record batch and ends the stream.
+     */
+    public void finish() throws IOException {
+        root.setRowCount(rows);
+        writer.writeBatch();
+        writer.end();
+        writer = null;
+    }
+
+    @Override
+    public void close() {
+        root.close();
+        allocator.close();
+    }
+
+    private static Schema nonNull(String name, Schema union) {
+        List<Schema> types = union.getTypes();
+        if (types.size() == 2 && types.get(0).getType() == Schema.Type.NULL) {
+            return types.get(1);
+        }
+        if (types.size() == 2 && types.get(1).getType() == Schema.Type.NULL) {
+            return types.get(0);
+        }
+        throw new IllegalArgumentException("The Arrow payload only supports unions of a type and null, field '" + name + "' is " + union);
+    }
+
+    /**
+     * Sets a non null Avro value at an index of a vector.
+     */
+    private interface Setter {
+        void set(FieldVector vector, int index, Object value);
+    }
+
+    private static final class ArrowColumn {
+        private final ArrowType type;
+        private final Setter setter;
+
+        ArrowColumn(ArrowType type, Setter setter) {
+            this.type = type;
+            this.setter = setter;
+        }
+    }
+
+    private static ArrowColumn column(String name, Schema schema) {
+        LogicalType logicalType = schema.getLogicalType();
+        if (logicalType instanceof LogicalTypes.Decimal) {
+            return decimal(name, schema, (LogicalTypes.Decimal) logicalType);
+        }
+        switch (schema.getType()) {
+            case BOOLEAN:
+                return new ArrowColumn(ArrowType.Bool.INSTANCE,
+                        (vector, i, value) -> ((BitVector) vector).setSafe(i, (Boolean) value ? 1 : 0));
+            case INT:
+                if (logicalType instanceof LogicalTypes.Date) {
+                    return new ArrowColumn(new ArrowType.Date(DateUnit.DAY),
+                            (vector, i, value) -> ((DateDayVector) vector).setSafe(i, (Integer) value));
+                }
+                if (logicalType instanceof LogicalTypes.TimeMillis) {
+                    return new ArrowColumn(new ArrowType.Time(TimeUnit.MILLISECOND, 32),
+                            (vector, i, value) -> ((TimeMilliVector) vector).setSafe(i, (Integer) value));
+                }
+                return new ArrowColumn(new ArrowType.Int(32, true),
+                        (vector, i, value) -> ((IntVector) vector).setSafe(i, (Integer) value));
+            case LONG:
+                if (logicalType instanceof LogicalTypes.TimestampMillis) {
+                    return new ArrowColumn(new ArrowType.Timestamp(TimeUnit.MILLISECOND, "UTC"),
+                            (vector, i, value) -> ((TimeStampVector) vector).setSafe(i, (Long) value));
+                }
+                if (logicalType instanceof LogicalTypes.TimestampMicros) {
+                    return new ArrowColumn(new ArrowType.Timestamp(TimeUnit.MICROSECOND, "UTC"),
+                            (vector, i, value) -> ((TimeStampVector) vector).setSafe(i, (Long) value));
+                }
+                if (logicalType instanceof LogicalTypes.TimeMicros) {
+                    return new ArrowColumn(new ArrowType.Time(TimeUnit.MICROSECOND, 64),
+                            (vector, i, value) -> ((TimeMicroVector) vector).setSafe(i, (Long) value));
+                }
+                return new ArrowColumn(new ArrowType.Int(64, true),
+                        (vector, i, value) -> ((BigIntVector) vector).setSafe(i, (Long) value));
+            case FLOAT:
+                return new ArrowColumn(new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE),
+                        (vector, i, value) -> ((Float4Vector) vector).setSafe(i, (Float) value));
+            case DOUBLE:
+                return new ArrowColumn(new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE),
+                        (vector, i, value) -> ((Float8Vector) vector).setSafe(i, (Double) value));
+            case STRING:
+            case ENUM:
+                return new ArrowColumn(ArrowType.Utf8.INSTANCE, (vector, i, value) -> {
+                    if (value instanceof Utf8) {
+                        Utf8 utf8 = (Utf8) value;
+                        ((VarCharVector) vector).setSafe(i, utf8.getBytes(), 0, utf8.getByteLength());
+                    } else {
+                        ((VarCharVector) vector).setSafe(i, value.toString().getBytes(StandardCharsets.UTF_8));
+                    }
+                });
+            case BYTES:
+                return new ArrowColumn(ArrowType.Binary.INSTANCE, (vector, i, value) -> {
+                    ByteBuffer bytes = (ByteBuffer) value;
+                    ((VarBinaryVector) vector).setSafe(i, bytes, bytes.position(), bytes.remaining());
+                });
+            case FIXED:
+                if (ParquetTimestampUtils.isInt96(schema)) {
+                    return new ArrowColumn(new ArrowType.Timestamp(TimeUnit.MILLISECOND, "UTC"),
+                            (vector, i, value) -> ((TimeStampVector) vector).setSafe(i,
+                                    ParquetTimestampUtils.getTimestampMillis(((GenericFixed) value).bytes(), 0)));
+                }
+                return new ArrowColumn(new ArrowType.FixedSizeBinary(schema.getFixedSize()),
+                        (vector, i, value) -> ((FixedSizeBinaryVector) vector).setSafe(i, ((GenericFixed) value).bytes()));
+            default:
+                throw new IllegalArgumentException("The Arrow payload only supports flat records, field '" + name
+                        + "' is " + schema.getType().getName());
+        }
+    }
+
+    private static ArrowColumn decimal(String name, Schema schema, LogicalTypes.Decimal decimal) {
+        if (decimal.getPrecision() > 38) {
+            throw new IllegalArgumentException("Field '" + name + "' has a decimal precision of "
+                    + decimal.getPrecision() + ", the Arrow payload supports up to 38");
+        }
+        ArrowType type = new ArrowType.Decimal(decimal.getPrecision(), decimal.getScale(), 128);
+        // Avro keeps the unscaled value big endian, as Arrow can take it without a BigDecimal
+        if (schema.getType() == Schema.Type.FIXED) {
+            return new ArrowColumn(type, (vector, i, value) -> ((DecimalVector) vector).setBigEndianSafe(i, ((GenericFixed) value).bytes()));
+        }
+        return new ArrowColumn(type, (vector, i, value) -> {
+            ByteBuffer bytes = ((ByteBuffer) value).duplicate();
+            byte[] unscaled = new byte[bytes.remaining()];
+            bytes.get(unscaled);
+            ((DecimalVector) vector).setBigEndianSafe(i, unscaled);
+        });
+    }
+}
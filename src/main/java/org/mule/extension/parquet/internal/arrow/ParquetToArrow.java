@@ -0,0 +1,328 @@
+package org.mule.extension.parquet.internal.arrow;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.FixedSizeBinaryVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeMicroVector;
+import org.apache.arrow.vector.TimeMilliVector;
+import org.apache.arrow.vector.TimeNanoVector;
+import org.apache.arrow.vector.TimeStampVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import org.mule.extension.parquet.internal.int96.ParquetTimestampUtils;
+import org.mule.extension.parquet.internal.metrics.Metric;
+import org.mule.extension.parquet.internal.metrics.OperationMetrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes parquet column chunks into Arrow vectors and writes them as an Arrow IPC stream.
+ * <p>
+ * Each column is read on its own through a parquet {@link ColumnReader} and copied value by value into
+ * an off-heap, primitive-typed vector, so no record or per-row object is ever built. Batches of
+ * {@code batchSize} rows are cut across row group boundaries and written as soon as they are full, which
+ * bounds memory to one batch plus the row group being decoded.
+ * <p>
+ * Only flat schemas are supported: every projected column must be a top level primitive field, optional
+ * or required. Logical types map to their Arrow counterparts, INT96 to a UTC millisecond timestamp.
+ */
+public final class ParquetToArrow {
+    private static final BufferAllocator ROOT_ALLOCATOR = new RootAllocator(Long.MAX_VALUE);
+    private static final GroupConverter FLAT_CONVERTER = new FlatGroupConverter();
+
+    private ParquetToArrow() {
+    }
+
+    /**
+     * @param name name of the allocator, shown in leak reports
+     * @return an unbounded allocator of the connector's root allocator, to close once its vectors are freed
+     */
+    static BufferAllocator childAllocator(String name) {
+        return ROOT_ALLOCATOR.newChildAllocator(name, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Writes the projected columns of a parquet file as an Arrow IPC stream.
+     *
+     * @param file the parquet file
+     * @param projection the flat schema of the columns to read
+     * @param options options to open the file with
+     * @param batchSize rows per Arrow record batch
+     * @param out the stream to write to, closed once the stream is complete
+     * @param metrics metrics to add records, row groups and timings to
+     * @return the number of rows written
+     * @throws IllegalArgumentException if a projected column is nested or repeated
+     */
+    public static long write(InputFile file, MessageType projection, ParquetReadOptions options,
+                             int batchSize, OutputStream out, OperationMetrics metrics) throws IOException {
+        checkFlat(projection);
+        List<ColumnDescriptor> descriptors = projection.getColumns();
+        List<Field> fields = new ArrayList<>(descriptors.size());
+        List<Copier> copiers = new ArrayList<>(descriptors.size());
+        for (ColumnDescriptor descriptor : descriptors) {
+            ArrowColumn column = column(descriptor.getPrimitiveType(), descriptor.getMaxDefinitionLevel() > 0);
+            fields.add(column.field);
+            copiers.add(column.copier);
+        }
+        int rowsPerBatch = Math.max(1, batchSize);
+        long rows = 0;
+        long decodeNanos = 0;
+        long encodeNanos = 0;
+        try (BufferAllocator allocator = childAllocator("parquet-arrow");
+             VectorSchemaRoot root = VectorSchemaRoot.create(new Schema(fields), allocator);
+             ArrowStreamWriter writer = new ArrowStreamWriter(root, null, Channels.newChannel(out));
+             ParquetFileReader fileReader = new ParquetFileReader(file, options)) {
+            fileReader.setRequestedSchema(projection);
+            String createdBy = fileReader.getFileMetaData().getCreatedBy();
+            writer.start();
+            List<FieldVector> vectors = root.getFieldVectors();
+            ColumnReader[] readers = new ColumnReader[descriptors.size()];
+            long rowGroupRemaining = 0;
+            boolean exhausted = false;
+            while (!exhausted) {
+                long started = System.nanoTime();
+                root.allocateNew();
+                int batchRows = 0;
+                while (batchRows < rowsPerBatch) {
+                    if (rowGroupRemaining == 0) {
+                        PageReadStore rowGroup = fileReader.readNextRowGroup();
+                        if (rowGroup == null) {
+                            exhausted = true;
+                            break;
+                        }
+                        metrics.add(Metric.ROW_GROUPS_READ, 1);
+                        rowGroupRemaining = rowGroup.getRowCount();
+                        ColumnReadStoreImpl store = new ColumnReadStoreImpl(rowGroup, FLAT_CONVERTER, projection, createdBy);
+                        for (int c = 0; c < readers.length; c++) {
+                            readers[c] = store.getColumnReader(descriptors.get(c));
+                        }
+                    }
+                    int count = (int) Math.min(rowsPerBatch - batchRows, rowGroupRemaining);
+                    for (int c = 0; c < readers.length; c++) {
+                        copy(readers[c], descriptors.get(c).getMaxDefinitionLevel(), copiers.get(c), vectors.get(c), batchRows, count);
+                    }
+                    batchRows += count;
+                    rowGroupRemaining -= count;
+                }
+                long decoded = System.nanoTime();
+                decodeNanos += decoded - started;
+                if (batchRows > 0) {
+                    root.setRowCount(batchRows);
+                    writer.writeBatch();
+                    rows += batchRows;
+                }
+                encodeNanos += System.nanoTime() - decoded;
+            }
+            writer.end();
+        } finally {
+            metrics.add(Metric.RECORDS_DECODED, rows);
+            metrics.add(Metric.DECODE_NANOS, decodeNanos);
+            metrics.add(Metric.ENCODE_NANOS, encodeNanos);
+        }
+        return rows;
+    }
+
+    /**
+     * @param projection the columns to read
+     * @throws IllegalArgumentException if a column is nested or repeated
+     */
+    public static void checkFlat(MessageType projection) {
+        for (Type field : projection.getFields()) {
+            if (!field.isPrimitive() || field.isRepetition(Type.Repetition.REPEATED)) {
+                throw new IllegalArgumentException("The Arrow read only supports flat schemas, column '" + field.getName()
+                        + "' is " + (field.isPrimitive() ? "repeated" : "nested") + ". Select flat columns with Columns.");
+            }
+        }
+    }
+
+    private static void copy(ColumnReader reader, int maxDefinitionLevel, Copier copier, FieldVector vector, int offset, int count) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            // validity bits start cleared, so a value left unset reads as null
+            if (reader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+                copier.copy(reader, vector, i);
+            }
+            reader.consume();
+        }
+    }
+
+    /**
+     * Copies the current value of a column reader into a vector.
+     */
+    private interface Copier {
+        void copy(ColumnReader reader, FieldVector vector, int index);
+    }
+
+    private static final class ArrowColumn {
+        private final Field field;
+        private final Copier copier;
+
+        ArrowColumn(PrimitiveType type, boolean nullable, ArrowType arrowType, Copier copier) {
+            this.field = new Field(type.getName(), new FieldType(nullable, arrowType, null), null);
+            this.copier = copier;
+        }
+    }
+
+    private static ArrowColumn column(PrimitiveType type, boolean nullable) {
+        LogicalTypeAnnotation annotation = type.getLogicalTypeAnnotation();
+        if (annotation instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+            return decimal(type, nullable, (LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) annotation);
+        }
+        switch (type.getPrimitiveTypeName()) {
+            case BOOLEAN:
+                return new ArrowColumn(type, nullable, ArrowType.Bool.INSTANCE,
+                        (reader, vector, i) -> ((BitVector) vector).setSafe(i, reader.getBoolean() ? 1 : 0));
+            case INT32:
+                if (annotation instanceof LogicalTypeAnnotation.DateLogicalTypeAnnotation) {
+                    return new ArrowColumn(type, nullable, new ArrowType.Date(DateUnit.DAY),
+                            (reader, vector, i) -> ((DateDayVector) vector).setSafe(i, reader.getInteger()));
+                }
+                if (annotation instanceof LogicalTypeAnnotation.TimeLogicalTypeAnnotation) {
+                    return new ArrowColumn(type, nullable, new ArrowType.Time(TimeUnit.MILLISECOND, 32),
+                            (reader, vector, i) -> ((TimeMilliVector) vector).setSafe(i, reader.getInteger()));
+                }
+                return new ArrowColumn(type, nullable, new ArrowType.Int(32, true),
+                        (reader, vector, i) -> ((IntVector) vector).setSafe(i, reader.getInteger()));
+            case INT64:
+                return int64(type, nullable, annotation);
+            case INT96:
+                return new ArrowColumn(type, nullable, new ArrowType.Timestamp(TimeUnit.MILLISECOND, "UTC"),
+                        (reader, vector, i) -> ((TimeStampVector) vector).setSafe(i, ParquetTimestampUtils.getTimestampMillis(reader.getBinary())));
+            case FLOAT:
+                return new ArrowColumn(type, nullable, new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE),
+                        (reader, vector, i) -> ((Float4Vector) vector).setSafe(i, reader.getFloat()));
+            case DOUBLE:
+                return new ArrowColumn(type, nullable, new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE),
+                        (reader, vector, i) -> ((Float8Vector) vector).setSafe(i, reader.getDouble()));
+            case FIXED_LEN_BYTE_ARRAY:
+                return new ArrowColumn(type, nullable, new ArrowType.FixedSizeBinary(type.getTypeLength()),
+                        (reader, vector, i) -> ((FixedSizeBinaryVector) vector).setSafe(i, reader.getBinary().getBytesUnsafe()));
+            case BINARY:
+            default:
+                if (annotation instanceof LogicalTypeAnnotation.StringLogicalTypeAnnotation
+                        || annotation instanceof LogicalTypeAnnotation.EnumLogicalTypeAnnotation
+                        || annotation instanceof LogicalTypeAnnotation.JsonLogicalTypeAnnotation) {
+                    return new ArrowColumn(type, nullable, ArrowType.Utf8.INSTANCE, (reader, vector, i) -> {
+                        ByteBuffer bytes = reader.getBinary().toByteBuffer();
+                        ((VarCharVector) vector).setSafe(i, bytes, bytes.position(), bytes.remaining());
+                    });
+                }
+                return new ArrowColumn(type, nullable, ArrowType.Binary.INSTANCE, (reader, vector, i) -> {
+                    ByteBuffer bytes = reader.getBinary().toByteBuffer();
+                    ((VarBinaryVector) vector).setSafe(i, bytes, bytes.position(), bytes.remaining());
+                });
+        }
+    }
+
+    private static ArrowColumn int64(PrimitiveType type, boolean nullable, LogicalTypeAnnotation annotation) {
+        if (annotation instanceof LogicalTypeAnnotation.TimestampLogicalTypeAnnotation) {
+            LogicalTypeAnnotation.TimestampLogicalTypeAnnotation timestamp = (LogicalTypeAnnotation.TimestampLogicalTypeAnnotation) annotation;
+            String timeZone = timestamp.isAdjustedToUTC() ? "UTC" : null;
+            return new ArrowColumn(type, nullable, new ArrowType.Timestamp(arrowUnit(timestamp.getUnit()), timeZone),
+                    (reader, vector, i) -> ((TimeStampVector) vector).setSafe(i, reader.getLong()));
+        }
+        if (annotation instanceof LogicalTypeAnnotation.TimeLogicalTypeAnnotation) {
+            if (((LogicalTypeAnnotation.TimeLogicalTypeAnnotation) annotation).getUnit() == LogicalTypeAnnotation.TimeUnit.NANOS) {
+                return new ArrowColumn(type, nullable, new ArrowType.Time(TimeUnit.NANOSECOND, 64),
+                        (reader, vector, i) -> ((TimeNanoVector) vector).setSafe(i, reader.getLong()));
+            }
+            return new ArrowColumn(type, nullable, new ArrowType.Time(TimeUnit.MICROSECOND, 64),
+                    (reader, vector, i) -> ((TimeMicroVector) vector).setSafe(i, reader.getLong()));
+        }
+        return new ArrowColumn(type, nullable, new ArrowType.Int(64, true),
+                (reader, vector, i) -> ((BigIntVector) vector).setSafe(i, reader.getLong()));
+    }
+
+    private static TimeUnit arrowUnit(LogicalTypeAnnotation.TimeUnit unit) {
+        switch (unit) {
+            case MILLIS:
+                return TimeUnit.MILLISECOND;
+            case MICROS:
+                return TimeUnit.MICROSECOND;
+            default:
+                return TimeUnit.NANOSECOND;
+        }
+    }
+
+    private static ArrowColumn decimal(PrimitiveType type, boolean nullable, LogicalTypeAnnotation.DecimalLogicalTypeAnnotation decimal) {
+        if (decimal.getPrecision() > 38) {
+            throw new IllegalArgumentException("Column '" + type.getName() + "' has a decimal precision of "
+                    + decimal.getPrecision() + ", the Arrow read supports up to 38");
+        }
+        int scale = decimal.getScale();
+        ArrowType arrowType = new ArrowType.Decimal(decimal.getPrecision(), scale, 128);
+        switch (type.getPrimitiveTypeName()) {
+            case INT32:
+                return new ArrowColumn(type, nullable, arrowType,
+                        (reader, vector, i) -> ((DecimalVector) vector).setSafe(i, BigDecimal.valueOf(reader.getInteger(), scale)));
+            case INT64:
+                return new ArrowColumn(type, nullable, arrowType,
+                        (reader, vector, i) -> ((DecimalVector) vector).setSafe(i, BigDecimal.valueOf(reader.getLong(), scale)));
+            default:
+                // parquet stores the unscaled value big endian, as Arrow can take it without a BigDecimal
+                return new ArrowColumn(type, nullable, arrowType, (reader, vector, i) -> {
+                    Binary value = reader.getBinary();
+                    ((DecimalVector) vector).setBigEndianSafe(i, value.getBytesUnsafe());
+                });
+        }
+    }
+
+    /**
+     * Root converter required to build column readers. Values are pulled from the readers directly, so
+     * nothing is ever pushed to it.
+     */
+    private static final class FlatGroupConverter extends GroupConverter {
+        private final PrimitiveConverter ignored = new PrimitiveConverter() {
+        };
+
+        @Override
+        public Converter getConverter(int fieldIndex) {
+            return ignored;
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void end() {
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.mule.extension.parquet.internal.cache;
+
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * A parsed footer held by the {@link FooterCache}, together with whatever the operations derive from it.
+ * <p>
+ * Derived values, such as compiled JSON writers or the Avro schema, are built once per footer and evicted
+ * with it. They are shared by concurrent flows reading the same file, so they must be immutable or
+ * thread-safe.
+ */
+public final class CachedFooter {
+    private final ParquetMetadata footer;
+    private final long weight;
+    private final ConcurrentMap<Object, Object> derived = new ConcurrentHashMap<>();
+
+    CachedFooter(ParquetMetadata footer, long weight) {
+        this.footer = footer;
+        this.weight = weight;
+    }
+
+    public ParquetMetadata getFooter() {
+        return footer;
+    }
+
+    public MessageType getSchema() {
+        return footer.getFileMetaData().getSchema();
+    }
+
+    long getWeight() {
+        return weight;
+    }
+
+    /**
+     * Returns the value derived for {@code key}, computing it on first use.
+     *
+     * @param key identifies the derived value, e.g. a schema the value was compiled for
+     * @param factory builds the value from the key
+     * @return the shared value
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> V derive(K key, Function<K, V> factory) {
+        return (V) derived.computeIfAbsent(key, k -> factory.apply((K) k));
+    }
+}
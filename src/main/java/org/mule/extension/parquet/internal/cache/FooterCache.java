@@ -0,0 +1,256 @@
+package org.mule.extension.parquet.internal.cache;
+
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of parsed parquet footers, shared by every operation.
+ * <p>
+ * Files with a stable identity, such as local files, are keyed on their path, length and modification
+ * time and hit the cache without reading anything. Streamed payloads have no such identity, so their
+ * footer bytes are read in a single read of the file's tail and keyed on the file length and a SHA-256 of
+ * the footer: a repeated payload skips the Thrift parse and reuses whatever was derived from its footer.
+ * <p>
+ * Entries are weighed by their serialized footer size and the least recently used are evicted once the
+ * total exceeds {@code parquet.footerCache.maxBytes} (16 MB by default, 0 disables the cache). Hits,
+ * misses and evictions are exposed through JMX as {@code org.mule.extension.parquet:type=FooterCache}.
+ */
+public final class FooterCache implements FooterCacheMBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FooterCache.class);
+    private static final String MAX_BYTES_PROPERTY = "parquet.footerCache.maxBytes";
+    private static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+    private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ENCRYPTED_MAGIC = "PARE".getBytes(StandardCharsets.US_ASCII);
+    // footer length and magic at the very end of the file
+    private static final int TRAILER_SIZE = 4 + MAGIC.length;
+    // most footers fit in the tail read along with the trailer
+    private static final int TAIL_READ_SIZE = 64 * 1024;
+    private static final FooterCache SHARED = register(new FooterCache(Long.getLong(MAX_BYTES_PROPERTY, DEFAULT_MAX_BYTES)));
+
+    private final long maxWeight;
+    private final LinkedHashMap<String, CachedFooter> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long weight;
+
+    FooterCache(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    public static FooterCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * @return the number of bytes read from the end of a file to get its footer in a single read, which a
+     *         remote file can fetch up front
+     */
+    public static int tailReadSize() {
+        return TAIL_READ_SIZE + TRAILER_SIZE;
+    }
+
+    /**
+     * Builds the identity of a file whose content only changes along with its length or modification time.
+     *
+     * @param location absolute path or URI of the file
+     * @param length length of the file in bytes
+     * @param lastModified modification time of the file in milliseconds
+     * @return the identity to pass to {@link #get}
+     */
+    public static String identity(String location, long length, long lastModified) {
+        return location + ":" + length + ":" + lastModified;
+    }
+
+    /**
+     * Returns the footer of a file, reading and parsing it only when it isn't cached.
+     *
+     * @param file the parquet file
+     * @param identity identity of the file built by {@link #identity}, or null to key on the footer content
+     * @return the cached footer
+     * @throws IOException if the footer cannot be read or is not a plain parquet footer
+     */
+    public CachedFooter get(InputFile file, String identity) throws IOException {
+        String key = null;
+        if (identity != null) {
+            key = "file:" + identity;
+            CachedFooter cached = lookup(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        byte[] bytes = readFooterBytes(file);
+        if (key == null) {
+            key = "sha256:" + file.getLength() + ":" + sha256(bytes);
+            CachedFooter cached = lookup(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        misses.increment();
+        ParquetMetadata footer = new ParquetMetadataConverter()
+                .readParquetMetadata(new ByteArrayInputStream(bytes), ParquetMetadataConverter.NO_FILTER);
+        return store(key, new CachedFooter(footer, bytes.length));
+    }
+
+    private synchronized CachedFooter lookup(String key) {
+        CachedFooter cached = entries.get(key);
+        if (cached != null) {
+            hits.increment();
+        }
+        return cached;
+    }
+
+    private synchronized CachedFooter store(String key, CachedFooter footer) {
+        if (footer.getWeight() > maxWeight) {
+            return footer;
+        }
+        CachedFooter existing = entries.get(key);
+        if (existing != null) {
+            // parsed concurrently by another flow, keep the first so derived values are shared
+            return existing;
+        }
+        entries.put(key, footer);
+        weight += footer.getWeight();
+        Iterator<CachedFooter> eldest = entries.values().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            weight -= eldest.next().getWeight();
+            eldest.remove();
+            evictions.increment();
+        }
+        return footer;
+    }
+
+    private static byte[] readFooterBytes(InputFile file) throws IOException {
+        long length = file.getLength();
+        if (length < MAGIC.length + TRAILER_SIZE) {
+            throw new IOException(file + " is not a parquet file, it is only " + length + " bytes long");
+        }
+        try (SeekableInputStream in = file.newStream()) {
+            int tailSize = (int) Math.min(length, TAIL_READ_SIZE + TRAILER_SIZE);
+            byte[] tail = new byte[tailSize];
+            in.seek(length - tailSize);
+            in.readFully(tail);
+            int trailer = tailSize - TRAILER_SIZE;
+            byte[] magic = Arrays.copyOfRange(tail, trailer + 4, tailSize);
+            if (Arrays.equals(magic, ENCRYPTED_MAGIC)) {
+                throw new IOException(file + " has an encrypted footer, which is not supported");
+            }
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException(file + " is not a parquet file, expected magic " + Arrays.toString(MAGIC)
+                        + " at the end but found " + Arrays.toString(magic));
+            }
+            int footerLength = (tail[trailer] & 0xFF) | (tail[trailer + 1] & 0xFF) << 8
+                    | (tail[trailer + 2] & 0xFF) << 16 | (tail[trailer + 3] & 0xFF) << 24;
+            if (footerLength < 0 || footerLength > length - MAGIC.length - TRAILER_SIZE) {
+                throw new IOException(file + " is corrupted, its footer length " + footerLength + " exceeds the file");
+            }
+            if (footerLength <= trailer) {
+                return Arrays.copyOfRange(tail, trailer - footerLength, trailer);
+            }
+            byte[] footer = new byte[footerLength];
+            in.seek(length - TRAILER_SIZE - footerLength);
+            in.readFully(footer);
+            return footer;
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit(b >> 4 & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every JVM is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static FooterCache register(FooterCache cache) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("org.mule.extension.parquet:type=FooterCache");
+            try {
+                server.registerMBean(cache, name);
+            } catch (InstanceAlreadyExistsException e) {
+                // left over from a previous deployment of the connector
+                server.unregisterMBean(name);
+                server.registerMBean(cache, name);
+            }
+        } catch (JMException | RuntimeException e) {
+            LOGGER.warn("Could not register JMX statistics of the footer cache: " + e.getMessage());
+        }
+        return cache;
+    }
+
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    @Override
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized long getWeightBytes() {
+        return weight;
+    }
+
+    @Override
+    public long getMaxWeightBytes() {
+        return maxWeight;
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "FooterCache[entries=" + entries.size() + ", bytes=" + weight + "/" + maxWeight
+                + ", hits=" + hits.sum() + ", misses=" + misses.sum() + ", evictions=" + evictions.sum() + "]";
+    }
+}
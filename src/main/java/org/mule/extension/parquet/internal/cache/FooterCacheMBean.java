@@ -0,0 +1,23 @@
+package org.mule.extension.parquet.internal.cache;
+
+/**
+ * JMX view of the {@link FooterCache}, registered as {@code org.mule.extension.parquet:type=FooterCache}.
+ */
+public interface FooterCacheMBean {
+
+    long getHits();
+
+    long getMisses();
+
+    long getEvictions();
+
+    double getHitRatio();
+
+    int getSize();
+
+    long getWeightBytes();
+
+    long getMaxWeightBytes();
+
+    void clear();
+}
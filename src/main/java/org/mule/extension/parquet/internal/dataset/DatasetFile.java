@@ -0,0 +1,35 @@
+package org.mule.extension.parquet.internal.dataset;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A parquet file of a dataset with the partition values parsed from its path.
+ */
+public final class DatasetFile {
+    private final Path path;
+    private final Map<String, String> partition;
+
+    DatasetFile(Path path, Map<String, String> partition) {
+        this.path = path;
+        this.partition = Collections.unmodifiableMap(partition);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return the {@code key=value} segments of the path below the dataset root, in path order, with a
+     *         null value for Hive's default partition
+     */
+    public Map<String, String> getPartition() {
+        return partition;
+    }
+
+    @Override
+    public String toString() {
+        return path.toString();
+    }
+}
@@ -0,0 +1,222 @@
+package org.mule.extension.parquet.internal.dataset;
+
+import org.mule.extension.parquet.internal.filter.FilterExpression;
+import org.mule.extension.parquet.internal.metrics.Metric;
+import org.mule.extension.parquet.internal.metrics.OperationMetrics;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Finds the parquet files of a dataset: a single file, a directory or a glob over local paths.
+ * <p>
+ * Directories are listed concurrently, one task per directory. Hive style {@code key=value} directory
+ * names become partition values, and a directory whose partition values already rule out the filter is
+ * pruned before it is listed, so the files of skipped partitions are never even seen. Files and
+ * directories whose name starts with {@code _} or {@code .}, such as {@code _SUCCESS} or checksum files,
+ * are ignored, as Hive and Spark do.
+ */
+public final class DatasetScanner {
+    private static final String DEFAULT_PARTITION = "__HIVE_DEFAULT_PARTITION__";
+
+    private final ExecutorService executor;
+    private final FilterExpression filter;
+    private final OperationMetrics metrics;
+    private final ConcurrentLinkedQueue<DatasetFile> files = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+    private final Phaser pending = new Phaser(1);
+    private PathMatcher matcher;
+    private int maxDepth = Integer.MAX_VALUE;
+
+    /**
+     * @param executor runs the directory listings
+     * @param filter the dataset filter, or null to keep every partition
+     * @param metrics metrics to count pruned partitions in
+     */
+    public DatasetScanner(ExecutorService executor, FilterExpression filter, OperationMetrics metrics) {
+        this.executor = executor;
+        this.filter = filter;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Lists the files of the dataset at {@code location} that the filter doesn't rule out on their
+     * partition values.
+     *
+     * @param location a parquet file, a directory read recursively, or a glob such as
+     *                 {@code /data/events/dt=2026-10-*}{@code /*.parquet}
+     * @return the files sorted by path
+     * @throws IOException if a directory cannot be listed or nothing exists at {@code location}
+     */
+    public List<DatasetFile> scan(String location) throws IOException {
+        Path root = globRoot(location);
+        if (!Files.exists(root)) {
+            throw new NoSuchFileException(root.toString());
+        }
+        if (Files.isRegularFile(root)) {
+            files.add(new DatasetFile(root, new LinkedHashMap<>()));
+        } else {
+            submit(root, 0, new LinkedHashMap<>());
+            pending.arriveAndAwaitAdvance();
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Interrupted while listing " + location);
+            }
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        List<DatasetFile> sorted = new ArrayList<>(files);
+        sorted.sort(Comparator.comparing(file -> file.getPath().toString()));
+        return sorted;
+    }
+
+    /**
+     * Splits a glob into the directory its matches are under and a matcher for the whole path.
+     */
+    private Path globRoot(String location) {
+        String normalized = location.trim().replace('\\', '/');
+        String[] segments = normalized.split("/", -1);
+        int firstGlob = -1;
+        for (int i = 0; i < segments.length && firstGlob < 0; i++) {
+            if (isGlob(segments[i])) {
+                firstGlob = i;
+            }
+        }
+        if (firstGlob < 0) {
+            return Paths.get(location.trim()).toAbsolutePath().normalize();
+        }
+        StringBuilder base = new StringBuilder();
+        for (int i = 0; i < firstGlob; i++) {
+            base.append(segments[i]).append('/');
+        }
+        Path root = Paths.get(base.length() == 0 ? "." : base.toString()).toAbsolutePath().normalize();
+        String pattern = String.join("/", Arrays.copyOfRange(segments, firstGlob, segments.length));
+        // matched against absolute paths, so the root is part of the pattern with its glob characters escaped
+        matcher = FileSystems.getDefault().getPathMatcher("glob:" + escapeGlob(root.toString()) + "/" + pattern);
+        if (!pattern.contains("**")) {
+            // a glob of n segments matches nothing deeper than n - 1 directories below the root
+            maxDepth = segments.length - firstGlob;
+        }
+        return root;
+    }
+
+    private static String escapeGlob(String path) {
+        StringBuilder escaped = new StringBuilder(path.length());
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if ("*?[]{}\\".indexOf(c) >= 0) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private static boolean isGlob(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            switch (segment.charAt(i)) {
+                case '*':
+                case '?':
+                case '[':
+                case '{':
+                    return true;
+                default:
+            }
+        }
+        return false;
+    }
+
+    private void submit(Path directory, int depth, Map<String, String> partition) {
+        pending.register();
+        try {
+            executor.submit(() -> {
+                try {
+                    list(directory, depth, partition);
+                } catch (IOException e) {
+                    failure.compareAndSet(null, e);
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, new IOException("Error listing " + directory, e));
+                } finally {
+                    pending.arriveAndDeregister();
+                }
+            });
+        } catch (RuntimeException e) {
+            pending.arriveAndDeregister();
+            failure.compareAndSet(null, new IOException("Could not list " + directory, e));
+        }
+    }
+
+    private void list(Path directory, int depth, Map<String, String> partition) throws IOException {
+        if (failure.get() != null) {
+            return;
+        }
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                if (name.startsWith("_") || name.startsWith(".")) {
+                    continue;
+                }
+                if (Files.isDirectory(entry)) {
+                    if (depth + 1 < maxDepth) {
+                        directory(entry, name, depth + 1, partition);
+                    }
+                } else if (matcher == null || matcher.matches(entry)) {
+                    files.add(new DatasetFile(entry, partition));
+                }
+            }
+        }
+    }
+
+    private void directory(Path entry, String name, int depth, Map<String, String> parent) {
+        int equals = name.indexOf('=');
+        if (equals <= 0) {
+            submit(entry, depth, parent);
+            return;
+        }
+        Map<String, String> partition = new LinkedHashMap<>(parent);
+        String value = unescape(name.substring(equals + 1));
+        partition.put(unescape(name.substring(0, equals)), DEFAULT_PARTITION.equals(value) ? null : value);
+        if (filter != null && filter.bindPartition(partition) == FilterExpression.NEVER) {
+            metrics.add(Metric.PARTITIONS_PRUNED, 1);
+            return;
+        }
+        submit(entry, depth, partition);
+    }
+
+    /**
+     * Reverses the escaping Hive applies to partition names and values, {@code %} followed by two hex digits.
+     */
+    static String unescape(String text) {
+        if (text.indexOf('%') < 0) {
+            return text;
+        }
+        StringBuilder out = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '%' && i + 2 < text.length() && Character.digit(text.charAt(i + 1), 16) >= 0 && Character.digit(text.charAt(i + 2), 16) >= 0) {
+                out.append((char) Integer.parseInt(text.substring(i + 1, i + 3), 16));
+                i += 2;
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+}
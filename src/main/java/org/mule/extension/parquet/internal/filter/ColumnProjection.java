@@ -0,0 +1,82 @@
+package org.mule.extension.parquet.internal.filter;
+
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Builds the requested parquet schema for a list of column paths, so only those column chunks are read
+ * and decoded.
+ */
+public final class ColumnProjection {
+
+    private ColumnProjection() {
+    }
+
+    /**
+     * Prunes {@code schema} down to the given columns, keeping the file's field order.
+     *
+     * @param schema the file schema
+     * @param columns top level field names or dotted paths into nested groups
+     * @return the projected schema
+     * @throws IllegalArgumentException if a column is not in the schema
+     */
+    public static MessageType project(MessageType schema, Collection<String> columns) {
+        List<String[]> paths = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            String[] path = column.trim().split("\\.");
+            if (!schema.containsPath(path)) {
+                throw new IllegalArgumentException("Column '" + column.trim() + "' is not in the file schema");
+            }
+            paths.add(path);
+        }
+        return new MessageType(schema.getName(), prune(schema, paths, 0));
+    }
+
+    private static List<Type> prune(GroupType group, List<String[]> paths, int depth) {
+        List<Type> fields = new ArrayList<>();
+        for (Type field : group.getFields()) {
+            List<String[]> nested = new ArrayList<>();
+            boolean whole = false;
+            for (String[] path : paths) {
+                if (path[depth].equals(field.getName())) {
+                    if (path.length == depth + 1) {
+                        whole = true;
+                    } else {
+                        nested.add(path);
+                    }
+                }
+            }
+            if (whole || field.isPrimitive()) {
+                if (whole || !nested.isEmpty()) {
+                    fields.add(field);
+                }
+            } else if (!nested.isEmpty()) {
+                fields.add(field.asGroupType().withNewFields(prune(field.asGroupType(), nested, depth + 1)));
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Splits the comma separated columns parameter.
+     *
+     * @param columns the parameter value, may be null
+     * @return the trimmed, non-empty column names
+     */
+    public static List<String> parseColumns(String columns) {
+        List<String> names = new ArrayList<>();
+        if (columns != null) {
+            for (String column : columns.split(",")) {
+                if (!column.trim().isEmpty()) {
+                    names.add(column.trim());
+                }
+            }
+        }
+        return names;
+    }
+}
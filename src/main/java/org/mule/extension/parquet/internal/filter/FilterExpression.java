@@ -0,0 +1,463 @@
+package org.mule.extension.parquet.internal.filter;
+
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Parsed form of a row filter such as {@code event_date = '2026-10-01' and amount > 100}, see
+ * {@link FilterExpressionParser}.
+ * <p>
+ * Expressions are parsed without a schema and bound to a parquet {@link FilterPredicate} once the file
+ * schema is known, which is where literals are converted to the physical type of their column.
+ * <p>
+ * Comparisons on partition columns of a dataset are resolved against the {@code key=value} segments of a
+ * file's path with {@link #bindPartition} before that, which prunes whole partitions and leaves the
+ * remainder to filter records.
+ */
+public abstract class FilterExpression {
+
+    public enum Operator {
+        EQ("="), NOT_EQ("!="), LT("<"), LT_EQ("<="), GT(">"), GT_EQ(">=");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        @Override
+        public String toString() {
+            return symbol;
+        }
+    }
+
+    /**
+     * An expression known to hold for every record.
+     */
+    public static final FilterExpression ALWAYS = new Constant(true);
+
+    /**
+     * An expression known to hold for no record.
+     */
+    public static final FilterExpression NEVER = new Constant(false);
+
+    FilterExpression() {
+    }
+
+    /**
+     * Resolves the comparisons on the given partition columns, simplifying what is left.
+     *
+     * @param partition values of the partition columns known so far, null for Hive's default partition
+     * @return {@link #NEVER} when no record of the partition can match, {@link #ALWAYS} when all of them
+     *         do, otherwise the expression left to evaluate on records
+     */
+    public abstract FilterExpression bindPartition(Map<String, String> partition);
+
+    /**
+     * Binds the expression to the columns of {@code schema}.
+     *
+     * @param schema the parquet file schema
+     * @return the parquet predicate for this expression
+     * @throws IllegalArgumentException if a column is missing or a literal doesn't fit its column type
+     */
+    public abstract FilterPredicate toPredicate(MessageType schema);
+
+    /**
+     * Adds the dotted paths of every column the expression refers to.
+     *
+     * @param columns the set to add to
+     */
+    public abstract void collectColumns(Set<String> columns);
+
+    static final class And extends FilterExpression {
+        private final FilterExpression left;
+        private final FilterExpression right;
+
+        And(FilterExpression left, FilterExpression right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public FilterPredicate toPredicate(MessageType schema) {
+            return FilterApi.and(left.toPredicate(schema), right.toPredicate(schema));
+        }
+
+        @Override
+        public FilterExpression bindPartition(Map<String, String> partition) {
+            FilterExpression boundLeft = left.bindPartition(partition);
+            FilterExpression boundRight = right.bindPartition(partition);
+            if (boundLeft == NEVER || boundRight == NEVER) {
+                return NEVER;
+            }
+            if (boundLeft == ALWAYS) {
+                return boundRight;
+            }
+            if (boundRight == ALWAYS) {
+                return boundLeft;
+            }
+            return boundLeft == left && boundRight == right ? this : new And(boundLeft, boundRight);
+        }
+
+        @Override
+        public void collectColumns(Set<String> columns) {
+            left.collectColumns(columns);
+            right.collectColumns(columns);
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " and " + right + ")";
+        }
+    }
+
+    static final class Or extends FilterExpression {
+        private final FilterExpression left;
+        private final FilterExpression right;
+
+        Or(FilterExpression left, FilterExpression right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public FilterPredicate toPredicate(MessageType schema) {
+            return FilterApi.or(left.toPredicate(schema), right.toPredicate(schema));
+        }
+
+        @Override
+        public FilterExpression bindPartition(Map<String, String> partition) {
+            FilterExpression boundLeft = left.bindPartition(partition);
+            FilterExpression boundRight = right.bindPartition(partition);
+            if (boundLeft == ALWAYS || boundRight == ALWAYS) {
+                return ALWAYS;
+            }
+            if (boundLeft == NEVER) {
+                return boundRight;
+            }
+            if (boundRight == NEVER) {
+                return boundLeft;
+            }
+            return boundLeft == left && boundRight == right ? this : new Or(boundLeft, boundRight);
+        }
+
+        @Override
+        public void collectColumns(Set<String> columns) {
+            left.collectColumns(columns);
+            right.collectColumns(columns);
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " or " + right + ")";
+        }
+    }
+
+    static final class Not extends FilterExpression {
+        private final FilterExpression operand;
+
+        Not(FilterExpression operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public FilterPredicate toPredicate(MessageType schema) {
+            return FilterApi.not(operand.toPredicate(schema));
+        }
+
+        @Override
+        public FilterExpression bindPartition(Map<String, String> partition) {
+            FilterExpression bound = operand.bindPartition(partition);
+            if (bound == ALWAYS) {
+                return NEVER;
+            }
+            if (bound == NEVER) {
+                return ALWAYS;
+            }
+            return bound == operand ? this : new Not(bound);
+        }
+
+        @Override
+        public void collectColumns(Set<String> columns) {
+            operand.collectColumns(columns);
+        }
+
+        @Override
+        public String toString() {
+            return "not " + operand;
+        }
+    }
+
+    /**
+     * A column compared to a literal. A {@code null} literal with {@link Operator#EQ} or
+     * {@link Operator#NOT_EQ} is an is-null or is-not-null check.
+     */
+    static final class Comparison extends FilterExpression {
+        private final String column;
+        private final Operator operator;
+        private final Object literal;
+
+        Comparison(String column, Operator operator, Object literal) {
+            this.column = column;
+            this.operator = operator;
+            this.literal = literal;
+        }
+
+        @Override
+        public FilterPredicate toPredicate(MessageType schema) {
+            PrimitiveType type = primitiveColumn(schema);
+            LogicalTypeAnnotation logicalType = type.getLogicalTypeAnnotation();
+            switch (type.getPrimitiveTypeName()) {
+                case INT32:
+                    return compare(FilterApi.intColumn(column), literal == null ? null : toInt(logicalType));
+                case INT64:
+                    return compare(FilterApi.longColumn(column), literal == null ? null : toLong(logicalType));
+                case FLOAT:
+                    return compare(FilterApi.floatColumn(column), literal == null ? null : toNumber().floatValue());
+                case DOUBLE:
+                    return compare(FilterApi.doubleColumn(column), literal == null ? null : toNumber().doubleValue());
+                case BOOLEAN:
+                    return compareBoolean(FilterApi.booleanColumn(column), literal == null ? null : toBoolean());
+                case BINARY:
+                case FIXED_LEN_BYTE_ARRAY:
+                    if (logicalType instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+                        throw unsupported("binary decimal columns can't be filtered on");
+                    }
+                    return compare(FilterApi.binaryColumn(column), literal == null ? null : Binary.fromString(literal.toString()));
+                default:
+                    throw unsupported(type.getPrimitiveTypeName() + " columns can't be filtered on");
+            }
+        }
+
+        @Override
+        public void collectColumns(Set<String> columns) {
+            columns.add(column);
+        }
+
+        @Override
+        public FilterExpression bindPartition(Map<String, String> partition) {
+            if (!partition.containsKey(column)) {
+                return this;
+            }
+            return matches(partition.get(column)) ? ALWAYS : NEVER;
+        }
+
+        /**
+         * Compares a partition value to the literal: numerically when both are numbers, as text otherwise.
+         */
+        private boolean matches(String value) {
+            if (literal == null) {
+                return operator == Operator.EQ ? value == null : value != null;
+            }
+            if (value == null) {
+                // like a null column value, the default partition matches no comparison
+                return false;
+            }
+            int comparison;
+            if (literal instanceof BigDecimal) {
+                try {
+                    comparison = new BigDecimal(value.trim()).compareTo((BigDecimal) literal);
+                } catch (NumberFormatException e) {
+                    comparison = value.compareTo(((BigDecimal) literal).toPlainString());
+                }
+            } else if (literal instanceof Boolean) {
+                if (operator != Operator.EQ && operator != Operator.NOT_EQ) {
+                    throw unsupported("boolean columns only support = and !=");
+                }
+                comparison = Boolean.parseBoolean(value) == (Boolean) literal ? 0 : 1;
+            } else {
+                comparison = value.compareTo(literal.toString());
+            }
+            switch (operator) {
+                case EQ:
+                    return comparison == 0;
+                case NOT_EQ:
+                    return comparison != 0;
+                case LT:
+                    return comparison < 0;
+                case LT_EQ:
+                    return comparison <= 0;
+                case GT:
+                    return comparison > 0;
+                default:
+                    return comparison >= 0;
+            }
+        }
+
+        private PrimitiveType primitiveColumn(MessageType schema) {
+            String[] path = column.split("\\.");
+            if (!schema.containsPath(path)) {
+                throw new IllegalArgumentException("Filter column '" + column + "' is not in the file schema");
+            }
+            Type type = schema.getType(path);
+            if (!type.isPrimitive()) {
+                throw new IllegalArgumentException("Filter column '" + column + "' is a group, not a primitive column");
+            }
+            return type.asPrimitiveType();
+        }
+
+        private <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsLtGt> FilterPredicate compare(C col, T value) {
+            if (value == null && operator != Operator.EQ && operator != Operator.NOT_EQ) {
+                throw unsupported("only = and != can compare to null");
+            }
+            switch (operator) {
+                case EQ:
+                    return FilterApi.eq(col, value);
+                case NOT_EQ:
+                    return FilterApi.notEq(col, value);
+                case LT:
+                    return FilterApi.lt(col, value);
+                case LT_EQ:
+                    return FilterApi.ltEq(col, value);
+                case GT:
+                    return FilterApi.gt(col, value);
+                default:
+                    return FilterApi.gtEq(col, value);
+            }
+        }
+
+        private FilterPredicate compareBoolean(Operators.BooleanColumn col, Boolean value) {
+            switch (operator) {
+                case EQ:
+                    return FilterApi.eq(col, value);
+                case NOT_EQ:
+                    return FilterApi.notEq(col, value);
+                default:
+                    throw unsupported("boolean columns only support = and !=");
+            }
+        }
+
+        private Integer toInt(LogicalTypeAnnotation logicalType) {
+            if (logicalType instanceof LogicalTypeAnnotation.DateLogicalTypeAnnotation && literal instanceof String) {
+                return (int) parseDate((String) literal).toEpochDay();
+            }
+            if (logicalType instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+                return unscaled((LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) logicalType).intValueExact();
+            }
+            return exact(() -> toNumber().intValueExact());
+        }
+
+        private Long toLong(LogicalTypeAnnotation logicalType) {
+            if (logicalType instanceof LogicalTypeAnnotation.TimestampLogicalTypeAnnotation && literal instanceof String) {
+                Instant instant = parseInstant((String) literal);
+                switch (((LogicalTypeAnnotation.TimestampLogicalTypeAnnotation) logicalType).getUnit()) {
+                    case MILLIS:
+                        return instant.toEpochMilli();
+                    case MICROS:
+                        return TimeUnit.SECONDS.toMicros(instant.getEpochSecond()) + TimeUnit.NANOSECONDS.toMicros(instant.getNano());
+                    default:
+                        return TimeUnit.SECONDS.toNanos(instant.getEpochSecond()) + instant.getNano();
+                }
+            }
+            if (logicalType instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+                return unscaled((LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) logicalType).longValueExact();
+            }
+            return exact(() -> toNumber().longValueExact());
+        }
+
+        private BigInteger unscaled(LogicalTypeAnnotation.DecimalLogicalTypeAnnotation decimal) {
+            return exact(() -> toNumber().setScale(decimal.getScale()).unscaledValue());
+        }
+
+        private BigDecimal toNumber() {
+            if (literal instanceof BigDecimal) {
+                return (BigDecimal) literal;
+            }
+            try {
+                return new BigDecimal(literal.toString());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Filter column '" + column + "' is numeric but was compared to '" + literal + "'");
+            }
+        }
+
+        private Boolean toBoolean() {
+            if (literal instanceof Boolean) {
+                return (Boolean) literal;
+            }
+            throw new IllegalArgumentException("Filter column '" + column + "' is boolean but was compared to '" + literal + "'");
+        }
+
+        private <T> T exact(Supplier<T> conversion) {
+            try {
+                return conversion.get();
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Filter literal " + literal + " doesn't fit column '" + column + "'");
+            }
+        }
+
+        private LocalDate parseDate(String value) {
+            try {
+                return LocalDate.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Filter column '" + column + "' is a date but '" + value + "' is not yyyy-MM-dd");
+            }
+        }
+
+        private Instant parseInstant(String value) {
+            try {
+                return Instant.parse(value);
+            } catch (DateTimeParseException e) {
+                // fall through to the zone-less forms, read as UTC
+            }
+            try {
+                return LocalDateTime.parse(value).toInstant(ZoneOffset.UTC);
+            } catch (DateTimeParseException e) {
+                return parseDate(value).atStartOfDay(ZoneOffset.UTC).toInstant();
+            }
+        }
+
+        private IllegalArgumentException unsupported(String what) {
+            return new IllegalArgumentException("Filter '" + this + "' is not supported, " + what);
+        }
+
+        @Override
+        public String toString() {
+            return column + " " + operator + " " + (literal instanceof String ? "'" + literal + "'" : literal);
+        }
+    }
+
+    private static final class Constant extends FilterExpression {
+        private final boolean value;
+
+        Constant(boolean value) {
+            this.value = value;
+        }
+
+        @Override
+        public FilterPredicate toPredicate(MessageType schema) {
+            throw new IllegalStateException("Filter is always " + value + " and has no predicate");
+        }
+
+        @Override
+        public void collectColumns(Set<String> columns) {
+        }
+
+        @Override
+        public FilterExpression bindPartition(Map<String, String> partition) {
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(value);
+        }
+    }
+}
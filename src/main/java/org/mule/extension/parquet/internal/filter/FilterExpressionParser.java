@@ -0,0 +1,257 @@
+package org.mule.extension.parquet.internal.filter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parses the filter parameter of the read operations.
+ * <p>
+ * The grammar is deliberately small:
+ * <pre>
+ *   expression := or
+ *   or         := and ('or' and)*
+ *   and        := unary ('and' unary)*
+ *   unary      := 'not' unary | '(' expression ')' | predicate
+ *   predicate  := column op literal
+ *               | column 'is' ['not'] 'null'
+ *               | column ['not'] 'in' '(' literal (',' literal)* ')'
+ *   op         := '=' | '==' | '!=' | '&lt;&gt;' | '&lt;' | '&lt;=' | '&gt;' | '&gt;='
+ *   literal    := 'quoted string' | number | true | false | null
+ * </pre>
+ * Columns are dotted paths into the file schema, optionally wrapped in backticks, which also lets a
+ * column be named like a keyword. Keywords are case insensitive.
+ */
+public final class FilterExpressionParser {
+    private final String text;
+    private final List<String> tokens;
+    // the quote each token was wrapped in, ' for strings, ` for column names, 0 for none
+    private final List<Character> quotes;
+    private int index;
+
+    private FilterExpressionParser(String text) {
+        this.text = text;
+        this.tokens = new ArrayList<>();
+        this.quotes = new ArrayList<>();
+        tokenize();
+    }
+
+    /**
+     * Parses a filter expression.
+     *
+     * @param text the expression
+     * @return the parsed expression
+     * @throws IllegalArgumentException if the text is not a valid expression
+     */
+    public static FilterExpression parse(String text) {
+        FilterExpressionParser parser = new FilterExpressionParser(text);
+        FilterExpression expression = parser.parseOr();
+        if (parser.index < parser.tokens.size()) {
+            throw parser.error("unexpected '" + parser.tokens.get(parser.index) + "'");
+        }
+        return expression;
+    }
+
+    private FilterExpression parseOr() {
+        FilterExpression left = parseAnd();
+        while (acceptKeyword("or")) {
+            left = new FilterExpression.Or(left, parseAnd());
+        }
+        return left;
+    }
+
+    private FilterExpression parseAnd() {
+        FilterExpression left = parseUnary();
+        while (acceptKeyword("and")) {
+            left = new FilterExpression.And(left, parseUnary());
+        }
+        return left;
+    }
+
+    private FilterExpression parseUnary() {
+        if (acceptKeyword("not")) {
+            return new FilterExpression.Not(parseUnary());
+        }
+        if (accept("(")) {
+            FilterExpression expression = parseOr();
+            expect(")");
+            return expression;
+        }
+        return parsePredicate();
+    }
+
+    private FilterExpression parsePredicate() {
+        String column = next("a column name");
+        if (acceptKeyword("is")) {
+            boolean negated = acceptKeyword("not");
+            if (!acceptKeyword("null")) {
+                throw error("expected null after 'is'");
+            }
+            return new FilterExpression.Comparison(column, negated ? FilterExpression.Operator.NOT_EQ : FilterExpression.Operator.EQ, null);
+        }
+        boolean negated = acceptKeyword("not");
+        if (acceptKeyword("in")) {
+            expect("(");
+            FilterExpression expression = new FilterExpression.Comparison(column, FilterExpression.Operator.EQ, parseLiteral());
+            while (accept(",")) {
+                expression = new FilterExpression.Or(expression, new FilterExpression.Comparison(column, FilterExpression.Operator.EQ, parseLiteral()));
+            }
+            expect(")");
+            return negated ? new FilterExpression.Not(expression) : expression;
+        }
+        if (negated) {
+            throw error("expected 'in' after 'not'");
+        }
+        FilterExpression.Operator operator = parseOperator();
+        return new FilterExpression.Comparison(column, operator, parseLiteral());
+    }
+
+    private FilterExpression.Operator parseOperator() {
+        String token = next("a comparison operator");
+        switch (token) {
+            case "=":
+            case "==":
+                return FilterExpression.Operator.EQ;
+            case "!=":
+            case "<>":
+                return FilterExpression.Operator.NOT_EQ;
+            case "<":
+                return FilterExpression.Operator.LT;
+            case "<=":
+                return FilterExpression.Operator.LT_EQ;
+            case ">":
+                return FilterExpression.Operator.GT;
+            case ">=":
+                return FilterExpression.Operator.GT_EQ;
+            default:
+                throw error("expected a comparison operator but found '" + token + "'");
+        }
+    }
+
+    private Object parseLiteral() {
+        char quote = index < quotes.size() ? quotes.get(index) : 0;
+        String token = next("a value");
+        if (quote == '\'') {
+            return token;
+        }
+        if (quote == '`') {
+            throw error("expected a value but found column '" + token + "'");
+        }
+        switch (token.toLowerCase(Locale.ROOT)) {
+            case "null":
+                return null;
+            case "true":
+                return Boolean.TRUE;
+            case "false":
+                return Boolean.FALSE;
+            default:
+                try {
+                    return new BigDecimal(token);
+                } catch (NumberFormatException e) {
+                    throw error("'" + token + "' is not a number, quote string values");
+                }
+        }
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        if (index < tokens.size() && quotes.get(index) == 0 && tokens.get(index).equalsIgnoreCase(keyword)) {
+            index++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean accept(String symbol) {
+        if (index < tokens.size() && quotes.get(index) == 0 && tokens.get(index).equals(symbol)) {
+            index++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String symbol) {
+        if (!accept(symbol)) {
+            throw error("expected '" + symbol + "'");
+        }
+    }
+
+    private String next(String expected) {
+        if (index >= tokens.size()) {
+            throw error("expected " + expected + " at the end");
+        }
+        return tokens.get(index++);
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Invalid filter '" + text + "': " + message);
+    }
+
+    private void tokenize() {
+        int i = 0;
+        int length = text.length();
+        while (i < length) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '\'') {
+                // single quoted string, '' escapes a quote
+                StringBuilder value = new StringBuilder();
+                i++;
+                while (true) {
+                    if (i >= length) {
+                        throw error("unterminated string");
+                    }
+                    char s = text.charAt(i++);
+                    if (s == '\'') {
+                        if (i < length && text.charAt(i) == '\'') {
+                            value.append('\'');
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        value.append(s);
+                    }
+                }
+                add(value.toString(), '\'');
+            } else if (c == '`') {
+                int end = text.indexOf('`', i + 1);
+                if (end < 0) {
+                    throw error("unterminated column name");
+                }
+                add(text.substring(i + 1, end), '`');
+                i = end + 1;
+            } else if (c == '(' || c == ')' || c == ',') {
+                add(String.valueOf(c), (char) 0);
+                i++;
+            } else if (c == '=' || c == '!' || c == '<' || c == '>') {
+                int end = i + 1;
+                if (end < length && (text.charAt(end) == '=' || (c == '<' && text.charAt(end) == '>'))) {
+                    end++;
+                }
+                add(text.substring(i, end), (char) 0);
+                i = end;
+            } else {
+                int end = i;
+                while (end < length && isWordChar(text.charAt(end))) {
+                    end++;
+                }
+                if (end == i) {
+                    throw error("unexpected character '" + c + "'");
+                }
+                add(text.substring(i, end), (char) 0);
+                i = end;
+            }
+        }
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '.' || c == '-' || c == '+';
+    }
+
+    private void add(String token, char quote) {
+        tokens.add(token);
+        quotes.add(quote);
+    }
+}
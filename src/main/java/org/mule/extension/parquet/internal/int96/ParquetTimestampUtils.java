@@ -1,52 +1,161 @@
 package org.mule.extension.parquet.internal.int96;
 
-import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import org.apache.avro.Schema;
 import org.apache.parquet.io.api.Binary;
 
 public final class ParquetTimestampUtils {
     private static final String INT_96_BYTE_REGEX = "\\[-?\\d+, -?\\d+, -?\\d+, -?\\d+, -?\\d+, -?\\d+, -?\\d+, -?\\d+, -?\\d+, -?\\d+, -?\\d+,"
             + " -?\\d+\\]";
     private static final Pattern PATTERN = Pattern.compile(INT_96_BYTE_REGEX);
+    private static final String INT96_FIXED_NAME = "INT96";
+    private static final int INT96_LENGTH = 12;
     private static final int JULIAN_EPOCH_OFFSET_DAYS = 2_440_588;
     private static final long MILLIS_IN_DAY = TimeUnit.DAYS.toMillis(1);
     private static final long NANOS_PER_MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+    // 0000-01-01T00:00:00Z and 10000-01-01T00:00:00Z, the range ISO_INSTANT prints without a sign
+    private static final long MIN_PLAIN_MILLIS = -62_167_219_200_000L;
+    private static final long MAX_PLAIN_MILLIS = 253_402_300_800_000L;
+    private static final ZoneId UTC = ZoneId.of("UTC");
 
     private ParquetTimestampUtils() {
     }
 
     /**
-     * Given a String containing INT96 byte[12] arrays, converts each in-place to a
-     * formatting
-     * timestamp String.
+     * Returns whether the Avro schema is the fixed(12) parquet-avro produces for INT96 columns when
+     * {@code parquet.avro.readInt96AsFixed} is enabled.
+     *
+     * @param schema an Avro schema, possibly of a union branch
+     * @return true if values of this schema are INT96 timestamps
+     */
+    public static boolean isInt96(Schema schema) {
+        return schema.getType() == Schema.Type.FIXED
+                && schema.getFixedSize() == INT96_LENGTH
+                && INT96_FIXED_NAME.equals(schema.getName());
+    }
+
+    /**
+     * Given a String containing INT96 byte[12] arrays, converts each to a formatted timestamp String
+     * in a single pass.
+     * <p>
+     * Not used by the connector anymore, the read operations convert INT96 columns while encoding, see
+     * {@link #appendInt96(byte[], StringBuilder)}. Only kept as the baseline {@code ConversionBenchmark}
+     * measures that against.
      *
      * @param jsonRecord the JSON record containing INT96 byte[12] arrays
      * @return the String with byte arrays converted to timestamps
      */
     public static String convertInt96(String jsonRecord) {
         Matcher matcher = PATTERN.matcher(jsonRecord);
-        if (matcher.find()) {
-            int startIdx = matcher.start();
-            int endIdx = matcher.end();
-            byte[] bytes = extractMatch(jsonRecord, matcher);
-            Binary binary = Binary.fromReusedByteArray(bytes);
-            long timestampMillis = ParquetTimestampUtils.getTimestampMillis(binary);
-            ZonedDateTime zonedDateTime = Instant.ofEpochMilli(timestampMillis).atZone(ZoneId.of("UTC"));
-            String formattedTimestamp = DateTimeFormatter.ISO_ZONED_DATE_TIME.format(zonedDateTime);
-            String updatedRecord = jsonRecord.substring(0, startIdx)
-                    + "\""
-                    + formattedTimestamp
-                    + "\""
-                    + jsonRecord.substring(endIdx);
-            return convertInt96(updatedRecord);
+        if (!matcher.find()) {
+            return jsonRecord;
+        }
+        StringBuilder updatedRecord = new StringBuilder(jsonRecord.length());
+        byte[] bytes = new byte[INT96_LENGTH];
+        int last = 0;
+        do {
+            extractMatch(jsonRecord, matcher.start() + 1, matcher.end() - 1, bytes);
+            updatedRecord.append(jsonRecord, last, matcher.start());
+            appendInt96(bytes, updatedRecord);
+            last = matcher.end();
+        } while (matcher.find());
+        return updatedRecord.append(jsonRecord, last, jsonRecord.length()).toString();
+    }
+
+    /**
+     * Appends an INT96 timestamp as a quoted ISO-8601 date-time in the UTC zone, such as
+     * {@code "2020-01-01T00:00:00Z[UTC]"}, see {@link #appendInt96Millis(long, StringBuilder)}.
+     *
+     * @param bytes the 12 INT96 bytes
+     * @param out the builder to append to
+     */
+    public static void appendInt96(byte[] bytes, StringBuilder out) {
+        out.append('"');
+        appendInt96Millis(getTimestampMillis(bytes, 0), out);
+        out.append('"');
+    }
+
+    /**
+     * Appends epoch millis of an INT96 timestamp as {@link DateTimeFormatter#ISO_ZONED_DATE_TIME} formats
+     * them in the {@code UTC} zone, the form INT96 columns have always been rendered in: the fraction of
+     * second without trailing zeros and the zone id after the offset, e.g. {@code 2020-01-01T10:15:30.5Z[UTC]}.
+     *
+     * @param epochMillis milliseconds since the epoch
+     * @param out the builder to append to
+     */
+    public static void appendInt96Millis(long epochMillis, StringBuilder out) {
+        if (epochMillis < MIN_PLAIN_MILLIS || epochMillis >= MAX_PLAIN_MILLIS) {
+            out.append(DateTimeFormatter.ISO_ZONED_DATE_TIME.format(Instant.ofEpochMilli(epochMillis).atZone(UTC)));
+            return;
+        }
+        appendDateTime(epochMillis, true, out);
+        out.append("Z[UTC]");
+    }
+
+    /**
+     * Appends epoch millis in the same form as {@link Instant#toString()}, the form of {@code timestamp-millis}
+     * columns, without going through {@link Instant} or a formatter for the years 0000-9999.
+     *
+     * @param epochMillis milliseconds since the epoch
+     * @param out the builder to append to
+     */
+    public static void appendIsoInstant(long epochMillis, StringBuilder out) {
+        if (epochMillis < MIN_PLAIN_MILLIS || epochMillis >= MAX_PLAIN_MILLIS) {
+            out.append(Instant.ofEpochMilli(epochMillis).toString());
+            return;
+        }
+        appendDateTime(epochMillis, false, out);
+        out.append('Z');
+    }
+
+    /**
+     * Appends the UTC date and time of day, with milliseconds when they aren't 0, either in full or with
+     * trailing zeros dropped.
+     */
+    private static void appendDateTime(long epochMillis, boolean trimFraction, StringBuilder out) {
+        long epochDay = Math.floorDiv(epochMillis, MILLIS_IN_DAY);
+        int millisOfDay = (int) Math.floorMod(epochMillis, MILLIS_IN_DAY);
+
+        // civil-from-days, see http://howardhinnant.github.io/date_algorithms.html
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        appendPadded(year, 4, out);
+        out.append('-');
+        appendPadded(month, 2, out);
+        out.append('-');
+        appendPadded(day, 2, out);
+        out.append('T');
+        appendPadded(millisOfDay / 3_600_000, 2, out);
+        out.append(':');
+        appendPadded(millisOfDay / 60_000 % 60, 2, out);
+        out.append(':');
+        appendPadded(millisOfDay / 1000 % 60, 2, out);
+        int millis = millisOfDay % 1000;
+        if (millis != 0) {
+            out.append('.');
+            if (!trimFraction) {
+                appendPadded(millis, 3, out);
+            } else if (millis % 100 == 0) {
+                out.append(millis / 100);
+            } else if (millis % 10 == 0) {
+                appendPadded(millis / 10, 2, out);
+            } else {
+                appendPadded(millis, 3, out);
+            }
         }
-        return jsonRecord;
     }
 
     /**
@@ -57,19 +166,34 @@ public final class ParquetTimestampUtils {
      * @param timestampBinary INT96 parquet timestamp
      * @return timestamp in millis, GMT timezone
      */
-    private static long getTimestampMillis(Binary timestampBinary) {
-        if (timestampBinary.length() != 12) {
+    public static long getTimestampMillis(Binary timestampBinary) {
+        if (timestampBinary.length() != INT96_LENGTH) {
             return 0L;
         }
-        byte[] bytes = timestampBinary.getBytes();
+        return getTimestampMillis(timestampBinary.getBytesUnsafe(), 0);
+    }
 
-        // little endian encoding - need to invert byte order
-        long timeOfDayNanos = ByteBuffer.wrap(
-                new byte[] {
-                        bytes[7], bytes[6], bytes[5], bytes[4], bytes[3], bytes[2], bytes[1], bytes[0]
-                })
-                .getLong();
-        int julianDay = ByteBuffer.wrap(new byte[] { bytes[11], bytes[10], bytes[9], bytes[8] }).getInt();
+    /**
+     * Returns GMT timestamp from the 12 INT96 bytes starting at {@code offset}.
+     *
+     * @param bytes buffer holding the INT96 value
+     * @param offset position of the first byte
+     * @return timestamp in millis, GMT timezone
+     */
+    public static long getTimestampMillis(byte[] bytes, int offset) {
+        // little endian encoding: 8 bytes of nanos of day followed by 4 bytes of julian day
+        long timeOfDayNanos = (bytes[offset] & 0xFFL)
+                | (bytes[offset + 1] & 0xFFL) << 8
+                | (bytes[offset + 2] & 0xFFL) << 16
+                | (bytes[offset + 3] & 0xFFL) << 24
+                | (bytes[offset + 4] & 0xFFL) << 32
+                | (bytes[offset + 5] & 0xFFL) << 40
+                | (bytes[offset + 6] & 0xFFL) << 48
+                | (bytes[offset + 7] & 0xFFL) << 56;
+        int julianDay = (bytes[offset + 8] & 0xFF)
+                | (bytes[offset + 9] & 0xFF) << 8
+                | (bytes[offset + 10] & 0xFF) << 16
+                | (bytes[offset + 11] & 0xFF) << 24;
 
         return julianDayToMillis(julianDay) + (timeOfDayNanos / NANOS_PER_MILLISECOND);
     }
@@ -78,18 +202,32 @@ public final class ParquetTimestampUtils {
         return (julianDay - JULIAN_EPOCH_OFFSET_DAYS) * MILLIS_IN_DAY;
     }
 
-    private static byte[] extractMatch(String jsonRecord, Matcher matcher) {
-        String extracted = jsonRecord.substring(matcher.start(), matcher.end());
-        String removedBrackets = extracted.substring(1, extracted.length() - 1);
-        String[] split = removedBrackets.split(", ");
-        return toByte(split);
+    private static void appendPadded(int value, int width, StringBuilder out) {
+        for (int limit = 10; width > 1; width--, limit *= 10) {
+            if (value < limit) {
+                out.append('0');
+            }
+        }
+        out.append(value);
     }
 
-    private static byte[] toByte(String[] strs) {
-        byte[] bytes = new byte[strs.length];
-        for (int i = 0; i < strs.length; i++) {
-            bytes[i] = Byte.parseByte(strs[i]);
+    private static void extractMatch(String jsonRecord, int start, int end, byte[] bytes) {
+        // parses "b0, b1, ..., b11" in place instead of split + Byte.parseByte
+        int index = 0;
+        int value = 0;
+        boolean negative = false;
+        for (int i = start; i < end; i++) {
+            char c = jsonRecord.charAt(i);
+            if (c == '-') {
+                negative = true;
+            } else if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+            } else if (c == ',') {
+                bytes[index++] = (byte) (negative ? -value : value);
+                value = 0;
+                negative = false;
+            }
         }
-        return bytes;
+        bytes[index] = (byte) (negative ? -value : value);
     }
 }
@@ -0,0 +1,118 @@
+package org.mule.extension.parquet.internal.io;
+
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.LongConsumer;
+
+/**
+ * {@link InputFile} reporting the bytes read through its streams.
+ * <p>
+ * Parquet reads footers and column chunks in large {@code readFully} calls, so the callback runs a few
+ * times per column chunk rather than per value.
+ */
+public final class CountingInputFile implements InputFile {
+  private final InputFile delegate;
+  private final LongConsumer bytesRead;
+
+  public CountingInputFile(@Nonnull InputFile delegate, @Nonnull LongConsumer bytesRead) {
+    this.delegate = delegate;
+    this.bytesRead = bytesRead;
+  }
+
+  @Override
+  public long getLength() throws IOException {
+    return delegate.getLength();
+  }
+
+  @Override
+  public SeekableInputStream newStream() throws IOException {
+    return new CountingSeekableInputStream(delegate.newStream());
+  }
+
+  @Override
+  public String toString() {
+    return delegate.toString();
+  }
+
+  private final class CountingSeekableInputStream extends SeekableInputStream {
+    private final SeekableInputStream stream;
+
+    CountingSeekableInputStream(SeekableInputStream stream) {
+      this.stream = stream;
+    }
+
+    @Override
+    public long getPos() throws IOException {
+      return stream.getPos();
+    }
+
+    @Override
+    public void seek(long newPos) throws IOException {
+      stream.seek(newPos);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = stream.read();
+      if (b >= 0) {
+        bytesRead.accept(1);
+      }
+      return b;
+    }
+
+    @Override
+    public int read(@Nonnull byte[] bytes, int off, int len) throws IOException {
+      return count(stream.read(bytes, off, len));
+    }
+
+    @Override
+    public void readFully(byte[] bytes) throws IOException {
+      stream.readFully(bytes);
+      bytesRead.accept(bytes.length);
+    }
+
+    @Override
+    public void readFully(byte[] bytes, int start, int len) throws IOException {
+      stream.readFully(bytes, start, len);
+      bytesRead.accept(len);
+    }
+
+    @Override
+    public int read(ByteBuffer buf) throws IOException {
+      return count(stream.read(buf));
+    }
+
+    @Override
+    public void readFully(ByteBuffer buf) throws IOException {
+      int len = buf.remaining();
+      stream.readFully(buf);
+      bytesRead.accept(len);
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      return stream.skip(n);
+    }
+
+    @Override
+    public int available() throws IOException {
+      return stream.available();
+    }
+
+    @Override
+    public void close() throws IOException {
+      stream.close();
+    }
+
+    private int count(int n) {
+      if (n > 0) {
+        bytesRead.accept(n);
+      }
+      return n;
+    }
+  }
+}
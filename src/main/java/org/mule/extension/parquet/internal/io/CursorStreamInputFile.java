@@ -0,0 +1,66 @@
+package org.mule.extension.parquet.internal.io;
+
+import org.apache.parquet.io.DelegatingSeekableInputStream;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+
+/**
+ * {@link InputFile} over a repeatable Mule payload.
+ * <p>
+ * Every parquet stream is a fresh cursor of the same {@link CursorStreamProvider} and seeks by moving
+ * that cursor, so the payload is kept wherever the flow's streaming strategy keeps it (in memory or in
+ * its file store) and never copied into a connector owned buffer.
+ */
+public final class CursorStreamInputFile implements InputFile {
+  private static final int SKIP_SIZE = 64 * 1024;
+
+  private final CursorStreamProvider provider;
+  private long length = -1;
+
+  public CursorStreamInputFile(@Nonnull CursorStreamProvider provider) {
+    this.provider = provider;
+  }
+
+  @Override
+  public long getLength() throws IOException {
+    if (length < 0) {
+      // providers don't expose a size, so walk one cursor to the end once
+      long size = 0;
+      try (CursorStream cursor = provider.openCursor()) {
+        while (true) {
+          long skipped = cursor.skip(SKIP_SIZE);
+          if (skipped > 0) {
+            size += skipped;
+          } else if (cursor.read() != -1) {
+            size++;
+          } else {
+            break;
+          }
+        }
+      }
+      length = size;
+    }
+    return length;
+  }
+
+  @Override
+  public SeekableInputStream newStream() {
+    final CursorStream cursor = provider.openCursor();
+    return new DelegatingSeekableInputStream(cursor) {
+      @Override
+      public long getPos() {
+        return cursor.getPosition();
+      }
+
+      @Override
+      public void seek(long newPos) throws IOException {
+        cursor.seek(newPos);
+      }
+    };
+  }
+}
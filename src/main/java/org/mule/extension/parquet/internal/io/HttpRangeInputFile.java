@@ -0,0 +1,337 @@
+package org.mule.extension.parquet.internal.io;
+
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+import javax.annotation.Nonnull;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link InputFile} over a remote object read with HTTP range requests, so only the footer and the
+ * column chunks a read needs are ever transferred.
+ * <p>
+ * Opening the file fetches a guess of its tail with a suffix range, which also tells the object length:
+ * most footers fit in it, so the footer is read without another request. Other reads go through a small
+ * LRU cache of fixed size blocks. The missing blocks of a read are fetched together, a run of adjacent
+ * blocks in a single request, which coalesces neighbouring column chunks of a projection into one round
+ * trip. Reads larger than the cache, whole column chunks of big row groups, are fetched in one request
+ * straight into the caller's buffer without going through the cache.
+ * <p>
+ * The file is safe to read from several streams at once: requests run outside the cache lock, so
+ * concurrent row group readers fetch in parallel.
+ */
+public final class HttpRangeInputFile implements InputFile {
+  private final String name;
+  private final RangeFetcher fetcher;
+  private final int blockSize;
+  private final int maxBlocks;
+  private final long length;
+  private final long tailStart;
+  private final byte[] tail;
+  private final String version;
+  private final Map<Long, byte[]> blocks;
+
+  /**
+   * Fetches byte ranges of the remote object.
+   */
+  @FunctionalInterface
+  public interface RangeFetcher {
+    /**
+     * @param range value of the {@code Range} header, such as {@code bytes=0-1023} or {@code bytes=-65536}
+     * @return the partial content
+     * @throws IOException if the request fails or the server doesn't answer with partial content
+     */
+    Range fetch(String range) throws IOException;
+  }
+
+  /**
+   * Partial content of the object.
+   */
+  public static final class Range {
+    private final long start;
+    private final byte[] bytes;
+    private final long totalLength;
+    private final String version;
+
+    /**
+     * @param start offset of the first byte in the object, from {@code Content-Range}
+     * @param bytes the response body
+     * @param totalLength length of the whole object, from {@code Content-Range}
+     * @param version the {@code ETag} of the object, or null when the server doesn't send one
+     */
+    public Range(long start, byte[] bytes, long totalLength, String version) {
+      this.start = start;
+      this.bytes = bytes;
+      this.totalLength = totalLength;
+      this.version = version;
+    }
+
+    public byte[] getBytes() {
+      return bytes;
+    }
+
+    /**
+     * Parses a {@code Content-Range} header of the form {@code bytes <first>-<last>/<length>}.
+     *
+     * @return the first byte and the object length
+     * @throws IOException if the header is missing or the length unknown
+     */
+    public static long[] parseContentRange(String contentRange) throws IOException {
+      if (contentRange == null || !contentRange.startsWith("bytes ")) {
+        throw new IOException("Expected a Content-Range header, got " + contentRange);
+      }
+      int dash = contentRange.indexOf('-');
+      int slash = contentRange.indexOf('/');
+      if (dash < 0 || slash < dash || contentRange.endsWith("*")) {
+        throw new IOException("Unsupported Content-Range " + contentRange);
+      }
+      try {
+        return new long[] {Long.parseLong(contentRange.substring(6, dash).trim()),
+            Long.parseLong(contentRange.substring(slash + 1).trim())};
+      } catch (NumberFormatException e) {
+        throw new IOException("Unsupported Content-Range " + contentRange, e);
+      }
+    }
+  }
+
+  private HttpRangeInputFile(String name, RangeFetcher fetcher, int blockSize, int maxBlocks, Range tail) {
+    this.name = name;
+    this.fetcher = fetcher;
+    this.blockSize = blockSize;
+    this.maxBlocks = maxBlocks;
+    this.length = tail.totalLength;
+    this.tailStart = tail.start;
+    this.tail = tail.bytes;
+    this.version = tail.version;
+    // access ordered, dropping the least recently used block as soon as an insert takes it past maxBlocks
+    this.blocks = new LinkedHashMap<Long, byte[]>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+        return size() > maxBlocks;
+      }
+    };
+  }
+
+  /**
+   * Opens a remote object, fetching its last {@code tailSize} bytes right away.
+   *
+   * @param name the URL of the object, for messages
+   * @param fetcher issues the range requests
+   * @param tailSize bytes fetched from the end of the object up front, which should cover the footer
+   * @param blockSize size of the cached blocks
+   * @param maxBlocks number of blocks kept in the cache
+   * @return the file
+   * @throws IOException if the tail cannot be fetched
+   */
+  public static HttpRangeInputFile open(@Nonnull String name, @Nonnull RangeFetcher fetcher, int tailSize,
+                                        int blockSize, int maxBlocks) throws IOException {
+    Range tail = fetcher.fetch("bytes=-" + tailSize);
+    if (tail.start + tail.bytes.length != tail.totalLength) {
+      throw new IOException(name + " answered the tail request with bytes " + tail.start + " to "
+          + (tail.start + tail.bytes.length) + " of " + tail.totalLength);
+    }
+    return new HttpRangeInputFile(name, fetcher, Math.max(1, blockSize), Math.max(1, maxBlocks), tail);
+  }
+
+  /**
+   * @return the {@code ETag} of the object, or null when the server didn't send one
+   */
+  public String getVersion() {
+    return version;
+  }
+
+  @Override
+  public long getLength() {
+    return length;
+  }
+
+  @Override
+  public SeekableInputStream newStream() {
+    return new RangeStream();
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+
+  /**
+   * Reads {@code len} bytes at {@code position} into {@code dst}.
+   */
+  void readFully(long position, byte[] dst, int off, int len) throws IOException {
+    if (position < 0 || position + len > length) {
+      throw new EOFException("Reading " + len + " bytes at " + position + " of " + name + ", which is only " + length + " bytes long");
+    }
+    if (len == 0) {
+      return;
+    }
+    if (position >= tailStart) {
+      System.arraycopy(tail, (int) (position - tailStart), dst, off, len);
+      return;
+    }
+    if (position + len > tailStart) {
+      // the end of the read is already in the tail
+      int inTail = (int) (position + len - tailStart);
+      System.arraycopy(tail, 0, dst, off + len - inTail, inTail);
+      len -= inTail;
+    }
+    if (len > (long) blockSize * maxBlocks / 2) {
+      Range range = fetch(position, len);
+      System.arraycopy(range.bytes, 0, dst, off, len);
+      return;
+    }
+    long first = position / blockSize;
+    long last = (position + len - 1) / blockSize;
+    fetchMissing(first, last);
+    int copied = 0;
+    for (long block = first; block <= last; block++) {
+      byte[] bytes = block(block);
+      long blockStart = block * blockSize;
+      int from = (int) Math.max(0, position + copied - blockStart);
+      int count = Math.min(bytes.length - from, len - copied);
+      System.arraycopy(bytes, from, dst, off + copied, count);
+      copied += count;
+    }
+  }
+
+  private void fetchMissing(long first, long last) throws IOException {
+    List<long[]> runs = new ArrayList<>();
+    synchronized (blocks) {
+      long runStart = -1;
+      for (long block = first; block <= last; block++) {
+        boolean cached = blocks.containsKey(block);
+        if (!cached && runStart < 0) {
+          runStart = block;
+        } else if (cached && runStart >= 0) {
+          runs.add(new long[] {runStart, block - 1});
+          runStart = -1;
+        }
+      }
+      if (runStart >= 0) {
+        runs.add(new long[] {runStart, last});
+      }
+    }
+    for (long[] run : runs) {
+      long start = run[0] * blockSize;
+      long end = Math.min(length, (run[1] + 1) * blockSize);
+      Range range = fetch(start, (int) (end - start));
+      synchronized (blocks) {
+        for (long block = run[0]; block <= run[1]; block++) {
+          int from = (int) (block * blockSize - start);
+          int to = (int) Math.min(range.bytes.length, from + (long) blockSize);
+          byte[] bytes = new byte[to - from];
+          System.arraycopy(range.bytes, from, bytes, 0, bytes.length);
+          blocks.put(block, bytes);
+        }
+      }
+    }
+  }
+
+  private byte[] block(long block) throws IOException {
+    synchronized (blocks) {
+      byte[] bytes = blocks.get(block);
+      if (bytes != null) {
+        return bytes;
+      }
+    }
+    // evicted by a concurrent read in between, fetch it again on its own
+    fetchMissing(block, block);
+    synchronized (blocks) {
+      return blocks.get(block);
+    }
+  }
+
+  private Range fetch(long start, int len) throws IOException {
+    Range range = fetcher.fetch("bytes=" + start + "-" + (start + len - 1));
+    if (range.start != start || range.bytes.length != len) {
+      throw new IOException(name + " answered a request for " + len + " bytes at " + start + " with "
+          + range.bytes.length + " bytes at " + range.start);
+    }
+    if (version != null && range.version != null && !version.equals(range.version)) {
+      throw new IOException(name + " changed while it was read, its ETag went from " + version + " to " + range.version);
+    }
+    return range;
+  }
+
+  private final class RangeStream extends SeekableInputStream {
+    private final byte[] single = new byte[1];
+    private long position;
+
+    @Override
+    public long getPos() {
+      return position;
+    }
+
+    @Override
+    public void seek(long newPos) {
+      position = newPos;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (position >= length) {
+        return -1;
+      }
+      readFully(single, 0, 1);
+      return single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(@Nonnull byte[] bytes, int off, int len) throws IOException {
+      if (position >= length) {
+        return -1;
+      }
+      int n = (int) Math.min(len, length - position);
+      readFully(bytes, off, n);
+      return n;
+    }
+
+    @Override
+    public void readFully(byte[] bytes) throws IOException {
+      readFully(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void readFully(byte[] bytes, int start, int len) throws IOException {
+      HttpRangeInputFile.this.readFully(position, bytes, start, len);
+      position += len;
+    }
+
+    @Override
+    public int read(ByteBuffer buf) throws IOException {
+      if (position >= length) {
+        return -1;
+      }
+      int n = (int) Math.min(buf.remaining(), length - position);
+      byte[] bytes = new byte[n];
+      readFully(bytes, 0, n);
+      buf.put(bytes);
+      return n;
+    }
+
+    @Override
+    public void readFully(ByteBuffer buf) throws IOException {
+      byte[] bytes = new byte[buf.remaining()];
+      readFully(bytes, 0, bytes.length);
+      buf.put(bytes);
+    }
+
+    @Override
+    public long skip(long n) {
+      long skipped = Math.max(0, Math.min(n, length - position));
+      position += skipped;
+      return skipped;
+    }
+
+    @Override
+    public int available() {
+      return (int) Math.min(Integer.MAX_VALUE, length - position);
+    }
+  }
+}
@@ -0,0 +1,227 @@
+package org.mule.extension.parquet.internal.io;
+
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * {@link InputFile} over a file mapped into memory in fixed size chunks.
+ * <p>
+ * Streams read through the mapping with absolute positions, so seeking is free and parquet footer and
+ * column chunk reads never copy the file onto the heap. Files of any length are supported since no
+ * chunk exceeds the {@code int} range of a single {@link MappedByteBuffer}.
+ * <p>
+ * Closing doesn't unmap the chunks: Java has no supported way to, and unmapping while a cancelled row
+ * group task may still read a chunk would crash the JVM. The mappings are released when the chunks are
+ * garbage collected, so the address space, and the disk space of a deleted spill file, are held until then.
+ */
+public final class MappedInputFile implements InputFile, Closeable {
+  private static final long CHUNK_SIZE = 256L * 1024 * 1024;
+
+  private final Path file;
+  private final boolean deleteOnClose;
+  private final long length;
+  private final MappedByteBuffer[] chunks;
+
+  private MappedInputFile(Path file, boolean deleteOnClose) throws IOException {
+    this.file = file;
+    this.deleteOnClose = deleteOnClose;
+    try (FileChannel channel = FileChannel.open(file, READ)) {
+      this.length = channel.size();
+      int count = (int) ((length + CHUNK_SIZE - 1) / CHUNK_SIZE);
+      this.chunks = new MappedByteBuffer[count];
+      for (int i = 0; i < count; i++) {
+        long offset = i * CHUNK_SIZE;
+        chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(CHUNK_SIZE, length - offset));
+      }
+    }
+  }
+
+  /**
+   * Maps an existing file.
+   *
+   * @param file the file to read
+   * @return the mapped file, which leaves {@code file} in place when closed
+   * @throws IOException if the file cannot be opened or mapped
+   */
+  public static MappedInputFile open(@Nonnull Path file) throws IOException {
+    return new MappedInputFile(file, false);
+  }
+
+  /**
+   * Copies a one-shot stream into a temp file and maps it. The temp file is deleted on {@link #close()}, its
+   * disk space is freed once the mapping is garbage collected.
+   *
+   * @param stream the stream to spill, read to the end but not closed
+   * @return the mapped spill file
+   * @throws IOException if the stream cannot be copied
+   */
+  public static MappedInputFile spill(@Nonnull InputStream stream) throws IOException {
+    Path spill = Files.createTempFile("parquet-", ".spill");
+    try {
+      Files.copy(stream, spill, REPLACE_EXISTING);
+      return new MappedInputFile(spill, true);
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(spill);
+      throw e;
+    }
+  }
+
+  @Override
+  public long getLength() {
+    return length;
+  }
+
+  @Override
+  public SeekableInputStream newStream() {
+    return new MappedSeekableInputStream();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (deleteOnClose) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException e) {
+        // Windows refuses to delete a mapped file
+        file.toFile().deleteOnExit();
+        throw e;
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return file.toString();
+  }
+
+  private final class MappedSeekableInputStream extends SeekableInputStream {
+    // per-stream views so concurrent streams over the same mapping keep independent positions
+    private final ByteBuffer[] views = new ByteBuffer[chunks.length];
+    private long pos;
+
+    private ByteBuffer view(int index) {
+      ByteBuffer view = views[index];
+      if (view == null) {
+        view = chunks[index].duplicate();
+        views[index] = view;
+      }
+      return view;
+    }
+
+    @Override
+    public long getPos() {
+      return pos;
+    }
+
+    @Override
+    public void seek(long newPos) throws IOException {
+      if (newPos < 0 || newPos > length) {
+        throw new EOFException("Cannot seek to " + newPos + " in " + file + " of length " + length);
+      }
+      pos = newPos;
+    }
+
+    @Override
+    public long skip(long n) {
+      long skipped = Math.max(0, Math.min(n, length - pos));
+      pos += skipped;
+      return skipped;
+    }
+
+    @Override
+    public int available() {
+      return (int) Math.min(Integer.MAX_VALUE, length - pos);
+    }
+
+    @Override
+    public int read() {
+      if (pos >= length) {
+        return -1;
+      }
+      int value = chunks[(int) (pos / CHUNK_SIZE)].get((int) (pos % CHUNK_SIZE)) & 0xFF;
+      pos++;
+      return value;
+    }
+
+    @Override
+    public int read(@Nonnull byte[] bytes, int off, int len) {
+      if (len == 0) {
+        return 0;
+      }
+      if (pos >= length) {
+        return -1;
+      }
+      int total = (int) Math.min(len, length - pos);
+      int copied = 0;
+      while (copied < total) {
+        ByteBuffer view = view((int) (pos / CHUNK_SIZE));
+        int offset = (int) (pos % CHUNK_SIZE);
+        int n = Math.min(total - copied, view.capacity() - offset);
+        view.position(offset);
+        view.get(bytes, off + copied, n);
+        copied += n;
+        pos += n;
+      }
+      return total;
+    }
+
+    @Override
+    public void readFully(byte[] bytes) throws IOException {
+      readFully(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void readFully(byte[] bytes, int start, int len) throws IOException {
+      if (length - pos < len) {
+        throw new EOFException("Reached the end of " + file + " with " + (length - pos) + " bytes left to read " + len);
+      }
+      read(bytes, start, len);
+    }
+
+    @Override
+    public int read(ByteBuffer buf) {
+      if (!buf.hasRemaining()) {
+        return 0;
+      }
+      if (pos >= length) {
+        return -1;
+      }
+      int total = (int) Math.min(buf.remaining(), length - pos);
+      int copied = 0;
+      while (copied < total) {
+        ByteBuffer view = view((int) (pos / CHUNK_SIZE));
+        int offset = (int) (pos % CHUNK_SIZE);
+        int n = Math.min(total - copied, view.capacity() - offset);
+        view.limit(offset + n);
+        view.position(offset);
+        buf.put(view);
+        view.limit(view.capacity());
+        copied += n;
+        pos += n;
+      }
+      return total;
+    }
+
+    @Override
+    public void readFully(ByteBuffer buf) throws IOException {
+      if (length - pos < buf.remaining()) {
+        throw new EOFException("Reached the end of " + file + " with " + (length - pos) + " bytes left to read " + buf.remaining());
+      }
+      read(buf);
+    }
+  }
+}
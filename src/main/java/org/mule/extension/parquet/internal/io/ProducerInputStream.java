@@ -0,0 +1,89 @@
+package org.mule.extension.parquet.internal.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+
+/**
+ * Pipe whose read end is handed to the flow while a producer task writes into {@link #sink()}.
+ * <p>
+ * The pipe buffer is the only memory shared between the two sides: the producer blocks once it is full
+ * and fails as soon as the reader closes. A producer failure is reported with {@link #fail(Throwable)}
+ * and rethrown to the reader in place of the end of the stream, so a truncated payload is never mistaken
+ * for a complete one.
+ */
+public final class ProducerInputStream extends PipedInputStream {
+  private final PipedOutputStream sink;
+  private final Runnable onClose;
+  private volatile Throwable failure;
+  private boolean closed;
+
+  /**
+   * @param pipeSize size of the pipe buffer in bytes
+   * @param onClose called once when the reader closes the stream
+   */
+  public ProducerInputStream(int pipeSize, Runnable onClose) throws IOException {
+    super(pipeSize);
+    this.sink = new PipedOutputStream(this);
+    this.onClose = onClose;
+  }
+
+  /**
+   * @return the write end of the pipe, which the producer closes when done
+   */
+  public OutputStream sink() {
+    return sink;
+  }
+
+  /**
+   * Records the producer's failure and closes the write end.
+   *
+   * @param error the cause to report to the reader
+   */
+  public void fail(Throwable error) {
+    failure = error;
+    try {
+      sink.close();
+    } catch (IOException e) {
+      // the reader is gone already
+    }
+  }
+
+  @Override
+  public synchronized int read() throws IOException {
+    int b = super.read();
+    if (b < 0) {
+      checkFailure();
+    }
+    return b;
+  }
+
+  @Override
+  public synchronized int read(byte[] b, int off, int len) throws IOException {
+    int n = super.read(b, off, len);
+    if (n < 0) {
+      checkFailure();
+    }
+    return n;
+  }
+
+  private void checkFailure() throws IOException {
+    Throwable error = failure;
+    if (error != null) {
+      throw error instanceof IOException ? (IOException) error : new IOException(error.getMessage(), error);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    super.close();
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+    }
+    onClose.run();
+  }
+}
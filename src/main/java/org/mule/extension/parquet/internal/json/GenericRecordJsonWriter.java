@@ -0,0 +1,337 @@
+package org.mule.extension.parquet.internal.json;
+
+import org.apache.avro.LogicalType;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.GenericRecord;
+import org.mule.extension.parquet.internal.int96.ParquetTimestampUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes {@link GenericRecord}s as JSON without going through Avro binary encoding.
+ * <p>
+ * The schema is walked once when the writer is created and turned into a tree of {@link ValueWriter}s,
+ * one per field, so writing a record is a straight walk over its values into a reused
+ * {@link StringBuilder}. Logical types are rendered inline: {@code timestamp-millis} and INT96 columns
+ * (read as fixed(12)) as ISO-8601 instants and {@code decimal} as a plain JSON number. Instances are
+ * not thread-safe.
+ */
+public final class GenericRecordJsonWriter {
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final Schema schema;
+    private final ValueWriter root;
+    private final StringBuilder buffer = new StringBuilder(512);
+
+    private GenericRecordJsonWriter(Schema schema, ValueWriter root) {
+        this.schema = schema;
+        this.root = root;
+    }
+
+    /**
+     * Compiles a writer for records of the given schema.
+     *
+     * @param schema the record schema
+     * @return a writer bound to {@code schema}
+     */
+    public static GenericRecordJsonWriter forSchema(Schema schema) {
+        return new GenericRecordJsonWriter(schema, compile(schema));
+    }
+
+    /**
+     * Returns a writer sharing this writer's compiled tree but with a buffer of its own, so a writer
+     * compiled once can be handed out to concurrent readers.
+     *
+     * @return a writer bound to the same schema
+     */
+    public GenericRecordJsonWriter duplicate() {
+        return new GenericRecordJsonWriter(schema, root);
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Writes the record into the writer's own buffer and returns it as a String.
+     *
+     * @param record a record of this writer's schema
+     * @return the JSON text of the record
+     */
+    public String write(GenericRecord record) {
+        buffer.setLength(0);
+        root.write(record, buffer);
+        return buffer.toString();
+    }
+
+    /**
+     * Appends the record to {@code out}.
+     *
+     * @param record a record of this writer's schema
+     * @param out the builder to append to
+     */
+    public void write(GenericRecord record, StringBuilder out) {
+        root.write(record, out);
+    }
+
+    private interface ValueWriter {
+        void write(Object value, StringBuilder out);
+    }
+
+    private static ValueWriter compile(Schema schema) {
+        LogicalType logicalType = schema.getLogicalType();
+        switch (schema.getType()) {
+            case RECORD:
+                return compileRecord(schema);
+            case ARRAY:
+                return compileArray(schema);
+            case MAP:
+                return compileMap(schema);
+            case UNION:
+                return compileUnion(schema);
+            case ENUM:
+            case STRING:
+                return (value, out) -> writeString(value.toString(), out);
+            case FIXED:
+                if (logicalType instanceof LogicalTypes.Decimal) {
+                    int scale = ((LogicalTypes.Decimal) logicalType).getScale();
+                    return (value, out) -> out.append(new BigDecimal(new BigInteger(((GenericFixed) value).bytes()), scale).toPlainString());
+                }
+                if (ParquetTimestampUtils.isInt96(schema)) {
+                    return (value, out) -> ParquetTimestampUtils.appendInt96(((GenericFixed) value).bytes(), out);
+                }
+                return (value, out) -> writeByteArray(((GenericFixed) value).bytes(), out);
+            case BYTES:
+                if (logicalType instanceof LogicalTypes.Decimal) {
+                    int scale = ((LogicalTypes.Decimal) logicalType).getScale();
+                    return (value, out) -> out.append(new BigDecimal(new BigInteger(toArray((ByteBuffer) value)), scale).toPlainString());
+                }
+                return (value, out) -> writeBytes((ByteBuffer) value, out);
+            case LONG:
+                if (logicalType instanceof LogicalTypes.TimestampMillis) {
+                    return (value, out) -> {
+                        out.append('"');
+                        ParquetTimestampUtils.appendIsoInstant((Long) value, out);
+                        out.append('"');
+                    };
+                }
+                return (value, out) -> out.append(((Long) value).longValue());
+            case INT:
+                return (value, out) -> out.append(((Integer) value).intValue());
+            case FLOAT:
+                return (value, out) -> writeFloat((Float) value, out);
+            case DOUBLE:
+                return (value, out) -> writeDouble((Double) value, out);
+            case BOOLEAN:
+                return (value, out) -> out.append(((Boolean) value).booleanValue());
+            case NULL:
+                return (value, out) -> out.append("null");
+            default:
+                throw new IllegalArgumentException("Unsupported Avro type " + schema.getType());
+        }
+    }
+
+    private static ValueWriter compileRecord(Schema schema) {
+        List<Schema.Field> fields = schema.getFields();
+        final int size = fields.size();
+        final int[] positions = new int[size];
+        final String[] prefixes = new String[size];
+        final ValueWriter[] writers = new ValueWriter[size];
+        for (int i = 0; i < size; i++) {
+            Schema.Field field = fields.get(i);
+            StringBuilder prefix = new StringBuilder();
+            if (i > 0) {
+                prefix.append(", ");
+            }
+            writeString(field.name(), prefix);
+            prefix.append(": ");
+            positions[i] = field.pos();
+            prefixes[i] = prefix.toString();
+            writers[i] = nullSafe(compile(field.schema()));
+        }
+        return (value, out) -> {
+            GenericRecord record = (GenericRecord) value;
+            out.append('{');
+            for (int i = 0; i < size; i++) {
+                out.append(prefixes[i]);
+                writers[i].write(record.get(positions[i]), out);
+            }
+            out.append('}');
+        };
+    }
+
+    private static ValueWriter compileArray(Schema schema) {
+        final ValueWriter element = nullSafe(compile(schema.getElementType()));
+        return (value, out) -> {
+            out.append('[');
+            boolean first = true;
+            for (Object item : (Collection<?>) value) {
+                if (!first) {
+                    out.append(", ");
+                }
+                element.write(item, out);
+                first = false;
+            }
+            out.append(']');
+        };
+    }
+
+    private static ValueWriter compileMap(Schema schema) {
+        final ValueWriter valueWriter = nullSafe(compile(schema.getValueType()));
+        return (value, out) -> {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!first) {
+                    out.append(", ");
+                }
+                writeString(entry.getKey().toString(), out);
+                out.append(": ");
+                valueWriter.write(entry.getValue(), out);
+                first = false;
+            }
+            out.append('}');
+        };
+    }
+
+    private static ValueWriter compileUnion(final Schema schema) {
+        List<Schema> types = schema.getTypes();
+        if (types.size() == 2 && (types.get(0).getType() == Schema.Type.NULL || types.get(1).getType() == Schema.Type.NULL)) {
+            // the optional-column case, which is nearly every union parquet-avro produces
+            return nullSafe(compile(types.get(0).getType() == Schema.Type.NULL ? types.get(1) : types.get(0)));
+        }
+        final ValueWriter[] branches = new ValueWriter[types.size()];
+        for (int i = 0; i < branches.length; i++) {
+            branches[i] = compile(types.get(i));
+        }
+        return (value, out) -> branches[GenericData.get().resolveUnion(schema, value)].write(value, out);
+    }
+
+    private static ValueWriter nullSafe(final ValueWriter writer) {
+        return (value, out) -> {
+            if (value == null) {
+                out.append("null");
+            } else {
+                writer.write(value, out);
+            }
+        };
+    }
+
+    /**
+     * Appends a float as a JSON number, or as a quoted string when it is NaN or infinite.
+     *
+     * @param value the value to write
+     * @param out the builder to append to
+     */
+    public static void writeFloat(float value, StringBuilder out) {
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            out.append('"').append(value).append('"');
+        } else {
+            out.append(value);
+        }
+    }
+
+    /**
+     * Appends a double as a JSON number, or as a quoted string when it is NaN or infinite.
+     *
+     * @param value the value to write
+     * @param out the builder to append to
+     */
+    public static void writeDouble(double value, StringBuilder out) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            out.append('"').append(value).append('"');
+        } else {
+            out.append(value);
+        }
+    }
+
+    private static void writeByteArray(byte[] bytes, StringBuilder out) {
+        out.append('[');
+        for (int i = 0; i < bytes.length; i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            out.append(bytes[i]);
+        }
+        out.append(']');
+    }
+
+    private static void writeBytes(ByteBuffer value, StringBuilder out) {
+        // same ISO-8859-1 rendering Avro's own JSON encoding uses for bytes
+        ByteBuffer bytes = value.duplicate();
+        out.append('"');
+        while (bytes.hasRemaining()) {
+            writeChar((char) (bytes.get() & 0xFF), out);
+        }
+        out.append('"');
+    }
+
+    private static byte[] toArray(ByteBuffer value) {
+        ByteBuffer bytes = value.duplicate();
+        byte[] array = new byte[bytes.remaining()];
+        bytes.get(array);
+        return array;
+    }
+
+    /**
+     * Appends {@code value} as a quoted and escaped JSON string.
+     *
+     * @param value the string to write
+     * @param out the builder to append to
+     */
+    public static void writeString(String value, StringBuilder out) {
+        out.append('"');
+        for (int i = 0, length = value.length(); i < length; i++) {
+            writeChar(value.charAt(i), out);
+        }
+        out.append('"');
+    }
+
+    /**
+     * Appends a character of a JSON string, escaped like Avro's {@code GenericData.toString} escapes it: control
+     * characters, C1 controls and the U+2000 to U+20FF block as unicode escapes with upper case hex digits.
+     *
+     * @param c the character to write
+     * @param out the builder to append to
+     */
+    public static void writeChar(char c, StringBuilder out) {
+        switch (c) {
+            case '"':
+                out.append("\\\"");
+                break;
+            case '\\':
+                out.append("\\\\");
+                break;
+            case '\b':
+                out.append("\\b");
+                break;
+            case '\f':
+                out.append("\\f");
+                break;
+            case '\n':
+                out.append("\\n");
+                break;
+            case '\r':
+                out.append("\\r");
+                break;
+            case '\t':
+                out.append("\\t");
+                break;
+            default:
+                if (c < 0x20 || (c >= 0x7F && c <= 0x9F) || (c >= 0x2000 && c <= 0x20FF)) {
+                    out.append("\\u").append(HEX[c >> 12]).append(HEX[(c >> 8) & 0xF])
+                            .append(HEX[(c >> 4) & 0xF]).append(HEX[c & 0xF]);
+                } else {
+                    out.append(c);
+                }
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package org.mule.extension.parquet.internal.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.avro.LogicalType;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads JSON records from a stream as {@link GenericRecord}s of a given schema.
+ * <p>
+ * The payload is either a JSON array of objects or a sequence of objects, one per line or otherwise
+ * separated by whitespace. Records are parsed one at a time, so only the record being converted is held
+ * in memory. Values are converted to the plain Avro representation of their field: dates, times and
+ * timestamps may be given as ISO-8601 strings or as numbers, and decimals as numbers or strings. Missing
+ * fields take their schema default, or null when the field is optional. Instances are not thread-safe.
+ */
+public final class JsonRecordReader implements Iterator<GenericRecord>, Closeable {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final JsonParser parser;
+    private final Schema schema;
+    private boolean started;
+    private boolean array;
+    private boolean done;
+    private GenericRecord next;
+    private long records;
+
+    public JsonRecordReader(InputStream stream, Schema schema) throws IOException {
+        if (schema.getType() != Schema.Type.RECORD) {
+            throw new IllegalArgumentException("Avro schema must be a record, found " + schema.getType());
+        }
+        this.parser = MAPPER.getFactory().createParser(stream);
+        this.schema = schema;
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !done) {
+            try {
+                next = read();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error parsing JSON record " + (records + 1), e);
+            }
+            done = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public GenericRecord next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        GenericRecord record = next;
+        next = null;
+        return record;
+    }
+
+    private GenericRecord read() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (!started) {
+            started = true;
+            if (token == JsonToken.START_ARRAY) {
+                array = true;
+                token = parser.nextToken();
+            }
+        }
+        if (token == null || (array && token == JsonToken.END_ARRAY)) {
+            return null;
+        }
+        records++;
+        if (token != JsonToken.START_OBJECT) {
+            throw new IllegalArgumentException("Record " + records + " is not a JSON object, found " + token);
+        }
+        JsonNode node = MAPPER.readTree(parser);
+        try {
+            return (GenericRecord) convert(node, schema, "");
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Record " + records + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private Object convert(JsonNode node, Schema schema, String path) {
+        if (node == null || node.isNull()) {
+            if (schema.getType() == Schema.Type.NULL) {
+                return null;
+            }
+            if (schema.getType() != Schema.Type.UNION || !isNullable(schema)) {
+                throw invalid(path, "is null but the field is not optional");
+            }
+            return null;
+        }
+        LogicalType logicalType = schema.getLogicalType();
+        switch (schema.getType()) {
+            case RECORD:
+                return convertRecord(node, schema, path);
+            case ARRAY:
+                return convertArray(node, schema, path);
+            case MAP:
+                return convertMap(node, schema, path);
+            case UNION:
+                return convertUnion(node, schema, path);
+            case STRING:
+                return node.isTextual() ? node.textValue() : node.toString();
+            case ENUM:
+                if (!node.isTextual() || !schema.hasEnumSymbol(node.textValue())) {
+                    throw invalid(path, "must be one of " + schema.getEnumSymbols());
+                }
+                return new GenericData.EnumSymbol(schema, node.textValue());
+            case INT:
+                if (node.isTextual()) {
+                    if (logicalType instanceof LogicalTypes.Date) {
+                        return (int) LocalDate.parse(node.textValue()).toEpochDay();
+                    }
+                    if (logicalType instanceof LogicalTypes.TimeMillis) {
+                        return (int) (LocalTime.parse(node.textValue()).toNanoOfDay() / 1_000_000);
+                    }
+                }
+                if (!node.isIntegralNumber() || !node.canConvertToInt()) {
+                    throw invalid(path, "must be an int");
+                }
+                return node.intValue();
+            case LONG:
+                if (node.isTextual()) {
+                    if (logicalType instanceof LogicalTypes.TimestampMillis) {
+                        return Instant.parse(node.textValue()).toEpochMilli();
+                    }
+                    if (logicalType instanceof LogicalTypes.TimestampMicros) {
+                        Instant instant = Instant.parse(node.textValue());
+                        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+                    }
+                    if (logicalType instanceof LogicalTypes.TimeMicros) {
+                        return LocalTime.parse(node.textValue()).toNanoOfDay() / 1_000;
+                    }
+                }
+                if (!node.isIntegralNumber() || !node.canConvertToLong()) {
+                    throw invalid(path, "must be a long");
+                }
+                return node.longValue();
+            case FLOAT:
+                if (!node.isNumber()) {
+                    throw invalid(path, "must be a number");
+                }
+                return node.floatValue();
+            case DOUBLE:
+                if (!node.isNumber()) {
+                    throw invalid(path, "must be a number");
+                }
+                return node.doubleValue();
+            case BOOLEAN:
+                if (!node.isBoolean()) {
+                    throw invalid(path, "must be a boolean");
+                }
+                return node.booleanValue();
+            case BYTES:
+                if (logicalType instanceof LogicalTypes.Decimal) {
+                    return ByteBuffer.wrap(unscaled(node, (LogicalTypes.Decimal) logicalType, path));
+                }
+                return ByteBuffer.wrap(text(node, path).getBytes(StandardCharsets.ISO_8859_1));
+            case FIXED:
+                if (logicalType instanceof LogicalTypes.Decimal) {
+                    return new GenericData.Fixed(schema, signExtend(unscaled(node, (LogicalTypes.Decimal) logicalType, path), schema.getFixedSize(), path));
+                }
+                byte[] bytes = text(node, path).getBytes(StandardCharsets.ISO_8859_1);
+                if (bytes.length != schema.getFixedSize()) {
+                    throw invalid(path, "must be " + schema.getFixedSize() + " bytes long");
+                }
+                return new GenericData.Fixed(schema, bytes);
+            default:
+                throw invalid(path, "has unsupported type " + schema.getType());
+        }
+    }
+
+    private GenericRecord convertRecord(JsonNode node, Schema schema, String path) {
+        if (!node.isObject()) {
+            throw invalid(path, "must be an object");
+        }
+        GenericData.Record record = new GenericData.Record(schema);
+        for (Schema.Field field : schema.getFields()) {
+            String fieldPath = path.isEmpty() ? field.name() : path + "." + field.name();
+            JsonNode value = node.get(field.name());
+            if (value == null && field.hasDefaultValue()) {
+                record.put(field.pos(), GenericData.get().getDefaultValue(field));
+            } else if (value == null && !isNullable(field.schema())) {
+                throw invalid(fieldPath, "is missing");
+            } else {
+                record.put(field.pos(), convert(value, field.schema(), fieldPath));
+            }
+        }
+        return record;
+    }
+
+    private List<Object> convertArray(JsonNode node, Schema schema, String path) {
+        if (!node.isArray()) {
+            throw invalid(path, "must be an array");
+        }
+        List<Object> list = new ArrayList<>(node.size());
+        for (int i = 0; i < node.size(); i++) {
+            list.add(convert(node.get(i), schema.getElementType(), path + "[" + i + "]"));
+        }
+        return list;
+    }
+
+    private Map<String, Object> convertMap(JsonNode node, Schema schema, String path) {
+        if (!node.isObject()) {
+            throw invalid(path, "must be an object");
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> entry = fields.next();
+            map.put(entry.getKey(), convert(entry.getValue(), schema.getValueType(), path + "." + entry.getKey()));
+        }
+        return map;
+    }
+
+    private Object convertUnion(JsonNode node, Schema schema, String path) {
+        Schema fallback = null;
+        for (Schema branch : schema.getTypes()) {
+            if (branch.getType() == Schema.Type.NULL) {
+                continue;
+            }
+            if (matches(node, branch)) {
+                return convert(node, branch, path);
+            }
+            if (fallback == null) {
+                fallback = branch;
+            }
+        }
+        if (fallback == null) {
+            throw invalid(path, "must be null");
+        }
+        // reports why the value doesn't fit the first branch
+        return convert(node, fallback, path);
+    }
+
+    private static boolean matches(JsonNode node, Schema schema) {
+        LogicalType logicalType = schema.getLogicalType();
+        switch (schema.getType()) {
+            case RECORD:
+            case MAP:
+                return node.isObject();
+            case ARRAY:
+                return node.isArray();
+            case STRING:
+            case ENUM:
+                return node.isTextual();
+            case INT:
+                return (node.isIntegralNumber() && node.canConvertToInt()) || (node.isTextual() && logicalType != null);
+            case LONG:
+                return node.isIntegralNumber() || (node.isTextual() && logicalType != null);
+            case FLOAT:
+            case DOUBLE:
+                return node.isNumber();
+            case BOOLEAN:
+                return node.isBoolean();
+            case BYTES:
+            case FIXED:
+                return node.isTextual() || (node.isNumber() && logicalType instanceof LogicalTypes.Decimal);
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isNullable(Schema schema) {
+        if (schema.getType() == Schema.Type.NULL) {
+            return true;
+        }
+        if (schema.getType() != Schema.Type.UNION) {
+            return false;
+        }
+        for (Schema branch : schema.getTypes()) {
+            if (branch.getType() == Schema.Type.NULL) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] unscaled(JsonNode node, LogicalTypes.Decimal decimal, String path) {
+        BigDecimal value;
+        try {
+            value = node.isNumber() ? node.decimalValue() : new BigDecimal(text(node, path));
+            value = value.setScale(decimal.getScale(), RoundingMode.UNNECESSARY);
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw invalid(path, "is not a decimal of scale " + decimal.getScale());
+        }
+        if (value.precision() > decimal.getPrecision()) {
+            throw invalid(path, "exceeds the decimal precision " + decimal.getPrecision());
+        }
+        return value.unscaledValue().toByteArray();
+    }
+
+    private static byte[] signExtend(byte[] bytes, int size, String path) {
+        if (bytes.length == size) {
+            return bytes;
+        }
+        if (bytes.length > size) {
+            throw invalid(path, "does not fit the fixed size " + size);
+        }
+        byte[] fixed = new byte[size];
+        Arrays.fill(fixed, 0, size - bytes.length, bytes.length > 0 && bytes[0] < 0 ? (byte) 0xFF : 0);
+        System.arraycopy(bytes, 0, fixed, size - bytes.length, bytes.length);
+        return fixed;
+    }
+
+    private static String text(JsonNode node, String path) {
+        if (!node.isTextual()) {
+            throw invalid(path, "must be a string");
+        }
+        return node.textValue();
+    }
+
+    private static IllegalArgumentException invalid(String path, String problem) {
+        return new IllegalArgumentException("Field '" + path + "' " + problem);
+    }
+}
@@ -0,0 +1,55 @@
+package org.mule.extension.parquet.internal.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Encodes the JSON text built by {@link GenericRecordJsonWriter} straight to a byte stream.
+ * <p>
+ * Characters go through a small scratch array instead of allocating the String and byte[] of
+ * {@code getBytes}. Unpaired surrogates are written as {@code ?}, like {@code String.getBytes} does.
+ * Instances are not thread-safe.
+ */
+public final class Utf8Encoder {
+    private final byte[] scratch;
+
+    public Utf8Encoder(int scratchSize) {
+        this.scratch = new byte[Math.max(16, scratchSize)];
+    }
+
+    /**
+     * Writes {@code chars} to {@code out} as UTF-8.
+     *
+     * @param chars the text to encode
+     * @param out the stream to write to
+     */
+    public void write(CharSequence chars, OutputStream out) throws IOException {
+        int n = 0;
+        for (int i = 0, length = chars.length(); i < length; i++) {
+            if (n > scratch.length - 4) {
+                out.write(scratch, 0, n);
+                n = 0;
+            }
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                scratch[n++] = (byte) c;
+            } else if (c < 0x800) {
+                scratch[n++] = (byte) (0xC0 | c >> 6);
+                scratch[n++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, chars.charAt(++i));
+                scratch[n++] = (byte) (0xF0 | codePoint >> 18);
+                scratch[n++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                scratch[n++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                scratch[n++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                scratch[n++] = (byte) '?';
+            } else {
+                scratch[n++] = (byte) (0xE0 | c >> 12);
+                scratch[n++] = (byte) (0x80 | c >> 6 & 0x3F);
+                scratch[n++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        out.write(scratch, 0, n);
+    }
+}
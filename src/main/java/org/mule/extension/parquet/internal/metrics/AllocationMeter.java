@@ -0,0 +1,39 @@
+package org.mule.extension.parquet.internal.metrics;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Reads the bytes allocated so far by the current thread, from the JVM's per thread allocation accounting.
+ * <p>
+ * A reading costs about as much as {@code System.nanoTime()}, so callers take one before and after a page,
+ * chunk or row group rather than per record, on the thread that decodes it. On JVMs without the accounting
+ * every reading is 0 and nothing gets counted.
+ */
+public final class AllocationMeter {
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    private AllocationMeter() {
+    }
+
+    /**
+     * @return the bytes allocated by the current thread since it started, or 0 when not supported
+     */
+    public static long allocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        try {
+            java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if (threads instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean accounting = (com.sun.management.ThreadMXBean) threads;
+                if (accounting.isThreadAllocatedMemorySupported() && accounting.isThreadAllocatedMemoryEnabled()) {
+                    return accounting;
+                }
+            }
+        } catch (LinkageError | RuntimeException e) {
+            // the class loader doesn't expose com.sun.management
+        }
+        return null;
+    }
+}
@@ -0,0 +1,37 @@
+package org.mule.extension.parquet.internal.metrics;
+
+/**
+ * Counters kept for every operation. Names ending in {@code .nanos} accumulate time.
+ */
+public enum Metric {
+    INVOCATIONS("invocations"),
+    FAILURES("failures"),
+    BYTES_READ("bytes.read"),
+    BYTES_SPILLED("bytes.spilled"),
+    BYTES_FETCHED("bytes.fetched"),
+    ROW_GROUPS_READ("rowgroups.read"),
+    ROW_GROUPS_SKIPPED("rowgroups.skipped"),
+    FILES_READ("files.read"),
+    PARTITIONS_PRUNED("partitions.pruned"),
+    RECORDS_DECODED("records.decoded"),
+    RECORDS_WRITTEN("records.written"),
+    BYTES_ALLOCATED("bytes.allocated"),
+    DECODE_NANOS("decode.nanos"),
+    ENCODE_NANOS("encode.nanos"),
+    SPILL_NANOS("spill.nanos"),
+    HTTP_NANOS("http.nanos"),
+    HTTP_REQUESTS("http.requests"),
+    BATCHES_SENT("batches.sent"),
+    BATCHES_FAILED("batches.failed"),
+    RETRIES("retries");
+
+    private final String key;
+
+    Metric(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+}
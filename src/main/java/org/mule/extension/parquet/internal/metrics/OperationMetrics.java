@@ -0,0 +1,348 @@
+package org.mule.extension.parquet.internal.metrics;
+
+import org.mule.extension.parquet.api.MetricsReporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cumulative metrics of one operation, or of a shared component such as the HTTP client.
+ * <p>
+ * One instance per name lives for the life of the connector and is exposed through JMX. Counters are
+ * {@link LongAdder}s so concurrent flows and worker threads never contend on them, and callers add to
+ * them once per page, batch or row group rather than per record. Every update is also forwarded to the
+ * {@link MetricsReporter}s found on the class path.
+ */
+public final class OperationMetrics implements OperationMetricsMBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OperationMetrics.class);
+    private static final String DOMAIN = "org.mule.extension.parquet";
+    private static final ConcurrentMap<String, OperationMetrics> OPERATIONS = new ConcurrentHashMap<>();
+    private static final List<MetricsReporter> REPORTERS = loadReporters();
+
+    private final String operation;
+    private final LongAdder[] counters = new LongAdder[Metric.values().length];
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram batchLatency = new LatencyHistogram();
+    private final AtomicLong inFlightRequests = new AtomicLong();
+    private final AtomicLong bufferedBytes = new AtomicLong();
+    private final AtomicLong peakBufferedBytes = new AtomicLong();
+
+    private OperationMetrics(String operation) {
+        this.operation = operation;
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @param operation the operation or component name
+     * @return the metrics of {@code operation}, registered with JMX on first use
+     */
+    public static OperationMetrics forOperation(String operation) {
+        return OPERATIONS.computeIfAbsent(operation, OperationMetrics::register);
+    }
+
+    static boolean hasReporters() {
+        return !REPORTERS.isEmpty();
+    }
+
+    static List<MetricsReporter> reporters() {
+        return REPORTERS;
+    }
+
+    private static OperationMetrics register(String operation) {
+        OperationMetrics metrics = new OperationMetrics(operation);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(DOMAIN + ":type=OperationMetrics,name=" + ObjectName.quote(operation));
+            try {
+                server.registerMBean(metrics, name);
+            } catch (InstanceAlreadyExistsException e) {
+                // left over from a previous deployment of the connector
+                server.unregisterMBean(name);
+                server.registerMBean(metrics, name);
+            }
+        } catch (JMException | RuntimeException e) {
+            LOGGER.warn("Could not register JMX metrics for " + operation + ": " + e.getMessage());
+        }
+        return metrics;
+    }
+
+    private static List<MetricsReporter> loadReporters() {
+        List<MetricsReporter> reporters = new ArrayList<>();
+        try {
+            for (MetricsReporter reporter : ServiceLoader.load(MetricsReporter.class, OperationMetrics.class.getClassLoader())) {
+                reporters.add(reporter);
+                LOGGER.info("Reporting parquet metrics to " + reporter.getClass().getName());
+            }
+        } catch (ServiceConfigurationError e) {
+            LOGGER.warn("Could not load metrics reporters: " + e.getMessage());
+        }
+        return Collections.unmodifiableList(reporters);
+    }
+
+    /**
+     * Counts an invocation.
+     *
+     * @return the start time to pass to {@link #finish(long, boolean)}
+     */
+    public long start() {
+        add(Metric.INVOCATIONS, 1);
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the latency of an invocation and whether it failed.
+     */
+    public void finish(long started, boolean failed) {
+        long elapsed = System.nanoTime() - started;
+        latency.record(elapsed);
+        if (failed) {
+            add(Metric.FAILURES, 1);
+        }
+        for (MetricsReporter reporter : REPORTERS) {
+            reporter.time(operation, "latency", elapsed);
+        }
+    }
+
+    public void add(Metric metric, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        counters[metric.ordinal()].add(delta);
+        for (MetricsReporter reporter : REPORTERS) {
+            reporter.count(operation, metric.key(), delta);
+        }
+    }
+
+    public long get(Metric metric) {
+        return counters[metric.ordinal()].sum();
+    }
+
+    public void recordBatchLatency(long nanos) {
+        batchLatency.record(nanos);
+        for (MetricsReporter reporter : REPORTERS) {
+            reporter.time(operation, "batch.latency", nanos);
+        }
+    }
+
+    public void requestStarted() {
+        inFlightRequests.incrementAndGet();
+    }
+
+    public void requestFinished(long nanos) {
+        inFlightRequests.decrementAndGet();
+        add(Metric.HTTP_REQUESTS, 1);
+        add(Metric.HTTP_NANOS, nanos);
+    }
+
+    /**
+     * Tracks bytes held in memory waiting to be consumed, such as encoded batches not yet delivered.
+     *
+     * @param delta bytes added, or released when negative
+     */
+    public void buffered(long delta) {
+        long current = bufferedBytes.addAndGet(delta);
+        if (delta > 0) {
+            peakBufferedBytes.accumulateAndGet(current, Math::max);
+        }
+    }
+
+    @Override
+    public long getInvocations() {
+        return get(Metric.INVOCATIONS);
+    }
+
+    @Override
+    public long getFailures() {
+        return get(Metric.FAILURES);
+    }
+
+    @Override
+    public long getBytesRead() {
+        return get(Metric.BYTES_READ);
+    }
+
+    @Override
+    public long getBytesSpilled() {
+        return get(Metric.BYTES_SPILLED);
+    }
+
+    @Override
+    public long getBytesFetched() {
+        return get(Metric.BYTES_FETCHED);
+    }
+
+    @Override
+    public long getRowGroupsRead() {
+        return get(Metric.ROW_GROUPS_READ);
+    }
+
+    @Override
+    public long getRowGroupsSkipped() {
+        return get(Metric.ROW_GROUPS_SKIPPED);
+    }
+
+    @Override
+    public long getRecordsDecoded() {
+        return get(Metric.RECORDS_DECODED);
+    }
+
+    @Override
+    public long getRecordsWritten() {
+        return get(Metric.RECORDS_WRITTEN);
+    }
+
+    @Override
+    public long getBytesAllocated() {
+        return get(Metric.BYTES_ALLOCATED);
+    }
+
+    /**
+     * @return the bytes allocated while decoding and encoding records, per record decoded
+     */
+    @Override
+    public double getAllocatedBytesPerRecord() {
+        long records = get(Metric.RECORDS_DECODED);
+        return records == 0 ? 0 : (double) get(Metric.BYTES_ALLOCATED) / records;
+    }
+
+    @Override
+    public long getDecodeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(get(Metric.DECODE_NANOS));
+    }
+
+    @Override
+    public long getEncodeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(get(Metric.ENCODE_NANOS));
+    }
+
+    @Override
+    public long getSpillMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(get(Metric.SPILL_NANOS));
+    }
+
+    @Override
+    public long getHttpMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(get(Metric.HTTP_NANOS));
+    }
+
+    @Override
+    public long getHttpRequests() {
+        return get(Metric.HTTP_REQUESTS);
+    }
+
+    @Override
+    public long getBatchesSent() {
+        return get(Metric.BATCHES_SENT);
+    }
+
+    @Override
+    public long getBatchesFailed() {
+        return get(Metric.BATCHES_FAILED);
+    }
+
+    @Override
+    public long getFilesRead() {
+        return get(Metric.FILES_READ);
+    }
+
+    @Override
+    public long getPartitionsPruned() {
+        return get(Metric.PARTITIONS_PRUNED);
+    }
+
+    @Override
+    public long getRetries() {
+        return get(Metric.RETRIES);
+    }
+
+    @Override
+    public long getInFlightRequests() {
+        return inFlightRequests.get();
+    }
+
+    @Override
+    public long getBufferedBytes() {
+        return bufferedBytes.get();
+    }
+
+    @Override
+    public long getPeakBufferedBytes() {
+        return peakBufferedBytes.get();
+    }
+
+    @Override
+    public double getLatencyP50Millis() {
+        return latency.percentileMillis(0.5);
+    }
+
+    @Override
+    public double getLatencyP99Millis() {
+        return latency.percentileMillis(0.99);
+    }
+
+    @Override
+    public double getLatencyMaxMillis() {
+        return latency.getMaxMillis();
+    }
+
+    @Override
+    public double getBatchLatencyP50Millis() {
+        return batchLatency.percentileMillis(0.5);
+    }
+
+    @Override
+    public double getBatchLatencyP90Millis() {
+        return batchLatency.percentileMillis(0.9);
+    }
+
+    @Override
+    public double getBatchLatencyP99Millis() {
+        return batchLatency.percentileMillis(0.99);
+    }
+
+    @Override
+    public double getBatchLatencyMaxMillis() {
+        return batchLatency.getMaxMillis();
+    }
+
+    @Override
+    public long getBatchLatencyCount() {
+        return batchLatency.getCount();
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder counter : counters) {
+            counter.reset();
+        }
+        latency.reset();
+        batchLatency.reset();
+        peakBufferedBytes.set(bufferedBytes.get());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder(operation).append(" {");
+        for (Metric metric : Metric.values()) {
+            out.append(metric.ordinal() > 0 ? ", " : "").append(metric.key()).append('=').append(get(metric));
+        }
+        return out.append(", peak.buffered.bytes=").append(getPeakBufferedBytes()).append('}').toString();
+    }
+}
@@ -0,0 +1,74 @@
+package org.mule.extension.parquet.internal.metrics;
+
+/**
+ * JMX view of {@link OperationMetrics}, registered as
+ * {@code org.mule.extension.parquet:type=OperationMetrics,name=<operation>}.
+ */
+public interface OperationMetricsMBean {
+
+    long getInvocations();
+
+    long getFailures();
+
+    long getBytesRead();
+
+    long getBytesSpilled();
+
+    long getBytesFetched();
+
+    long getRowGroupsRead();
+
+    long getRowGroupsSkipped();
+
+    long getFilesRead();
+
+    long getPartitionsPruned();
+
+    long getRecordsDecoded();
+
+    long getRecordsWritten();
+
+    long getBytesAllocated();
+
+    double getAllocatedBytesPerRecord();
+
+    long getDecodeMillis();
+
+    long getEncodeMillis();
+
+    long getSpillMillis();
+
+    long getHttpMillis();
+
+    long getHttpRequests();
+
+    long getBatchesSent();
+
+    long getBatchesFailed();
+
+    long getRetries();
+
+    long getInFlightRequests();
+
+    long getBufferedBytes();
+
+    long getPeakBufferedBytes();
+
+    double getLatencyP50Millis();
+
+    double getLatencyP99Millis();
+
+    double getLatencyMaxMillis();
+
+    double getBatchLatencyP50Millis();
+
+    double getBatchLatencyP90Millis();
+
+    double getBatchLatencyP99Millis();
+
+    double getBatchLatencyMaxMillis();
+
+    long getBatchLatencyCount();
+
+    void reset();
+}
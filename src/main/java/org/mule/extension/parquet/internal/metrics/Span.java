@@ -0,0 +1,64 @@
+package org.mule.extension.parquet.internal.metrics;
+
+import org.mule.extension.parquet.api.MetricsReporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A timed unit of work, such as decoding a row group or delivering an HTTP batch.
+ * <p>
+ * Spans are only recorded when the {@code org.mule.extension.parquet.trace} logger is at DEBUG, where
+ * each ended span is logged with its duration and attributes, or when a {@link MetricsReporter} is
+ * installed. Otherwise {@link #start(String)} returns a shared no-op span and tracing costs nothing.
+ */
+public final class Span {
+    private static final Logger TRACE = LoggerFactory.getLogger("org.mule.extension.parquet.trace");
+    private static final Span NOOP = new Span(null);
+
+    private final String name;
+    private final long startMillis;
+    private final long startNanos;
+    private final Map<String, Object> attributes;
+    private boolean ended;
+
+    private Span(String name) {
+        this.name = name;
+        this.startMillis = name != null ? System.currentTimeMillis() : 0;
+        this.startNanos = name != null ? System.nanoTime() : 0;
+        this.attributes = name != null ? new LinkedHashMap<>() : Collections.emptyMap();
+    }
+
+    public static Span start(String name) {
+        return TRACE.isDebugEnabled() || OperationMetrics.hasReporters() ? new Span(name) : NOOP;
+    }
+
+    public Span attribute(String key, Object value) {
+        if (name != null) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * Ends the span. Only the first call has an effect.
+     */
+    public void end() {
+        if (name == null || ended) {
+            return;
+        }
+        ended = true;
+        long duration = System.nanoTime() - startNanos;
+        attributes.put("durationMs", TimeUnit.NANOSECONDS.toMillis(duration));
+        for (MetricsReporter reporter : OperationMetrics.reporters()) {
+            reporter.span(name, startMillis, duration, attributes);
+        }
+        if (TRACE.isDebugEnabled()) {
+            TRACE.debug(name + " " + attributes);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.mule.extension.parquet.internal.record;
+
+import org.apache.avro.Schema;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.api.InitContext;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.io.api.RecordMaterializer;
+import org.apache.parquet.schema.MessageType;
+
+import java.util.Map;
+
+/**
+ * {@link ReadSupport} producing the JSON text of flat records through a {@link JsonRecordMaterializer}.
+ * <p>
+ * Every record read is the same {@link StringBuilder}, overwritten by the next record.
+ */
+public class JsonReadSupport extends ReadSupport<StringBuilder> {
+    private final MessageType projection;
+    private final Schema recordSchema;
+
+    /**
+     * @param projection the columns to read, or null to read all of them
+     * @param recordSchema the Avro schema the Avro readers would produce the records with
+     */
+    public JsonReadSupport(MessageType projection, Schema recordSchema) {
+        this.projection = projection;
+        this.recordSchema = recordSchema;
+    }
+
+    @Override
+    public ReadContext init(InitContext context) {
+        return new ReadContext(projection != null ? projection : context.getFileSchema());
+    }
+
+    @Override
+    public RecordMaterializer<StringBuilder> prepareForRead(Configuration configuration, Map<String, String> keyValueMetaData,
+                                                            MessageType fileSchema, ReadContext readContext) {
+        return new JsonRecordMaterializer(readContext.getRequestedSchema(), recordSchema);
+    }
+}
@@ -0,0 +1,438 @@
+package org.mule.extension.parquet.internal.record;
+
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.io.api.RecordMaterializer;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import org.mule.extension.parquet.internal.int96.ParquetTimestampUtils;
+import org.mule.extension.parquet.internal.json.GenericRecordJsonWriter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Materializes flat parquet records straight into their JSON text, without building Avro records.
+ * <p>
+ * The text is the same the Avro readers and {@link GenericRecordJsonWriter} produce for the given Avro
+ * record schema, but values go from the column readers into a single {@link StringBuilder} reused for
+ * every record: primitives are appended unboxed, ASCII strings are escaped straight from the column's
+ * bytes, and dictionary encoded binaries are rendered once per dictionary entry. A record is only valid
+ * until the next one is read, and decimals and non-ASCII strings still allocate their value.
+ * <p>
+ * Flat records are assembled column by column in schema order, so every value is appended as it
+ * arrives and the fields without a value in between are written as null. Columns missing from the
+ * record schema are only read to evaluate the filter and left out of the text.
+ */
+public final class JsonRecordMaterializer extends RecordMaterializer<StringBuilder> {
+    private final StringBuilder json = new StringBuilder(512);
+    private final String[] prefixes;
+    private final RecordConverter root;
+    private int next;
+
+    /**
+     * @param schema the requested columns, which {@link #supports} must accept along with {@code recordSchema}
+     * @param recordSchema the Avro schema the Avro readers would produce the records with
+     */
+    public JsonRecordMaterializer(MessageType schema, Schema recordSchema) {
+        Kind[] kinds = kinds(schema, recordSchema);
+        if (kinds == null) {
+            throw new IllegalArgumentException("Columns " + schema + " cannot be written as JSON directly");
+        }
+        List<Schema.Field> fields = recordSchema.getFields();
+        this.prefixes = new String[fields.size()];
+        Converter[] converters = new Converter[kinds.length];
+        int field = 0;
+        for (int i = 0; i < kinds.length; i++) {
+            if (kinds[i] == Kind.SKIPPED) {
+                converters[i] = new SkippedConverter();
+                continue;
+            }
+            StringBuilder prefix = new StringBuilder();
+            if (field > 0) {
+                prefix.append(", ");
+            }
+            GenericRecordJsonWriter.writeString(fields.get(field).name(), prefix);
+            prefix.append(": ");
+            prefixes[field] = prefix.toString();
+            converters[i] = converter(field, kinds[i], nonNull(fields.get(field).schema()));
+            field++;
+        }
+        this.root = new RecordConverter(converters);
+    }
+
+    /**
+     * Returns whether records of the {@code schema} columns can be materialized as JSON directly: a flat
+     * schema whose columns match the fields of {@code recordSchema} in order, with a type this class
+     * writes the way {@link GenericRecordJsonWriter} writes the Avro value. The columns in between that
+     * have no field are read but not written.
+     *
+     * @param schema the requested columns
+     * @param recordSchema the Avro schema the Avro readers would produce the records with
+     * @return true if {@link JsonRecordMaterializer} can read these columns
+     */
+    public static boolean supports(MessageType schema, Schema recordSchema) {
+        return kinds(schema, recordSchema) != null;
+    }
+
+    @Override
+    public StringBuilder getCurrentRecord() {
+        return json;
+    }
+
+    @Override
+    public GroupConverter getRootConverter() {
+        return root;
+    }
+
+    /**
+     * How a column is written, decided by its parquet type and the Avro type the Avro readers give it.
+     */
+    private enum Kind {
+        BOOLEAN, INT, LONG, TIMESTAMP_MILLIS, FLOAT, FLOAT_AS_DOUBLE, DOUBLE, STRING, BYTES, FIXED, DECIMAL, INT96,
+        /**
+         * Read for the filter only.
+         */
+        SKIPPED
+    }
+
+    private static Kind[] kinds(MessageType schema, Schema recordSchema) {
+        if (recordSchema.getType() != Schema.Type.RECORD) {
+            return null;
+        }
+        List<Schema.Field> fields = recordSchema.getFields();
+        Kind[] kinds = new Kind[schema.getFieldCount()];
+        int next = 0;
+        for (int i = 0; i < kinds.length; i++) {
+            Type column = schema.getType(i);
+            if (!column.isPrimitive() || column.isRepetition(Type.Repetition.REPEATED)) {
+                return null;
+            }
+            if (next == fields.size() || !column.getName().equals(fields.get(next).name())) {
+                kinds[i] = Kind.SKIPPED;
+                continue;
+            }
+            Schema value = nonNull(fields.get(next++).schema());
+            kinds[i] = value == null ? null : kind(column.asPrimitiveType(), value);
+            if (kinds[i] == null) {
+                return null;
+            }
+        }
+        return next == fields.size() ? kinds : null;
+    }
+
+    private static Kind kind(PrimitiveType column, Schema value) {
+        boolean decimal = value.getLogicalType() instanceof LogicalTypes.Decimal;
+        switch (column.getPrimitiveTypeName()) {
+            case BOOLEAN:
+                return value.getType() == Schema.Type.BOOLEAN ? Kind.BOOLEAN : null;
+            case INT32:
+                // unsigned and small ints are widened by the Avro readers, which doesn't change their text
+                return value.getType() == Schema.Type.INT || value.getType() == Schema.Type.LONG ? Kind.INT : null;
+            case INT64:
+                if (value.getType() != Schema.Type.LONG) {
+                    return null;
+                }
+                return value.getLogicalType() instanceof LogicalTypes.TimestampMillis ? Kind.TIMESTAMP_MILLIS : Kind.LONG;
+            case FLOAT:
+                if (value.getType() == Schema.Type.FLOAT) {
+                    return Kind.FLOAT;
+                }
+                return value.getType() == Schema.Type.DOUBLE ? Kind.FLOAT_AS_DOUBLE : null;
+            case DOUBLE:
+                return value.getType() == Schema.Type.DOUBLE ? Kind.DOUBLE : null;
+            case BINARY:
+                if (value.getType() == Schema.Type.STRING || value.getType() == Schema.Type.ENUM) {
+                    return Kind.STRING;
+                }
+                if (value.getType() == Schema.Type.BYTES) {
+                    return decimal ? Kind.DECIMAL : Kind.BYTES;
+                }
+                return null;
+            case FIXED_LEN_BYTE_ARRAY:
+                if (value.getType() != Schema.Type.FIXED) {
+                    return null;
+                }
+                if (ParquetTimestampUtils.isInt96(value)) {
+                    return Kind.INT96;
+                }
+                return decimal ? Kind.DECIMAL : Kind.FIXED;
+            case INT96:
+                return ParquetTimestampUtils.isInt96(value) ? Kind.INT96 : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns the non-null branch of an optional field, the schema itself when it isn't a union, or null
+     * for any other union.
+     */
+    private static Schema nonNull(Schema schema) {
+        if (schema.getType() != Schema.Type.UNION) {
+            return schema;
+        }
+        List<Schema> types = schema.getTypes();
+        if (types.size() != 2) {
+            return null;
+        }
+        if (types.get(0).getType() == Schema.Type.NULL) {
+            return types.get(1);
+        }
+        return types.get(1).getType() == Schema.Type.NULL ? types.get(0) : null;
+    }
+
+    private Converter converter(int index, Kind kind, Schema schema) {
+        switch (kind) {
+            case BOOLEAN:
+                return new FieldConverter(index) {
+                    @Override
+                    public void addBoolean(boolean value) {
+                        begin().append(value);
+                    }
+                };
+            case INT:
+                return new FieldConverter(index) {
+                    @Override
+                    public void addInt(int value) {
+                        begin().append(value);
+                    }
+                };
+            case LONG:
+                return new FieldConverter(index) {
+                    @Override
+                    public void addLong(long value) {
+                        begin().append(value);
+                    }
+                };
+            case TIMESTAMP_MILLIS:
+                return new FieldConverter(index) {
+                    @Override
+                    public void addLong(long value) {
+                        StringBuilder out = begin().append('"');
+                        ParquetTimestampUtils.appendIsoInstant(value, out);
+                        out.append('"');
+                    }
+                };
+            case FLOAT:
+                return new FieldConverter(index) {
+                    @Override
+                    public void addFloat(float value) {
+                        GenericRecordJsonWriter.writeFloat(value, begin());
+                    }
+                };
+            case FLOAT_AS_DOUBLE:
+                return new FieldConverter(index) {
+                    @Override
+                    public void addFloat(float value) {
+                        GenericRecordJsonWriter.writeDouble(value, begin());
+                    }
+                };
+            case DOUBLE:
+                return new FieldConverter(index) {
+                    @Override
+                    public void addDouble(double value) {
+                        GenericRecordJsonWriter.writeDouble(value, begin());
+                    }
+                };
+            case STRING:
+                return new BinaryConverter(index, JsonRecordMaterializer::writeUtf8);
+            case BYTES:
+                return new BinaryConverter(index, JsonRecordMaterializer::writeLatin1);
+            case FIXED:
+                return new BinaryConverter(index, JsonRecordMaterializer::writeByteArray);
+            case DECIMAL:
+                int scale = ((LogicalTypes.Decimal) schema.getLogicalType()).getScale();
+                return new BinaryConverter(index, (binary, out) ->
+                        out.append(new BigDecimal(new BigInteger(binary.getBytes()), scale).toPlainString()));
+            case INT96:
+            default:
+                return new BinaryConverter(index, JsonRecordMaterializer::writeInt96);
+        }
+    }
+
+    /**
+     * Writes strings the way {@code new String(bytes, UTF_8)} followed by JSON escaping would, decoding
+     * ASCII in place and only building the String when another character shows up.
+     */
+    private static void writeUtf8(Binary value, StringBuilder out) {
+        ByteBuffer bytes = value.toByteBuffer();
+        int start = out.length();
+        out.append('"');
+        for (int i = bytes.position(), end = bytes.limit(); i < end; i++) {
+            byte b = bytes.get(i);
+            if (b < 0) {
+                out.setLength(start);
+                GenericRecordJsonWriter.writeString(value.toStringUsingUTF8(), out);
+                return;
+            }
+            GenericRecordJsonWriter.writeChar((char) b, out);
+        }
+        out.append('"');
+    }
+
+    /**
+     * Writes bytes as a string of ISO-8859-1 characters, as {@link GenericRecordJsonWriter} does.
+     */
+    private static void writeLatin1(Binary value, StringBuilder out) {
+        ByteBuffer bytes = value.toByteBuffer();
+        out.append('"');
+        for (int i = bytes.position(), end = bytes.limit(); i < end; i++) {
+            GenericRecordJsonWriter.writeChar((char) (bytes.get(i) & 0xFF), out);
+        }
+        out.append('"');
+    }
+
+    private static void writeByteArray(Binary value, StringBuilder out) {
+        ByteBuffer bytes = value.toByteBuffer();
+        out.append('[');
+        for (int i = bytes.position(), end = bytes.limit(); i < end; i++) {
+            if (i > bytes.position()) {
+                out.append(", ");
+            }
+            out.append(bytes.get(i));
+        }
+        out.append(']');
+    }
+
+    private static void writeInt96(Binary value, StringBuilder out) {
+        ByteBuffer bytes = value.toByteBuffer();
+        long millis = bytes.hasArray() && bytes.remaining() == 12
+                ? ParquetTimestampUtils.getTimestampMillis(bytes.array(), bytes.arrayOffset() + bytes.position())
+                : ParquetTimestampUtils.getTimestampMillis(value);
+        out.append('"');
+        ParquetTimestampUtils.appendInt96Millis(millis, out);
+        out.append('"');
+    }
+
+    private final class RecordConverter extends GroupConverter {
+        private final Converter[] converters;
+
+        RecordConverter(Converter[] converters) {
+            this.converters = converters;
+        }
+
+        @Override
+        public Converter getConverter(int fieldIndex) {
+            return converters[fieldIndex];
+        }
+
+        @Override
+        public void start() {
+            json.setLength(0);
+            json.append('{');
+            next = 0;
+        }
+
+        @Override
+        public void end() {
+            nulls(prefixes.length);
+            json.append('}');
+        }
+    }
+
+    /**
+     * Writes the fields from the next one up to {@code end}, excluded, as null, as they received no value.
+     */
+    private void nulls(int end) {
+        for (; next < end; next++) {
+            json.append(prefixes[next]).append("null");
+        }
+    }
+
+    private abstract class FieldConverter extends PrimitiveConverter {
+        private final int index;
+
+        FieldConverter(int index) {
+            this.index = index;
+        }
+
+        /**
+         * Writes the name of the field, after null for the fields skipped since the last value.
+         *
+         * @return the builder to append the value to
+         */
+        StringBuilder begin() {
+            nulls(index);
+            next = index + 1;
+            return json.append(prefixes[index]);
+        }
+    }
+
+    /**
+     * Receives the values of a column the filter reads and drops them.
+     */
+    private static final class SkippedConverter extends PrimitiveConverter {
+        @Override
+        public void addBinary(Binary value) {
+        }
+
+        @Override
+        public void addBoolean(boolean value) {
+        }
+
+        @Override
+        public void addDouble(double value) {
+        }
+
+        @Override
+        public void addFloat(float value) {
+        }
+
+        @Override
+        public void addInt(int value) {
+        }
+
+        @Override
+        public void addLong(long value) {
+        }
+    }
+
+    private interface BinaryWriter {
+        void write(Binary value, StringBuilder out);
+    }
+
+    private final class BinaryConverter extends FieldConverter {
+        private final BinaryWriter writer;
+        private String[] dictionary;
+
+        BinaryConverter(int index, BinaryWriter writer) {
+            super(index);
+            this.writer = writer;
+        }
+
+        @Override
+        public boolean hasDictionarySupport() {
+            return true;
+        }
+
+        @Override
+        public void setDictionary(Dictionary dictionary) {
+            this.dictionary = new String[dictionary.getMaxId() + 1];
+            StringBuilder value = new StringBuilder();
+            for (int id = 0; id <= dictionary.getMaxId(); id++) {
+                value.setLength(0);
+                writer.write(dictionary.decodeToBinary(id), value);
+                this.dictionary[id] = value.toString();
+            }
+        }
+
+        @Override
+        public void addValueFromDictionary(int dictionaryId) {
+            begin().append(dictionary[dictionaryId]);
+        }
+
+        @Override
+        public void addBinary(Binary value) {
+            writer.write(value, begin());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.mule.extension.parquet.internal.record;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.api.InitContext;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.io.api.RecordMaterializer;
+import org.apache.parquet.schema.MessageType;
+
+import java.util.Map;
+
+/**
+ * {@link ReadSupport} producing records as plain Java maps through a {@link MapRecordMaterializer}.
+ * <p>
+ * The projection is given as a parquet {@link MessageType} cut from the file's own schema, so no other
+ * schema is involved and every column keeps its parquet type.
+ */
+public class MapReadSupport extends ReadSupport<Map<String, Object>> {
+    private final MessageType projection;
+    private final MessageType selection;
+
+    /**
+     * @param projection the columns to read, or null to read all of them
+     * @param selection the columns of the maps produced, or null for all of the {@code projection}
+     */
+    public MapReadSupport(MessageType projection, MessageType selection) {
+        this.projection = projection;
+        this.selection = selection;
+    }
+
+    @Override
+    public ReadContext init(InitContext context) {
+        return new ReadContext(projection != null ? projection : context.getFileSchema());
+    }
+
+    @Override
+    public RecordMaterializer<Map<String, Object>> prepareForRead(Configuration configuration, Map<String, String> keyValueMetaData,
+                                                                  MessageType fileSchema, ReadContext readContext) {
+        return new MapRecordMaterializer(readContext.getRequestedSchema(), selection);
+    }
+}
@@ -0,0 +1,486 @@
+package org.mule.extension.parquet.internal.record;
+
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.io.api.RecordMaterializer;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import org.mule.extension.parquet.internal.int96.ParquetTimestampUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Materializes parquet records as plain Java maps, straight from the column readers.
+ * <p>
+ * The requested schema is walked once into a tree of converters. Groups become {@code Map}s keyed by field
+ * name in schema order, {@code LIST} groups and repeated fields become {@code List}s and {@code MAP} groups
+ * become {@code Map}s. Primitive values are converted by their logical type: {@code date} to
+ * {@link LocalDate}, {@code time} to {@link LocalTime}, {@code timestamp} and INT96 to {@link Instant},
+ * {@code decimal} to {@link BigDecimal}, strings, enums, JSON and UUIDs to {@code String} and other
+ * binaries to {@code byte[]}. Dictionary encoded strings, decimals and timestamps are converted once per
+ * dictionary entry rather than once per value. Missing optional values are null and missing repeated
+ * fields empty lists. Columns outside the selection are only read to evaluate the filter and left out of
+ * the maps.
+ */
+public final class MapRecordMaterializer extends RecordMaterializer<Map<String, Object>> {
+    private final RecordConverter root;
+    private Map<String, Object> current;
+
+    /**
+     * @param schema the requested columns
+     * @param selection the columns of the maps produced, or null for all of the requested ones
+     */
+    public MapRecordMaterializer(MessageType schema, MessageType selection) {
+        this.root = new RecordConverter(schema, selection, value -> current = castMap(value));
+    }
+
+    @Override
+    public Map<String, Object> getCurrentRecord() {
+        return current;
+    }
+
+    @Override
+    public void skipCurrentRecord() {
+        current = null;
+    }
+
+    @Override
+    public GroupConverter getRootConverter() {
+        return root;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> castMap(Object value) {
+        return (Map<String, Object>) value;
+    }
+
+    /**
+     * Receives the values a converter produces.
+     */
+    private interface Sink {
+        void add(Object value);
+    }
+
+    private static Converter converter(Type type, Sink sink) {
+        return converter(type, null, sink);
+    }
+
+    /**
+     * @param selection the fields of a group to produce, or null for all of them
+     */
+    private static Converter converter(Type type, GroupType selection, Sink sink) {
+        if (type.isPrimitive()) {
+            return primitive(type.asPrimitiveType(), sink);
+        }
+        GroupType group = type.asGroupType();
+        LogicalTypeAnnotation annotation = group.getLogicalTypeAnnotation();
+        if (annotation instanceof LogicalTypeAnnotation.ListLogicalTypeAnnotation
+                && group.getFieldCount() == 1 && group.getType(0).isRepetition(Type.Repetition.REPEATED)) {
+            return new ListConverter(group, sink);
+        }
+        if ((annotation instanceof LogicalTypeAnnotation.MapLogicalTypeAnnotation
+                || annotation instanceof LogicalTypeAnnotation.MapKeyValueTypeAnnotation)
+                && group.getFieldCount() == 1 && !group.getType(0).isPrimitive()
+                && group.getType(0).asGroupType().getFieldCount() == 2) {
+            return new MapConverter(group, sink);
+        }
+        return new RecordConverter(group, selection, sink);
+    }
+
+    private static final class RecordConverter extends GroupConverter {
+        private final Sink sink;
+        private final String[] names;
+        private final boolean[] repeated;
+        private final Converter[] converters;
+        private Map<String, Object> record;
+
+        RecordConverter(GroupType schema, GroupType selection, Sink sink) {
+            this.sink = sink;
+            int count = schema.getFieldCount();
+            this.names = new String[count];
+            this.repeated = new boolean[count];
+            this.converters = new Converter[count];
+            for (int i = 0; i < count; i++) {
+                Type field = schema.getType(i);
+                String name = field.getName();
+                if (selection != null && !selection.containsField(name)) {
+                    // read for the filter only, names[i] stays null
+                    converters[i] = converter(field, value -> { });
+                    continue;
+                }
+                names[i] = name;
+                repeated[i] = field.isRepetition(Type.Repetition.REPEATED);
+                GroupType selected = selection != null && !field.isPrimitive() ? selection.getType(name).asGroupType() : null;
+                converters[i] = converter(field, selected, repeated[i] ? value -> append(name, value) : value -> record.put(name, value));
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void append(String name, Object value) {
+            Object values = record.get(name);
+            if (values == null) {
+                values = new ArrayList<>();
+                record.put(name, values);
+            }
+            ((List<Object>) values).add(value);
+        }
+
+        @Override
+        public Converter getConverter(int fieldIndex) {
+            return converters[fieldIndex];
+        }
+
+        @Override
+        public void start() {
+            // every field is put up front so the map keeps the schema order whatever the values received
+            record = new LinkedHashMap<>((int) (names.length / 0.75f) + 1);
+            for (String name : names) {
+                if (name != null) {
+                    record.put(name, null);
+                }
+            }
+        }
+
+        @Override
+        public void end() {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i] != null && repeated[i] && record.get(names[i]) == null) {
+                    record.put(names[i], Collections.emptyList());
+                }
+            }
+            sink.add(record);
+        }
+    }
+
+    private static final class ListConverter extends GroupConverter {
+        private final Sink sink;
+        private final Converter repeatedConverter;
+        private List<Object> list;
+
+        ListConverter(GroupType schema, Sink sink) {
+            this.sink = sink;
+            Type repeatedType = schema.getType(0);
+            if (isElementType(repeatedType, schema.getName())) {
+                // legacy 2-level list, the repeated field is the element itself
+                this.repeatedConverter = converter(repeatedType, value -> list.add(value));
+            } else {
+                this.repeatedConverter = new ElementConverter(repeatedType.asGroupType().getType(0), value -> list.add(value));
+            }
+        }
+
+        /**
+         * Applies the backward compatibility rules of the parquet LIST specification.
+         */
+        private static boolean isElementType(Type repeatedType, String parentName) {
+            return repeatedType.isPrimitive()
+                    || repeatedType.asGroupType().getFieldCount() > 1
+                    || repeatedType.getName().equals("array")
+                    || repeatedType.getName().equals(parentName + "_tuple");
+        }
+
+        @Override
+        public Converter getConverter(int fieldIndex) {
+            return repeatedConverter;
+        }
+
+        @Override
+        public void start() {
+            list = new ArrayList<>();
+        }
+
+        @Override
+        public void end() {
+            sink.add(list);
+        }
+    }
+
+    /**
+     * The repeated group of a 3-level list, which holds one optional element.
+     */
+    private static final class ElementConverter extends GroupConverter {
+        private final Sink sink;
+        private final Converter elementConverter;
+        private Object element;
+
+        ElementConverter(Type elementType, Sink sink) {
+            this.sink = sink;
+            this.elementConverter = converter(elementType, value -> element = value);
+        }
+
+        @Override
+        public Converter getConverter(int fieldIndex) {
+            return elementConverter;
+        }
+
+        @Override
+        public void start() {
+            element = null;
+        }
+
+        @Override
+        public void end() {
+            sink.add(element);
+        }
+    }
+
+    private static final class MapConverter extends GroupConverter {
+        private final Sink sink;
+        private final KeyValueConverter keyValueConverter;
+        private Map<Object, Object> map;
+
+        MapConverter(GroupType schema, Sink sink) {
+            this.sink = sink;
+            this.keyValueConverter = new KeyValueConverter(schema.getType(0).asGroupType(), (key, value) -> map.put(key, value));
+        }
+
+        @Override
+        public Converter getConverter(int fieldIndex) {
+            return keyValueConverter;
+        }
+
+        @Override
+        public void start() {
+            map = new LinkedHashMap<>();
+        }
+
+        @Override
+        public void end() {
+            sink.add(map);
+        }
+    }
+
+    private interface EntrySink {
+        void put(Object key, Object value);
+    }
+
+    private static final class KeyValueConverter extends GroupConverter {
+        private final EntrySink sink;
+        private final Converter keyConverter;
+        private final Converter valueConverter;
+        private Object key;
+        private Object value;
+
+        KeyValueConverter(GroupType schema, EntrySink sink) {
+            this.sink = sink;
+            this.keyConverter = converter(schema.getType(0), k -> key = k);
+            this.valueConverter = converter(schema.getType(1), v -> value = v);
+        }
+
+        @Override
+        public Converter getConverter(int fieldIndex) {
+            return fieldIndex == 0 ? keyConverter : valueConverter;
+        }
+
+        @Override
+        public void start() {
+            key = null;
+            value = null;
+        }
+
+        @Override
+        public void end() {
+            sink.put(key, value);
+        }
+    }
+
+    private static Converter primitive(PrimitiveType type, Sink sink) {
+        LogicalTypeAnnotation annotation = type.getLogicalTypeAnnotation();
+        switch (type.getPrimitiveTypeName()) {
+            case BOOLEAN:
+                return new PrimitiveConverter() {
+                    @Override
+                    public void addBoolean(boolean value) {
+                        sink.add(value);
+                    }
+                };
+            case INT32:
+                if (annotation instanceof LogicalTypeAnnotation.DateLogicalTypeAnnotation) {
+                    return new IntConverter(sink, value -> LocalDate.ofEpochDay(value));
+                }
+                if (annotation instanceof LogicalTypeAnnotation.TimeLogicalTypeAnnotation) {
+                    return new IntConverter(sink, value -> LocalTime.ofNanoOfDay(value * 1_000_000L));
+                }
+                if (annotation instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+                    int scale = ((LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) annotation).getScale();
+                    return new IntConverter(sink, value -> BigDecimal.valueOf(value, scale));
+                }
+                return new IntConverter(sink, Integer::valueOf);
+            case INT64:
+                return longConverter(annotation, sink);
+            case FLOAT:
+                return new PrimitiveConverter() {
+                    @Override
+                    public void addFloat(float value) {
+                        sink.add(value);
+                    }
+                };
+            case DOUBLE:
+                return new PrimitiveConverter() {
+                    @Override
+                    public void addDouble(double value) {
+                        sink.add(value);
+                    }
+                };
+            case INT96:
+                return new BinaryConverter(sink, value -> Instant.ofEpochMilli(ParquetTimestampUtils.getTimestampMillis(value)), true);
+            case BINARY:
+            case FIXED_LEN_BYTE_ARRAY:
+            default:
+                return binaryConverter(annotation, sink);
+        }
+    }
+
+    private static Converter longConverter(LogicalTypeAnnotation annotation, Sink sink) {
+        if (annotation instanceof LogicalTypeAnnotation.TimestampLogicalTypeAnnotation) {
+            switch (((LogicalTypeAnnotation.TimestampLogicalTypeAnnotation) annotation).getUnit()) {
+                case MILLIS:
+                    return new LongConverter(sink, Instant::ofEpochMilli);
+                case MICROS:
+                    return new LongConverter(sink, value -> Instant.ofEpochSecond(Math.floorDiv(value, 1_000_000L), Math.floorMod(value, 1_000_000L) * 1_000L));
+                default:
+                    return new LongConverter(sink, value -> Instant.ofEpochSecond(Math.floorDiv(value, 1_000_000_000L), Math.floorMod(value, 1_000_000_000L)));
+            }
+        }
+        if (annotation instanceof LogicalTypeAnnotation.TimeLogicalTypeAnnotation) {
+            switch (((LogicalTypeAnnotation.TimeLogicalTypeAnnotation) annotation).getUnit()) {
+                case MILLIS:
+                    return new LongConverter(sink, value -> LocalTime.ofNanoOfDay(value * 1_000_000L));
+                case MICROS:
+                    return new LongConverter(sink, value -> LocalTime.ofNanoOfDay(value * 1_000L));
+                default:
+                    return new LongConverter(sink, LocalTime::ofNanoOfDay);
+            }
+        }
+        if (annotation instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+            int scale = ((LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) annotation).getScale();
+            return new LongConverter(sink, value -> BigDecimal.valueOf(value, scale));
+        }
+        return new LongConverter(sink, Long::valueOf);
+    }
+
+    private static Converter binaryConverter(LogicalTypeAnnotation annotation, Sink sink) {
+        if (annotation instanceof LogicalTypeAnnotation.StringLogicalTypeAnnotation
+                || annotation instanceof LogicalTypeAnnotation.EnumLogicalTypeAnnotation
+                || annotation instanceof LogicalTypeAnnotation.JsonLogicalTypeAnnotation) {
+            return new BinaryConverter(sink, Binary::toStringUsingUTF8, true);
+        }
+        if (annotation instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+            int scale = ((LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) annotation).getScale();
+            return new BinaryConverter(sink, value -> new BigDecimal(new BigInteger(value.getBytesUnsafe()), scale), true);
+        }
+        if (annotation instanceof LogicalTypeAnnotation.UUIDLogicalTypeAnnotation) {
+            return new BinaryConverter(sink, MapRecordMaterializer::uuid, true);
+        }
+        // byte arrays are mutable, so every value gets its own copy rather than a shared dictionary entry
+        return new BinaryConverter(sink, Binary::getBytes, false);
+    }
+
+    private static String uuid(Binary value) {
+        byte[] bytes = value.getBytesUnsafe();
+        long most = 0;
+        long least = 0;
+        for (int i = 0; i < 8; i++) {
+            most = most << 8 | (bytes[i] & 0xFF);
+            least = least << 8 | (bytes[i + 8] & 0xFF);
+        }
+        return new UUID(most, least).toString();
+    }
+
+    private interface IntConversion {
+        Object convert(int value);
+    }
+
+    private interface LongConversion {
+        Object convert(long value);
+    }
+
+    private interface BinaryConversion {
+        Object convert(Binary value);
+    }
+
+    private static final class IntConverter extends PrimitiveConverter {
+        private final Sink sink;
+        private final IntConversion conversion;
+
+        IntConverter(Sink sink, IntConversion conversion) {
+            this.sink = sink;
+            this.conversion = conversion;
+        }
+
+        @Override
+        public void addInt(int value) {
+            sink.add(conversion.convert(value));
+        }
+    }
+
+    private static final class LongConverter extends PrimitiveConverter {
+        private final Sink sink;
+        private final LongConversion conversion;
+
+        LongConverter(Sink sink, LongConversion conversion) {
+            this.sink = sink;
+            this.conversion = conversion;
+        }
+
+        @Override
+        public void addLong(long value) {
+            sink.add(conversion.convert(value));
+        }
+    }
+
+    private static final class BinaryConverter extends PrimitiveConverter {
+        private final Sink sink;
+        private final BinaryConversion conversion;
+        private final boolean shareable;
+        private Object[] dictionary;
+
+        /**
+         * @param shareable whether converted values are immutable and can be converted once per
+         *                  dictionary entry
+         */
+        BinaryConverter(Sink sink, BinaryConversion conversion, boolean shareable) {
+            this.sink = sink;
+            this.conversion = conversion;
+            this.shareable = shareable;
+        }
+
+        @Override
+        public boolean hasDictionarySupport() {
+            return shareable;
+        }
+
+        @Override
+        public void setDictionary(Dictionary dictionary) {
+            this.dictionary = new Object[dictionary.getMaxId() + 1];
+            for (int id = 0; id <= dictionary.getMaxId(); id++) {
+                this.dictionary[id] = conversion.convert(dictionary.decodeToBinary(id));
+            }
+        }
+
+        @Override
+        public void addValueFromDictionary(int dictionaryId) {
+            sink.add(dictionary[dictionaryId]);
+        }
+
+        @Override
+        public void addBinary(Binary value) {
+            sink.add(conversion.convert(value));
+        }
+    }
+}
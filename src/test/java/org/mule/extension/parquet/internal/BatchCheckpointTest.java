@@ -0,0 +1,234 @@
+package org.mule.extension.parquet.internal;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mule.extension.parquet.internal.cache.CachedFooter;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStore;
+import org.mule.runtime.api.store.ObjectStoreException;
+
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+
+public class BatchCheckpointTest {
+    private static final String KEY = "events";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final MemoryStore store = new MemoryStore();
+    private ParquetBufferedReader file;
+    private CachedFooter footer;
+
+    @Before
+    public void writeFile() throws Exception {
+        Path path = ParquetTestFiles.write(folder.newFile("events.parquet").toPath(), 1000);
+        file = ParquetBufferedReader.open(path, null);
+        footer = ParquetOperations.readFooter(file);
+    }
+
+    @After
+    public void closeFile() throws Exception {
+        file.close();
+    }
+
+    @Test
+    public void startsAtTheBeginningWithoutACheckpoint() throws Exception {
+        assertNull(open(null).getStart());
+    }
+
+    @Test
+    public void resumesAfterTheLastBatchOfAPartialRun() throws Exception {
+        BatchCheckpoint checkpoint = open(null);
+        checkpoint.dispatched(1, new BatchCheckpoint.Position(0, 50, 50));
+        checkpoint.dispatched(2, new BatchCheckpoint.Position(1, 3, 103));
+        checkpoint.dispatched(3, new BatchCheckpoint.Position(1, 53, 153));
+        checkpoint.settled(1, true);
+        checkpoint.settled(2, true);
+        // the run stops before batch 3 settles and before complete()
+
+        assertPosition(1, 3, 103, open(null).getStart());
+    }
+
+    @Test
+    public void savesOnlyOnceEveryEarlierBatchSettled() throws Exception {
+        BatchCheckpoint checkpoint = open(null);
+        checkpoint.dispatched(1, new BatchCheckpoint.Position(0, 50, 50));
+        checkpoint.dispatched(2, new BatchCheckpoint.Position(1, 3, 103));
+        checkpoint.dispatched(3, new BatchCheckpoint.Position(1, 53, 153));
+        checkpoint.settled(3, true);
+        checkpoint.settled(2, true);
+        assertNull(open(null).getStart());
+
+        checkpoint.settled(1, true);
+        assertPosition(1, 53, 153, open(null).getStart());
+    }
+
+    @Test
+    public void failedBatchHoldsThePositionBack() throws Exception {
+        BatchCheckpoint checkpoint = open(null);
+        checkpoint.dispatched(1, new BatchCheckpoint.Position(0, 50, 50));
+        checkpoint.dispatched(2, new BatchCheckpoint.Position(1, 3, 103));
+        checkpoint.dispatched(3, new BatchCheckpoint.Position(1, 53, 153));
+        checkpoint.settled(1, true);
+        checkpoint.settled(2, false);
+        checkpoint.settled(3, true);
+        checkpoint.complete();
+
+        assertPosition(0, 50, 50, open(null).getStart());
+    }
+
+    @Test
+    public void completedRunRemovesTheCheckpoint() throws Exception {
+        BatchCheckpoint checkpoint = open(null);
+        checkpoint.dispatched(1, new BatchCheckpoint.Position(0, 50, 50));
+        checkpoint.dispatched(2, new BatchCheckpoint.Position(1, 3, 103));
+        checkpoint.settled(2, true);
+        checkpoint.settled(1, true);
+        checkpoint.complete();
+
+        assertTrue(store.allKeys().isEmpty());
+        assertNull(open(null).getStart());
+    }
+
+    @Test
+    public void ignoresACheckpointOfAnotherFilter() throws Exception {
+        BatchCheckpoint checkpoint = open(null);
+        checkpoint.dispatched(1, new BatchCheckpoint.Position(0, 50, 50));
+        checkpoint.settled(1, true);
+
+        assertNull(open("id > 10").getStart());
+        assertPosition(0, 50, 50, open(null).getStart());
+    }
+
+    @Test
+    public void ignoresACheckpointOfAnotherFile() throws Exception {
+        BatchCheckpoint checkpoint = open(null);
+        checkpoint.dispatched(1, new BatchCheckpoint.Position(0, 50, 50));
+        checkpoint.settled(1, true);
+
+        Path other = ParquetTestFiles.write(folder.newFile("other.parquet").toPath(), 999);
+        try (ParquetBufferedReader otherFile = ParquetBufferedReader.open(other, null)) {
+            assertNull(BatchCheckpoint.open(store, KEY, ParquetOperations.readFooter(otherFile), otherFile.getLength(), null).getStart());
+        }
+    }
+
+    @Test
+    public void replacesTheCheckpointWithoutOverwritingAKey() throws Exception {
+        BatchCheckpoint checkpoint = open(null);
+        for (int batch = 1; batch <= 5; batch++) {
+            checkpoint.dispatched(batch, new BatchCheckpoint.Position(batch, 0, 100 * batch));
+            checkpoint.settled(batch, true);
+            assertEquals(1, store.allKeys().size());
+            assertPosition(batch, 0, 100 * batch, open(null).getStart());
+        }
+    }
+
+    @Test
+    public void resumesAtTheFurthestPositionWhenTheOldOneWasNotRemoved() throws Exception {
+        BatchCheckpoint checkpoint = open(null);
+        checkpoint.dispatched(1, new BatchCheckpoint.Position(0, 50, 50));
+        checkpoint.dispatched(2, new BatchCheckpoint.Position(1, 3, 103));
+        checkpoint.settled(1, true);
+        store.failRemoves = true;
+        checkpoint.settled(2, true);
+        store.failRemoves = false;
+
+        assertEquals(2, store.allKeys().size());
+        BatchCheckpoint resumed = open(null);
+        assertPosition(1, 3, 103, resumed.getStart());
+
+        resumed.dispatched(1, new BatchCheckpoint.Position(2, 0, 200));
+        resumed.settled(1, true);
+        assertEquals(1, store.allKeys().size());
+        assertPosition(2, 0, 200, open(null).getStart());
+    }
+
+    private BatchCheckpoint open(String filter) throws Exception {
+        return BatchCheckpoint.open(store, KEY, footer, file.getLength(), filter);
+    }
+
+    private static void assertPosition(int rowGroup, long offset, long records, BatchCheckpoint.Position position) {
+        assertEquals(rowGroup, position.getRowGroup());
+        assertEquals(offset, position.getOffset());
+        assertEquals(records, position.getRecords());
+    }
+
+    /**
+     * An in-memory store that, like the persistent ones, refuses to overwrite a key.
+     */
+    private static final class MemoryStore implements ObjectStore<Serializable> {
+        private final Map<String, Serializable> values = new LinkedHashMap<>();
+        private boolean failRemoves;
+
+        @Override
+        public boolean contains(String key) {
+            return values.containsKey(key);
+        }
+
+        @Override
+        public void store(String key, Serializable value) throws ObjectStoreException {
+            if (values.containsKey(key)) {
+                throw new ObjectAlreadyExistsException(createStaticMessage(key + " already exists"));
+            }
+            values.put(key, value);
+        }
+
+        @Override
+        public Serializable retrieve(String key) throws ObjectStoreException {
+            if (!values.containsKey(key)) {
+                throw new ObjectDoesNotExistException(createStaticMessage(key + " doesn't exist"));
+            }
+            return values.get(key);
+        }
+
+        @Override
+        public Serializable remove(String key) throws ObjectStoreException {
+            if (failRemoves) {
+                throw new ObjectStoreException(createStaticMessage("Removing " + key + " failed"));
+            }
+            return values.remove(key);
+        }
+
+        @Override
+        public boolean isPersistent() {
+            return false;
+        }
+
+        @Override
+        public void clear() {
+            values.clear();
+        }
+
+        @Override
+        public void open() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public List<String> allKeys() {
+            return new ArrayList<>(values.keySet());
+        }
+
+        @Override
+        public Map<String, Serializable> retrieveAll() {
+            return new LinkedHashMap<>(values);
+        }
+    }
+}
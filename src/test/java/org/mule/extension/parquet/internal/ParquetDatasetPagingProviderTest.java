@@ -0,0 +1,104 @@
+package org.mule.extension.parquet.internal;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mule.extension.parquet.internal.metrics.OperationMetrics;
+import org.mule.runtime.api.scheduler.Scheduler;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.Assert.assertEquals;
+
+public class ParquetDatasetPagingProviderTest {
+    private static final int RECORDS = 50;
+    private static final OperationMetrics METRICS = OperationMetrics.forOperation("parquetDatasetPagingProviderTest");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(2);
+    private Path dataset;
+
+    @Before
+    public void writeDataset() throws Exception {
+        dataset = folder.newFolder("events").toPath();
+        Path partition = Files.createDirectories(dataset.resolve("dt=2026-10-01"));
+        ParquetTestFiles.write(partition.resolve("events.parquet"), RECORDS);
+    }
+
+    @After
+    public void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void producesTheSelectedColumnsOnly() {
+        List<String> records = read("name", "id >= 45");
+
+        assertEquals(5, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals("{\"name\": \"event " + (45 + i) + "\"}", records.get(i));
+        }
+    }
+
+    @Test
+    public void appendsSelectedPartitionColumns() {
+        List<String> records = read("name, dt", "id < 2");
+
+        assertEquals(2, records.size());
+        assertEquals("{\"name\": \"event 0\", \"dt\": \"2026-10-01\"}", records.get(0));
+        assertEquals("{\"name\": \"event 1\", \"dt\": \"2026-10-01\"}", records.get(1));
+    }
+
+    @Test
+    public void countsTheRecordsWhenOnlyPartitionColumnsAreSelected() {
+        assertEquals(Collections.nCopies(RECORDS, "{\"dt\": \"2026-10-01\"}"), read("dt", null));
+        assertEquals(Collections.nCopies(5, "{\"dt\": \"2026-10-01\"}"), read("dt", "id >= 45"));
+    }
+
+    private List<String> read(String columns, String filter) {
+        ReadOptions options = new ReadOptions();
+        options.setColumns(columns);
+        options.setFilter(filter);
+        // a single file is read by a single worker, so its records come out in file order
+        ParquetDatasetPagingProvider provider = new ParquetDatasetPagingProvider(dataset.toString(), 10, options,
+                scheduler(), 1, METRICS, METRICS.start());
+        List<String> records = new ArrayList<>();
+        try {
+            List<String> page;
+            while (!(page = provider.getPage(null)).isEmpty()) {
+                records.addAll(page);
+            }
+        } finally {
+            provider.close(null);
+        }
+        return records;
+    }
+
+    /**
+     * A Mule scheduler running on the test's executor, whose stop leaves the executor to the test.
+     */
+    private Scheduler scheduler() {
+        return (Scheduler) Proxy.newProxyInstance(Scheduler.class.getClassLoader(), new Class<?>[] {Scheduler.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "stop":
+                            return null;
+                        case "getName":
+                            return "parquetDatasetPagingProviderTest";
+                        default:
+                            return method.invoke(executor, args);
+                    }
+                });
+    }
+}
@@ -0,0 +1,126 @@
+package org.mule.extension.parquet.internal;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mule.extension.parquet.api.CompressionCodec;
+import org.mule.extension.parquet.api.RewriteResult;
+import org.mule.extension.parquet.internal.cache.CachedFooter;
+import org.mule.extension.parquet.internal.dataset.DatasetScanner;
+import org.mule.extension.parquet.internal.metrics.OperationMetrics;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ParquetRewriterTest {
+    private static final int RECORDS = 50;
+    private static final OperationMetrics METRICS = OperationMetrics.forOperation("parquetRewriterTest");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path input;
+    private Path output;
+
+    @Before
+    public void writeFile() throws Exception {
+        input = ParquetTestFiles.write(folder.newFile("events.parquet").toPath(), RECORDS);
+        output = folder.newFolder("out").toPath();
+    }
+
+    @Test
+    public void writesTheSelectedColumns() throws Exception {
+        List<GenericRecord> records = rewrite("name", null, null);
+
+        assertEquals(RECORDS, records.size());
+        for (int id = 0; id < RECORDS; id++) {
+            assertEquals("event " + id, records.get(id).get("name").toString());
+        }
+    }
+
+    @Test
+    public void readsButDoesNotWriteTheFilterColumns() throws Exception {
+        List<GenericRecord> records = rewrite("name", "id >= 40", null);
+
+        assertEquals(10, records.size());
+        assertEquals("event 40", records.get(0).get("name").toString());
+        assertEquals("event 49", records.get(9).get("name").toString());
+    }
+
+    @Test
+    public void writesTheSortColumnsAlongWithTheSelectedOnes() throws Exception {
+        List<GenericRecord> records = rewrite("name", null, "id desc");
+
+        assertEquals(RECORDS, records.size());
+        for (int i = 0; i < RECORDS; i++) {
+            GenericRecord record = records.get(i);
+            int id = RECORDS - 1 - i;
+            assertEquals(id, record.get("id"));
+            assertEquals("event " + id, record.get("name").toString());
+        }
+    }
+
+    /**
+     * Rewrites the input and reads every output file back, checking that both the parquet and the Avro
+     * schema of each only hold the columns written.
+     */
+    private List<GenericRecord> rewrite(String columns, String filter, String sortBy) throws Exception {
+        ReadOptions readOptions = new ReadOptions();
+        readOptions.setColumns(columns);
+        readOptions.setFilter(filter);
+        WriteOptions writeOptions = new WriteOptions();
+        writeOptions.setCompressionCodec(CompressionCodec.UNCOMPRESSED);
+        writeOptions.setRowGroupSize(134217728);
+        writeOptions.setPageSize(1048576);
+        writeOptions.setDictionaryEncoding(true);
+        RewriteResult result = new ParquetRewriter(output, 536870912L, readOptions, sortBy, 1000, false, writeOptions, METRICS)
+                .rewrite(new DatasetScanner(null, readOptions.getFilterExpression(), METRICS).scan(input.toString()));
+
+        List<String> expectedColumns = new ArrayList<>(Arrays.asList(columns.split(",\\s*")));
+        if (sortBy != null) {
+            expectedColumns.add(0, RecordSorter.sortColumns(sortBy).get(0));
+        }
+        List<GenericRecord> records = new ArrayList<>();
+        for (String file : result.getOutputFiles()) {
+            try (ParquetBufferedReader inputFile = ParquetBufferedReader.open(Paths.get(file), null)) {
+                CachedFooter footer = ParquetOperations.readFooter(inputFile);
+                assertEquals(expectedColumns, columnNames(footer));
+                assertEquals(expectedColumns, fieldNames(ParquetOperations.avroSchema(footer)));
+                try (ParquetReader<GenericRecord> reader = ParquetOperations.openAvroReader(inputFile, footer, null, METRICS)) {
+                    GenericRecord record;
+                    while ((record = reader.read()) != null) {
+                        assertEquals(expectedColumns, fieldNames(record.getSchema()));
+                        records.add(record);
+                    }
+                }
+            }
+        }
+        assertEquals(records.size(), result.getRecordsWritten());
+        return records;
+    }
+
+    private static List<String> columnNames(CachedFooter footer) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < footer.getSchema().getFieldCount(); i++) {
+            names.add(footer.getSchema().getType(i).getName());
+        }
+        return names;
+    }
+
+    private static List<String> fieldNames(Schema schema) {
+        List<String> names = new ArrayList<>();
+        for (Schema.Field field : schema.getFields()) {
+            names.add(field.name());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,49 @@
+package org.mule.extension.parquet.internal;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.mule.extension.parquet.internal.io.OutputFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Small parquet files written for the tests.
+ */
+final class ParquetTestFiles {
+    static final Schema SCHEMA = SchemaBuilder.record("event").fields()
+            .requiredInt("id")
+            .optionalString("name")
+            .endRecord();
+
+    private ParquetTestFiles() {
+    }
+
+    /**
+     * Writes records with ids 0 to {@code records - 1}, cutting a row group every hundred or so records.
+     *
+     * @param file the file to write
+     * @param records the number of records
+     * @return the file
+     */
+    static Path write(Path file, int records) throws IOException {
+        try (ParquetWriter<GenericRecord> writer = AvroParquetWriter.<GenericRecord>builder(OutputFile.nioPathToOutputFile(file))
+                .withSchema(SCHEMA)
+                .withConf(SharedConfiguration.forWriting())
+                // parquet checks the row group size every 100 records at the earliest
+                .withRowGroupSize(1)
+                .build()) {
+            for (int id = 0; id < records; id++) {
+                GenericRecord record = new GenericData.Record(SCHEMA);
+                record.put("id", id);
+                record.put("name", "event " + id);
+                writer.write(record);
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,133 @@
+package org.mule.extension.parquet.internal;
+
+import org.apache.avro.generic.GenericRecord;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mule.extension.parquet.internal.cache.CachedFooter;
+import org.mule.extension.parquet.internal.metrics.OperationMetrics;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PositionedRecordReaderTest {
+    private static final int RECORDS = 1000;
+    private static final OperationMetrics METRICS = OperationMetrics.forOperation("positionedRecordReaderTest");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ParquetBufferedReader file;
+    private CachedFooter footer;
+    private List<BlockMetaData> rowGroups;
+
+    @Before
+    public void writeFile() throws Exception {
+        file = ParquetBufferedReader.open(ParquetTestFiles.write(folder.newFile("events.parquet").toPath(), RECORDS), null);
+        footer = ParquetOperations.readFooter(file);
+        rowGroups = footer.getFooter().getBlocks();
+        assertTrue("expected several row groups, got " + rowGroups.size(), rowGroups.size() > 3);
+    }
+
+    @After
+    public void closeFile() throws Exception {
+        file.close();
+    }
+
+    @Test
+    public void readsTheWholeFileWithoutAPosition() throws Exception {
+        try (PositionedRecordReader reader = open(null)) {
+            assertEquals(0, firstId(reader));
+            assertEquals(RECORDS - 1, countRest(reader));
+            assertEquals(0, reader.getSkipped());
+        }
+    }
+
+    @Test
+    public void resumesInsideARowGroup() throws Exception {
+        try (PositionedRecordReader reader = open(new BatchCheckpoint.Position(2, 7, firstId(2) + 7))) {
+            assertEquals(firstId(2) + 7, firstId(reader));
+            assertEquals(2, reader.position(firstId(2) + 8).getRowGroup());
+            assertEquals(8, reader.position(firstId(2) + 8).getOffset());
+            assertEquals(RECORDS - firstId(2) - 8, countRest(reader));
+            // the rows before the offset are skipped by the paged filter without being decoded
+            assertEquals(0, reader.getSkipped());
+        }
+    }
+
+    @Test
+    public void filteredReadDecodesTheRecordsBeforeTheOffset() throws Exception {
+        ReadOptions options = new ReadOptions();
+        options.setFilter("id >= 0");
+        try (PositionedRecordReader reader = new PositionedRecordReader(file, footer, options, METRICS,
+                new BatchCheckpoint.Position(2, 7, firstId(2) + 7))) {
+            assertEquals(firstId(2) + 7, firstId(reader));
+            assertEquals(RECORDS - firstId(2) - 8, countRest(reader));
+            // the offset counts matching records, so the rows before it are decoded and dropped
+            assertEquals(7, reader.getSkipped());
+        }
+    }
+
+    @Test
+    public void offsetAtTheEndOfItsRowGroupStartsAtTheNextOne() throws Exception {
+        long rows = rowGroups.get(1).getRowCount();
+        try (PositionedRecordReader reader = open(new BatchCheckpoint.Position(1, rows, firstId(2)))) {
+            assertEquals(firstId(2), firstId(reader));
+            assertEquals(0, reader.getSkipped());
+        }
+    }
+
+    @Test
+    public void resumesRightAfterTheLastRecordRead() throws Exception {
+        BatchCheckpoint.Position position;
+        try (PositionedRecordReader reader = open(null)) {
+            for (int i = 0; i < 130; i++) {
+                reader.read();
+            }
+            position = reader.position(130);
+        }
+        assertEquals(130, position.getRecords());
+        try (PositionedRecordReader reader = open(position)) {
+            assertEquals(130, firstId(reader));
+        }
+    }
+
+    @Test
+    public void positionPastTheLastRowGroupReadsNothing() throws Exception {
+        try (PositionedRecordReader reader = open(new BatchCheckpoint.Position(rowGroups.size(), 0, RECORDS))) {
+            assertNull(reader.read());
+        }
+    }
+
+    private PositionedRecordReader open(BatchCheckpoint.Position position) {
+        return new PositionedRecordReader(file, footer, null, METRICS, position);
+    }
+
+    private long firstId(int rowGroup) {
+        long id = 0;
+        for (BlockMetaData before : rowGroups.subList(0, rowGroup)) {
+            id += before.getRowCount();
+        }
+        return id;
+    }
+
+    private static long firstId(PositionedRecordReader reader) throws IOException {
+        GenericRecord record = reader.read();
+        return ((Number) record.get("id")).longValue();
+    }
+
+    private static long countRest(PositionedRecordReader reader) throws IOException {
+        long count = 0;
+        while (reader.read() != null) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,138 @@
+package org.mule.extension.parquet.internal;
+
+import org.apache.avro.generic.GenericRecord;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.schema.MessageType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mule.extension.parquet.internal.cache.CachedFooter;
+import org.mule.extension.parquet.internal.json.GenericRecordJsonWriter;
+import org.mule.extension.parquet.internal.metrics.OperationMetrics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class ReadProjectionTest {
+    private static final int RECORDS = 10;
+    private static final OperationMetrics METRICS = OperationMetrics.forOperation("readProjectionTest");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ParquetBufferedReader file;
+    private CachedFooter footer;
+
+    @Before
+    public void writeFile() throws Exception {
+        // written from Avro, so the file holds an Avro schema with a required id
+        file = ParquetBufferedReader.open(ParquetTestFiles.write(folder.newFile("events.parquet").toPath(), RECORDS), null);
+        footer = ParquetOperations.readFooter(file);
+    }
+
+    @After
+    public void closeFile() throws Exception {
+        file.close();
+    }
+
+    @Test
+    public void producesTheSelectedColumnsOnly() throws Exception {
+        ReadOptions options = options("name", null);
+        List<String> expected = names(0);
+        assertEquals(expected, readAvro(options));
+        assertEquals(expected, readJson(options));
+        assertEquals(maps(0), readMaps(options));
+    }
+
+    @Test
+    public void leavesOutTheColumnsOnlyReadForTheFilter() throws Exception {
+        ReadOptions options = options("name", "id >= 5");
+        List<String> expected = names(5);
+        assertEquals(expected, readAvro(options));
+        assertEquals(expected, readJson(options));
+        assertEquals(maps(5), readMaps(options));
+    }
+
+    @Test
+    public void keepsAFilterColumnThatIsAlsoSelected() throws Exception {
+        ReadOptions options = options("id, name", "id >= 8");
+        List<String> expected = new ArrayList<>();
+        expected.add("{\"id\": 8, \"name\": \"event 8\"}");
+        expected.add("{\"id\": 9, \"name\": \"event 9\"}");
+        assertEquals(expected, readAvro(options));
+        assertEquals(expected, readJson(options));
+    }
+
+    private static ReadOptions options(String columns, String filter) {
+        ReadOptions options = new ReadOptions();
+        options.setColumns(columns);
+        options.setFilter(filter);
+        return options;
+    }
+
+    private List<String> readAvro(ReadOptions options) throws IOException {
+        List<String> records = new ArrayList<>();
+        try (ParquetReader<GenericRecord> reader = ParquetOperations.openAvroReader(file, footer, options, METRICS)) {
+            GenericRecord record;
+            while ((record = reader.read()) != null) {
+                GenericRecordJsonWriter writer = ParquetOperations.jsonWriter(footer, record.getSchema());
+                StringBuilder json = new StringBuilder();
+                writer.write(record, json);
+                records.add(json.toString());
+            }
+        }
+        return records;
+    }
+
+    private List<String> readJson(ReadOptions options) throws IOException {
+        List<String> records = new ArrayList<>();
+        try (ParquetReader<StringBuilder> reader = ParquetOperations.openJsonReader(file, footer, options, METRICS)) {
+            assertNotNull("flat columns are read without Avro records", reader);
+            StringBuilder record;
+            while ((record = reader.read()) != null) {
+                records.add(record.toString());
+            }
+        }
+        return records;
+    }
+
+    private List<Map<String, Object>> readMaps(ReadOptions options) throws IOException {
+        MessageType fileSchema = footer.getSchema();
+        List<Map<String, Object>> records = new ArrayList<>();
+        try (ParquetReader<Map<String, Object>> reader = new MapReaderBuilder(file)
+                .withProjection(options.projection(fileSchema), options.selection(fileSchema))
+                .withConf(SharedConfiguration.forReading())
+                .withFilter(options.recordFilter(fileSchema))
+                .build()) {
+            Map<String, Object> record;
+            while ((record = reader.read()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private static List<String> names(int from) {
+        List<String> records = new ArrayList<>();
+        for (int id = from; id < RECORDS; id++) {
+            records.add("{\"name\": \"event " + id + "\"}");
+        }
+        return records;
+    }
+
+    private static List<Map<String, Object>> maps(int from) {
+        List<Map<String, Object>> records = new ArrayList<>();
+        for (int id = from; id < RECORDS; id++) {
+            records.add(Collections.singletonMap("name", "event " + id));
+        }
+        return records;
+    }
+}
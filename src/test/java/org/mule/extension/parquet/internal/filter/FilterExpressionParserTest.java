@@ -0,0 +1,211 @@
+package org.mule.extension.parquet.internal.filter;
+
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+public class FilterExpressionParserTest {
+    private static final MessageType SCHEMA = MessageTypeParser.parseMessageType("message record {\n"
+            + "  required int32 id;\n"
+            + "  optional int64 big;\n"
+            + "  optional binary name (UTF8);\n"
+            + "  optional int32 day (DATE);\n"
+            + "  optional int32 price (DECIMAL(9,2));\n"
+            + "  optional int64 amount (DECIMAL(18,2));\n"
+            + "  optional binary total (DECIMAL(20,2));\n"
+            + "  optional int64 ts (TIMESTAMP_MILLIS);\n"
+            + "  optional group address {\n"
+            + "    optional binary city (UTF8);\n"
+            + "  }\n"
+            + "}");
+
+    @Test
+    public void andBindsTighterThanOr() {
+        assertEquals("(a = 1 or (b = 2 and c = 3))", FilterExpressionParser.parse("a = 1 or b = 2 and c = 3").toString());
+        assertEquals("((a = 1 and b = 2) or c = 3)", FilterExpressionParser.parse("a = 1 and b = 2 or c = 3").toString());
+    }
+
+    @Test
+    public void notBindsTighterThanAnd() {
+        assertEquals("(not a = 1 and b = 2)", FilterExpressionParser.parse("not a = 1 and b = 2").toString());
+    }
+
+    @Test
+    public void parenthesesOverridePrecedence() {
+        assertEquals("((a = 1 or b = 2) and c = 3)", FilterExpressionParser.parse("(a = 1 or b = 2) and c = 3").toString());
+        assertEquals("not (a = 1 or b = 2)", FilterExpressionParser.parse("not (a = 1 or b = 2)").toString());
+    }
+
+    @Test
+    public void keywordsAreCaseInsensitive() {
+        assertEquals("(a = 1 or (b != null and c = true))",
+                FilterExpressionParser.parse("a = 1 OR b IS NOT NULL And c = TRUE").toString());
+    }
+
+    @Test
+    public void operators() {
+        assertEquals("a = 1", FilterExpressionParser.parse("a == 1").toString());
+        assertEquals("a != 1", FilterExpressionParser.parse("a <> 1").toString());
+        assertEquals("a != 1", FilterExpressionParser.parse("a!=1").toString());
+        assertEquals("a <= -1.5", FilterExpressionParser.parse("a<=-1.5").toString());
+        assertEquals("a >= 1", FilterExpressionParser.parse("a >= 1").toString());
+    }
+
+    @Test
+    public void inIsAnOrOfEqualities() {
+        assertEquals("((status = 'a' or status = 'b') or status = 'c')",
+                FilterExpressionParser.parse("status in ('a', 'b', 'c')").toString());
+        assertEquals("status = 'a'", FilterExpressionParser.parse("status in ('a')").toString());
+    }
+
+    @Test
+    public void notInNegatesTheWholeList() {
+        assertEquals("not (status = 'a' or status = 'b')",
+                FilterExpressionParser.parse("status not in ('a', 'b')").toString());
+        assertEquals(FilterApi.not(FilterApi.or(
+                        FilterApi.eq(FilterApi.intColumn("id"), 1),
+                        FilterApi.eq(FilterApi.intColumn("id"), 2))),
+                FilterExpressionParser.parse("id NOT IN (1, 2)").toPredicate(SCHEMA));
+    }
+
+    @Test
+    public void isNullAndIsNotNull() {
+        assertEquals("name = null", FilterExpressionParser.parse("name is null").toString());
+        assertEquals("name != null", FilterExpressionParser.parse("name is not null").toString());
+        assertEquals(FilterApi.eq(FilterApi.binaryColumn("name"), null),
+                FilterExpressionParser.parse("name is null").toPredicate(SCHEMA));
+        assertEquals(FilterApi.notEq(FilterApi.binaryColumn("name"), null),
+                FilterExpressionParser.parse("name is not null").toPredicate(SCHEMA));
+    }
+
+    @Test
+    public void doubledQuotesEscapeAQuote() {
+        assertEquals(FilterApi.eq(FilterApi.binaryColumn("name"), Binary.fromString("O'Brien")),
+                FilterExpressionParser.parse("name = 'O''Brien'").toPredicate(SCHEMA));
+        assertEquals(FilterApi.eq(FilterApi.binaryColumn("name"), Binary.fromString("'")),
+                FilterExpressionParser.parse("name = ''''").toPredicate(SCHEMA));
+        assertEquals(FilterApi.eq(FilterApi.binaryColumn("name"), Binary.fromString("")),
+                FilterExpressionParser.parse("name = ''").toPredicate(SCHEMA));
+    }
+
+    @Test
+    public void quotedKeywordsAreValues() {
+        assertEquals("(name = 'and' or name = 'null')", FilterExpressionParser.parse("name = 'and' or name = 'null'").toString());
+    }
+
+    @Test
+    public void backticksQuoteColumnNames() {
+        assertEquals(columns("order date", "not", "address.city"),
+                collectColumns("`order date` = 1 and `not` = 2 or `address.city` = 'Paris'"));
+        assertEquals(FilterApi.eq(FilterApi.binaryColumn("address.city"), Binary.fromString("Paris")),
+                FilterExpressionParser.parse("`address.city` = 'Paris'").toPredicate(SCHEMA));
+    }
+
+    @Test
+    public void dottedColumnsSelectNestedFields() {
+        assertEquals(columns("address.city"), collectColumns("address.city = 'Paris'"));
+    }
+
+    @Test
+    public void syntaxErrors() {
+        assertError("Invalid filter 'a = ': expected a value at the end", "a = ");
+        assertError("Invalid filter 'a 1': expected a comparison operator but found '1'", "a 1");
+        assertError("Invalid filter 'a = 1 b': unexpected 'b'", "a = 1 b");
+        assertError("Invalid filter 'a not = 1': expected 'in' after 'not'", "a not = 1");
+        assertError("Invalid filter 'a is 1': expected null after 'is'", "a is 1");
+        assertError("Invalid filter '(a = 1': expected ')'", "(a = 1");
+        assertError("Invalid filter 'a in 1': expected '('", "a in 1");
+        assertError("Invalid filter 'a = abc': 'abc' is not a number, quote string values", "a = abc");
+        assertError("Invalid filter 'a = 'x': unterminated string", "a = 'x");
+        assertError("Invalid filter '`a = 1': unterminated column name", "`a = 1");
+        assertError("Invalid filter 'a = 1;': unexpected character ';'", "a = 1;");
+        assertError("Invalid filter '': expected a column name at the end", "");
+        assertError("Invalid filter 'a = `b`': expected a value but found column 'b'", "a = `b`");
+    }
+
+    @Test
+    public void bindsIntColumns() {
+        assertEquals(FilterApi.eq(FilterApi.intColumn("id"), 7), bind("id = 7"));
+        assertEquals(FilterApi.lt(FilterApi.intColumn("id"), -3), bind("id < -3"));
+    }
+
+    @Test
+    public void bindsLongColumns() {
+        assertEquals(FilterApi.gtEq(FilterApi.longColumn("big"), 3000000000L), bind("big >= 3000000000"));
+    }
+
+    @Test
+    public void bindsBinaryColumns() {
+        assertEquals(FilterApi.lt(FilterApi.binaryColumn("name"), Binary.fromString("m")), bind("name < 'm'"));
+        assertEquals(FilterApi.eq(FilterApi.binaryColumn("name"), Binary.fromString("12")), bind("name = 12"));
+    }
+
+    @Test
+    public void bindsDecimalColumnsToTheirUnscaledValue() {
+        assertEquals(FilterApi.gt(FilterApi.intColumn("price"), 1250), bind("price > 12.5"));
+        assertEquals(FilterApi.eq(FilterApi.longColumn("amount"), 1000L), bind("amount = 10"));
+        assertEquals(FilterApi.ltEq(FilterApi.longColumn("amount"), -1L), bind("amount <= '-0.01'"));
+    }
+
+    @Test
+    public void bindsDateColumnsToEpochDays() {
+        assertEquals(FilterApi.eq(FilterApi.intColumn("day"), (int) LocalDate.of(2026, 10, 1).toEpochDay()),
+                bind("day = '2026-10-01'"));
+        assertEquals(FilterApi.gt(FilterApi.intColumn("day"), 20000), bind("day > 20000"));
+    }
+
+    @Test
+    public void bindsTimestampColumnsInTheirUnit() {
+        long millis = Instant.parse("2026-10-01T12:00:00Z").toEpochMilli();
+        assertEquals(FilterApi.lt(FilterApi.longColumn("ts"), millis), bind("ts < '2026-10-01T12:00:00Z'"));
+        assertEquals(FilterApi.lt(FilterApi.longColumn("ts"), millis), bind("ts < '2026-10-01T12:00:00'"));
+    }
+
+    @Test
+    public void bindingErrors() {
+        assertBindError("Filter column 'missing' is not in the file schema", "missing = 1");
+        assertBindError("Filter column 'address' is a group, not a primitive column", "address = 1");
+        assertBindError("Filter column 'id' is numeric but was compared to 'abc'", "id = 'abc'");
+        assertBindError("Filter literal 3000000000 doesn't fit column 'id'", "id = 3000000000");
+        assertBindError("Filter literal 1.234 doesn't fit column 'price'", "price = 1.234");
+        assertBindError("Filter column 'day' is a date but '2026/10/01' is not yyyy-MM-dd", "day = '2026/10/01'");
+        assertBindError("Filter 'total = 1' is not supported, binary decimal columns can't be filtered on", "total = 1");
+        assertBindError("Filter 'id > null' is not supported, only = and != can compare to null", "id > null");
+    }
+
+    private static Object bind(String filter) {
+        return FilterExpressionParser.parse(filter).toPredicate(SCHEMA);
+    }
+
+    private static Set<String> collectColumns(String filter) {
+        Set<String> columns = new LinkedHashSet<>();
+        FilterExpressionParser.parse(filter).collectColumns(columns);
+        return columns;
+    }
+
+    private static Set<String> columns(String... columns) {
+        return new LinkedHashSet<>(Arrays.asList(columns));
+    }
+
+    private static void assertError(String message, String filter) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> FilterExpressionParser.parse(filter));
+        assertEquals(message, e.getMessage());
+    }
+
+    private static void assertBindError(String message, String filter) {
+        FilterExpression expression = FilterExpressionParser.parse(filter);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> expression.toPredicate(SCHEMA));
+        assertEquals(message, e.getMessage());
+    }
+}
@@ -0,0 +1,263 @@
+package org.mule.extension.parquet.internal.json;
+
+import org.apache.avro.Conversion;
+import org.apache.avro.LogicalType;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the writer against the JSON the connector produced before it existed: each record encoded to Avro
+ * binary, decoded with {@code timestamp-millis} converted to {@link Instant#toString()} and rendered with
+ * {@link GenericData#toString(Object)}.
+ */
+public class GenericRecordJsonWriterTest {
+    private static final Schema SCHEMA = new Schema.Parser().parse("{\"type\": \"record\", \"name\": \"event\", \"fields\": ["
+            + "{\"name\": \"id\", \"type\": \"int\"},"
+            + "{\"name\": \"name\", \"type\": \"string\"},"
+            + "{\"name\": \"nick\", \"type\": [\"null\", \"string\"]},"
+            + "{\"name\": \"count\", \"type\": \"long\"},"
+            + "{\"name\": \"score\", \"type\": \"double\"},"
+            + "{\"name\": \"ratio\", \"type\": [\"float\", \"null\"]},"
+            + "{\"name\": \"active\", \"type\": \"boolean\"},"
+            + "{\"name\": \"at\", \"type\": [\"null\", {\"type\": \"long\", \"logicalType\": \"timestamp-millis\"}]},"
+            + "{\"name\": \"raw\", \"type\": [\"null\", \"bytes\"]},"
+            + "{\"name\": \"hash\", \"type\": {\"type\": \"fixed\", \"name\": \"hash\", \"size\": 4}},"
+            + "{\"name\": \"status\", \"type\": {\"type\": \"enum\", \"name\": \"status\", \"symbols\": [\"ON\", \"OFF\"]}},"
+            + "{\"name\": \"value\", \"type\": [\"null\", \"int\", \"string\", \"double\"]},"
+            + "{\"name\": \"tags\", \"type\": {\"type\": \"array\", \"items\": [\"null\", \"string\"]}},"
+            + "{\"name\": \"attributes\", \"type\": {\"type\": \"map\", \"values\": \"long\"}},"
+            + "{\"name\": \"address\", \"type\": [\"null\", {\"type\": \"record\", \"name\": \"address\", \"fields\": ["
+            + "  {\"name\": \"street\", \"type\": \"string\"},"
+            + "  {\"name\": \"zip\", \"type\": [\"null\", \"int\"]},"
+            + "  {\"name\": \"lines\", \"type\": {\"type\": \"array\", \"items\": {\"type\": \"record\", \"name\": \"line\", \"fields\": ["
+            + "    {\"name\": \"text\", \"type\": \"string\"}]}}}"
+            + "]}]}"
+            + "]}");
+
+    @Test
+    public void matchesTheBaselineForEveryType() throws IOException {
+        GenericRecord record = record(1, "Ada");
+        record.put("nick", "ada");
+        record.put("ratio", 0.25f);
+        record.put("at", Instant.parse("2020-01-01T10:15:30.500Z").toEpochMilli());
+        record.put("raw", ByteBuffer.wrap(new byte[]{'a', 0, (byte) 0x85, (byte) 0xE9, '"'}));
+        record.put("value", "text");
+        record.put("tags", Arrays.asList("a", null, "c"));
+        record.put("attributes", Collections.singletonMap("visits", 12L));
+        record.put("address", address("1 Main St", 12345, "first", "second"));
+        assertBaseline(record);
+    }
+
+    @Test
+    public void matchesTheBaselineForNulls() throws IOException {
+        GenericRecord record = record(2, "");
+        record.put("tags", Collections.singletonList(null));
+        assertBaseline(record);
+    }
+
+    @Test
+    public void matchesTheBaselineForEachUnionBranch() throws IOException {
+        GenericRecord record = record(3, "union");
+        record.put("value", 42);
+        assertBaseline(record);
+        record.put("value", 4.5);
+        assertBaseline(record);
+        record.put("value", "forty two");
+        assertBaseline(record);
+        record.put("value", null);
+        assertBaseline(record);
+    }
+
+    @Test
+    public void matchesTheBaselineForEscapedStrings() throws IOException {
+        GenericRecord record = record(4, "quote \" backslash \\ slash / tab \t newline \n nul \u0000 del \u007f");
+        record.put("nick", "dash \u2013 euro \u20ac e acute \u00e9 emoji \ud83d\ude00");
+        assertBaseline(record);
+    }
+
+    @Test
+    public void matchesTheBaselineForSpecialNumbers() throws IOException {
+        GenericRecord record = record(5, "numbers");
+        record.put("count", Long.MIN_VALUE);
+        record.put("score", Double.NaN);
+        record.put("ratio", Float.NEGATIVE_INFINITY);
+        assertBaseline(record);
+        record.put("score", 1e-7);
+        record.put("ratio", 3.4e38f);
+        assertBaseline(record);
+    }
+
+    @Test
+    public void separatesFieldsAndEntriesLikeAvro() {
+        Schema schema = new Schema.Parser().parse("{\"type\": \"record\", \"name\": \"pair\", \"fields\": ["
+                + "{\"name\": \"key\", \"type\": \"string\"},"
+                + "{\"name\": \"values\", \"type\": {\"type\": \"array\", \"items\": \"int\"}},"
+                + "{\"name\": \"counts\", \"type\": {\"type\": \"map\", \"values\": \"int\"}},"
+                + "{\"name\": \"inner\", \"type\": {\"type\": \"record\", \"name\": \"inner\", \"fields\": ["
+                + "  {\"name\": \"a\", \"type\": [\"null\", \"int\"]}, {\"name\": \"b\", \"type\": \"boolean\"}]}}"
+                + "]}");
+        GenericRecord inner = new GenericData.Record(schema.getField("inner").schema());
+        inner.put("a", null);
+        inner.put("b", true);
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("x", 1);
+        counts.put("y", 2);
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("key", "k");
+        record.put("values", Arrays.asList(1, 2, 3));
+        record.put("counts", counts);
+        record.put("inner", inner);
+
+        assertEquals("{\"key\": \"k\", \"values\": [1, 2, 3], \"counts\": {\"x\": 1, \"y\": 2}, \"inner\": {\"a\": null, \"b\": true}}",
+                GenericRecordJsonWriter.forSchema(schema).write(record));
+    }
+
+    @Test
+    public void writesTimestampMillisAsInstants() {
+        GenericRecord record = record(6, "time");
+        record.put("at", Instant.parse("2020-01-01T10:15:30.500Z").toEpochMilli());
+        assertTrue(GenericRecordJsonWriter.forSchema(SCHEMA).write(record).contains("\"at\": \"2020-01-01T10:15:30.500Z\""));
+        record.put("at", Instant.parse("2020-01-01T00:00:00Z").toEpochMilli());
+        assertTrue(GenericRecordJsonWriter.forSchema(SCHEMA).write(record).contains("\"at\": \"2020-01-01T00:00:00Z\""));
+    }
+
+    /**
+     * Decimals are rendered as plain numbers, where the baseline printed the bytes of the unscaled value.
+     */
+    @Test
+    public void writesDecimalsAsPlainNumbers() {
+        Schema schema = new Schema.Parser().parse("{\"type\": \"record\", \"name\": \"amounts\", \"fields\": ["
+                + "{\"name\": \"price\", \"type\": {\"type\": \"bytes\", \"logicalType\": \"decimal\", \"precision\": 9, \"scale\": 2}},"
+                + "{\"name\": \"total\", \"type\": [\"null\", {\"type\": \"fixed\", \"name\": \"total\", \"size\": 8,"
+                + "  \"logicalType\": \"decimal\", \"precision\": 18, \"scale\": 4}]}"
+                + "]}");
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("price", ByteBuffer.wrap(new BigDecimal("12.50").unscaledValue().toByteArray()));
+        byte[] total = new byte[8];
+        byte[] unscaled = new BigDecimal("-0.0005").unscaledValue().toByteArray();
+        Arrays.fill(total, (byte) -1);
+        System.arraycopy(unscaled, 0, total, 8 - unscaled.length, unscaled.length);
+        record.put("total", new GenericData.Fixed(schema.getField("total").schema().getTypes().get(1), total));
+
+        assertEquals("{\"price\": 12.50, \"total\": -0.0005}", GenericRecordJsonWriter.forSchema(schema).write(record));
+    }
+
+    /**
+     * INT96 columns keep the zoned form the baseline's ParquetTimestampUtils pass gave them.
+     */
+    @Test
+    public void writesInt96AsZonedUtcDateTimes() {
+        Schema schema = new Schema.Parser().parse("{\"type\": \"record\", \"name\": \"times\", \"fields\": ["
+                + "{\"name\": \"midnight\", \"type\": {\"type\": \"fixed\", \"name\": \"INT96\", \"size\": 12}},"
+                + "{\"name\": \"morning\", \"type\": [\"null\", \"INT96\"]}"
+                + "]}");
+        Schema int96 = schema.getField("midnight").schema();
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("midnight", new GenericData.Fixed(int96, new byte[]{0, 0, 0, 0, 0, 0, 0, 0, -30, -124, 37, 0}));
+        record.put("morning", new GenericData.Fixed(int96, new byte[]{0, 121, 85, -115, -106, 33, 0, 0, -30, -124, 37, 0}));
+
+        assertEquals("{\"midnight\": \"2020-01-01T00:00:00Z[UTC]\", \"morning\": \"2020-01-01T10:15:30.5Z[UTC]\"}",
+                GenericRecordJsonWriter.forSchema(schema).write(record));
+    }
+
+    @Test
+    public void appendsToTheGivenBuilder() {
+        GenericRecord record = record(7, "append");
+        StringBuilder out = new StringBuilder("[");
+        GenericRecordJsonWriter writer = GenericRecordJsonWriter.forSchema(SCHEMA);
+        writer.write(record, out);
+        assertEquals("[" + writer.write(record), out.toString());
+    }
+
+    private static GenericRecord record(int id, String name) {
+        GenericRecord record = new GenericData.Record(SCHEMA);
+        record.put("id", id);
+        record.put("name", name);
+        record.put("count", 10L * id);
+        record.put("score", id + 0.5);
+        record.put("active", id % 2 == 0);
+        record.put("hash", new GenericData.Fixed(SCHEMA.getField("hash").schema(), new byte[]{1, -2, 3, 127}));
+        record.put("status", new GenericData.EnumSymbol(SCHEMA.getField("status").schema(), "OFF"));
+        record.put("tags", Collections.emptyList());
+        record.put("attributes", Collections.emptyMap());
+        return record;
+    }
+
+    private static GenericRecord address(String street, Integer zip, String... lines) {
+        Schema schema = SCHEMA.getField("address").schema().getTypes().get(1);
+        Schema lineSchema = schema.getField("lines").schema().getElementType();
+        GenericRecord address = new GenericData.Record(schema);
+        address.put("street", street);
+        address.put("zip", zip);
+        GenericData.Array<GenericRecord> records = new GenericData.Array<>(lines.length, schema.getField("lines").schema());
+        for (String text : lines) {
+            GenericRecord line = new GenericData.Record(lineSchema);
+            line.put("text", text);
+            records.add(line);
+        }
+        address.put("lines", records);
+        return address;
+    }
+
+    private static void assertBaseline(GenericRecord record) throws IOException {
+        assertEquals(baseline(record), GenericRecordJsonWriter.forSchema(record.getSchema()).write(record));
+    }
+
+    /**
+     * The JSON of the connector before the writer, see the class doc.
+     */
+    private static String baseline(GenericRecord record) throws IOException {
+        Schema schema = record.getSchema();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(bytes, null);
+        new GenericDatumWriter<GenericRecord>(schema, new GenericData()).write(record, encoder);
+        encoder.flush();
+        GenericData data = new GenericData();
+        data.addLogicalTypeConversion(new TimestampMillisToString());
+        GenericRecord decoded = new GenericDatumReader<GenericRecord>(schema, schema, data)
+                .read(null, DecoderFactory.get().binaryDecoder(bytes.toByteArray(), null));
+        return data.toString(decoded);
+    }
+
+    private static final class TimestampMillisToString extends Conversion<String> {
+        @Override
+        public Class<String> getConvertedType() {
+            return String.class;
+        }
+
+        @Override
+        public String getLogicalTypeName() {
+            return "timestamp-millis";
+        }
+
+        @Override
+        public String fromLong(Long millis, Schema schema, LogicalType type) {
+            return Instant.ofEpochMilli(millis).toString();
+        }
+
+        @Override
+        public Long toLong(String value, Schema schema, LogicalType type) {
+            return Instant.parse(value).toEpochMilli();
+        }
+    }
+}